@@ -43,6 +43,7 @@ import org.graalvm.compiler.lir.Variable;
 import org.graalvm.compiler.lir.aarch64.AArch64AddressValue;
 import org.graalvm.compiler.lir.aarch64.AArch64ArithmeticOp;
 import org.graalvm.compiler.lir.aarch64.AArch64ArrayEqualsOp;
+import org.graalvm.compiler.lir.aarch64.AArch64ArrayFillOp;
 import org.graalvm.compiler.lir.aarch64.AArch64ByteSwapOp;
 import org.graalvm.compiler.lir.aarch64.AArch64Compare;
 import org.graalvm.compiler.lir.aarch64.AArch64ControlFlow;
@@ -429,6 +430,11 @@ public abstract class AArch64LIRGenerator extends LIRGenerator {
         return result;
     }
 
+    @Override
+    public void emitArrayFill(JavaKind kind, Value array, Value fromIndex, Value length, Value value) {
+        append(new AArch64ArrayFillOp(this, kind, asAllocatable(array), asAllocatable(fromIndex), asAllocatable(length), asAllocatable(value)));
+    }
+
     @Override
     protected JavaConstant zapValueForKind(PlatformKind kind) {
         long dead = 0xDEADDEADDEADDEADL;
@@ -58,6 +58,8 @@ import org.graalvm.compiler.lir.Variable;
 import org.graalvm.compiler.lir.amd64.AMD64AddressValue;
 import org.graalvm.compiler.lir.amd64.AMD64ArithmeticLIRGeneratorTool;
 import org.graalvm.compiler.lir.amd64.AMD64ArrayEqualsOp;
+import org.graalvm.compiler.lir.amd64.AMD64ArrayFillOp;
+import org.graalvm.compiler.lir.amd64.AMD64ArrayHashCodeOp;
 import org.graalvm.compiler.lir.amd64.AMD64BinaryConsumer;
 import org.graalvm.compiler.lir.amd64.AMD64ByteSwapOp;
 import org.graalvm.compiler.lir.amd64.AMD64Call;
@@ -447,6 +449,18 @@ public abstract class AMD64LIRGenerator extends LIRGenerator {
         return result;
     }
 
+    @Override
+    public void emitArrayFill(JavaKind kind, Value array, Value fromIndex, Value length, Value value) {
+        append(new AMD64ArrayFillOp(this, kind, asAllocatable(array), asAllocatable(fromIndex), asAllocatable(length), asAllocatable(value)));
+    }
+
+    @Override
+    public Variable emitArrayHashCode(JavaKind kind, Value array, Value length, Value initialValue) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        append(new AMD64ArrayHashCodeOp(this, kind, result, asAllocatable(array), asAllocatable(length), asAllocatable(initialValue)));
+        return result;
+    }
+
     /**
      * Return a conservative estimate of the page size for use by the String.indexOf intrinsic.
      */
@@ -50,6 +50,9 @@ public final class GraalOptions {
     @Option(help = "Minimum probability for methods to be inlined for megamorphic type profiles.", type = OptionType.Expert)
     public static final OptionKey<Double> MegamorphicInliningMinMethodProbability = new OptionKey<>(0.33D);
 
+    @Option(help = "Maximum number of methods inlined for megamorphic type profiles, the most frequent ones are chosen.", type = OptionType.Expert)
+    public static final OptionKey<Integer> MegamorphicInliningMaxMethods = new OptionKey<>(3);
+
     @Option(help = "Maximum level of recursive inlining.", type = OptionType.Expert)
     public static final OptionKey<Integer> MaximumRecursiveInlining = new OptionKey<>(5);
 
@@ -84,15 +87,30 @@ public final class GraalOptions {
     @Option(help = "", type = OptionType.Expert)
     public static final OptionKey<Integer> MaximumEscapeAnalysisArrayLength = new OptionKey<>(32);
 
+    @Option(help = "Maximum length of an array that is virtualized if it is only used by element accesses and length reads.", type = OptionType.Expert)
+    public static final OptionKey<Integer> MaximumEscapeAnalysisLargeArrayLength = new OptionKey<>(64);
+
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> PEAInliningHints = new OptionKey<>(false);
 
+    @Option(help = "Duplicate the code after control flow merges into the predecessors if this enables further canonicalization.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> TailDuplication = new OptionKey<>(false);
+
     @Option(help = "", type = OptionType.Expert)
     public static final OptionKey<Double> TailDuplicationProbability = new OptionKey<>(0.5);
 
     @Option(help = "", type = OptionType.Expert)
     public static final OptionKey<Integer> TailDuplicationTrivialSize = new OptionKey<>(1);
 
+    @Option(help = "Maximum estimated size of the code that is duplicated for a single merge.", type = OptionType.Expert)
+    public static final OptionKey<Integer> TailDuplicationMaxRegionSize = new OptionKey<>(50);
+
+    @Option(help = "Maximum growth of the graph size caused by tail duplication, relative to the size before.", type = OptionType.Expert)
+    public static final OptionKey<Double> TailDuplicationCodeSizeIncrease = new OptionKey<>(0.25);
+
+    @Option(help = "Maximum number of tail duplications that are tried on a copy of the graph per compilation.", type = OptionType.Expert)
+    public static final OptionKey<Integer> TailDuplicationMaxSimulations = new OptionKey<>(8);
+
     @Option(help = "", type = OptionType.Expert)
     public static final OptionKey<Integer> DeoptsToDisableOptimisticOptimization = new OptionKey<>(40);
 
@@ -120,6 +138,27 @@ public final class GraalOptions {
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> UseLoopLimitChecks = new OptionKey<>(true);
 
+    @Option(help = "Replace bounds checks and loop invariant guards in counted loops with a single guard before the loop.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> LoopPredication = new OptionKey<>(true);
+
+    @Option(help = "Split long running counted loops into an inner loop without safepoint polls and an outer loop that polls.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> LoopStripMining = new OptionKey<>(false);
+
+    @Option(help = "Maximum number of iterations of a strip mined inner loop between two safepoint polls.", type = OptionType.Expert)
+    public static final OptionKey<Integer> LoopStripMiningIterations = new OptionKey<>(1000);
+
+    @Option(help = "Merge nested and nearby monitor regions on the same object into a single region.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> LockCoarsening = new OptionKey<>(true);
+
+    @Option(help = "Maximum estimated size of the code outside of any monitor region that may be pulled into a coarsened region.", type = OptionType.Expert)
+    public static final OptionKey<Integer> LockCoarseningMaxRegionSize = new OptionKey<>(40);
+
+    @Option(help = "Emit blocks that are rarely executed in a cold section at the end of the method.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> HotColdSplitting = new OptionKey<>(false);
+
+    @Option(help = "Probability relative to the method entry at or below which a block is emitted in the cold section.", type = OptionType.Expert)
+    public static final OptionKey<Double> ColdBlockProbability = new OptionKey<>(0.01);
+
     // debugging settings
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> ZapStackOnMethodEntry = new OptionKey<>(false);
@@ -226,6 +265,9 @@ public final class GraalOptions {
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Integer> ReadEliminationMaxLoopVisits = new OptionKey<>(5);
 
+    @Option(help = "Replace fixed reads and divisions by equal ones in dominating blocks if no memory location they read is killed in between.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> OptGlobalValueNumbering = new OptionKey<>(true);
+
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> OptDeoptimizationGrouping = new OptionKey<>(true);
 
@@ -268,6 +310,9 @@ public final class GraalOptions {
     @Option(help = "Use a cache for snippet graphs.", type = OptionType.Debug)
     public static final OptionKey<Boolean> UseSnippetGraphCache = new OptionKey<>(true);
 
+    @Option(help = "Encode snippet and method substitution graphs in the background once initialized and decode them on demand instead of parsing.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> EncodeSnippets = new OptionKey<>(false);
+
     @Option(help = "Enable experimental Trace Register Allocation.", type = OptionType.Debug)
     public static final OptionKey<Boolean> TraceRA = new OptionKey<>(false);
 
@@ -45,6 +45,11 @@ import org.graalvm.compiler.core.common.cfg.Loop;
  * backward jumps are always marked as aligned. Aligning the target of conditional jumps does not
  * bring a measurable benefit and is therefore avoided to keep the code size small.
  *
+ * The machine code generation order can additionally be split into a hot and a cold part: all
+ * blocks whose probability is below a threshold (exception paths, deoptimizations, slow paths of
+ * snippets) are moved to the end of the order, keeping their relative order. This keeps the hot
+ * paths of the method, and in particular its hot loops, within as few cache lines as possible.
+ *
  * The linear scan register allocator order has an additional mechanism that prevents merge nodes
  * from being scheduled if there is at least one highly likely predecessor still unscheduled. This
  * increases the probability that the merge node and the corresponding predecessor are more closely
@@ -94,6 +99,41 @@ public final class ComputeBlockOrder {
         return order.toArray(new AbstractBlockBase<?>[0]);
     }
 
+    /**
+     * Computes the block order used for code emission, with all blocks that are
+     * {@linkplain #isColdBlock(AbstractBlockBase, double) cold} moved to the end.
+     *
+     * @param coldProbability the probability at or below which a block is considered cold
+     * @return sorted list of blocks
+     */
+    public static <T extends AbstractBlockBase<T>> AbstractBlockBase<?>[] computeCodeEmittingOrder(int blockCount, T startBlock, double coldProbability) {
+        List<T> order = new ArrayList<>();
+        BitSet visitedBlocks = new BitSet(blockCount);
+        PriorityQueue<T> worklist = initializeWorklist(startBlock, visitedBlocks);
+        computeCodeEmittingOrder(order, worklist, visitedBlocks);
+        assert checkOrder(order, blockCount);
+        List<T> hotAndCold = new ArrayList<>(order.size());
+        List<T> cold = new ArrayList<>();
+        for (T block : order) {
+            if (block != startBlock && isColdBlock(block, coldProbability)) {
+                // cold loops are not worth the padding
+                block.setAlign(false);
+                cold.add(block);
+            } else {
+                hotAndCold.add(block);
+            }
+        }
+        hotAndCold.addAll(cold);
+        return hotAndCold.toArray(new AbstractBlockBase<?>[0]);
+    }
+
+    /**
+     * Determines if a block belongs to the cold part of the code emission order.
+     */
+    public static boolean isColdBlock(AbstractBlockBase<?> block, double coldProbability) {
+        return block.probability() <= coldProbability;
+    }
+
     /**
      * Iteratively adds paths to the code emission block order.
      */
@@ -22,6 +22,10 @@
  */
 package org.graalvm.compiler.core.common.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.graalvm.compiler.options.Option;
 import org.graalvm.compiler.options.OptionKey;
 import org.graalvm.compiler.options.OptionType;
@@ -36,11 +40,17 @@ public final class CompilationAlarm implements AutoCloseable {
         // @formatter:off
         @Option(help = "Time limit in seconds before a compilation expires (0 to disable the limit).", type = OptionType.Debug)
         public static final OptionKey<Integer> CompilationExpirationPeriod = new OptionKey<>(300);
+        @Option(help = "Time budget in milliseconds for a compilation after which optional phases are skipped or cheapened (0 to disable the budget).", type = OptionType.Expert)
+        public static final OptionKey<Integer> CompilationTimeBudget = new OptionKey<>(0);
+        @Option(help = "Graph size budget in nodes for a compilation above which optional phases are skipped or cheapened (0 to disable the budget).", type = OptionType.Expert)
+        public static final OptionKey<Integer> CompilationNodeBudget = new OptionKey<>(0);
         // @formatter:on
     }
 
-    private CompilationAlarm(long expiration) {
+    private CompilationAlarm(long expiration, long budgetExpiration, int nodeBudget) {
         this.expiration = expiration;
+        this.budgetExpiration = budgetExpiration;
+        this.nodeBudget = nodeBudget;
     }
 
     /**
@@ -48,7 +58,7 @@ public final class CompilationAlarm implements AutoCloseable {
      */
     private static final ThreadLocal<CompilationAlarm> currentAlarm = new ThreadLocal<>();
 
-    private static final CompilationAlarm NEVER_EXPIRES = new CompilationAlarm(0);
+    private static final CompilationAlarm NEVER_EXPIRES = new CompilationAlarm(0, Long.MAX_VALUE, 0);
 
     /**
      * Gets the current compilation alarm. If there is no current alarm, a non-null value is
@@ -71,6 +81,41 @@ public final class CompilationAlarm implements AutoCloseable {
         return this != NEVER_EXPIRES && System.currentTimeMillis() > expiration;
     }
 
+    /**
+     * Determines if the compilation budget is under pressure, i.e., if the compilation already
+     * takes longer than {@linkplain CompilationAlarm.Options#CompilationTimeBudget} or if a graph
+     * has more nodes than {@linkplain CompilationAlarm.Options#CompilationNodeBudget}. Optional
+     * work should be skipped or reduced in this case.
+     *
+     * @param nodeCount the number of nodes in the graph being compiled
+     */
+    public boolean isUnderBudgetPressure(int nodeCount) {
+        if (this == NEVER_EXPIRES) {
+            return false;
+        }
+        return (nodeBudget > 0 && nodeCount > nodeBudget) || System.currentTimeMillis() > budgetExpiration;
+    }
+
+    /**
+     * Records that {@code phase} was skipped or cheapened because the compilation budget was under
+     * pressure.
+     */
+    public void recordDegradation(CharSequence phase) {
+        if (this != NEVER_EXPIRES) {
+            if (degradations == null) {
+                degradations = new ArrayList<>();
+            }
+            degradations.add(phase.toString());
+        }
+    }
+
+    /**
+     * Gets the names of the phases that were skipped or cheapened in the current compilation.
+     */
+    public List<String> getDegradations() {
+        return degradations == null ? Collections.emptyList() : Collections.unmodifiableList(degradations);
+    }
+
     @Override
     public void close() {
         if (this != NEVER_EXPIRES) {
@@ -83,9 +128,26 @@ public final class CompilationAlarm implements AutoCloseable {
      */
     private final long expiration;
 
+    /**
+     * The time after which the compilation budget is under pressure.
+     */
+    private final long budgetExpiration;
+
+    /**
+     * The graph size above which the compilation budget is under pressure or 0 if there is no
+     * limit.
+     */
+    private final int nodeBudget;
+
+    /**
+     * The phases degraded due to budget pressure. Only accessed by the compiling thread.
+     */
+    private List<String> degradations;
+
     /**
      * Starts an alarm for setting a time limit on a compilation if there isn't already an active
-     * alarm and {@link CompilationAlarm.Options#CompilationExpirationPeriod}{@code > 0}. The
+     * alarm and {@link CompilationAlarm.Options#CompilationExpirationPeriod}{@code > 0} or a
+     * {@linkplain CompilationAlarm.Options#CompilationTimeBudget compilation budget} is set. The
      * returned value can be used in a try-with-resource statement to disable the alarm once the
      * compilation is finished.
      *
@@ -94,11 +156,15 @@ public final class CompilationAlarm implements AutoCloseable {
      */
     public static CompilationAlarm trackCompilationPeriod(OptionValues options) {
         int period = Options.CompilationExpirationPeriod.getValue(options);
-        if (period > 0) {
+        int timeBudget = Options.CompilationTimeBudget.getValue(options);
+        int nodeBudget = Options.CompilationNodeBudget.getValue(options);
+        if (period > 0 || timeBudget > 0 || nodeBudget > 0) {
             CompilationAlarm current = currentAlarm.get();
             if (current == null) {
-                long expiration = System.currentTimeMillis() + period * 1000;
-                current = new CompilationAlarm(expiration);
+                long now = System.currentTimeMillis();
+                long expiration = period > 0 ? now + period * 1000 : Long.MAX_VALUE;
+                long budgetExpiration = timeBudget > 0 ? now + timeBudget : Long.MAX_VALUE;
+                current = new CompilationAlarm(expiration, budgetExpiration, nodeBudget);
                 currentAlarm.set(current);
                 return current;
             }
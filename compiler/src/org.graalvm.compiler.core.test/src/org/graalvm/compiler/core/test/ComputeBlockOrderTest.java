@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.graalvm.compiler.api.directives.GraalDirectives;
+import org.graalvm.compiler.core.common.alloc.ComputeBlockOrder;
+import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ComputeBlockOrderTest extends GraalCompilerTest {
+
+    private static final double COLD_PROBABILITY = 0.01;
+
+    public static int staticField;
+
+    public static int snippet(int[] a) {
+        int sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (GraalDirectives.injectBranchProbability(0.0001, a[i] < 0)) {
+                sum -= a[i] * 31;
+            } else {
+                sum += a[i];
+            }
+        }
+        if (GraalDirectives.injectBranchProbability(0.001, sum == 42)) {
+            staticField = sum;
+        }
+        return sum;
+    }
+
+    @Test
+    public void testColdBlocksLast() {
+        StructuredGraph graph = parseEager("snippet", AllowAssumptions.YES);
+        new CanonicalizerPhase().apply(graph, new PhaseContext(getProviders()));
+        ControlFlowGraph cfg = ControlFlowGraph.compute(graph, true, true, true, true);
+        Block[] blocks = cfg.getBlocks();
+        Block startBlock = cfg.getStartBlock();
+
+        AbstractBlockBase<?>[] order = ComputeBlockOrder.computeCodeEmittingOrder(blocks.length, startBlock);
+        AbstractBlockBase<?>[] splitOrder = ComputeBlockOrder.computeCodeEmittingOrder(blocks.length, startBlock, COLD_PROBABILITY);
+
+        Assert.assertEquals(order.length, splitOrder.length);
+        Assert.assertSame(startBlock, splitOrder[0]);
+
+        List<AbstractBlockBase<?>> hot = new ArrayList<>();
+        List<AbstractBlockBase<?>> cold = new ArrayList<>();
+        for (AbstractBlockBase<?> block : order) {
+            if (block != startBlock && ComputeBlockOrder.isColdBlock(block, COLD_PROBABILITY)) {
+                cold.add(block);
+            } else {
+                hot.add(block);
+            }
+        }
+        // both rarely taken paths are cold
+        Assert.assertTrue(cold.size() >= 2);
+
+        // the hot and the cold part each keep the order computed without splitting
+        List<AbstractBlockBase<?>> expected = new ArrayList<>(hot);
+        expected.addAll(cold);
+        Assert.assertEquals(expected, Arrays.asList(splitOrder));
+        for (AbstractBlockBase<?> block : cold) {
+            Assert.assertFalse(block.isAligned());
+        }
+    }
+}
@@ -23,6 +23,7 @@
 package org.graalvm.compiler.core.test;
 
 import static org.graalvm.compiler.core.common.util.CompilationAlarm.Options.CompilationExpirationPeriod;
+import static org.graalvm.compiler.core.common.util.CompilationAlarm.Options.CompilationNodeBudget;
 
 import org.graalvm.compiler.core.common.RetryableBailoutException;
 import org.graalvm.compiler.core.common.util.CompilationAlarm;
@@ -31,6 +32,9 @@ import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
 import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.phases.Phase;
+import org.graalvm.compiler.phases.common.ConditionalEliminationPhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class CooperativePhaseTest extends GraalCompilerTest {
@@ -39,6 +43,16 @@ public class CooperativePhaseTest extends GraalCompilerTest {
         // dummy snippet
     }
 
+    public static int budgetSnippet(int[] a, int x) {
+        int sum = 0;
+        for (int i = 0; i < 4; i++) {
+            if (x > 0 && a[i] > x) {
+                sum += a[i];
+            }
+        }
+        return sum;
+    }
+
     private static class CooperativePhase extends Phase {
 
         @Override
@@ -146,4 +160,26 @@ public class CooperativePhaseTest extends GraalCompilerTest {
         StructuredGraph g = parseEager("snippet", AllowAssumptions.NO);
         new CooperativePhaseWithoutAlarm().apply(g);
     }
+
+    @Test
+    @SuppressWarnings("try")
+    public void test05() {
+        OptionValues options = new OptionValues(getInitialOptions(), CompilationNodeBudget, 1);
+        try (CompilationAlarm alarm = CompilationAlarm.trackCompilationPeriod(options)) {
+            StructuredGraph g = parseEager("budgetSnippet", AllowAssumptions.NO, options);
+            int nodeCount = g.getNodeCount();
+            new ConditionalEliminationPhase(false).apply(g, new PhaseContext(getProviders()));
+            Assert.assertEquals(nodeCount, g.getNodeCount());
+            Assert.assertTrue(CompilationAlarm.current().getDegradations().contains(ConditionalEliminationPhase.class.getName()));
+        }
+        Assert.assertTrue(CompilationAlarm.current().getDegradations().isEmpty());
+    }
+
+    @Test
+    public void test06() {
+        // optional phases are skipped but the code must still be correct
+        OptionValues options = new OptionValues(getInitialOptions(), CompilationNodeBudget, 1);
+        test(options, "budgetSnippet", new int[]{1, 5, 10, 20}, 4);
+        test(options, "budgetSnippet", new int[]{1, 5, 10, 20}, -1);
+    }
 }
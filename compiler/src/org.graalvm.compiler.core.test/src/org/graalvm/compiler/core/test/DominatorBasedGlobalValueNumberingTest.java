@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test;
+
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.DominatorBasedGlobalValueNumberingPhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.junit.Test;
+
+public class DominatorBasedGlobalValueNumberingTest extends GraalCompilerTest {
+
+    static class Point {
+        int x;
+        int y;
+    }
+
+    @Test
+    public void testArrayLoad() {
+        test("arrayLoadSnippet", new int[]{1, 2, 3}, 1, true);
+        test("arrayLoadSnippet", new int[]{1, 2, 3}, 2, false);
+        StructuredGraph graph = valueNumber("arrayLoadSnippet");
+        assertDeepEquals(1, graph.getNodes().filter(LoadIndexedNode.class).count());
+        assertDeepEquals(1, graph.getNodes().filter(ArrayLengthNode.class).count());
+    }
+
+    public static int arrayLoadSnippet(int[] a, int i, boolean c) {
+        int result = a[i] + a.length;
+        if (c) {
+            result += a[i];
+        }
+        return result * a[i] + a.length;
+    }
+
+    @Test
+    public void testArrayStoreOnPath() {
+        int[] a = {1, 2, 3};
+        test("arrayStoreOnPathSnippet", a, a, 1, true);
+        test("arrayStoreOnPathSnippet", a, new int[3], 1, true);
+        StructuredGraph graph = valueNumber("arrayStoreOnPathSnippet");
+        assertDeepEquals(2, graph.getNodes().filter(LoadIndexedNode.class).count());
+    }
+
+    public static int arrayStoreOnPathSnippet(int[] a, int[] b, int i, boolean c) {
+        int result = a[i];
+        if (c) {
+            b[i] = 42;
+        }
+        return result + a[i];
+    }
+
+    @Test
+    public void testLoopInvariantLoad() {
+        test("loopInvariantLoadSnippet", new int[]{1, 2, 3}, 1, 10);
+        StructuredGraph graph = valueNumber("loopInvariantLoadSnippet");
+        assertDeepEquals(1, graph.getNodes().filter(LoadIndexedNode.class).count());
+    }
+
+    public static int loopInvariantLoadSnippet(int[] a, int i, int n) {
+        int result = a[i];
+        for (int j = 0; j < n; j++) {
+            result += a[i];
+        }
+        return result;
+    }
+
+    @Test
+    public void testLoopStore() {
+        test("loopStoreSnippet", new int[]{1, 2, 3}, 1, 3);
+        StructuredGraph graph = valueNumber("loopStoreSnippet");
+        assertDeepEquals(2, graph.getNodes().filter(LoadIndexedNode.class).count());
+    }
+
+    public static int loopStoreSnippet(int[] a, int i, int n) {
+        int result = a[i];
+        for (int j = 0; j < n; j++) {
+            result += a[i];
+            a[j] = result;
+        }
+        return result;
+    }
+
+    @Test
+    public void testFieldLoad() {
+        test("fieldLoadSnippet", new Point(), true);
+        StructuredGraph graph = valueNumber("fieldLoadSnippet");
+        // the store to y does not kill x
+        assertDeepEquals(1, graph.getNodes().filter(LoadFieldNode.class).count());
+    }
+
+    public static int fieldLoadSnippet(Point p, boolean c) {
+        int result = p.x;
+        if (c) {
+            p.y = result;
+        }
+        return result + p.x;
+    }
+
+    @Test
+    public void testInvokeKills() {
+        test("invokeKillsSnippet", new Point());
+        StructuredGraph graph = valueNumber("invokeKillsSnippet");
+        assertDeepEquals(2, graph.getNodes().filter(LoadFieldNode.class).count());
+    }
+
+    public static int invokeKillsSnippet(Point p) {
+        int result = p.x;
+        increment(p);
+        return result + p.x;
+    }
+
+    private static void increment(Point p) {
+        p.x++;
+    }
+
+    private StructuredGraph valueNumber(String snippet) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES);
+        PhaseContext context = new PhaseContext(getProviders());
+        CanonicalizerPhase canonicalizer = new CanonicalizerPhase();
+        canonicalizer.apply(graph, context);
+        new DominatorBasedGlobalValueNumberingPhase(canonicalizer).apply(graph, context);
+        graph.getDebug().dump(DebugContext.BASIC_LEVEL, graph, "After global value numbering");
+        return graph;
+    }
+}
@@ -34,6 +34,7 @@ import org.graalvm.compiler.nodes.java.RawMonitorEnterNode;
 import org.graalvm.compiler.nodes.spi.LoweringTool;
 import org.graalvm.compiler.phases.common.CanonicalizerPhase;
 import org.graalvm.compiler.phases.common.DeadCodeEliminationPhase;
+import org.graalvm.compiler.phases.common.LockCoarseningPhase;
 import org.graalvm.compiler.phases.common.LockEliminationPhase;
 import org.graalvm.compiler.phases.common.LoweringPhase;
 import org.graalvm.compiler.phases.common.inlining.InliningPhase;
@@ -112,6 +113,59 @@ public class LockEliminationTest extends GraalCompilerTest {
         assertDeepEquals(1, graph.getNodes().filter(MonitorExitNode.class).count());
     }
 
+    public static void testNestedSynchronizedSnippet(A x) {
+        synchronized (x) {
+            field1 = x.getValue();
+        }
+    }
+
+    @Test
+    public void testNestedSynchronized() {
+        test("testNestedSynchronizedSnippet", new A());
+
+        StructuredGraph graph = getGraph("testNestedSynchronizedSnippet");
+        new LockCoarseningPhase().apply(graph);
+        assertDeepEquals(1, graph.getNodes().filter(RawMonitorEnterNode.class).count());
+        assertDeepEquals(1, graph.getNodes().filter(MonitorExitNode.class).count());
+    }
+
+    public static void testCoarsenAcrossReadSnippet(A x, A y) {
+        int value1 = x.getValue();
+        int value2 = y.value;
+        int value3 = x.getValue();
+        field1 = value1 + value2 + value3;
+    }
+
+    @Test
+    public void testCoarsenAcrossRead() {
+        test("testCoarsenAcrossReadSnippet", new A(), new A());
+
+        StructuredGraph graph = getGraph("testCoarsenAcrossReadSnippet");
+        new LockCoarseningPhase().apply(graph);
+        assertDeepEquals(1, graph.getNodes().filter(RawMonitorEnterNode.class).count());
+        assertDeepEquals(1, graph.getNodes().filter(MonitorExitNode.class).count());
+    }
+
+    public static void testNoCoarseningAcrossWriteSnippet(A x) {
+        synchronized (x) {
+            field1 = x.value;
+        }
+        field2 = 42;
+        synchronized (x) {
+            field1 = x.value;
+        }
+    }
+
+    @Test
+    public void testNoCoarseningAcrossWrite() {
+        test("testNoCoarseningAcrossWriteSnippet", new A());
+
+        StructuredGraph graph = getGraph("testNoCoarseningAcrossWriteSnippet");
+        new LockCoarseningPhase().apply(graph);
+        assertDeepEquals(2, graph.getNodes().filter(RawMonitorEnterNode.class).count());
+        assertDeepEquals(2, graph.getNodes().filter(MonitorExitNode.class).count());
+    }
+
     private StructuredGraph getGraph(String snippet) {
         ResolvedJavaMethod method = getResolvedJavaMethod(snippet);
         StructuredGraph graph = parseEager(method, AllowAssumptions.YES);
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test;
+
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.MergeNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.PathDuplicationPhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.junit.Test;
+
+public class PathDuplicationTest extends GraalCompilerTest {
+
+    public static int staticField;
+    public static int otherField;
+
+    @Test
+    public void testFoldedCondition() {
+        test("foldedConditionSnippet", 5);
+        test("foldedConditionSnippet", -5);
+        StructuredGraph graph = duplicate("foldedConditionSnippet");
+        assertDeepEquals(0, graph.getNodes(MergeNode.TYPE).count());
+        assertDeepEquals(1, graph.getNodes(IfNode.TYPE).count());
+    }
+
+    public static int foldedConditionSnippet(int a) {
+        int kind;
+        if (a > 0) {
+            otherField = 1;
+            kind = 1;
+        } else {
+            otherField = 2;
+            kind = 2;
+        }
+        staticField = a;
+        if (kind == 1) {
+            return a + 3;
+        }
+        return a - 3;
+    }
+
+    @Test
+    public void testNoBenefit() {
+        test("noBenefitSnippet", 5);
+        test("noBenefitSnippet", -5);
+        StructuredGraph graph = duplicate("noBenefitSnippet");
+        assertDeepEquals(1, graph.getNodes(MergeNode.TYPE).count());
+    }
+
+    public static int noBenefitSnippet(int a) {
+        int kind;
+        if (a > 0) {
+            otherField = 1;
+            kind = 1;
+        } else {
+            otherField = 2;
+            kind = 2;
+        }
+        staticField = a;
+        staticField = a * 7;
+        otherField = a * 13;
+        return kind + a;
+    }
+
+    private StructuredGraph duplicate(String snippet) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES);
+        PhaseContext context = new PhaseContext(getProviders());
+        CanonicalizerPhase canonicalizer = new CanonicalizerPhase();
+        canonicalizer.apply(graph, context);
+        new PathDuplicationPhase(canonicalizer).apply(graph, context);
+        graph.getDebug().dump(DebugContext.BASIC_LEVEL, graph, "After path duplication");
+        return graph;
+    }
+}
@@ -22,6 +22,8 @@
  */
 package org.graalvm.compiler.core.test.ea;
 
+import static org.graalvm.compiler.core.common.GraalOptions.MaximumEscapeAnalysisLargeArrayLength;
+
 import java.util.List;
 
 import org.graalvm.compiler.graph.Node;
@@ -33,10 +35,12 @@ import org.graalvm.compiler.nodes.ReturnNode;
 import org.graalvm.compiler.nodes.extended.BoxNode;
 import org.graalvm.compiler.nodes.extended.ValueAnchorNode;
 import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.NewArrayNode;
 import org.graalvm.compiler.nodes.virtual.AllocatedObjectNode;
 import org.graalvm.compiler.nodes.virtual.CommitAllocationNode;
 import org.graalvm.compiler.phases.common.CanonicalizerPhase;
 import org.graalvm.compiler.phases.schedule.SchedulePhase;
+import org.graalvm.compiler.virtual.nodes.VirtualObjectState;
 import org.graalvm.compiler.virtual.phases.ea.PartialEscapePhase;
 import org.junit.Assert;
 import org.junit.Test;
@@ -79,6 +83,53 @@ public class EscapeAnalysisTest extends EATestBase {
         return x[0];
     }
 
+    @Test
+    public void testLargeArray() {
+        testEscapeAnalysis("testLargeArraySnippet", JavaConstant.forInt(12), false);
+    }
+
+    public static int testLargeArraySnippet() {
+        int[] x = new int[60];
+        x[3] = 5;
+        x[59] = 7;
+        return x[3] + x[59] + x[40];
+    }
+
+    @Test
+    public void testLargeArrayStateSize() {
+        prepareGraph("testLargeArrayStateSizeSnippet", false);
+        Assert.assertEquals(0, graph.getNodes().filter(NewArrayNode.class).count() + graph.getNodes().filter(CommitAllocationNode.class).count());
+        // the state of the call describes every element of the virtual array
+        int maxEntries = 0;
+        for (VirtualObjectState state : graph.getNodes().filter(VirtualObjectState.class)) {
+            maxEntries = Math.max(maxEntries, state.values().size());
+        }
+        Assert.assertEquals(60, maxEntries);
+        Assert.assertTrue(maxEntries <= MaximumEscapeAnalysisLargeArrayLength.getValue(graph.getOptions()));
+    }
+
+    public static int testLargeArrayStateSizeSnippet(int a) {
+        int[] x = new int[60];
+        x[3] = a;
+        notInlineable();
+        return x[3];
+    }
+
+    @Test
+    public void testTooLargeArray() {
+        prepareGraph("testTooLargeArraySnippet", false);
+        // an array above the limit is not virtualized, so its size does not add to the states
+        Assert.assertEquals(1, graph.getNodes().filter(NewArrayNode.class).count());
+        Assert.assertEquals(0, graph.getNodes().filter(VirtualObjectState.class).count());
+    }
+
+    public static int testTooLargeArraySnippet(int a) {
+        int[] x = new int[100];
+        x[3] = a;
+        notInlineable();
+        return x[3];
+    }
+
     @Test
     public void testMonitor() {
         testEscapeAnalysis("testMonitorSnippet", JavaConstant.forInt(0), false);
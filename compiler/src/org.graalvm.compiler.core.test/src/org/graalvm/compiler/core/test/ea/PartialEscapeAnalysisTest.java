@@ -129,6 +129,21 @@ public class PartialEscapeAnalysisTest extends EATestBase {
         }
     }
 
+    @Test
+    public void testLargeArray() {
+        testPartialEscapeAnalysis("testLargeArraySnippet", 0.5, 1);
+    }
+
+    public static int testLargeArraySnippet(int a, int index) {
+        int[] tmp = new int[50];
+        tmp[0] = a;
+        tmp[49] = 5;
+        if (a < 0) {
+            return tmp[index];
+        }
+        return tmp[0] + tmp[49];
+    }
+
     @Test
     public void testArrayCopy() {
         testPartialEscapeAnalysis("testArrayCopySnippet", 0, 0);
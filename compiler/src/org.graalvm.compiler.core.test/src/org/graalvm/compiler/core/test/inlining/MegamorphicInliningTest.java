@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test.inlining;
+
+import static org.graalvm.compiler.core.common.GraalOptions.MegamorphicInliningMaxMethods;
+import static org.graalvm.compiler.core.common.GraalOptions.MegamorphicInliningMinMethodProbability;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.extended.LoadMethodNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.MethodCallTargetNode;
+import org.graalvm.compiler.nodes.java.TypeSwitchNode;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.OptimisticOptimizations;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.inlining.InliningPhase;
+import org.graalvm.compiler.phases.tiers.HighTierContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.JavaTypeProfile;
+import jdk.vm.ci.meta.JavaTypeProfile.ProfiledType;
+import jdk.vm.ci.meta.TriState;
+
+/**
+ * Tests the partial inlining of megamorphic call sites with a virtual call for the types that are
+ * not inlined.
+ */
+public class MegamorphicInliningTest extends GraalCompilerTest {
+
+    public abstract static class Shape {
+        public abstract int area();
+    }
+
+    public static class Square extends Shape {
+        int side = 3;
+
+        @Override
+        public int area() {
+            return side * side;
+        }
+    }
+
+    public static class BigSquare extends Square {
+    }
+
+    public static class Rectangle extends Shape {
+        int width = 3;
+        int height = 4;
+
+        @Override
+        public int area() {
+            return width * height;
+        }
+    }
+
+    public static class Triangle extends Shape {
+        int base = 3;
+        int altitude = 4;
+
+        @Override
+        public int area() {
+            return base * altitude / 2;
+        }
+    }
+
+    // makes sure Square has a loaded subtype
+    static final Shape BIG_SQUARE = new BigSquare();
+
+    public static int areaSnippet(Shape shape) {
+        return shape.area();
+    }
+
+    @Test
+    public void testTopMethods() {
+        // only the two most frequent methods are inlined
+        JavaTypeProfile profile = profile(0.1, Square.class, 0.5, Rectangle.class, 0.25, Triangle.class, 0.15);
+        StructuredGraph graph = inline(profile, 2);
+        Assert.assertTrue(loadsField(graph, "side"));
+        Assert.assertTrue(loadsField(graph, "width"));
+        Assert.assertFalse(loadsField(graph, "base"));
+        // Square has a subtype that may share its inlined method
+        Assert.assertEquals(1, graph.getNodes().filter(LoadMethodNode.class).count());
+        Assert.assertEquals(0, graph.getNodes().filter(TypeSwitchNode.class).count());
+        assertFallbackInvoke(graph);
+    }
+
+    @Test
+    public void testTypeDispatchWithoutSubtypes() {
+        // neither Rectangle nor Triangle have subtypes, so a type switch is used
+        JavaTypeProfile profile = profile(0.1, Rectangle.class, 0.5, Triangle.class, 0.4);
+        StructuredGraph graph = inline(profile, 3);
+        Assert.assertTrue(loadsField(graph, "width"));
+        Assert.assertTrue(loadsField(graph, "base"));
+        Assert.assertEquals(0, graph.getNodes().filter(LoadMethodNode.class).count());
+        Assert.assertEquals(1, graph.getNodes().filter(TypeSwitchNode.class).count());
+        assertFallbackInvoke(graph);
+    }
+
+    private JavaTypeProfile profile(double notRecordedProbability, Object... typesAndProbabilities) {
+        ProfiledType[] ptypes = new ProfiledType[typesAndProbabilities.length / 2];
+        for (int i = 0; i < ptypes.length; i++) {
+            Class<?> type = (Class<?>) typesAndProbabilities[2 * i];
+            double probability = (Double) typesAndProbabilities[2 * i + 1];
+            ptypes[i] = new ProfiledType(getMetaAccess().lookupJavaType(type), probability);
+        }
+        return new JavaTypeProfile(TriState.FALSE, notRecordedProbability, ptypes);
+    }
+
+    private StructuredGraph inline(JavaTypeProfile profile, int maxMethods) {
+        OptionValues options = new OptionValues(getInitialOptions(), MegamorphicInliningMinMethodProbability, 0.1D, MegamorphicInliningMaxMethods, maxMethods);
+        StructuredGraph graph = parseEager("areaSnippet", AllowAssumptions.NO, options);
+        MethodCallTargetNode callTarget = graph.getNodes().filter(MethodCallTargetNode.class).first();
+        MethodCallTargetNode profiled = graph.add(new MethodCallTargetNode(callTarget.invokeKind(), callTarget.targetMethod(), callTarget.arguments().toArray(new ValueNode[0]),
+                        callTarget.returnStamp(), profile));
+        callTarget.replaceAndDelete(profiled);
+
+        HighTierContext context = new HighTierContext(getProviders(), getDefaultGraphBuilderSuite(), OptimisticOptimizations.ALL);
+        new InliningPhase(new CanonicalizerPhase()).apply(graph, context);
+        new CanonicalizerPhase().apply(graph, context);
+        return graph;
+    }
+
+    private static boolean loadsField(StructuredGraph graph, String name) {
+        for (LoadFieldNode load : graph.getNodes().filter(LoadFieldNode.class)) {
+            if (load.field().getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertFallbackInvoke(StructuredGraph graph) {
+        int invokes = 0;
+        for (Invoke invoke : graph.getInvokes()) {
+            Assert.assertEquals("area", invoke.callTarget().targetMethod().getName());
+            invokes++;
+        }
+        Assert.assertEquals(1, invokes);
+    }
+}
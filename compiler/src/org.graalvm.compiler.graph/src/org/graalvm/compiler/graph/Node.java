@@ -863,7 +863,7 @@ public abstract class Node implements Cloneable, Formattable, NodeInterface {
      */
     private void copyOrClearEdgesForClone(Node newNode, Edges.Type type, EnumSet<Edges.Type> edgesToCopy) {
         if (edgesToCopy.contains(type)) {
-            getNodeClass().getEdges(type).copy(this, newNode);
+            getNodeClass().copyEdges(this, newNode, type);
         } else {
             // The direct edges are already null
             getNodeClass().getEdges(type).initializeLists(newNode, this);
@@ -164,6 +164,12 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
 
     private final int leafId;
 
+    /**
+     * Generated accessor for the edges of this node class or {@code null} if the generic
+     * iteration over {@link #inputsIteration} and {@link #successorIteration} is used.
+     */
+    private final NodeEdgeAccessor edgeAccessor;
+
     public NodeClass(Class<T> clazz, NodeClass<? super T> superNodeClass) {
         this(clazz, superNodeClass, new FieldsScanner.DefaultCalcOffset(), null, 0);
     }
@@ -193,6 +199,7 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
             successorIteration = computeIterationMask(successors.type(), successors.getDirectCount(), successors.getOffsets());
             inputs = new InputEdges(fs.directInputs, fs.inputs);
             inputsIteration = computeIterationMask(inputs.type(), inputs.getDirectCount(), inputs.getOffsets());
+            edgeAccessor = NodeEdgeAccessor.lookup(clazz, inputs, successors);
         }
         try (DebugCloseable t1 = Init_Data.start(debug)) {
             data = new Fields(fs.data);
@@ -762,11 +769,16 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
     }
 
     void updateInputSuccInPlace(Node node, InplaceUpdateClosure duplicationReplacement) {
+        if (edgeAccessor != null) {
+            edgeAccessor.updateInputsInPlace(node, duplicationReplacement);
+            edgeAccessor.updateSuccessorsInPlace(node, duplicationReplacement);
+            return;
+        }
         updateEdgesInPlace(node, duplicationReplacement, inputs);
         updateEdgesInPlace(node, duplicationReplacement, successors);
     }
 
-    private static NodeList<Node> updateEdgeListCopy(Node node, NodeList<Node> list, InplaceUpdateClosure duplicationReplacement, Edges.Type type) {
+    static NodeList<Node> updateEdgeListCopy(Node node, NodeList<Node> list, InplaceUpdateClosure duplicationReplacement, Edges.Type type) {
         NodeList<Node> result = type == Edges.Type.Inputs ? new NodeInputList<>(node, list.size()) : new NodeSuccessorList<>(node, list.size());
 
         for (int i = 0; i < list.count(); ++i) {
@@ -779,6 +791,34 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
         return result;
     }
 
+    /**
+     * Determines if the edges of this node class are processed by a generated
+     * {@link NodeEdgeAccessor}.
+     */
+    public boolean hasEdgeAccessor() {
+        return edgeAccessor != null;
+    }
+
+    /**
+     * Copies the edges of the given type from {@code fromNode} to {@code toNode}, which must be
+     * instances of this node class.
+     *
+     * @see Edges#copy(Node, Node)
+     */
+    void copyEdges(Node fromNode, Node toNode, Edges.Type type) {
+        if (edgeAccessor != null) {
+            assert fromNode != toNode;
+            assert fromNode.getNodeClass() == this && toNode.getNodeClass() == this;
+            if (type == Edges.Type.Inputs) {
+                edgeAccessor.copyInputs(fromNode, toNode);
+            } else {
+                edgeAccessor.copySuccessors(fromNode, toNode);
+            }
+        } else {
+            getEdges(type).copy(fromNode, toNode);
+        }
+    }
+
     /**
      * Gets the input or successor edges defined by this node class.
      */
@@ -822,7 +862,7 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
         return nameTemplate;
     }
 
-    interface InplaceUpdateClosure {
+    public interface InplaceUpdateClosure {
 
         Node replacement(Node node, Edges.Type type);
     }
@@ -1162,10 +1202,18 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
     }
 
     public boolean equalSuccessors(Node node, Node other) {
+        if (edgeAccessor != null) {
+            assert other.getNodeClass() == this;
+            return edgeAccessor.equalSuccessors(node, other);
+        }
         return equalEdges(node, other, successorIteration);
     }
 
     public boolean equalInputs(Node node, Node other) {
+        if (edgeAccessor != null) {
+            assert other.getNodeClass() == this;
+            return edgeAccessor.equalInputs(node, other);
+        }
         return equalEdges(node, other, inputsIteration);
     }
 
@@ -1193,6 +1241,10 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
     }
 
     public void pushInputs(Node node, NodeStack stack) {
+        if (edgeAccessor != null) {
+            edgeAccessor.pushInputs(node, stack);
+            return;
+        }
         long myMask = this.inputsIteration;
         while (myMask != 0) {
             long offset = (myMask & OFFSET_MASK);
@@ -1208,7 +1260,7 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
         }
     }
 
-    private static void pushAllHelper(NodeStack stack, Node node, long offset) {
+    static void pushAllHelper(NodeStack stack, Node node, long offset) {
         NodeList<Node> list = Edges.getNodeListUnsafe(node, offset);
         if (list != null) {
             for (int i = 0; i < list.size(); ++i) {
@@ -1221,10 +1273,18 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
     }
 
     public void applySuccessors(Node node, EdgeVisitor consumer) {
+        if (edgeAccessor != null) {
+            edgeAccessor.applySuccessors(node, consumer);
+            return;
+        }
         applyEdges(node, consumer, this.successorIteration);
     }
 
     public void applyInputs(Node node, EdgeVisitor consumer) {
+        if (edgeAccessor != null) {
+            edgeAccessor.applyInputs(node, consumer);
+            return;
+        }
         applyEdges(node, consumer, this.inputsIteration);
     }
 
@@ -1247,7 +1307,7 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
         }
     }
 
-    private static void applyHelper(Node node, EdgeVisitor consumer, long offset) {
+    static void applyHelper(Node node, EdgeVisitor consumer, long offset) {
         NodeList<Node> list = Edges.getNodeListUnsafe(node, offset);
         if (list != null) {
             for (int i = 0; i < list.size(); ++i) {
@@ -1263,6 +1323,10 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
     }
 
     public void unregisterAtSuccessorsAsPredecessor(Node node) {
+        if (edgeAccessor != null) {
+            edgeAccessor.unregisterAtSuccessorsAsPredecessor(node);
+            return;
+        }
         long myMask = this.successorIteration;
         while (myMask != 0) {
             long offset = (myMask & OFFSET_MASK);
@@ -1279,7 +1343,7 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
         }
     }
 
-    private static void unregisterAtSuccessorsAsPredecessorHelper(Node node, long offset) {
+    static void unregisterAtSuccessorsAsPredecessorHelper(Node node, long offset) {
         NodeList<Node> list = Edges.getNodeListUnsafe(node, offset);
         if (list != null) {
             for (int i = 0; i < list.size(); ++i) {
@@ -1293,6 +1357,10 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
     }
 
     public void registerAtSuccessorsAsPredecessor(Node node) {
+        if (edgeAccessor != null) {
+            edgeAccessor.registerAtSuccessorsAsPredecessor(node);
+            return;
+        }
         long myMask = this.successorIteration;
         while (myMask != 0) {
             long offset = (myMask & OFFSET_MASK);
@@ -1309,7 +1377,7 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
         }
     }
 
-    private static void registerAtSuccessorsAsPredecessorHelper(Node node, long offset) {
+    static void registerAtSuccessorsAsPredecessorHelper(Node node, long offset) {
         NodeList<Node> list = Edges.getNodeListUnsafe(node, offset);
         if (list != null) {
             for (int i = 0; i < list.size(); ++i) {
@@ -1323,10 +1391,16 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
     }
 
     public boolean replaceFirstInput(Node node, Node key, Node replacement) {
+        if (edgeAccessor != null) {
+            return edgeAccessor.replaceFirstInput(node, key, replacement);
+        }
         return replaceFirstEdge(node, key, replacement, this.inputsIteration);
     }
 
     public boolean replaceFirstSuccessor(Node node, Node key, Node replacement) {
+        if (edgeAccessor != null) {
+            return edgeAccessor.replaceFirstSuccessor(node, key, replacement);
+        }
         return replaceFirstEdge(node, key, replacement, this.successorIteration);
     }
 
@@ -1352,6 +1426,10 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
     }
 
     public void registerAtInputsAsUsage(Node node) {
+        if (edgeAccessor != null) {
+            edgeAccessor.registerAtInputsAsUsage(node);
+            return;
+        }
         long myMask = this.inputsIteration;
         while (myMask != 0) {
             long offset = (myMask & OFFSET_MASK);
@@ -1368,7 +1446,7 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
         }
     }
 
-    private static void registerAtInputsAsUsageHelper(Node node, long offset) {
+    static void registerAtInputsAsUsageHelper(Node node, long offset) {
         NodeList<Node> list = Edges.getNodeListUnsafe(node, offset);
         if (list != null) {
             for (int i = 0; i < list.size(); ++i) {
@@ -1382,6 +1460,10 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
     }
 
     public void unregisterAtInputsAsUsage(Node node) {
+        if (edgeAccessor != null) {
+            edgeAccessor.unregisterAtInputsAsUsage(node);
+            return;
+        }
         long myMask = this.inputsIteration;
         while (myMask != 0) {
             long offset = (myMask & OFFSET_MASK);
@@ -1401,7 +1483,7 @@ public final class NodeClass<T> extends FieldIntrospection<T> {
         }
     }
 
-    private static void unregisterAtInputsAsUsageHelper(Node node, long offset) {
+    static void unregisterAtInputsAsUsageHelper(Node node, long offset) {
         NodeList<Node> list = Edges.getNodeListUnsafe(node, offset);
         if (list != null) {
             for (int i = 0; i < list.size(); ++i) {
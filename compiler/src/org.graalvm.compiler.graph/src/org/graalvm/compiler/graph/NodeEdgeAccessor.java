@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.graph;
+
+import static org.graalvm.compiler.graph.UnsafeAccess.UNSAFE;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.graalvm.compiler.debug.GraalError;
+import org.graalvm.compiler.graph.Node.EdgeVisitor;
+import org.graalvm.compiler.graph.NodeClass.InplaceUpdateClosure;
+
+/**
+ * Accessors for the input and successor edges of a single concrete {@link Node} class. The
+ * {@code org.graalvm.compiler.nodeinfo.processor} generates a subclass for each concrete node
+ * class that implements the bulk edge operations of {@link NodeClass} as straight-line code over
+ * constant field offsets instead of a loop decoding the iteration mask. {@link NodeClass} uses the
+ * generated accessor if it exists and its edges match the computed {@link Edges}.
+ */
+public abstract class NodeEdgeAccessor {
+
+    /**
+     * Suffix appended to the name of the node class (with nested class separators replaced by
+     * {@code '_'}) to form the name of the generated accessor class.
+     */
+    public static final String ACCESSOR_CLASS_SUFFIX = "_EdgeAccessor";
+
+    /**
+     * Loads the generated accessor for {@code clazz}.
+     *
+     * @return {@code null} if there is no generated accessor or if its edges do not match the
+     *         given edges. The latter is an assertion error.
+     */
+    static NodeEdgeAccessor lookup(Class<?> clazz, Edges inputs, Edges successors) {
+        if (Modifier.isAbstract(clazz.getModifiers())) {
+            return null;
+        }
+        String name = clazz.getName();
+        int packageEnd = name.lastIndexOf('.');
+        String accessorName = name.substring(0, packageEnd + 1) + name.substring(packageEnd + 1).replace('$', '_') + ACCESSOR_CLASS_SUFFIX;
+        Class<?> accessorClass;
+        try {
+            accessorClass = Class.forName(accessorName, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        NodeEdgeAccessor accessor;
+        try {
+            accessor = (NodeEdgeAccessor) accessorClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new GraalError(e);
+        }
+        if (!Arrays.equals(accessor.inputOffsets(), inputs.getOffsets()) || !Arrays.equals(accessor.successorOffsets(), successors.getOffsets())) {
+            /*
+             * The generator is broken or the field layout differs from the declaration order it
+             * assumes. Both silently lose the specialized code, so fail when assertions are enabled.
+             */
+            assert false : String.format("edges of %s do not match the offsets of %s: inputs %s, successors %s", accessorName, clazz.getName(), Arrays.toString(accessor.inputOffsets()),
+                            Arrays.toString(accessor.successorOffsets()));
+            return null;
+        }
+        return accessor;
+    }
+
+    protected static long fieldOffset(Class<?> nodeClass, String name) {
+        return UNSAFE.objectFieldOffset(findField(nodeClass, name));
+    }
+
+    protected static Class<?> fieldType(Class<?> nodeClass, String name) {
+        return findField(nodeClass, name).getType();
+    }
+
+    private static Field findField(Class<?> nodeClass, String name) {
+        for (Class<?> c = nodeClass; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // continue with the superclass
+            }
+        }
+        throw new GraalError("Edge field %s not found in %s", name, nodeClass);
+    }
+
+    /**
+     * Gets the offsets of the input edges in the order they are processed by this accessor.
+     */
+    protected abstract long[] inputOffsets();
+
+    /**
+     * Gets the offsets of the successor edges in the order they are processed by this accessor.
+     */
+    protected abstract long[] successorOffsets();
+
+    protected abstract void applyInputs(Node node, EdgeVisitor consumer);
+
+    protected abstract void applySuccessors(Node node, EdgeVisitor consumer);
+
+    protected abstract void pushInputs(Node node, NodeStack stack);
+
+    protected abstract boolean replaceFirstInput(Node node, Node key, Node replacement);
+
+    protected abstract boolean replaceFirstSuccessor(Node node, Node key, Node replacement);
+
+    protected abstract void registerAtInputsAsUsage(Node node);
+
+    protected abstract void unregisterAtInputsAsUsage(Node node);
+
+    protected abstract void registerAtSuccessorsAsPredecessor(Node node);
+
+    protected abstract void unregisterAtSuccessorsAsPredecessor(Node node);
+
+    protected abstract boolean equalInputs(Node node, Node other);
+
+    protected abstract boolean equalSuccessors(Node node, Node other);
+
+    protected abstract void copyInputs(Node fromNode, Node toNode);
+
+    protected abstract void copySuccessors(Node fromNode, Node toNode);
+
+    protected abstract void updateInputsInPlace(Node node, InplaceUpdateClosure duplicationReplacement);
+
+    protected abstract void updateSuccessorsInPlace(Node node, InplaceUpdateClosure duplicationReplacement);
+
+    /*
+     * Helpers used by the generated code. Each processes the edge stored at a constant offset.
+     */
+
+    protected static void apply(Node node, long offset, EdgeVisitor consumer) {
+        Node curNode = Edges.getNodeUnsafe(node, offset);
+        if (curNode != null) {
+            Node newNode = consumer.apply(node, curNode);
+            if (newNode != curNode) {
+                Edges.putNodeUnsafe(node, offset, newNode);
+            }
+        }
+    }
+
+    protected static void applyList(Node node, long offset, EdgeVisitor consumer) {
+        NodeClass.applyHelper(node, consumer, offset);
+    }
+
+    protected static void push(Node node, long offset, NodeStack stack) {
+        Node curNode = Edges.getNodeUnsafe(node, offset);
+        if (curNode != null) {
+            stack.push(curNode);
+        }
+    }
+
+    protected static void pushList(Node node, long offset, NodeStack stack) {
+        NodeClass.pushAllHelper(stack, node, offset);
+    }
+
+    protected static boolean replaceFirst(Node node, long offset, Node key, Node replacement) {
+        if (Edges.getNodeUnsafe(node, offset) == key) {
+            Edges.putNodeUnsafe(node, offset, replacement);
+            return true;
+        }
+        return false;
+    }
+
+    protected static boolean replaceFirstInList(Node node, long offset, Node key, Node replacement) {
+        NodeList<Node> list = Edges.getNodeListUnsafe(node, offset);
+        return list != null && list.replaceFirst(key, replacement);
+    }
+
+    protected static void registerUsage(Node node, long offset) {
+        Node curNode = Edges.getNodeUnsafe(node, offset);
+        if (curNode != null) {
+            assert curNode.isAlive() : "Input not alive " + curNode;
+            curNode.addUsage(node);
+        }
+    }
+
+    protected static void registerUsages(Node node, long offset) {
+        NodeClass.registerAtInputsAsUsageHelper(node, offset);
+    }
+
+    protected static void unregisterUsage(Node node, long offset) {
+        Node curNode = Edges.getNodeUnsafe(node, offset);
+        if (curNode != null) {
+            node.removeThisFromUsages(curNode);
+            if (curNode.hasNoUsages()) {
+                node.maybeNotifyZeroUsages(curNode);
+            }
+            Edges.putNodeUnsafe(node, offset, null);
+        }
+    }
+
+    protected static void unregisterUsages(Node node, long offset) {
+        NodeClass.unregisterAtInputsAsUsageHelper(node, offset);
+    }
+
+    protected static void registerPredecessor(Node node, long offset) {
+        Node curNode = Edges.getNodeUnsafe(node, offset);
+        if (curNode != null) {
+            assert curNode.isAlive() : "Successor not alive";
+            node.updatePredecessor(null, curNode);
+        }
+    }
+
+    protected static void registerPredecessors(Node node, long offset) {
+        NodeClass.registerAtSuccessorsAsPredecessorHelper(node, offset);
+    }
+
+    protected static void unregisterPredecessor(Node node, long offset) {
+        Node curNode = Edges.getNodeUnsafe(node, offset);
+        if (curNode != null) {
+            node.updatePredecessor(curNode, null);
+            Edges.putNodeUnsafe(node, offset, null);
+        }
+    }
+
+    protected static void unregisterPredecessors(Node node, long offset) {
+        NodeClass.unregisterAtSuccessorsAsPredecessorHelper(node, offset);
+    }
+
+    protected static boolean equal(Node node, Node other, long offset) {
+        return Edges.getNodeUnsafe(node, offset) == Edges.getNodeUnsafe(other, offset);
+    }
+
+    protected static boolean equalList(Node node, Node other, long offset) {
+        return Objects.equals(Edges.getNodeListUnsafe(node, offset), Edges.getNodeListUnsafe(other, offset));
+    }
+
+    protected static void copy(Node fromNode, Node toNode, long offset) {
+        Edges.putNodeUnsafe(toNode, offset, Edges.getNodeUnsafe(fromNode, offset));
+    }
+
+    protected static void copyList(Node fromNode, Node toNode, long offset, Edges.Type type) {
+        NodeList<Node> list = Edges.getNodeListUnsafe(toNode, offset);
+        NodeList<Node> fromList = Edges.getNodeListUnsafe(fromNode, offset);
+        if (list == null || list == fromList) {
+            list = type == Edges.Type.Inputs ? new NodeInputList<>(toNode, fromList) : new NodeSuccessorList<>(toNode, fromList);
+            Edges.putNodeListUnsafe(toNode, offset, list);
+        } else {
+            list.copy(fromList);
+        }
+    }
+
+    protected static void update(Node node, long offset, Class<?> fieldType, InplaceUpdateClosure duplicationReplacement, Edges.Type type) {
+        Node edge = Edges.getNodeUnsafe(node, offset);
+        if (edge != null) {
+            Node newEdge = duplicationReplacement.replacement(edge, type);
+            if (type == Edges.Type.Inputs) {
+                node.updateUsages(null, newEdge);
+            } else {
+                node.updatePredecessor(null, newEdge);
+            }
+            if (newEdge != null && !fieldType.isInstance(newEdge)) {
+                throw new IllegalArgumentException("Can not assign " + newEdge.getClass() + " to " + fieldType + " in " + node);
+            }
+            Edges.putNodeUnsafe(node, offset, newEdge);
+        }
+    }
+
+    protected static void updateList(Node node, long offset, InplaceUpdateClosure duplicationReplacement, Edges.Type type) {
+        NodeList<Node> list = Edges.getNodeListUnsafe(node, offset);
+        if (list != null) {
+            Edges.putNodeListUnsafe(node, offset, NodeClass.updateEdgeListCopy(node, list, duplicationReplacement, type));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.hotspot.test;
+
+import static org.graalvm.compiler.hotspot.debug.AllocationSiteProfiler.Options.AllocationSiteSamplingLog;
+import static org.graalvm.compiler.hotspot.debug.AllocationSiteProfiler.Options.ProfileAllocationSites;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.hotspot.debug.AllocationSiteProfiler;
+import org.graalvm.compiler.hotspot.debug.AllocationSiteProfiler.AllocationSite;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that compiled allocations are attributed to their allocation sites by the
+ * {@link AllocationSiteProfiler}.
+ */
+public class AllocationSiteProfilerTest extends GraalCompilerTest {
+
+    static Object sink;
+
+    public static int allocateIntArrays(int n) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            int[] array = new int[8];
+            array[i & 7] = i;
+            sink = array;
+            sum += array.length;
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSampleEveryAllocation() {
+        // a sampling interval of one byte samples every TLAB allocation
+        OptionValues options = new OptionValues(getInitialOptions(), ProfileAllocationSites, true, AllocationSiteSamplingLog, 0);
+        test(options, "allocateIntArrays", 1000);
+
+        AllocationSite site = null;
+        for (AllocationSite s : AllocationSiteProfiler.getSites()) {
+            if (s.getMethod().contains("allocateIntArrays") && s.getType().equals("int[]")) {
+                site = s;
+            }
+        }
+        Assert.assertNotNull("allocation site not found", site);
+        Assert.assertTrue("allocation site not sampled", site.getSamples() > 0);
+        Assert.assertEquals(site.getSampledBytes(), site.getEstimatedBytes());
+        Assert.assertTrue(AllocationSiteProfiler.toCSV().contains("allocateIntArrays"));
+    }
+}
@@ -201,15 +201,22 @@ public class HotSpotGraalMBeanTest {
         assertNotNull("Info is found", info);
 
         final MBeanOperationInfo[] arr = info.getOperations();
-        assertEquals("Currently three overloads", 3, arr.length);
+        assertEquals("Currently three overloads and the allocation sites", 4, arr.length);
         MBeanOperationInfo dumpOp = null;
+        MBeanOperationInfo allocationSitesOp = null;
         for (int i = 0; i < arr.length; i++) {
+            if (arr[i].getName().equals("allocationSites")) {
+                allocationSitesOp = arr[i];
+                continue;
+            }
             assertEquals("dumpMethod", arr[i].getName());
             if (arr[i].getSignature().length == 3) {
                 dumpOp = arr[i];
             }
         }
         assertNotNull("three args variant found", dumpOp);
+        assertNotNull("allocation sites found", allocationSitesOp);
+        assertTrue("allocation sites are a string", server.invoke(name, "allocationSites", new Object[0], null) instanceof String);
 
         server.invoke(name, "dumpMethod", new Object[]{
                         "java.util.Arrays", "asList", ":3"
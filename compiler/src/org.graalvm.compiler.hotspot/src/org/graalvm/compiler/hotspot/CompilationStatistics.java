@@ -38,9 +38,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Deque;
+import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ConcurrentLinkedDeque;
 
+import org.graalvm.compiler.core.common.util.CompilationAlarm;
 import org.graalvm.compiler.debug.CSVUtil;
 import org.graalvm.compiler.debug.Management;
 import org.graalvm.compiler.options.Option;
@@ -102,6 +104,7 @@ public final class CompilationStatistics {
     private final String holder;
     private final String name;
     private final String signature;
+    private String degradedPhases = "";
 
     private CompilationStatistics(HotSpotResolvedJavaMethod method, boolean osr) {
         this.osr = osr;
@@ -126,6 +129,10 @@ public final class CompilationStatistics {
             duration = System.nanoTime() - startTime;
             codeSize = (int) code.getCodeSize();
             memoryUsed = getThreadAllocatedBytes() - threadAllocatedBytesStart;
+            List<String> degradations = CompilationAlarm.current().getDegradations();
+            if (!degradations.isEmpty()) {
+                degradedPhases = String.join(" ", degradations);
+            }
             if (current.get().getLast() != this) {
                 throw new RuntimeException("mismatch in finish()");
             }
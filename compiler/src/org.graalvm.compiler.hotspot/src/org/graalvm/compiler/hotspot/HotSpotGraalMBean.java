@@ -39,6 +39,7 @@ import jdk.vm.ci.meta.ResolvedJavaType;
 import jdk.vm.ci.runtime.JVMCI;
 
 import org.graalvm.compiler.debug.DebugOptions;
+import org.graalvm.compiler.hotspot.debug.AllocationSiteProfiler;
 import org.graalvm.compiler.options.OptionDescriptor;
 import org.graalvm.compiler.options.OptionDescriptors;
 import org.graalvm.compiler.options.OptionKey;
@@ -215,6 +216,9 @@ public final class HotSpotGraalMBean implements javax.management.DynamicMBean {
 
     @Override
     public Object invoke(String actionName, Object[] params, String[] signature) throws javax.management.MBeanException, javax.management.ReflectionException {
+        if ("allocationSites".equals(actionName)) {
+            return AllocationSiteProfiler.toCSV();
+        }
         if ("dumpMethod".equals(actionName)) {
             try {
                 String className = param(params, 0, "className", String.class, null);
@@ -289,6 +293,8 @@ public final class HotSpotGraalMBean implements javax.management.DynamicMBean {
             }
         }
         javax.management.MBeanOperationInfo[] ops = {
+                        new javax.management.MBeanOperationInfo("allocationSites", "Allocation site profile in CSV format (method, bci, type, samples, sampled bytes, estimated bytes)",
+                                        new javax.management.MBeanParameterInfo[0], "java.lang.String", javax.management.MBeanOperationInfo.INFO),
                         new javax.management.MBeanOperationInfo("dumpMethod", "Enable IGV dumps for provided method", new javax.management.MBeanParameterInfo[]{
                                         new javax.management.MBeanParameterInfo("className", "java.lang.String", "Class to observe"),
                                         new javax.management.MBeanParameterInfo("methodName", "java.lang.String", "Method to observe"),
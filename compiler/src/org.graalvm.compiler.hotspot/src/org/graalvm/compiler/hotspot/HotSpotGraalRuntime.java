@@ -49,6 +49,7 @@ import org.graalvm.compiler.debug.GraalError;
 import org.graalvm.compiler.debug.TTY;
 import org.graalvm.compiler.hotspot.CompilationStatistics.Options;
 import org.graalvm.compiler.hotspot.CompilerConfigurationFactory.BackendMap;
+import org.graalvm.compiler.hotspot.debug.AllocationSiteProfiler;
 import org.graalvm.compiler.hotspot.debug.BenchmarkCounters;
 import org.graalvm.compiler.hotspot.meta.HotSpotProviders;
 import org.graalvm.compiler.nodes.spi.StampProvider;
@@ -282,6 +283,7 @@ public final class HotSpotGraalRuntime implements HotSpotGraalRuntimeProvider {
             }
         }
         BenchmarkCounters.shutdown(runtime(), options, runtimeStartTime);
+        AllocationSiteProfiler.shutdown(options);
 
         outputDirectory.close();
     }
@@ -28,6 +28,7 @@ import static jdk.vm.ci.common.InitTimer.timer;
 
 import java.util.Collections;
 
+import org.graalvm.compiler.core.common.GraalOptions;
 import org.graalvm.compiler.core.common.NumUtil;
 import org.graalvm.compiler.core.common.spi.ForeignCallDescriptor;
 import org.graalvm.compiler.debug.DebugHandlersFactory;
@@ -40,6 +41,7 @@ import org.graalvm.compiler.lir.framemap.ReferenceMapBuilder;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.printer.GraalDebugHandlersFactory;
+import org.graalvm.compiler.replacements.ReplacementsImpl;
 
 import jdk.vm.ci.code.CallingConvention;
 import jdk.vm.ci.common.InitTimer;
@@ -84,6 +86,13 @@ public abstract class HotSpotHostBackend extends HotSpotBackend {
             Iterable<DebugHandlersFactory> factories = Collections.singletonList(new GraalDebugHandlersFactory(providers.getSnippetReflection()));
             lowerer.initialize(options, factories, providers, config);
         }
+        if (GraalOptions.EncodeSnippets.getValue(options) && providers.getReplacements() instanceof ReplacementsImpl) {
+            // All snippets are registered by now
+            ReplacementsImpl replacements = (ReplacementsImpl) providers.getReplacements();
+            Thread encoder = new Thread(replacements::encodeSnippets, "SnippetEncoder");
+            encoder.setDaemon(true);
+            encoder.start();
+        }
     }
 
     protected CallingConvention makeCallingConvention(StructuredGraph graph, Stub stub) {
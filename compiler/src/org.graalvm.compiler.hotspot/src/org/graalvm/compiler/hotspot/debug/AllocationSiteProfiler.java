@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.hotspot.debug;
+
+import static org.graalvm.compiler.core.common.GraalOptions.GeneratePIC;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.graalvm.compiler.debug.CSVUtil;
+import org.graalvm.compiler.debug.TTY;
+import org.graalvm.compiler.graph.NodeSourcePosition;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.options.OptionKey;
+import org.graalvm.compiler.options.OptionType;
+import org.graalvm.compiler.options.OptionValues;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+//JaCoCo Exclude
+
+/**
+ * A sampling profiler that attributes TLAB allocations to the compiled allocation sites performing
+ * them. The infrastructure is enabled with the {@code ProfileAllocationSites} option.
+ * <p>
+ *
+ * The allocation snippets record a sample whenever the TLAB top pointer of the allocating thread
+ * crosses a {@code 1 << AllocationSiteSamplingLog} byte boundary. The TLAB top thus serves as a
+ * per-thread countdown that is already loaded and updated on the allocation fast path, and sites
+ * are sampled in proportion to the number of bytes they allocate. Each sample adds the number of
+ * crossed boundaries times the interval to {@link AllocationSite#getEstimatedBytes()}, which makes
+ * the estimate unbiased in the long run.
+ * <p>
+ *
+ * The counters of an {@link AllocationSite} are updated by compiled code with plain, unsynchronized
+ * reads and writes. Concurrent samples of the same site may therefore occasionally be lost, which
+ * is acceptable for a statistical profile. Allocations taking the slow path through the runtime
+ * are not sampled.
+ */
+public class AllocationSiteProfiler {
+
+    public static class Options {
+
+        //@formatter:off
+        @Option(help = "Sample allocations performed by compiled code and attribute them to their allocation sites. " +
+                       "The results are available through the Graal MBean and are dumped on VM shutdown.", type = OptionType.Expert)
+        public static final OptionKey<Boolean> ProfileAllocationSites = new OptionKey<>(false);
+        @Option(help = "Log2 of the number of bytes a thread allocates between two allocation site samples.", type = OptionType.Expert)
+        public static final OptionKey<Integer> AllocationSiteSamplingLog = new OptionKey<>(16);
+        @Option(help = "File to which the allocation site profile is dumped in CSV format. The fields are: " +
+                       "method, bci, type, samples, sampled bytes, estimated bytes", type = OptionType.Expert)
+        public static final OptionKey<String> AllocationSitesFile = new OptionKey<>(null);
+        //@formatter:on
+    }
+
+    /**
+     * The profiling data of a single allocation site. The fields are written directly by compiled
+     * code.
+     */
+    public static final class AllocationSite {
+        private final String method;
+        private final int bci;
+        private final String type;
+
+        private long samples;
+        private long sampledBytes;
+        private long estimatedBytes;
+
+        AllocationSite(String method, int bci, String type) {
+            this.method = method;
+            this.bci = bci;
+            this.type = type;
+        }
+
+        /**
+         * Creates a copy of the current counters of {@code site}. The copy is not known to compiled
+         * code and therefore never changes.
+         */
+        private AllocationSite(AllocationSite site) {
+            this(site.method, site.bci, site.type);
+            this.samples = site.samples;
+            this.sampledBytes = site.sampledBytes;
+            this.estimatedBytes = site.estimatedBytes;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public int getBci() {
+            return bci;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Gets the number of times this site was sampled.
+         */
+        public long getSamples() {
+            return samples;
+        }
+
+        /**
+         * Gets the total size of the allocations that were sampled.
+         */
+        public long getSampledBytes() {
+            return sampledBytes;
+        }
+
+        /**
+         * Gets the estimated number of bytes allocated by this site.
+         */
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return method + "@" + bci + ": " + type;
+        }
+    }
+
+    private static final ConcurrentHashMap<String, AllocationSite> sites = new ConcurrentHashMap<>();
+
+    /**
+     * Determines if allocation site profiling code should be emitted for a compilation with the
+     * given options. Profiling is not supported for AOT compiled code since the
+     * {@link AllocationSite} objects are embedded into the code.
+     */
+    public static boolean isEnabled(OptionValues options) {
+        return Options.ProfileAllocationSites.getValue(options) && !GeneratePIC.getValue(options);
+    }
+
+    /**
+     * Gets the {@link AllocationSite} for an allocation node. The site is identified by the
+     * innermost {@link NodeSourcePosition} of the node if available and by the root method of the
+     * graph otherwise.
+     */
+    public static AllocationSite getSite(FixedNode allocation, String type) {
+        NodeSourcePosition position = allocation.getNodeSourcePosition();
+        if (position != null) {
+            return getSite(position.getMethod(), position.getBCI(), type);
+        }
+        return getSite(allocation.graph().method(), -1, type);
+    }
+
+    public static AllocationSite getSite(ResolvedJavaMethod method, int bci, String type) {
+        String methodName = method == null ? "<unknown>" : method.format("%H.%n(%p)");
+        String key = methodName + "@" + bci + ":" + type;
+        return sites.computeIfAbsent(key, k -> new AllocationSite(methodName, bci, type));
+    }
+
+    /**
+     * Gets a snapshot of all allocation sites, ordered by decreasing number of estimated bytes. The
+     * returned objects are copies whose counters do not change while compiled code keeps sampling.
+     */
+    public static List<AllocationSite> getSites() {
+        List<AllocationSite> result = new ArrayList<>(sites.size());
+        for (AllocationSite site : sites.values()) {
+            result.add(new AllocationSite(site));
+        }
+        result.sort((a, b) -> Long.compare(b.estimatedBytes, a.estimatedBytes));
+        return result;
+    }
+
+    private static final String CSV_FMT = CSVUtil.buildFormatString("%s", "%d", "%s", "%d", "%d", "%d");
+
+    public static void dump(PrintStream out) {
+        for (AllocationSite site : getSites()) {
+            if (site.samples != 0) {
+                CSVUtil.Escape.println(out, CSV_FMT, site.method, site.bci, site.type, site.samples, site.sampledBytes, site.estimatedBytes);
+            }
+        }
+    }
+
+    /**
+     * Gets the current profile in the CSV format used by {@link #dump(PrintStream)}.
+     */
+    public static String toCSV() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(baos);
+        dump(out);
+        out.flush();
+        return baos.toString();
+    }
+
+    public static void shutdown(OptionValues options) {
+        if (!Options.ProfileAllocationSites.getValue(options) || sites.isEmpty()) {
+            return;
+        }
+        String fileName = Options.AllocationSitesFile.getValue(options);
+        if (fileName != null) {
+            File file = new File(fileName);
+            try (PrintStream out = new PrintStream(file)) {
+                TTY.println("Writing allocation site profile to '%s'", file.getAbsolutePath());
+                dump(out);
+                return;
+            } catch (IOException e) {
+                TTY.out().println(e.getMessage());
+                TTY.out().println("Fallback to default");
+            }
+        }
+        dump(TTY.out);
+    }
+}
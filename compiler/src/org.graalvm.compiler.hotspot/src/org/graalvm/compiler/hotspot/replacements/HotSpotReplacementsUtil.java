@@ -39,6 +39,7 @@ import org.graalvm.compiler.graph.Node.ConstantNodeParameter;
 import org.graalvm.compiler.graph.Node.NodeIntrinsic;
 import org.graalvm.compiler.graph.spi.CanonicalizerTool;
 import org.graalvm.compiler.hotspot.GraalHotSpotVMConfig;
+import org.graalvm.compiler.hotspot.debug.AllocationSiteProfiler;
 import org.graalvm.compiler.hotspot.nodes.ComputeObjectAddressNode;
 import org.graalvm.compiler.hotspot.word.KlassPointer;
 import org.graalvm.compiler.nodes.CanonicalizableLocation;
@@ -944,6 +945,15 @@ public class HotSpotReplacementsUtil {
         }
     }
 
+    @Fold
+    public static int allocationSiteFieldOffset(String name) {
+        try {
+            return (int) UNSAFE.objectFieldOffset(AllocationSiteProfiler.AllocationSite.class.getDeclaredField(name));
+        } catch (Exception e) {
+            throw new GraalError(e);
+        }
+    }
+
     public static final LocationIdentity OBJ_ARRAY_KLASS_ELEMENT_KLASS_LOCATION = new HotSpotOptimizingLocationIdentity("ObjArrayKlass::_element_klass") {
         @Override
         public ValueNode canonicalizeRead(ValueNode read, AddressNode location, ValueNode object, CanonicalizerTool tool) {
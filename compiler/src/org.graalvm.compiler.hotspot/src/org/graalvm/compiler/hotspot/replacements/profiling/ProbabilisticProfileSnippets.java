@@ -24,10 +24,12 @@ package org.graalvm.compiler.hotspot.replacements.profiling;
 
 import static org.graalvm.compiler.hotspot.GraalHotSpotVMConfig.INJECTED_VMCONFIG;
 import static org.graalvm.compiler.hotspot.replacements.HotSpotReplacementsUtil.config;
+import static org.graalvm.compiler.hotspot.replacements.HotSpotReplacementsUtil.allocationSiteFieldOffset;
 import static org.graalvm.compiler.nodes.extended.BranchProbabilityNode.SLOW_PATH_PROBABILITY;
 import static org.graalvm.compiler.nodes.extended.BranchProbabilityNode.probability;
 import static org.graalvm.compiler.replacements.SnippetTemplate.DEFAULT_REPLACER;
 
+import org.graalvm.compiler.api.replacements.Fold;
 import org.graalvm.compiler.api.replacements.Snippet;
 import org.graalvm.compiler.api.replacements.Snippet.ConstantParameter;
 import org.graalvm.compiler.core.common.spi.ForeignCallDescriptor;
@@ -36,6 +38,7 @@ import org.graalvm.compiler.debug.GraalError;
 import org.graalvm.compiler.graph.Node.ConstantNodeParameter;
 import org.graalvm.compiler.graph.Node.NodeIntrinsic;
 import org.graalvm.compiler.hotspot.HotSpotBackend;
+import org.graalvm.compiler.hotspot.debug.AllocationSiteProfiler;
 import org.graalvm.compiler.hotspot.meta.HotSpotProviders;
 import org.graalvm.compiler.hotspot.nodes.aot.LoadMethodCountersNode;
 import org.graalvm.compiler.hotspot.nodes.profiling.ProfileBranchNode;
@@ -43,6 +46,7 @@ import org.graalvm.compiler.hotspot.nodes.profiling.ProfileInvokeNode;
 import org.graalvm.compiler.hotspot.nodes.profiling.ProfileNode;
 import org.graalvm.compiler.hotspot.word.MethodCountersPointer;
 import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.extended.ForeignCallNode;
 import org.graalvm.compiler.nodes.spi.LoweringTool;
@@ -53,6 +57,9 @@ import org.graalvm.compiler.replacements.SnippetTemplate.AbstractTemplates;
 import org.graalvm.compiler.replacements.SnippetTemplate.Arguments;
 import org.graalvm.compiler.replacements.SnippetTemplate.SnippetInfo;
 import org.graalvm.compiler.replacements.Snippets;
+import org.graalvm.compiler.word.ObjectAccess;
+import org.graalvm.compiler.word.Word;
+import org.graalvm.word.LocationIdentity;
 
 import jdk.vm.ci.code.TargetDescription;
 
@@ -110,6 +117,47 @@ public class ProbabilisticProfileSnippets implements Snippets {
         }
     }
 
+    /**
+     * The location of the counters in an {@link AllocationSiteProfiler.AllocationSite}. Snippets
+     * calling {@link #sampleAllocation} must declare it as a private location.
+     */
+    public static final LocationIdentity ALLOCATION_SITE_LOCATION = NamedLocationIdentity.mutable("AllocationSite");
+
+    @Fold
+    static boolean doSampleAllocations(OptionValues options) {
+        return AllocationSiteProfiler.isEnabled(options);
+    }
+
+    @Fold
+    static int allocationSamplingMask(OptionValues options) {
+        return (1 << AllocationSiteProfiler.Options.AllocationSiteSamplingLog.getValue(options)) - 1;
+    }
+
+    /**
+     * Records a sample for {@code site} if a TLAB allocation that moved the TLAB top from
+     * {@code top} to {@code newTop} crossed a sampling boundary. Using the TLAB top as the
+     * per-thread countdown keeps the common case down to a few arithmetic instructions on values
+     * the allocation fast path already has in registers.
+     *
+     * @param site the {@link AllocationSiteProfiler.AllocationSite} of the allocation or null if
+     *            the site is unknown
+     */
+    public static void sampleAllocation(Object site, Word top, Word newTop, int size, OptionValues options) {
+        if (doSampleAllocations(options)) {
+            int boundaryMask = ~allocationSamplingMask(options);
+            Word crossed = newTop.and(boundaryMask).subtract(top.and(boundaryMask));
+            if (probability(SLOW_PATH_PROBABILITY, crossed.notEqual(0)) && site != null) {
+                int samplesOffset = allocationSiteFieldOffset("samples");
+                int sampledBytesOffset = allocationSiteFieldOffset("sampledBytes");
+                int estimatedBytesOffset = allocationSiteFieldOffset("estimatedBytes");
+                ObjectAccess.writeLong(site, samplesOffset, ObjectAccess.readLong(site, samplesOffset, ALLOCATION_SITE_LOCATION) + 1, ALLOCATION_SITE_LOCATION);
+                ObjectAccess.writeLong(site, sampledBytesOffset, ObjectAccess.readLong(site, sampledBytesOffset, ALLOCATION_SITE_LOCATION) + size, ALLOCATION_SITE_LOCATION);
+                ObjectAccess.writeLong(site, estimatedBytesOffset, ObjectAccess.readLong(site, estimatedBytesOffset, ALLOCATION_SITE_LOCATION) + crossed.rawValue(),
+                                ALLOCATION_SITE_LOCATION);
+            }
+        }
+    }
+
     public static class Templates extends AbstractTemplates {
         private final SnippetInfo profileMethodEntryWithProbability = snippet(ProbabilisticProfileSnippets.class, "profileMethodEntryWithProbability");
         private final SnippetInfo profileBackedgeWithProbability = snippet(ProbabilisticProfileSnippets.class, "profileBackedgeWithProbability");
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.jtt.jdk;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.graalvm.compiler.jtt.JTTTest;
+
+public class Arrays_fill extends JTTTest {
+
+    private static final int[] LENGTHS = {0, 1, 2, 3, 7, 8, 15, 16, 17, 31, 32, 33, 63, 100};
+
+    public static boolean[] fillBoolean(int length, boolean val) {
+        boolean[] a = new boolean[length];
+        Arrays.fill(a, val);
+        return a;
+    }
+
+    public static byte[] fillByte(int length, byte val) {
+        byte[] a = new byte[length];
+        Arrays.fill(a, val);
+        return a;
+    }
+
+    public static char[] fillChar(int length, char val) {
+        char[] a = new char[length];
+        Arrays.fill(a, val);
+        return a;
+    }
+
+    public static short[] fillShort(int length, short val) {
+        short[] a = new short[length];
+        Arrays.fill(a, val);
+        return a;
+    }
+
+    public static int[] fillInt(int length, int val) {
+        int[] a = new int[length];
+        Arrays.fill(a, val);
+        return a;
+    }
+
+    public static long[] fillLong(int length, long val) {
+        long[] a = new long[length];
+        Arrays.fill(a, val);
+        return a;
+    }
+
+    public static float[] fillFloat(int length, float val) {
+        float[] a = new float[length];
+        Arrays.fill(a, val);
+        return a;
+    }
+
+    public static double[] fillDouble(int length, double val) {
+        double[] a = new double[length];
+        Arrays.fill(a, val);
+        return a;
+    }
+
+    public static byte[] fillByteRange(int length, int fromIndex, int toIndex, byte val) {
+        byte[] a = new byte[length];
+        Arrays.fill(a, fromIndex, toIndex, val);
+        return a;
+    }
+
+    public static char[] fillCharRange(int length, int fromIndex, int toIndex, char val) {
+        char[] a = new char[length];
+        Arrays.fill(a, fromIndex, toIndex, val);
+        return a;
+    }
+
+    public static int[] fillIntRange(int length, int fromIndex, int toIndex, int val) {
+        int[] a = new int[length];
+        Arrays.fill(a, fromIndex, toIndex, val);
+        return a;
+    }
+
+    public static double[] fillDoubleRange(int length, int fromIndex, int toIndex, double val) {
+        double[] a = new double[length];
+        Arrays.fill(a, fromIndex, toIndex, val);
+        return a;
+    }
+
+    public static int fillBooleanAfterRead(boolean[] a, int index, boolean val) {
+        boolean before = a[index];
+        Arrays.fill(a, val);
+        boolean after = a[index];
+        return (before ? 1 : 0) + (after ? 2 : 0);
+    }
+
+    public static int fillBooleanRangeAfterRead(boolean[] a, int index, boolean val) {
+        boolean before = a[index];
+        Arrays.fill(a, 0, index + 1, val);
+        boolean after = a[index];
+        return (before ? 1 : 0) + (after ? 2 : 0);
+    }
+
+    public static int fillByteAfterRead(byte[] a, int index, byte val) {
+        byte before = a[index];
+        Arrays.fill(a, val);
+        return before * 256 + a[index];
+    }
+
+    public static int fillNull(int[] a) {
+        Arrays.fill(a, 42);
+        return a.length;
+    }
+
+    @Test
+    public void testBoolean() {
+        for (int length : LENGTHS) {
+            runTest("fillBoolean", length, true);
+        }
+    }
+
+    @Test
+    public void testByte() {
+        for (int length : LENGTHS) {
+            runTest("fillByte", length, (byte) 0x5A);
+            runTest("fillByte", length, (byte) -1);
+        }
+    }
+
+    @Test
+    public void testChar() {
+        for (int length : LENGTHS) {
+            runTest("fillChar", length, '\uCAFE');
+        }
+    }
+
+    @Test
+    public void testShort() {
+        for (int length : LENGTHS) {
+            runTest("fillShort", length, (short) -12345);
+        }
+    }
+
+    @Test
+    public void testInt() {
+        for (int length : LENGTHS) {
+            runTest("fillInt", length, 0xDEADBEEF);
+        }
+    }
+
+    @Test
+    public void testLong() {
+        for (int length : LENGTHS) {
+            runTest("fillLong", length, 0x0123456789ABCDEFL);
+        }
+    }
+
+    @Test
+    public void testFloat() {
+        for (int length : LENGTHS) {
+            runTest("fillFloat", length, -1.5f);
+            runTest("fillFloat", length, Float.NaN);
+        }
+    }
+
+    @Test
+    public void testDouble() {
+        for (int length : LENGTHS) {
+            runTest("fillDouble", length, Math.PI);
+        }
+    }
+
+    @Test
+    public void testRange() {
+        for (int length : LENGTHS) {
+            for (int from = 0; from <= Math.min(length, 5); from++) {
+                for (int to = from; to <= length; to += 3) {
+                    runTest("fillByteRange", length, from, to, (byte) 7);
+                    runTest("fillCharRange", length, from, to, 'x');
+                    runTest("fillIntRange", length, from, to, -7);
+                    runTest("fillDoubleRange", length, from, to, -0.0d);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidRange() {
+        runTest("fillIntRange", 10, -1, 5, 1);
+        runTest("fillIntRange", 10, 6, 5, 1);
+        runTest("fillIntRange", 10, 5, 11, 1);
+        runTest("fillByteRange", 0, 0, 1, (byte) 1);
+    }
+
+    @Test
+    public void testReadBeforeFill() {
+        runTest("fillBooleanAfterRead", supply(() -> new boolean[16]), 3, true);
+        runTest("fillBooleanAfterRead", supply(() -> {
+            boolean[] a = new boolean[16];
+            Arrays.fill(a, true);
+            return a;
+        }), 3, false);
+        runTest("fillBooleanRangeAfterRead", supply(() -> new boolean[16]), 5, true);
+        runTest("fillByteAfterRead", supply(() -> new byte[16]), 3, (byte) 9);
+    }
+
+    @Test
+    public void testNull() {
+        runTest("fillNull", (Object) null);
+    }
+}
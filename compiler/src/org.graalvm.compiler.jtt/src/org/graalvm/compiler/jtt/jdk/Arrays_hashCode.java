@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.jtt.jdk;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.graalvm.compiler.jtt.JTTTest;
+
+public class Arrays_hashCode extends JTTTest {
+
+    private static final int[] LENGTHS = {0, 1, 2, 3, 4, 5, 7, 8, 9, 16, 17, 31, 100};
+
+    public static int hashByte(int length) {
+        byte[] a = new byte[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = (byte) (i * 37 - 100);
+        }
+        return Arrays.hashCode(a);
+    }
+
+    public static int hashChar(int length) {
+        char[] a = new char[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = (char) (0xFFFF - i * 1031);
+        }
+        return Arrays.hashCode(a);
+    }
+
+    public static int hashShort(int length) {
+        short[] a = new short[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = (short) (i * 1031 - 30000);
+        }
+        return Arrays.hashCode(a);
+    }
+
+    public static int hashInt(int length) {
+        int[] a = new int[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = i * 0x9E3779B9;
+        }
+        return Arrays.hashCode(a);
+    }
+
+    public static int hashNull(int[] a) {
+        return Arrays.hashCode(a);
+    }
+
+    public static int hashString(String s) {
+        return Arrays.hashCode(s.toCharArray());
+    }
+
+    @Test
+    public void testByte() {
+        for (int length : LENGTHS) {
+            runTest("hashByte", length);
+        }
+    }
+
+    @Test
+    public void testChar() {
+        for (int length : LENGTHS) {
+            runTest("hashChar", length);
+        }
+    }
+
+    @Test
+    public void testShort() {
+        for (int length : LENGTHS) {
+            runTest("hashShort", length);
+        }
+    }
+
+    @Test
+    public void testInt() {
+        for (int length : LENGTHS) {
+            runTest("hashInt", length);
+        }
+    }
+
+    @Test
+    public void testNull() {
+        runTest("hashNull", (Object) null);
+    }
+
+    @Test
+    public void testString() {
+        runTest("hashString", "");
+        runTest("hashString", "Arrays.hashCode(char[]) agrees with String.hashCode()");
+    }
+}
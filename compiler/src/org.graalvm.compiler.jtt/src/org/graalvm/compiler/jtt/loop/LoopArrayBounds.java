@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.jtt.loop;
+
+import org.junit.Test;
+
+import org.graalvm.compiler.jtt.JTTTest;
+
+/*
+ * Tests array accesses in counted loops whose bounds and null checks are moved in front of the loop.
+ */
+public class LoopArrayBounds extends JTTTest {
+
+    private static final int[] array = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+    public static int test(int[] a, int from, int to, int stride, int offset) {
+        int sum = 0;
+        for (int i = from; i < to; i += stride) {
+            sum += a[i + offset] * i;
+        }
+        return sum;
+    }
+
+    public static int testDown(int[] a, int from, int to) {
+        int sum = 0;
+        for (int i = from; i > to; i--) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int testEarlyExit(int[] a, int to, int stop) {
+        int sum = 0;
+        for (int i = 0; i < to; i++) {
+            if (a[i] == stop) {
+                break;
+            }
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int testWide(int[] a, int from, int to) {
+        for (int i = from; i < to; i++) {
+            a[i] = 0;
+        }
+        return a.length;
+    }
+
+    public static int testScaled(int[] a, int to) {
+        int sum = 0;
+        for (int i = 0; i < to; i++) {
+            sum += a[i * 0x40000000];
+        }
+        return sum;
+    }
+
+    @Test
+    public void run0() throws Throwable {
+        runTest("test", array, 0, 10, 1, 0);
+    }
+
+    @Test
+    public void run1() throws Throwable {
+        runTest("test", array, 0, 10, 3, 0);
+    }
+
+    @Test
+    public void run2() throws Throwable {
+        runTest("test", array, 2, 8, 2, 2);
+    }
+
+    @Test
+    public void run3() throws Throwable {
+        runTest("test", array, 0, 11, 1, 0);
+    }
+
+    @Test
+    public void run4() throws Throwable {
+        runTest("test", array, 0, 10, 1, -1);
+    }
+
+    @Test
+    public void run5() throws Throwable {
+        runTest("test", array, 5, 5, 1, 100);
+    }
+
+    @Test
+    public void run6() throws Throwable {
+        runTest("test", null, 0, 10, 1, 0);
+    }
+
+    @Test
+    public void run7() throws Throwable {
+        runTest("test", null, 0, 0, 1, 0);
+    }
+
+    @Test
+    public void run8() throws Throwable {
+        runTest("testDown", array, 9, -1);
+    }
+
+    @Test
+    public void run9() throws Throwable {
+        runTest("testDown", array, 10, 0);
+    }
+
+    @Test
+    public void run10() throws Throwable {
+        runTest("testEarlyExit", array, 20, 5);
+    }
+
+    @Test
+    public void run11() throws Throwable {
+        runTest("testEarlyExit", array, 20, 50);
+    }
+
+    @Test
+    public void run12() throws Throwable {
+        runTest("testWide", new int[10], -2_000_000_000, 2_000_000_000);
+    }
+
+    @Test
+    public void run13() throws Throwable {
+        runTest("testWide", new int[10], 0, 10);
+    }
+
+    @Test
+    public void run14() throws Throwable {
+        runTest("testScaled", array, 1);
+    }
+
+    @Test
+    public void run15() throws Throwable {
+        runTest("testScaled", array, 5);
+    }
+}
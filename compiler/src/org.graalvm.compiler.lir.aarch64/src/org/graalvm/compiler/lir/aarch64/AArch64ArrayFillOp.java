@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.aarch64;
+
+import static jdk.vm.ci.aarch64.AArch64.zr;
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.aarch64.AArch64Address;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.aarch64.AArch64MacroAssembler;
+import org.graalvm.compiler.asm.aarch64.AArch64MacroAssembler.ScratchRegister;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+import sun.misc.Unsafe;
+
+/**
+ * Emits code which stores the same primitive value into a range of array elements. The value is
+ * replicated into a general purpose register which is then stored 16 bytes at a time with a store
+ * pair instruction, followed by smaller stores for the remaining bytes.
+ */
+@Opcode("ARRAY_FILL")
+public final class AArch64ArrayFillOp extends AArch64LIRInstruction {
+    public static final LIRInstructionClass<AArch64ArrayFillOp> TYPE = LIRInstructionClass.create(AArch64ArrayFillOp.class);
+
+    private final JavaKind kind;
+    private final int arrayBaseOffset;
+    private final int arrayIndexScale;
+
+    @Alive({REG}) protected Value arrayValue;
+    @Alive({REG}) protected Value fromIndexValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Alive({REG}) protected Value valueValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+
+    public AArch64ArrayFillOp(LIRGeneratorTool tool, JavaKind kind, Value array, Value fromIndex, Value length, Value value) {
+        super(TYPE);
+        this.kind = kind;
+
+        Class<?> arrayClass = Array.newInstance(kind.toJavaClass(), 0).getClass();
+        this.arrayBaseOffset = UNSAFE.arrayBaseOffset(arrayClass);
+        this.arrayIndexScale = UNSAFE.arrayIndexScale(arrayClass);
+
+        this.arrayValue = array;
+        this.fromIndexValue = fromIndex;
+        this.lengthValue = length;
+        this.valueValue = value;
+
+        // Allocate some temporaries.
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AArch64MacroAssembler masm) {
+        Register address = asRegister(temp1);
+        Register count = asRegister(temp2);
+        Register index = asRegister(temp3);
+        Register pattern = asRegister(temp4);
+
+        Label loop = new Label();
+        Label tail = new Label();
+
+        try (ScratchRegister sc1 = masm.getScratchRegister()) {
+            Register rscratch1 = sc1.getRegister();
+            // Compute the start address and the number of bytes to fill.
+            masm.lea(address, AArch64Address.createUnscaledImmediateAddress(asRegister(arrayValue), arrayBaseOffset));
+            masm.mov(rscratch1, arrayIndexScale);
+            masm.smaddl(address, asRegister(fromIndexValue), rscratch1, address);
+            masm.smaddl(count, asRegister(lengthValue), rscratch1, zr);
+
+            emitPattern(masm, pattern, rscratch1);
+        }
+
+        // Fill 16 bytes per iteration.
+        masm.ands(64, index, count, ~(VECTOR_SIZE - 1L)); // vector count (in bytes)
+        masm.branchConditionally(ConditionFlag.EQ, tail);
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(loop);
+        masm.stp(64, pattern, pattern, AArch64Address.createPostIndexedImmediateAddress(address, VECTOR_SIZE / 8));
+        masm.sub(64, index, index, VECTOR_SIZE);
+        masm.cbnz(64, index, loop);
+
+        masm.bind(tail);
+        for (int size = 8; size >= arrayIndexScale; size >>= 1) {
+            Label skip = new Label();
+            masm.ands(64, zr, count, size);
+            masm.branchConditionally(ConditionFlag.EQ, skip);
+            masm.str(size * Byte.SIZE, pattern, AArch64Address.createPostIndexedImmediateAddress(address, size));
+            masm.bind(skip);
+        }
+    }
+
+    /**
+     * Replicates the fill value into all 8 bytes of {@code pattern}.
+     */
+    private void emitPattern(AArch64MacroAssembler masm, Register pattern, Register rscratch1) {
+        Register value = asRegister(valueValue);
+        switch (arrayIndexScale) {
+            case 1:
+                masm.and(64, pattern, value, 0xFFL);
+                masm.mov(rscratch1, 0x0101010101010101L);
+                masm.mul(64, pattern, pattern, rscratch1);
+                break;
+            case 2:
+                masm.and(64, pattern, value, 0xFFFFL);
+                masm.mov(rscratch1, 0x0001000100010001L);
+                masm.mul(64, pattern, pattern, rscratch1);
+                break;
+            case 4:
+                masm.and(64, pattern, value, 0xFFFFFFFFL);
+                masm.mov(rscratch1, 0x0000000100000001L);
+                masm.mul(64, pattern, pattern, rscratch1);
+                break;
+            case 8:
+                masm.mov(64, pattern, value);
+                break;
+            default:
+                throw new IllegalArgumentException("unexpected element size " + arrayIndexScale + " for " + kind);
+        }
+    }
+
+    /**
+     * Number of bytes stored per iteration of the main loop.
+     */
+    private static final int VECTOR_SIZE = 16;
+
+    private static final Unsafe UNSAFE = initUnsafe();
+
+    private static Unsafe initUnsafe() {
+        try {
+            return Unsafe.getUnsafe();
+        } catch (SecurityException se) {
+            try {
+                Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return (Unsafe) theUnsafe.get(Unsafe.class);
+            } catch (Exception e) {
+                throw new RuntimeException("exception while trying to get Unsafe", e);
+            }
+        }
+    }
+}
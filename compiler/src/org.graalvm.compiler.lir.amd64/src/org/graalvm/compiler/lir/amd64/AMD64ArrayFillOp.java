@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+import sun.misc.Unsafe;
+
+/**
+ * Emits code which stores the same primitive value into a range of array elements. The value is
+ * replicated into a vector register and stored with 16-byte (SSE) or 32-byte (AVX2) unaligned
+ * stores, the remaining bytes are written with progressively smaller scalar stores.
+ */
+@Opcode("ARRAY_FILL")
+public final class AMD64ArrayFillOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64ArrayFillOp> TYPE = LIRInstructionClass.create(AMD64ArrayFillOp.class);
+
+    private final JavaKind kind;
+    private final int arrayBaseOffset;
+    private final int arrayIndexScale;
+
+    @Alive({REG}) protected Value arrayValue;
+    @Alive({REG}) protected Value fromIndexValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Alive({REG}) protected Value valueValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+    @Temp({REG}) protected Value vectorTemp;
+
+    public AMD64ArrayFillOp(LIRGeneratorTool tool, JavaKind kind, Value array, Value fromIndex, Value length, Value value) {
+        super(TYPE);
+        this.kind = kind;
+
+        Class<?> arrayClass = Array.newInstance(kind.toJavaClass(), 0).getClass();
+        this.arrayBaseOffset = UNSAFE.arrayBaseOffset(arrayClass);
+        this.arrayIndexScale = UNSAFE.arrayIndexScale(arrayClass);
+
+        this.arrayValue = array;
+        this.fromIndexValue = fromIndex;
+        this.lengthValue = length;
+        this.valueValue = value;
+
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.vectorTemp = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register address = asRegister(temp1);
+        Register count = asRegister(temp2);
+        Register index = asRegister(temp3);
+        Register pattern = asRegister(temp4);
+        Register vector = asRegister(vectorTemp, AMD64Kind.DOUBLE);
+
+        // Compute the start address and the number of bytes to fill.
+        masm.movslq(index, asRegister(fromIndexValue));
+        masm.leaq(address, new AMD64Address(asRegister(arrayValue), index, Scale.fromInt(arrayIndexScale), arrayBaseOffset));
+        masm.movslq(count, asRegister(lengthValue));
+        if (arrayIndexScale > 1) {
+            masm.shlq(count, Integer.numberOfTrailingZeros(arrayIndexScale));
+        }
+
+        emitPattern(masm, pattern, vector);
+
+        boolean useAVX2 = supportsAVX2(crb.target);
+        int vectorSize = useAVX2 ? AVX_VECTOR_SIZE : SSE_VECTOR_SIZE;
+        Label tail = new Label();
+        Label loop = new Label();
+
+        masm.movq(index, count);
+        masm.andq(index, ~(vectorSize - 1)); // vector count (in bytes)
+        masm.jcc(ConditionFlag.Zero, tail);
+
+        masm.leaq(address, new AMD64Address(address, index, Scale.Times1, 0));
+        masm.negq(index);
+        if (useAVX2) {
+            masm.vpbroadcastq(vector, vector);
+        }
+
+        // Fill vectors
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(loop);
+        if (useAVX2) {
+            masm.vmovdqu(new AMD64Address(address, index, Scale.Times1, 0), vector);
+        } else {
+            masm.movdqu(new AMD64Address(address, index, Scale.Times1, 0), vector);
+        }
+        masm.addq(index, vectorSize);
+        masm.jcc(ConditionFlag.NotZero, loop);
+
+        masm.bind(tail);
+        if (useAVX2) {
+            emitTailStore(masm, address, count, SSE_VECTOR_SIZE, pattern, vector);
+        }
+        emitTailStore(masm, address, count, 8, pattern, vector);
+        for (int size = 4; size >= arrayIndexScale; size >>= 1) {
+            emitTailStore(masm, address, count, size, pattern, vector);
+        }
+        if (useAVX2) {
+            masm.vzeroupper();
+        }
+    }
+
+    /**
+     * Replicates the fill value into all 8 bytes of the low quadword of {@code vector} and, for
+     * sub-long kinds, into the low 32 bits of {@code pattern}.
+     */
+    private void emitPattern(AMD64MacroAssembler masm, Register pattern, Register vector) {
+        Register value = asRegister(valueValue);
+        switch (arrayIndexScale) {
+            case 1:
+                masm.movl(pattern, value);
+                masm.andl(pattern, 0xFF);
+                masm.imull(pattern, pattern, 0x01010101);
+                break;
+            case 2:
+                masm.movl(pattern, value);
+                masm.andl(pattern, 0xFFFF);
+                masm.imull(pattern, pattern, 0x00010001);
+                break;
+            case 4:
+                masm.movl(pattern, value);
+                break;
+            case 8:
+                masm.movq(pattern, value);
+                masm.movdq(vector, pattern);
+                masm.pshufd(vector, vector, 0x44);
+                return;
+            default:
+                throw new IllegalArgumentException("unexpected element size " + arrayIndexScale + " for " + kind);
+        }
+        masm.movdl(vector, pattern);
+        masm.pshufd(vector, vector, 0x00);
+    }
+
+    /**
+     * Stores {@code size} bytes at {@code address} if that bit is set in the byte count and
+     * advances the address.
+     */
+    private static void emitTailStore(AMD64MacroAssembler masm, Register address, Register count, int size, Register pattern, Register vector) {
+        Label skip = new Label();
+        masm.testl(count, size);
+        masm.jccb(ConditionFlag.Zero, skip);
+        AMD64Address dst = new AMD64Address(address, 0);
+        switch (size) {
+            case 16:
+                masm.movdqu(dst, vector);
+                break;
+            case 8:
+                masm.movq(dst, vector);
+                break;
+            case 4:
+                masm.movl(dst, pattern);
+                break;
+            case 2:
+                masm.movw(dst, pattern);
+                break;
+            case 1:
+                masm.movb(dst, pattern);
+                break;
+            default:
+                throw new IllegalArgumentException("unexpected store size " + size);
+        }
+        if (size > 1) {
+            masm.addq(address, size);
+        }
+        masm.bind(skip);
+    }
+
+    private static final int SSE_VECTOR_SIZE = 16;
+
+    private static final int AVX_VECTOR_SIZE = 32;
+
+    private static boolean supportsAVX2(TargetDescription target) {
+        AMD64 arch = (AMD64) target.arch;
+        return arch.getFeatures().contains(CPUFeature.AVX2);
+    }
+
+    private static final Unsafe UNSAFE = initUnsafe();
+
+    private static Unsafe initUnsafe() {
+        try {
+            return Unsafe.getUnsafe();
+        } catch (SecurityException se) {
+            try {
+                Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return (Unsafe) theUnsafe.get(Unsafe.class);
+            } catch (Exception e) {
+                throw new RuntimeException("exception while trying to get Unsafe", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.ILLEGAL;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.debug.GraalError;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+import sun.misc.Unsafe;
+
+/**
+ * Emits code which computes the polynomial hash {@code h = 31 * h + a[i]} used by
+ * {@link java.util.Arrays#hashCode(int[])} and friends. With SSE4.1 four elements are processed per
+ * iteration: each lane accumulates every fourth element multiplied by 31<sup>4</sup> per step, and
+ * the lanes are combined with the remaining powers of 31 after the loop.
+ */
+@Opcode("ARRAY_HASH_CODE")
+public final class AMD64ArrayHashCodeOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64ArrayHashCodeOp> TYPE = LIRInstructionClass.create(AMD64ArrayHashCodeOp.class);
+
+    private final JavaKind kind;
+    private final int arrayBaseOffset;
+    private final int arrayIndexScale;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value arrayValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Alive({REG}) protected Value initialValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp1;
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp2;
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp3;
+
+    public AMD64ArrayHashCodeOp(LIRGeneratorTool tool, JavaKind kind, Value result, Value array, Value length, Value initial) {
+        super(TYPE);
+        this.kind = kind;
+
+        Class<?> arrayClass = Array.newInstance(kind.toJavaClass(), 0).getClass();
+        this.arrayBaseOffset = UNSAFE.arrayBaseOffset(arrayClass);
+        this.arrayIndexScale = UNSAFE.arrayIndexScale(arrayClass);
+
+        this.resultValue = result;
+        this.arrayValue = array;
+        this.lengthValue = length;
+        this.initialValue = initial;
+
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+
+        // We only need the vector temporaries if we generate SSE code.
+        if (supportsSSE41(tool.target())) {
+            this.vectorTemp1 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+            this.vectorTemp2 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+            this.vectorTemp3 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+        } else {
+            this.vectorTemp1 = Value.ILLEGAL;
+            this.vectorTemp2 = Value.ILLEGAL;
+            this.vectorTemp3 = Value.ILLEGAL;
+        }
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register address = asRegister(temp1);
+        Register count = asRegister(temp2);
+        Register index = asRegister(temp3);
+        Register tmp = asRegister(temp4);
+
+        masm.leaq(address, new AMD64Address(asRegister(arrayValue), arrayBaseOffset));
+        masm.movl(result, asRegister(initialValue));
+        masm.movl(count, asRegister(lengthValue));
+
+        if (supportsSSE41(crb.target)) {
+            emitSSE41Hash(masm, crb, result, address, count, index, tmp);
+        }
+
+        // Hash the remaining elements one at a time.
+        Label loop = new Label();
+        Label done = new Label();
+        masm.testl(count, count);
+        masm.jcc(ConditionFlag.Zero, done);
+        masm.bind(loop);
+        masm.imull(result, result, 31);
+        emitLoadElement(masm, tmp, new AMD64Address(address, 0));
+        masm.addl(result, tmp);
+        masm.addq(address, arrayIndexScale);
+        masm.subl(count, 1);
+        masm.jcc(ConditionFlag.NotZero, loop);
+        masm.bind(done);
+    }
+
+    /**
+     * Hashes the elements in blocks of four and leaves the number of remaining elements in
+     * {@code count} and the address of the first one in {@code address}.
+     */
+    private void emitSSE41Hash(AMD64MacroAssembler masm, CompilationResultBuilder crb, Register result, Register address, Register count, Register index, Register tmp) {
+        Register accumulator = asRegister(vectorTemp1, AMD64Kind.DOUBLE);
+        Register multiplier = asRegister(vectorTemp2, AMD64Kind.DOUBLE);
+        Register vector = asRegister(vectorTemp3, AMD64Kind.DOUBLE);
+        Scale scale = Scale.fromInt(arrayIndexScale);
+
+        Label loop = new Label();
+        Label tail = new Label();
+
+        masm.movl(index, count);
+        masm.andl(count, VECTOR_LENGTH - 1); // tail count (in elements)
+        masm.andl(index, ~(VECTOR_LENGTH - 1)); // vector count (in elements)
+        masm.jcc(ConditionFlag.Zero, tail);
+
+        // The running hash goes into the last lane, which is weighted with 31^0 in the end.
+        masm.movdl(accumulator, result);
+        masm.pshufd(accumulator, accumulator, 0x15);
+        masm.movl(tmp, 31 * 31 * 31 * 31);
+        masm.movdl(multiplier, tmp);
+        masm.pshufd(multiplier, multiplier, 0x00);
+
+        masm.leaq(address, new AMD64Address(address, index, scale, 0));
+        masm.negq(index);
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(loop);
+        masm.pmulld(accumulator, multiplier);
+        AMD64Address src = new AMD64Address(address, index, scale, 0);
+        switch (kind) {
+            case Byte:
+                masm.pmovsxbd(vector, src);
+                break;
+            case Char:
+                masm.pmovzxwd(vector, src);
+                break;
+            case Short:
+                masm.pmovsxwd(vector, src);
+                break;
+            case Int:
+                masm.movdqu(vector, src);
+                break;
+            default:
+                throw GraalError.shouldNotReachHere("unexpected kind " + kind);
+        }
+        masm.paddd(accumulator, vector);
+        masm.addq(index, VECTOR_LENGTH);
+        masm.jcc(ConditionFlag.NotZero, loop);
+
+        // result = ((lane0 * 31 + lane1) * 31 + lane2) * 31 + lane3
+        masm.movdl(result, accumulator);
+        for (int lane = 1; lane < VECTOR_LENGTH; lane++) {
+            masm.pshufd(vector, accumulator, lane);
+            masm.movdl(tmp, vector);
+            masm.imull(result, result, 31);
+            masm.addl(result, tmp);
+        }
+
+        masm.bind(tail);
+    }
+
+    private void emitLoadElement(AMD64MacroAssembler masm, Register dst, AMD64Address src) {
+        switch (kind) {
+            case Byte:
+                masm.movsbl(dst, src);
+                break;
+            case Char:
+                masm.movzwl(dst, src);
+                break;
+            case Short:
+                masm.movswl(dst, src);
+                break;
+            case Int:
+                masm.movl(dst, src);
+                break;
+            default:
+                throw GraalError.shouldNotReachHere("unexpected kind " + kind);
+        }
+    }
+
+    /**
+     * Number of elements hashed per iteration of the vector loop.
+     */
+    private static final int VECTOR_LENGTH = 4;
+
+    private static boolean supportsSSE41(TargetDescription target) {
+        AMD64 arch = (AMD64) target.arch;
+        return arch.getFeatures().contains(CPUFeature.SSE4_1);
+    }
+
+    private static final Unsafe UNSAFE = initUnsafe();
+
+    private static Unsafe initUnsafe() {
+        try {
+            return Unsafe.getUnsafe();
+        } catch (SecurityException se) {
+            try {
+                Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return (Unsafe) theUnsafe.get(Unsafe.class);
+            } catch (Exception e) {
+                throw new RuntimeException("exception while trying to get Unsafe", e);
+            }
+        }
+    }
+}
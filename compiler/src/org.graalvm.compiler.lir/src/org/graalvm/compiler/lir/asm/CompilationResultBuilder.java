@@ -24,6 +24,8 @@ package org.graalvm.compiler.lir.asm;
 
 import static jdk.vm.ci.code.ValueUtil.asStackSlot;
 import static jdk.vm.ci.code.ValueUtil.isStackSlot;
+import static org.graalvm.compiler.core.common.GraalOptions.ColdBlockProbability;
+import static org.graalvm.compiler.core.common.GraalOptions.HotColdSplitting;
 import static org.graalvm.compiler.lir.LIRValueUtil.asJavaConstant;
 import static org.graalvm.compiler.lir.LIRValueUtil.isJavaConstant;
 
@@ -39,10 +41,12 @@ import org.graalvm.compiler.code.CompilationResult;
 import org.graalvm.compiler.code.CompilationResult.CodeAnnotation;
 import org.graalvm.compiler.code.DataSection.Data;
 import org.graalvm.compiler.code.DataSection.RawData;
+import org.graalvm.compiler.core.common.alloc.ComputeBlockOrder;
 import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
 import org.graalvm.compiler.core.common.spi.ForeignCallsProvider;
 import org.graalvm.compiler.core.common.type.DataPointerConstant;
 import org.graalvm.compiler.debug.Assertions;
+import org.graalvm.compiler.debug.CounterKey;
 import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.debug.GraalError;
 import org.graalvm.compiler.graph.NodeSourcePosition;
@@ -119,6 +123,9 @@ public class CompilationResultBuilder {
         }
     }
 
+    private static final CounterKey HOT_CODE_SIZE = DebugContext.counter("HotCodeSize");
+    private static final CounterKey COLD_CODE_SIZE = DebugContext.counter("ColdCodeSize");
+
     public final Assembler asm;
     public final DataBuilder dataBuilder;
     public final CompilationResult compilationResult;
@@ -459,11 +466,24 @@ public class CompilationResultBuilder {
         this.lir = lir;
         this.currentBlockIndex = 0;
         frameContext.enter(this);
+        boolean hotColdSplitting = HotColdSplitting.getValue(options);
+        double coldProbability = ColdBlockProbability.getValue(options);
+        int coldStart = -1;
         for (AbstractBlockBase<?> b : lir.codeEmittingOrder()) {
             assert (b == null && lir.codeEmittingOrder()[currentBlockIndex] == null) || lir.codeEmittingOrder()[currentBlockIndex].equals(b);
+            if (hotColdSplitting && coldStart == -1 && b != null && currentBlockIndex > 0 && ComputeBlockOrder.isColdBlock(b, coldProbability)) {
+                coldStart = asm.position();
+            }
             emitBlock(b);
             currentBlockIndex++;
         }
+        if (hotColdSplitting) {
+            int hotSize = coldStart == -1 ? asm.position() : coldStart;
+            int coldSize = asm.position() - hotSize;
+            HOT_CODE_SIZE.add(debug, hotSize);
+            COLD_CODE_SIZE.add(debug, coldSize);
+            debug.log("%s: %d bytes of hot code, %d bytes of cold code", compilationResult.getName(), hotSize, coldSize);
+        }
         this.lir = null;
         this.currentBlockIndex = 0;
     }
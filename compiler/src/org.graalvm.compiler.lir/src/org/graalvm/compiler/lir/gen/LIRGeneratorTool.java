@@ -251,6 +251,16 @@ public interface LIRGeneratorTool extends DiagnosticLIRGeneratorTool, ValueKindF
 
     Variable emitArrayEquals(JavaKind kind, Value array1, Value array2, Value length);
 
+    @SuppressWarnings("unused")
+    default void emitArrayFill(JavaKind kind, Value array, Value fromIndex, Value length, Value value) {
+        throw GraalError.unimplemented();
+    }
+
+    @SuppressWarnings("unused")
+    default Variable emitArrayHashCode(JavaKind kind, Value array, Value length, Value initialValue) {
+        throw GraalError.unimplemented();
+    }
+
     @SuppressWarnings("unused")
     default Variable emitStringIndexOf(Value sourcePointer, Value sourceCount, Value targetPointer, Value targetCount, int constantTargetCount) {
         throw GraalError.unimplemented();
@@ -41,6 +41,11 @@ public class LoopFullUnrollPhase extends LoopPhase<LoopPolicies> {
         this.canonicalizer = canonicalizer;
     }
 
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
+
     @Override
     protected void run(StructuredGraph graph, PhaseContext context) {
         DebugContext debug = graph.getDebug();
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import static org.graalvm.compiler.loop.MathUtil.add;
+import static org.graalvm.compiler.loop.MathUtil.divBefore;
+import static org.graalvm.compiler.loop.MathUtil.mul;
+import static org.graalvm.compiler.loop.MathUtil.sub;
+
+import org.graalvm.compiler.core.common.cfg.AbstractControlFlowGraph;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.loop.BasicInductionVariable;
+import org.graalvm.compiler.loop.CountedLoopInfo;
+import org.graalvm.compiler.loop.DerivedOffsetInductionVariable;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.InductionVariable.Direction;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.GuardNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.IntegerBelowNode;
+import org.graalvm.compiler.nodes.calc.IntegerConvertNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.extended.ValueAnchorNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
+
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Moves guards that are executed in every iteration of a counted loop in front of the loop. A
+ * bounds check {@code iv |<| length} of an induction variable against a loop invariant length is
+ * replaced by a check of the first and the last value of the induction variable. A guard with a
+ * loop invariant condition, such as the null check of an invariant array, is moved unchanged.
+ *
+ * The moved guards are speculative: the loop may exit before reaching the last value of the
+ * induction variable. They therefore deoptimize with {@link DeoptimizationReason#LoopLimitCheck},
+ * which disables the transformation when the method is recompiled.
+ */
+public class LoopPredicationPhase extends BasePhase<MidTierContext> {
+
+    private static final CounterKey PREDICATED_RANGE_CHECKS = DebugContext.counter("LoopPredicatedRangeChecks");
+    private static final CounterKey PREDICATED_INVARIANT_GUARDS = DebugContext.counter("LoopPredicatedInvariantGuards");
+
+    /**
+     * Probability that a counted loop with a predicated guard is not entered at all.
+     */
+    private static final double ZERO_TRIP_PROBABILITY = 0.01;
+
+    @Override
+    protected void run(StructuredGraph graph, MidTierContext context) {
+        if (!graph.hasLoops() || !graph.getGuardsStage().allowsFloatingGuards() || !context.getOptimisticOptimizations().useLoopLimitChecks(graph.getOptions())) {
+            return;
+        }
+        boolean progress;
+        do {
+            /*
+             * Moving a guard can make values that depended on it loop invariant, e.g., the array
+             * length read that was guarded by a null check, so iterate until nothing changes.
+             */
+            progress = false;
+            LoopsData loops = new LoopsData(graph);
+            loops.detectedCountedLoops();
+            ControlFlowGraph cfg = loops.getCFG();
+            for (GuardNode guard : graph.getNodes(GuardNode.TYPE).snapshot()) {
+                if (guard.isDeleted()) {
+                    continue;
+                }
+                Block block = cfg.blockFor(guard.getAnchor().asNode());
+                if (block == null || block.getLoop() == null) {
+                    continue;
+                }
+                LoopEx loop = loops.loop(block.getLoop());
+                if (loop.isCounted() && isExecutedInEveryIteration(loop, cfg, block)) {
+                    progress |= tryPredicate(graph, loop, guard);
+                }
+            }
+            loops.deleteUnusedNodes();
+        } while (progress);
+    }
+
+    private static boolean isExecutedInEveryIteration(LoopEx loop, ControlFlowGraph cfg, Block block) {
+        if (!AbstractControlFlowGraph.dominates(cfg.blockFor(loop.counted().getBody()), block)) {
+            return false;
+        }
+        for (LoopEndNode loopEnd : loop.loopBegin().loopEnds()) {
+            if (!AbstractControlFlowGraph.dominates(block, cfg.blockFor(loopEnd))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean tryPredicate(StructuredGraph graph, LoopEx loop, GuardNode guard) {
+        LogicNode condition = guard.getCondition();
+        LogicNode predicate;
+        boolean negated = guard.isNegated();
+        if (loop.isOutsideLoop(condition)) {
+            predicate = condition;
+            PREDICATED_INVARIANT_GUARDS.increment(graph.getDebug());
+        } else if (condition instanceof IntegerBelowNode && !negated) {
+            predicate = createRangePredicate(graph, loop, (IntegerBelowNode) condition);
+            if (predicate == null) {
+                return false;
+            }
+            PREDICATED_RANGE_CHECKS.increment(graph.getDebug());
+        } else {
+            return false;
+        }
+
+        CountedLoopInfo counted = loop.counted();
+        ValueNode start = counted.getStart();
+        ValueNode limit = counted.getLimit();
+        /*
+         * The loop is entered if the start value passes the limit test of the loop. This is
+         * checked directly because the trip count can wrap around for wide ranges.
+         */
+        boolean limitFirst = (counted.getDirection() == Direction.Up) == counted.isLimitIncluded();
+        LogicNode notEntered = graph.addOrUniqueWithInputs(limitFirst ? IntegerLessThanNode.create(limit, start) : IntegerLessThanNode.create(start, limit));
+        boolean notEnteredNegated = !counted.isLimitIncluded();
+        LogicNode check = LogicNode.or(notEntered, notEnteredNegated, predicate, negated, ZERO_TRIP_PROBABILITY);
+        GuardNode predicateGuard = graph.unique(new GuardNode(check, AbstractBeginNode.prevBegin(loop.entryPoint()), DeoptimizationReason.LoopLimitCheck,
+                        DeoptimizationAction.InvalidateRecompile, false, JavaConstant.NULL_POINTER));
+        /*
+         * The predicate holds trivially if the loop is not entered, so the values guarded by the
+         * original guard must stay inside the loop.
+         */
+        ValueAnchorNode anchor = graph.add(new ValueAnchorNode(predicateGuard));
+        graph.addAfterFixed(counted.getBody(), anchor);
+        graph.getDebug().log("Predicated %s of %s with %s", guard, loop, predicateGuard);
+        guard.replaceAndDelete(anchor);
+        GraphUtil.tryKillUnused(condition);
+        return true;
+    }
+
+    /**
+     * Creates the condition that {@code iv |<| length} holds for the first and the last value of
+     * the induction variable, or returns null if the bounds check does not have this form. Since
+     * the induction variable changes monotonically, every value in between passes the check too.
+     * This only holds if {@code length} is known to be non-negative: for a negative
+     * {@code length}, the values accepted by the unsigned comparison are not contiguous in the
+     * signed range the induction variable moves through.
+     *
+     * The first and the last value are computed in 64 bit, where they cannot wrap around. If both
+     * are in bounds, the values in between are in the 32 bit range and equal to the values the
+     * induction variable takes in the loop.
+     */
+    private static LogicNode createRangePredicate(StructuredGraph graph, LoopEx loop, IntegerBelowNode condition) {
+        ValueNode length = condition.getY();
+        if (!loop.isOutsideLoop(length) || !(length.stamp() instanceof IntegerStamp) || !((IntegerStamp) length.stamp()).isPositive()) {
+            return null;
+        }
+        InductionVariable iv = loop.getInductionVariables().get(condition.getX());
+        if (iv == null || !iv.isConstantStride() || iv.direction() == null || !iv.valueNode().stamp().isCompatible(length.stamp()) || !hasLinearValues(loop, iv)) {
+            return null;
+        }
+        CountedLoopInfo counted = loop.counted();
+        InductionVariable counter = counted.getCounter();
+        if (!counter.isConstantStride() || counted.getStamp().getBits() > 32 || ((IntegerStamp) length.stamp()).getBits() > 32) {
+            return null;
+        }
+        // the monotonicity argument only holds if the induction variable does not overflow
+        counted.createOverFlowGuard();
+        ValueNode first = longValueAt(graph, iv, ConstantNode.forLong(0, graph));
+        ValueNode last = longValueAt(graph, iv, sub(graph, longMaxTripCount(graph, loop), ConstantNode.forLong(1, graph)));
+        ValueNode longLength = IntegerConvertNode.convert(length, StampFactory.forKind(JavaKind.Long), graph);
+        LogicNode firstInBounds = graph.addOrUniqueWithInputs(IntegerBelowNode.create(first, longLength));
+        LogicNode lastInBounds = graph.addOrUniqueWithInputs(IntegerBelowNode.create(last, longLength));
+        return LogicNode.and(firstInBounds, lastInBounds, 0.5);
+    }
+
+    /**
+     * Determines if the values of {@code iv} are a linear function of the iteration. Scaled
+     * induction variables are excluded because their 32 bit values can wrap around between a first
+     * and a last value that are both in bounds.
+     */
+    private static boolean hasLinearValues(LoopEx loop, InductionVariable iv) {
+        if (iv instanceof BasicInductionVariable) {
+            return true;
+        }
+        if (iv instanceof DerivedOffsetInductionVariable) {
+            return loop.isOutsideLoop(((DerivedOffsetInductionVariable) iv).getOffset()) && hasLinearValues(loop, ((DerivedOffsetInductionVariable) iv).getBase());
+        }
+        return false;
+    }
+
+    /**
+     * Computes the value of {@code iv} in the given iteration in 64 bit.
+     */
+    private static ValueNode longValueAt(StructuredGraph graph, InductionVariable iv, ValueNode iteration) {
+        Stamp longStamp = StampFactory.forKind(JavaKind.Long);
+        if (iv instanceof BasicInductionVariable) {
+            ValueNode init = IntegerConvertNode.convert(iv.initNode(), longStamp, graph);
+            return add(graph, init, mul(graph, ConstantNode.forLong(iv.constantStride(), graph), iteration));
+        }
+        DerivedOffsetInductionVariable derived = (DerivedOffsetInductionVariable) iv;
+        InductionVariable base = derived.getBase();
+        ValueNode baseValue = longValueAt(graph, base, iteration);
+        ValueNode offset = IntegerConvertNode.convert(derived.getOffset(), longStamp, graph);
+        ValueNode value = derived.valueNode();
+        if (value instanceof SubNode) {
+            return ((SubNode) value).getX() == base.valueNode() ? sub(graph, baseValue, offset) : sub(graph, offset, baseValue);
+        }
+        assert value instanceof AddNode : value;
+        return add(graph, baseValue, offset);
+    }
+
+    /**
+     * Computes the number of iterations of an entered loop in 64 bit. Unlike
+     * {@link CountedLoopInfo#maxTripCountNode()}, the result does not wrap around if the range of
+     * the loop counter is wider than 2^31.
+     */
+    private static ValueNode longMaxTripCount(StructuredGraph graph, LoopEx loop) {
+        Stamp longStamp = StampFactory.forKind(JavaKind.Long);
+        CountedLoopInfo counted = loop.counted();
+        InductionVariable counter = counted.getCounter();
+        long stride = counter.constantStride();
+        long direction = counter.direction() == Direction.Up ? 1 : -1;
+        ValueNode range = sub(graph, IntegerConvertNode.convert(counted.getLimit(), longStamp, graph), IntegerConvertNode.convert(counter.initNode(), longStamp, graph));
+        if (counted.isLimitIncluded()) {
+            range = add(graph, range, ConstantNode.forLong(direction, graph));
+        }
+        // round-away-from-zero division: (range + stride -/+ 1) / stride
+        ValueNode dividend = add(graph, range, ConstantNode.forLong(stride - direction, graph));
+        return divBefore(graph, loop.entryPoint(), dividend, ConstantNode.forLong(stride, graph));
+    }
+}
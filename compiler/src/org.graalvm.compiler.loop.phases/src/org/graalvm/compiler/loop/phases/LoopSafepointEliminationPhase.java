@@ -22,6 +22,9 @@
  */
 package org.graalvm.compiler.loop.phases;
 
+import static org.graalvm.compiler.core.common.GraalOptions.LoopStripMining;
+import static org.graalvm.compiler.core.common.GraalOptions.LoopStripMiningIterations;
+
 import org.graalvm.compiler.loop.LoopEx;
 import org.graalvm.compiler.loop.LoopsData;
 import org.graalvm.compiler.nodes.FixedNode;
@@ -30,6 +33,7 @@ import org.graalvm.compiler.nodes.LoopEndNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.cfg.Block;
 import org.graalvm.compiler.nodes.extended.ForeignCallNode;
+import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.phases.BasePhase;
 import org.graalvm.compiler.phases.tiers.MidTierContext;
 
@@ -37,8 +41,10 @@ public class LoopSafepointEliminationPhase extends BasePhase<MidTierContext> {
 
     @Override
     protected void run(StructuredGraph graph, MidTierContext context) {
+        OptionValues options = graph.getOptions();
+        int stripIterations = LoopStripMiningIterations.getValue(options);
         LoopsData loops = new LoopsData(graph);
-        if (context.getOptimisticOptimizations().useLoopLimitChecks(graph.getOptions()) && graph.getGuardsStage().allowsFloatingGuards()) {
+        if (context.getOptimisticOptimizations().useLoopLimitChecks(options) && graph.getGuardsStage().allowsFloatingGuards()) {
             loops.detectedCountedLoops();
             for (LoopEx loop : loops.countedLoops()) {
                 if (loop.loop().getChildren().isEmpty() && loop.counted().getStamp().getBits() <= 32) {
@@ -48,6 +54,10 @@ public class LoopSafepointEliminationPhase extends BasePhase<MidTierContext> {
                     }
                     if (hasSafepoint) {
                         loop.counted().createOverFlowGuard();
+                        if (LoopStripMining.getValue(options) && LoopTransformations.isStripMinable(loop, stripIterations)) {
+                            // the outer loop keeps polling for long running loops
+                            LoopTransformations.stripMine(loop, stripIterations);
+                        }
                         loop.loopBegin().disableSafepoint();
                     }
                 }
@@ -32,6 +32,7 @@ import java.util.List;
 
 import org.graalvm.compiler.core.common.RetryableBailoutException;
 import org.graalvm.compiler.core.common.calc.Condition;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
 import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.debug.GraalError;
 import org.graalvm.compiler.graph.Graph.Mark;
@@ -53,20 +54,31 @@ import org.graalvm.compiler.nodes.ControlSplitNode;
 import org.graalvm.compiler.nodes.EndNode;
 import org.graalvm.compiler.nodes.FixedNode;
 import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.GuardPhiNode;
 import org.graalvm.compiler.nodes.IfNode;
 import org.graalvm.compiler.nodes.LogicNode;
 import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
 import org.graalvm.compiler.nodes.LoopExitNode;
 import org.graalvm.compiler.nodes.PhiNode;
 import org.graalvm.compiler.nodes.SafepointNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.VirtualState.NodeClosure;
+import org.graalvm.compiler.nodes.calc.AddNode;
 import org.graalvm.compiler.nodes.calc.CompareNode;
 import org.graalvm.compiler.nodes.calc.ConditionalNode;
 import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.NarrowNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
 import org.graalvm.compiler.nodes.extended.SwitchNode;
+import org.graalvm.compiler.nodes.memory.MemoryPhiNode;
 import org.graalvm.compiler.phases.common.CanonicalizerPhase;
 import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.graalvm.util.EconomicMap;
+import org.graalvm.util.Equivalence;
 
 public abstract class LoopTransformations {
 
@@ -409,6 +421,164 @@ public abstract class LoopTransformations {
         }
     }
 
+    // @formatter:off
+    // Strip mining splits a counted loop into an outer loop and an inner
+    // loop that executes at most a fixed number of iterations per entry:
+    //
+    //          (Outer Loop Begin) <-------------------+
+    //                  |                              |
+    //          (Inner Loop Begin) <---------+         |
+    //                  |                    |         |
+    //         [i < stripLimit] --> (Loop Body)        |
+    //                  |                    |         |
+    //          (Inner Loop Exit)   (Inner Loop End)   |
+    //                  |                              |
+    //             [i < limit] --------> (Outer Loop End)
+    //                  |
+    //          (Outer Loop Exit)
+    //                  |
+    //           (continue code)
+    //
+    // The strip limit is computed in the outer loop as min(limit, i + N * stride),
+    // i.e. with the value of the induction variable when the inner loop is entered.
+    // All other exits of the inner loop are followed by an exit of the outer loop.
+    // The inner loop can run without safepoint polls since the outer loop end polls
+    // at least every N iterations.
+    // @formatter:on
+
+    public static boolean isStripMinable(LoopEx loop, int iterations) {
+        if (!loop.isCounted() || !loop.counted().getCounter().isConstantStride() || !loop.loop().getChildren().isEmpty()) {
+            return false;
+        }
+        LoopBeginNode loopBegin = loop.loopBegin();
+        CountedLoopInfo counted = loop.counted();
+        if (loopBegin.graph().hasValueProxies() || loopBegin.next() != counted.getLimitTest() || counted.getStamp().getBits() > 32) {
+            return false;
+        }
+        if (counted.isConstantMaxTripCount() && counted.constantMaxTripCount() <= iterations) {
+            // short loops are never stopped for long
+            return false;
+        }
+        ValueNode iv = counted.getCounter().valueNode();
+        if (!(iv instanceof PhiNode) || ((PhiNode) iv).merge() != loopBegin) {
+            return false;
+        }
+        CompareNode compare = (CompareNode) counted.getLimitTest().condition();
+        if (!(compare.getX() == iv && compare.getY() == counted.getLimit()) && !(compare.getY() == iv && compare.getX() == counted.getLimit())) {
+            return false;
+        }
+        for (PhiNode phi : loopBegin.phis()) {
+            if (!(phi instanceof ValuePhiNode || phi instanceof MemoryPhiNode || phi instanceof GuardPhiNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static LoopBeginNode stripMine(LoopEx loop, int iterations) {
+        assert isStripMinable(loop, iterations);
+        LoopBeginNode innerBegin = loop.loopBegin();
+        StructuredGraph graph = innerBegin.graph();
+        graph.getDebug().log("LoopTransformations.stripMine %s", loop);
+        CountedLoopInfo counted = loop.counted();
+        IfNode limitTest = counted.getLimitTest();
+        boolean continueOnTrue = limitTest.trueSuccessor() == counted.getBody();
+        LoopExitNode countedExit = (LoopExitNode) (continueOnTrue ? limitTest.falseSuccessor() : limitTest.trueSuccessor());
+        double frequency = innerBegin.loopFrequency();
+
+        // Insert the outer loop between the loop entry and the inner loop
+        LoopBeginNode outerBegin = graph.add(new LoopBeginNode());
+        EndNode innerEntry = (EndNode) innerBegin.forwardEnd();
+        EndNode outerEntry = graph.add(new EndNode());
+        innerEntry.replaceAtPredecessor(outerEntry);
+        outerBegin.addForwardEnd(outerEntry);
+        outerBegin.setNext(innerEntry);
+        LoopEndNode outerEnd = graph.add(new LoopEndNode(outerBegin));
+        BeginNode outerContinue = graph.add(new BeginNode());
+        outerContinue.setNext(outerEnd);
+
+        // The outer phis pass the values of the inner phis at the strip limit back to the inner loop
+        EconomicMap<ValueNode, PhiNode> outerPhis = EconomicMap.create(Equivalence.IDENTITY);
+        for (PhiNode innerPhi : innerBegin.phis().snapshot()) {
+            PhiNode outerPhi = createOuterPhi(innerPhi, outerBegin, new ValueNode[]{innerPhi.valueAt(0), innerPhi});
+            innerPhi.setValueAt(0, outerPhi);
+            outerPhis.put(innerPhi, outerPhi);
+        }
+        FrameState innerState = innerBegin.stateAfter();
+        if (innerState != null) {
+            FrameState outerState = innerState.duplicateWithVirtualState();
+            outerState.applyToNonVirtual(new NodeClosure<ValueNode>() {
+
+                @Override
+                public void apply(Node from, ValueNode node) {
+                    PhiNode outerPhi = outerPhis.get(node);
+                    if (outerPhi != null) {
+                        from.replaceFirstInput(node, outerPhi);
+                    }
+                }
+            });
+            outerBegin.setStateAfter(outerState);
+        }
+
+        // Exit the inner loop at the strip limit
+        InductionVariable iv = counted.getCounter();
+        ValueNode limit = counted.getLimit();
+        CompareNode compare = (CompareNode) limitTest.condition();
+        CompareNode stripCompare = (CompareNode) compare.copyWithInputs();
+        stripCompare.replaceFirstInput(limit, createStripLimit(graph, iv, outerPhis.get(iv.valueNode()), limit, iterations));
+        limitTest.setCondition(stripCompare);
+
+        // Leave the outer loop if the original limit is reached, otherwise start the next strip
+        double strips = frequency / iterations;
+        double continueProbability = strips / (1 + strips);
+        FixedNode continuation = countedExit.next();
+        countedExit.setNext(null);
+        LoopExitNode outerExit = graph.add(new LoopExitNode(outerBegin));
+        outerExit.setNext(continuation);
+        IfNode outerTest = graph.add(new IfNode(compare, continueOnTrue ? outerContinue : outerExit, continueOnTrue ? outerExit : outerContinue,
+                        continueOnTrue ? continueProbability : 1 - continueProbability));
+        countedExit.setNext(outerTest);
+        for (LoopExitNode exit : innerBegin.loopExits().snapshot()) {
+            if (exit != countedExit) {
+                graph.addAfterFixed(exit, graph.add(new LoopExitNode(outerBegin)));
+            }
+        }
+
+        outerBegin.setLoopFrequency(Math.max(1.0, strips));
+        innerBegin.setLoopFrequency(Math.min(frequency, iterations));
+        graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "StripMine %s", loop);
+        return outerBegin;
+    }
+
+    private static PhiNode createOuterPhi(PhiNode innerPhi, LoopBeginNode outerBegin, ValueNode[] values) {
+        StructuredGraph graph = outerBegin.graph();
+        if (innerPhi instanceof ValuePhiNode) {
+            return graph.addWithoutUnique(new ValuePhiNode(innerPhi.stamp(), outerBegin, values));
+        } else if (innerPhi instanceof GuardPhiNode) {
+            return graph.addWithoutUnique(new GuardPhiNode(outerBegin, values));
+        } else if (innerPhi instanceof MemoryPhiNode) {
+            return graph.addWithoutUnique(new MemoryPhiNode(outerBegin, ((MemoryPhiNode) innerPhi).getLocationIdentity(), values));
+        }
+        throw GraalError.shouldNotReachHere();
+    }
+
+    /**
+     * Computes {@code min(limit, start + iterations * stride)} (or {@code max} for loops counting
+     * down) in 64 bit arithmetic so that the addition cannot overflow.
+     */
+    private static ValueNode createStripLimit(StructuredGraph graph, InductionVariable iv, ValueNode start, ValueNode limit, int iterations) {
+        int bits = ((IntegerStamp) limit.stamp()).getBits();
+        ValueNode wideLimit = graph.addOrUniqueWithInputs(SignExtendNode.create(limit, 64));
+        ValueNode stripEnd = graph.addOrUniqueWithInputs(AddNode.create(SignExtendNode.create(start, 64), ConstantNode.forLong(iterations * iv.constantStride())));
+        ValueNode stripLimit;
+        if (iv.direction() == Direction.Up) {
+            stripLimit = graph.unique(new ConditionalNode(graph.unique(new IntegerLessThanNode(stripEnd, wideLimit)), stripEnd, wideLimit));
+        } else {
+            stripLimit = graph.unique(new ConditionalNode(graph.unique(new IntegerLessThanNode(wideLimit, stripEnd)), stripEnd, wideLimit));
+        }
+        return graph.addOrUniqueWithInputs(NarrowNode.create(stripLimit, bits));
+    }
+
     public static List<ControlSplitNode> findUnswitchable(LoopEx loop) {
         List<ControlSplitNode> controls = null;
         ValueNode invariantValue = null;
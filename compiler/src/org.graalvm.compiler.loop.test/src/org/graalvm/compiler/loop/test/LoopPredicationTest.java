@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import org.graalvm.compiler.api.directives.GraalDirectives;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.DeoptimizationReason;
+
+public class LoopPredicationTest extends GraalCompilerTest {
+
+    @Override
+    protected boolean checkMidTierGraph(StructuredGraph graph) {
+        for (DeoptimizeNode deopt : graph.getNodes().filter(DeoptimizeNode.class)) {
+            if (deopt.reason() == DeoptimizationReason.BoundsCheckException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int sumUpSnippet(int[] array, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += array[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSumUp() {
+        int[] array = {1, 2, 3, 4, 5, 6, 7, 8};
+        test("sumUpSnippet", array, 0);
+        test("sumUpSnippet", array, 5);
+        test("sumUpSnippet", array, 8);
+        test("sumUpSnippet", array, 9);
+        test("sumUpSnippet", new int[0], 0);
+    }
+
+    public static int sumDownSnippet(int[] array, int start) {
+        int sum = 0;
+        for (int i = start; i >= 0; i--) {
+            sum += array[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSumDown() {
+        int[] array = {1, 2, 3, 4, 5, 6, 7, 8};
+        test("sumDownSnippet", array, -1);
+        test("sumDownSnippet", array, 3);
+        test("sumDownSnippet", array, 7);
+        test("sumDownSnippet", array, 8);
+    }
+
+    public static int sumOffsetStrideSnippet(int[] array, int offset, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i += 2) {
+            sum += array[i + offset];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSumOffsetStride() {
+        int[] array = {1, 2, 3, 4, 5, 6, 7, 8};
+        test("sumOffsetStrideSnippet", array, 0, 8);
+        test("sumOffsetStrideSnippet", array, 1, 7);
+        test("sumOffsetStrideSnippet", array, 1, 8);
+        test("sumOffsetStrideSnippet", array, -1, 4);
+    }
+
+    public static int[] copySnippet(int[] from, int[] to, int length) {
+        for (int i = 0; i < length; i++) {
+            to[i] = from[i];
+        }
+        return to;
+    }
+
+    @Test
+    public void testCopy() {
+        int[] from = {1, 2, 3, 4};
+        test("copySnippet", from, new int[4], 4);
+        test("copySnippet", from, new int[3], 4);
+        test("copySnippet", from, null, 4);
+        test("copySnippet", from, new int[1], 0);
+    }
+
+    public static int unsignedBoundSnippet(int start, int end, int bound) {
+        int sum = 0;
+        for (int i = start; i < end; i++) {
+            if (Integer.compareUnsigned(i, bound) >= 0) {
+                GraalDirectives.deoptimizeAndInvalidate();
+                return -1;
+            }
+            sum += i;
+        }
+        return sum;
+    }
+
+    /**
+     * The bound of an unsigned comparison that is not an array length can be negative, in which
+     * case checking the first and the last value of the induction variable is not sufficient.
+     */
+    @Test
+    public void testUnsignedBound() {
+        test("unsignedBoundSnippet", 0, 10, 20);
+        test("unsignedBoundSnippet", 0, 10, 5);
+        test("unsignedBoundSnippet", -5, 5, -1);
+        test("unsignedBoundSnippet", -5, 5, -3);
+    }
+
+    static class Holder {
+        int value;
+    }
+
+    public static int invariantFieldSnippet(Holder holder, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += holder.value;
+        }
+        return sum;
+    }
+
+    /**
+     * The null check of {@code holder} is moved in front of the loop, but the field read it
+     * guards must not be, since the moved check passes if the loop is not entered.
+     */
+    @Test
+    public void testInvariantField() {
+        Holder holder = new Holder();
+        holder.value = 3;
+        test("invariantFieldSnippet", holder, 4);
+        test("invariantFieldSnippet", null, 0);
+        test("invariantFieldSnippet", null, 1);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import static org.graalvm.compiler.core.common.GraalOptions.LoopStripMining;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.SafepointNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+public class LoopStripMiningTest extends GraalCompilerTest {
+
+    private final OptionValues options = new OptionValues(getInitialOptions(), LoopStripMining, true);
+    private int expectedSafepoints;
+
+    @Override
+    protected boolean checkMidTierGraph(StructuredGraph graph) {
+        assertDeepEquals(expectedSafepoints, graph.getNodes().filter(SafepointNode.class).count());
+        return true;
+    }
+
+    public static long sumSnippet(int[] a) {
+        long sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSum() {
+        // only the outer loop polls
+        expectedSafepoints = 1;
+        for (int length : new int[]{0, 1, 999, 1000, 1001, 2500}) {
+            test(options, "sumSnippet", createArray(length));
+        }
+    }
+
+    public static int sumReverseSnippet(int[] a, int n) {
+        int sum = 0;
+        for (int i = n; i > 0; i -= 3) {
+            sum += a[i - 1];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSumReverse() {
+        expectedSafepoints = 1;
+        int[] a = createArray(4000);
+        for (int n : new int[]{0, 3, 1000, 3001, 3999}) {
+            test(options, "sumReverseSnippet", a, n);
+        }
+    }
+
+    public static int findSnippet(int[] a, int value) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void testEarlyExit() {
+        expectedSafepoints = 1;
+        int[] a = createArray(3000);
+        for (int value : new int[]{0, 999, 1000, 2999, 5000}) {
+            test(options, "findSnippet", a, value);
+        }
+    }
+
+    public static int shortLoopSnippet(int[] a) {
+        int sum = 0;
+        for (int i = 0; i < 16; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testShortLoop() {
+        // a loop with a small constant trip count has no poll at all
+        expectedSafepoints = 0;
+        test(options, "shortLoopSnippet", createArray(16));
+    }
+
+    private static int[] createArray(int length) {
+        int[] a = new int[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = i * 7;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017, 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.microbenchmarks.graal;
+
+import org.graalvm.compiler.microbenchmarks.graal.util.GraalState;
+import org.graalvm.compiler.microbenchmarks.graal.util.GraphState;
+import org.graalvm.compiler.microbenchmarks.graal.util.MethodSpec;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.DominatorBasedGlobalValueNumberingPhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class GlobalValueNumberingBenchmark extends GraalBenchmark {
+
+    @MethodSpec(declaringClass = GlobalValueNumberingBenchmark.class, name = "matrixSnippet")
+    public static class Matrix extends GraphState {
+    }
+
+    public static int matrixSnippet(int[][] m, int[] v, int row) {
+        int result = 0;
+        for (int i = 0; i < m[row].length; i++) {
+            if (m[row][i] > 0) {
+                result += m[row][i] * v[i];
+            } else if (m[row][i] < 0) {
+                result -= m[row][i] * v[i];
+            }
+            if (result > v.length) {
+                result /= v.length;
+            }
+        }
+        return result + m[row].length;
+    }
+
+    @Benchmark
+    public void matrix(Matrix s, GraalState g) {
+        new DominatorBasedGlobalValueNumberingPhase(new CanonicalizerPhase()).apply(s.graph, new PhaseContext(g.providers));
+    }
+
+    @MethodSpec(declaringClass = GlobalValueNumberingBenchmark.class, name = "searchSnippet")
+    public static class Search extends GraphState {
+    }
+
+    static class Entry {
+        final String name;
+        Entry next;
+
+        Entry(String name) {
+            this.name = name;
+        }
+    }
+
+    public static Entry searchSnippet(Entry start, String name) {
+        Entry current = start;
+        while (current != null) {
+            if (current.name == name) {
+                return current;
+            }
+            if (current.name != null && current.name.length() == name.length()) {
+                if (current.name.equals(name)) {
+                    return current;
+                }
+            }
+            current = current.next;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void search(Search s, GraalState g) {
+        new DominatorBasedGlobalValueNumberingPhase(new CanonicalizerPhase()).apply(s.graph, new PhaseContext(g.providers));
+    }
+}
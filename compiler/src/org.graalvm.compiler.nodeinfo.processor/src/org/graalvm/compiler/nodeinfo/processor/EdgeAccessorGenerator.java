@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.nodeinfo.processor;
+
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a {@code org.graalvm.compiler.graph.NodeEdgeAccessor} subclass for a concrete node
+ * class. The generated accessor processes the edges in the order {@code NodeClass} is expected to
+ * see them: direct edges before list edges, superclass fields before subclass fields and fields of
+ * one class in declaration order. {@code NodeClass} discards an accessor whose edge offsets do not
+ * match this order at run time.
+ */
+public class EdgeAccessorGenerator {
+
+    static final String ACCESSOR_CLASS_SUFFIX = "_EdgeAccessor";
+
+    private final GraphNodeProcessor env;
+    private final Types types;
+    private final Elements elements;
+
+    // Checkstyle: stop
+    private final TypeElement Input;
+    private final TypeElement OptionalInput;
+    private final TypeElement Successor;
+
+    private final TypeElement NodeList;
+    // Checkstyle: resume
+
+    public EdgeAccessorGenerator(GraphNodeProcessor processor, GraphNodeVerifier verifier) {
+        this.env = processor;
+        this.types = processor.getProcessingEnv().getTypeUtils();
+        this.elements = processor.getProcessingEnv().getElementUtils();
+
+        this.Input = verifier.getTypeElement("org.graalvm.compiler.graph.Node.Input");
+        this.OptionalInput = verifier.getTypeElement("org.graalvm.compiler.graph.Node.OptionalInput");
+        this.Successor = verifier.getTypeElement("org.graalvm.compiler.graph.Node.Successor");
+        this.NodeList = verifier.getTypeElement("org.graalvm.compiler.graph.NodeList");
+    }
+
+    private static final class NodeEdges {
+        final List<VariableElement> directInputs = new ArrayList<>();
+        final List<VariableElement> inputLists = new ArrayList<>();
+        final List<VariableElement> directSuccessors = new ArrayList<>();
+        final List<VariableElement> successorLists = new ArrayList<>();
+
+        List<VariableElement> inputs() {
+            List<VariableElement> result = new ArrayList<>(directInputs);
+            result.addAll(inputLists);
+            return result;
+        }
+
+        List<VariableElement> successors() {
+            List<VariableElement> result = new ArrayList<>(directSuccessors);
+            result.addAll(successorLists);
+            return result;
+        }
+    }
+
+    /**
+     * Generates the accessor for {@code node} unless the node class cannot be referenced from its
+     * package or has no edges.
+     */
+    void generate(TypeElement node) {
+        for (Element e = node; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(PRIVATE) || !(e.getKind().isClass() || e.getKind().isInterface())) {
+                return;
+            }
+        }
+        NodeEdges edges = collectEdges(node);
+        if (edges == null || edges.inputs().isEmpty() && edges.successors().isEmpty()) {
+            return;
+        }
+
+        PackageElement pkg = elements.getPackageOf(node);
+        String binaryName = elements.getBinaryName(node).toString();
+        String pkgName = pkg.getQualifiedName().toString();
+        String simpleName = pkg.isUnnamed() ? binaryName : binaryName.substring(pkgName.length() + 1);
+        String accessorName = simpleName.replace('$', '_') + ACCESSOR_CLASS_SUFFIX;
+
+        Element topLevel = node;
+        while (topLevel.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+            topLevel = topLevel.getEnclosingElement();
+        }
+
+        try (PrintWriter out = createSourceFile(pkg.isUnnamed() ? accessorName : pkgName + "." + accessorName, node)) {
+            write(out, pkg, accessorName, node, topLevel.getSimpleName().toString(), edges);
+        }
+    }
+
+    /**
+     * Collects the edge fields of {@code node} and its superclasses.
+     *
+     * @return {@code null} if two edge fields have the same name
+     */
+    private NodeEdges collectEdges(TypeElement node) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement c = node; c != null; c = (TypeElement) types.asElement(c.getSuperclass())) {
+            hierarchy.add(0, c);
+        }
+        NodeEdges edges = new NodeEdges();
+        Set<String> names = new HashSet<>();
+        for (TypeElement c : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(c.getEnclosedElements())) {
+                if (field.getModifiers().contains(STATIC)) {
+                    continue;
+                }
+                List<? extends AnnotationMirror> annotations = field.getAnnotationMirrors();
+                boolean isInput = hasAnnotation(annotations, Input) || hasAnnotation(annotations, OptionalInput);
+                boolean isSuccessor = hasAnnotation(annotations, Successor);
+                if (!isInput && !isSuccessor) {
+                    continue;
+                }
+                if (!names.add(field.getSimpleName().toString())) {
+                    return null;
+                }
+                boolean isList = types.isAssignable(types.erasure(field.asType()), types.erasure(NodeList.asType()));
+                if (isInput) {
+                    (isList ? edges.inputLists : edges.directInputs).add(field);
+                } else {
+                    (isList ? edges.successorLists : edges.directSuccessors).add(field);
+                }
+            }
+        }
+        return edges;
+    }
+
+    private boolean hasAnnotation(List<? extends AnnotationMirror> mirrors, TypeElement annotationType) {
+        for (AnnotationMirror mirror : mirrors) {
+            if (types.isSameType(mirror.getAnnotationType(), annotationType.asType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(PrintWriter out, PackageElement pkg, String accessorName, TypeElement node, String topLevelName, NodeEdges edges) {
+        String nodeClass = rawTypeName(node.asType());
+        out.println("// CheckStyle: stop header check");
+        out.println("// CheckStyle: stop line length check");
+        out.println("// GENERATED CONTENT - DO NOT EDIT");
+        out.println("// Source: " + topLevelName + ".java");
+        if (!pkg.isUnnamed()) {
+            out.println("package " + pkg.getQualifiedName() + ";");
+        }
+        out.println("");
+        out.println("import org.graalvm.compiler.graph.Edges;");
+        out.println("import org.graalvm.compiler.graph.Node;");
+        out.println("import org.graalvm.compiler.graph.Node.EdgeVisitor;");
+        out.println("import org.graalvm.compiler.graph.NodeClass.InplaceUpdateClosure;");
+        out.println("import org.graalvm.compiler.graph.NodeEdgeAccessor;");
+        out.println("import org.graalvm.compiler.graph.NodeStack;");
+        out.println("");
+        out.println("public final class " + accessorName + " extends NodeEdgeAccessor {");
+        out.println("");
+        writeOffsets(out, nodeClass, "INPUT_", edges.inputs(), edges.directInputs.size());
+        writeOffsets(out, nodeClass, "SUCCESSOR_", edges.successors(), edges.directSuccessors.size());
+
+        writeOffsetsMethod(out, "inputOffsets", "INPUT_", edges.inputs().size());
+        writeOffsetsMethod(out, "successorOffsets", "SUCCESSOR_", edges.successors().size());
+
+        String inputs = "Edges.Type.Inputs";
+        String successors = "Edges.Type.Successors";
+        writeStatements(out, "applyInputs(Node node, EdgeVisitor consumer)", edges.directInputs, edges.inputLists, "INPUT_", "apply(node, %s, consumer)", "applyList(node, %s, consumer)");
+        writeStatements(out, "applySuccessors(Node node, EdgeVisitor consumer)", edges.directSuccessors, edges.successorLists, "SUCCESSOR_", "apply(node, %s, consumer)",
+                        "applyList(node, %s, consumer)");
+        writeStatements(out, "pushInputs(Node node, NodeStack stack)", edges.directInputs, edges.inputLists, "INPUT_", "push(node, %s, stack)", "pushList(node, %s, stack)");
+        writeCondition(out, "replaceFirstInput(Node node, Node key, Node replacement)", edges.directInputs, edges.inputLists, "INPUT_", " || ", "false",
+                        "replaceFirst(node, %s, key, replacement)", "replaceFirstInList(node, %s, key, replacement)");
+        writeCondition(out, "replaceFirstSuccessor(Node node, Node key, Node replacement)", edges.directSuccessors, edges.successorLists, "SUCCESSOR_", " || ", "false",
+                        "replaceFirst(node, %s, key, replacement)", "replaceFirstInList(node, %s, key, replacement)");
+        writeStatements(out, "registerAtInputsAsUsage(Node node)", edges.directInputs, edges.inputLists, "INPUT_", "registerUsage(node, %s)", "registerUsages(node, %s)");
+        writeStatements(out, "unregisterAtInputsAsUsage(Node node)", edges.directInputs, edges.inputLists, "INPUT_", "unregisterUsage(node, %s)", "unregisterUsages(node, %s)");
+        writeStatements(out, "registerAtSuccessorsAsPredecessor(Node node)", edges.directSuccessors, edges.successorLists, "SUCCESSOR_", "registerPredecessor(node, %s)",
+                        "registerPredecessors(node, %s)");
+        writeStatements(out, "unregisterAtSuccessorsAsPredecessor(Node node)", edges.directSuccessors, edges.successorLists, "SUCCESSOR_", "unregisterPredecessor(node, %s)",
+                        "unregisterPredecessors(node, %s)");
+        writeCondition(out, "equalInputs(Node node, Node other)", edges.directInputs, edges.inputLists, "INPUT_", " && ", "true", "equal(node, other, %s)", "equalList(node, other, %s)");
+        writeCondition(out, "equalSuccessors(Node node, Node other)", edges.directSuccessors, edges.successorLists, "SUCCESSOR_", " && ", "true", "equal(node, other, %s)",
+                        "equalList(node, other, %s)");
+        writeStatements(out, "copyInputs(Node fromNode, Node toNode)", edges.directInputs, edges.inputLists, "INPUT_", "copy(fromNode, toNode, %s)",
+                        "copyList(fromNode, toNode, %s, " + inputs + ")");
+        writeStatements(out, "copySuccessors(Node fromNode, Node toNode)", edges.directSuccessors, edges.successorLists, "SUCCESSOR_", "copy(fromNode, toNode, %s)",
+                        "copyList(fromNode, toNode, %s, " + successors + ")");
+        writeStatements(out, "updateInputsInPlace(Node node, InplaceUpdateClosure duplicationReplacement)", edges.directInputs, edges.inputLists, "INPUT_",
+                        "update(node, %1$s, %1$s_TYPE, duplicationReplacement, " + inputs + ")", "updateList(node, %s, duplicationReplacement, " + inputs + ")");
+        writeStatements(out, "updateSuccessorsInPlace(Node node, InplaceUpdateClosure duplicationReplacement)", edges.directSuccessors, edges.successorLists, "SUCCESSOR_",
+                        "update(node, %1$s, %1$s_TYPE, duplicationReplacement, " + successors + ")", "updateList(node, %s, duplicationReplacement, " + successors + ")");
+        out.println("}");
+    }
+
+    private static void writeOffsets(PrintWriter out, String nodeClass, String prefix, List<VariableElement> fields, int directCount) {
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).getSimpleName().toString();
+            out.println("    private static final long " + prefix + i + " = fieldOffset(" + nodeClass + ".class, \"" + name + "\");");
+            if (i < directCount) {
+                out.println("    private static final Class<?> " + prefix + i + "_TYPE = fieldType(" + nodeClass + ".class, \"" + name + "\");");
+            }
+        }
+        if (!fields.isEmpty()) {
+            out.println("");
+        }
+    }
+
+    private static void writeOffsetsMethod(PrintWriter out, String methodName, String prefix, int count) {
+        out.println("    @Override");
+        out.println("    protected long[] " + methodName + "() {");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "" : ", ").append(prefix).append(i);
+        }
+        out.println("        return new long[]{" + sb + "};");
+        out.println("    }");
+        out.println("");
+    }
+
+    private static void writeStatements(PrintWriter out, String signature, List<VariableElement> direct, List<VariableElement> lists, String prefix, String directFormat, String listFormat) {
+        out.println("    @Override");
+        out.println("    protected void " + signature + " {");
+        for (int i = 0; i < direct.size() + lists.size(); i++) {
+            String format = i < direct.size() ? directFormat : listFormat;
+            out.println("        " + String.format(format, prefix + i) + ";");
+        }
+        out.println("    }");
+        out.println("");
+    }
+
+    private static void writeCondition(PrintWriter out, String signature, List<VariableElement> direct, List<VariableElement> lists, String prefix, String operator, String empty,
+                    String directFormat, String listFormat) {
+        out.println("    @Override");
+        out.println("    protected boolean " + signature + " {");
+        int count = direct.size() + lists.size();
+        if (count == 0) {
+            out.println("        return " + empty + ";");
+        } else {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                String format = i < direct.size() ? directFormat : listFormat;
+                sb.append(i == 0 ? "" : operator).append(String.format(format, prefix + i));
+            }
+            out.println("        return " + sb + ";");
+        }
+        out.println("    }");
+        out.println("");
+    }
+
+    private String rawTypeName(TypeMirror type) {
+        TypeMirror erased = types.erasure(type);
+        if (erased.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+        }
+        return erased.toString();
+    }
+
+    private PrintWriter createSourceFile(String name, Element originatingElement) {
+        try {
+            Filer filer = env.getProcessingEnv().getFiler();
+            // Ensure Unix line endings to comply with code style guide checked by Checkstyle
+            JavaFileObject sourceFile = filer.createSourceFile(name, originatingElement);
+            return new PrintWriter(sourceFile.openWriter()) {
+
+                @Override
+                public void println() {
+                    print("\n");
+                }
+            };
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
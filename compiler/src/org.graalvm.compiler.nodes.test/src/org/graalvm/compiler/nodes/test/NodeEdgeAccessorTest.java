@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.nodes.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.graph.NodeStack;
+import org.graalvm.compiler.graph.Position;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.MergeNode;
+import org.graalvm.compiler.nodes.ReturnNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.MethodCallTargetNode;
+import org.graalvm.util.UnmodifiableEconomicMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the generated edge accessors are used for node classes and behave like the generic
+ * {@link org.graalvm.compiler.graph.Edges} based code.
+ */
+public class NodeEdgeAccessorTest extends GraalCompilerTest {
+
+    public static int snippet(int[] array, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            if (array[i] > 0) {
+                sum += array[i];
+            } else {
+                sum = decrement(sum);
+            }
+        }
+        return sum;
+    }
+
+    public static int decrement(int value) {
+        return value - 1;
+    }
+
+    @Test
+    public void testAccessorsFound() {
+        Class<?>[] nodeClasses = {AddNode.class, IfNode.class, ValuePhiNode.class, LoopBeginNode.class, MergeNode.class, FrameState.class, MethodCallTargetNode.class, LoadIndexedNode.class,
+                        ReturnNode.class};
+        for (Class<?> nodeClass : nodeClasses) {
+            Assert.assertTrue(nodeClass.getName(), NodeClass.get(nodeClass).hasEdgeAccessor());
+        }
+    }
+
+    @Test
+    public void testIteration() {
+        StructuredGraph graph = parseEager("snippet", AllowAssumptions.YES);
+        for (Node node : graph.getNodes()) {
+            List<Node> inputs = new ArrayList<>();
+            node.applyInputs(new Node.EdgeVisitor() {
+                @Override
+                public Node apply(Node source, Node target) {
+                    inputs.add(target);
+                    return target;
+                }
+            });
+            Assert.assertEquals(node.toString(), values(node, node.inputPositions()), inputs);
+
+            List<Node> successors = new ArrayList<>();
+            node.applySuccessors(new Node.EdgeVisitor() {
+                @Override
+                public Node apply(Node source, Node target) {
+                    successors.add(target);
+                    return target;
+                }
+            });
+            Assert.assertEquals(node.toString(), values(node, node.successorPositions()), successors);
+
+            NodeStack stack = new NodeStack();
+            node.getNodeClass().pushInputs(node, stack);
+            List<Node> pushed = new ArrayList<>();
+            while (!stack.isEmpty()) {
+                pushed.add(0, stack.pop());
+            }
+            Assert.assertEquals(node.toString(), values(node, node.inputPositions()), pushed);
+        }
+    }
+
+    @Test
+    public void testReplaceFirst() {
+        StructuredGraph graph = parseEager("snippet", AllowAssumptions.YES);
+        for (Node node : graph.getNodes().snapshot()) {
+            List<Node> inputs = values(node, node.inputPositions());
+            if (!inputs.isEmpty()) {
+                Node key = inputs.get(inputs.size() - 1);
+                Node replacement = key.copyWithInputs();
+                inputs.set(inputs.indexOf(key), replacement);
+                node.replaceFirstInput(key, replacement);
+                Assert.assertEquals(node.toString(), inputs, values(node, node.inputPositions()));
+            }
+
+            List<Node> successors = values(node, node.successorPositions());
+            if (!successors.isEmpty()) {
+                Node key = successors.get(successors.size() - 1);
+                Node replacement = key.copyWithInputs();
+                successors.set(successors.indexOf(key), replacement);
+                node.replaceFirstSuccessor(key, replacement);
+                Assert.assertEquals(node.toString(), successors, values(node, node.successorPositions()));
+            }
+        }
+    }
+
+    @Test
+    public void testCopy() {
+        StructuredGraph graph = parseEager("snippet", AllowAssumptions.YES);
+        for (Node node : graph.getNodes().snapshot()) {
+            Node copy = node.copyWithInputs(false);
+            Assert.assertEquals(node.toString(), values(node, node.inputPositions()), values(copy, copy.inputPositions()));
+            Assert.assertTrue(node.toString(), node.getNodeClass().equalInputs(node, copy));
+        }
+
+        List<UnmodifiableEconomicMap<Node, Node>> duplicates = new ArrayList<>();
+        graph.copy(duplicates::add, graph.getDebug());
+        UnmodifiableEconomicMap<Node, Node> duplicateMap = duplicates.get(0);
+        for (Node node : graph.getNodes()) {
+            Node duplicate = duplicateMap.get(node);
+            if (duplicate == null) {
+                continue;
+            }
+            Assert.assertEquals(node.toString(), map(duplicateMap, values(node, node.inputPositions())), values(duplicate, duplicate.inputPositions()));
+            Assert.assertEquals(node.toString(), map(duplicateMap, values(node, node.successorPositions())), values(duplicate, duplicate.successorPositions()));
+        }
+    }
+
+    /**
+     * Gets the non-null edges at {@code positions} through the reflective
+     * {@link org.graalvm.compiler.graph.Edges}.
+     */
+    private static List<Node> values(Node node, Iterable<Position> positions) {
+        List<Node> result = new ArrayList<>();
+        for (Position position : positions) {
+            Node value = position.get(node);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    private static List<Node> map(UnmodifiableEconomicMap<Node, Node> duplicateMap, List<Node> nodes) {
+        List<Node> result = new ArrayList<>();
+        for (Node node : nodes) {
+            Node duplicate = duplicateMap.get(node);
+            result.add(duplicate != null ? duplicate : node);
+        }
+        return result;
+    }
+}
@@ -29,6 +29,7 @@ import org.graalvm.compiler.core.common.type.IntegerStamp;
 import org.graalvm.compiler.core.common.type.Stamp;
 import org.graalvm.compiler.core.common.type.StampFactory;
 import org.graalvm.compiler.core.common.type.TypeReference;
+import org.graalvm.compiler.graph.Node;
 import org.graalvm.compiler.graph.NodeClass;
 import org.graalvm.compiler.graph.spi.Simplifiable;
 import org.graalvm.compiler.graph.spi.SimplifierTool;
@@ -38,6 +39,7 @@ import org.graalvm.compiler.nodes.FixedGuardNode;
 import org.graalvm.compiler.nodes.FrameState;
 import org.graalvm.compiler.nodes.LogicNode;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.VirtualState;
 import org.graalvm.compiler.nodes.calc.CompareNode;
 import org.graalvm.compiler.nodes.spi.VirtualizableAllocation;
 import org.graalvm.compiler.nodes.spi.VirtualizerTool;
@@ -92,9 +94,14 @@ public class NewArrayNode extends AbstractNewArrayNode implements VirtualizableA
     @Override
     public void virtualize(VirtualizerTool tool) {
         ValueNode lengthAlias = tool.getAlias(length());
+        /*
+         * Only arrays with a constant length are virtualized. A length that is merely bounded by its
+         * stamp would need a variable number of entries in the virtual object, which neither the
+         * deoptimization metadata nor the allocation lowering support.
+         */
         if (lengthAlias.asConstant() != null) {
             int constantLength = lengthAlias.asJavaConstant().asInt();
-            if (constantLength >= 0 && constantLength < tool.getMaximumEntryCount()) {
+            if (constantLength >= 0 && (constantLength < tool.getMaximumEntryCount() || (constantLength < tool.getMaximumLargeArrayEntryCount() && hasOnlyElementUsages()))) {
                 ValueNode[] state = new ValueNode[constantLength];
                 ConstantNode defaultForKind = constantLength == 0 ? null : defaultElementValue();
                 for (int i = 0; i < constantLength; i++) {
@@ -107,6 +114,25 @@ public class NewArrayNode extends AbstractNewArrayNode implements VirtualizableA
         }
     }
 
+    /**
+     * Determines if this array is only used by element accesses, length reads and states. Larger
+     * arrays are only virtualized in this case: elements that are never written share the default
+     * value constant, accesses at constant indices are folded and an access at a non-constant index
+     * materializes the array only on the path of that access.
+     */
+    private boolean hasOnlyElementUsages() {
+        for (Node usage : usages()) {
+            if (usage instanceof StoreIndexedNode) {
+                if (((StoreIndexedNode) usage).value() == this) {
+                    return false;
+                }
+            } else if (!(usage instanceof LoadIndexedNode || usage instanceof ArrayLengthNode || usage instanceof VirtualState)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected VirtualArrayNode createVirtualArrayNode(int constantLength) {
         return new VirtualArrayNode(elementType(), constantLength);
     }
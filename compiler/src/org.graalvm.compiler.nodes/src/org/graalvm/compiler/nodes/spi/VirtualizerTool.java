@@ -63,6 +63,15 @@ public interface VirtualizerTool {
      */
     int getMaximumEntryCount();
 
+    /**
+     * This method should be used to query the maximum size of arrays that are virtualized although
+     * they are larger than {@link #getMaximumEntryCount()}, because they are only used by element
+     * accesses and length reads.
+     *
+     * @return the maximum number of entries for such virtualized arrays.
+     */
+    int getMaximumLargeArrayEntryCount();
+
     // methods working on virtualized/materialized objects
 
     /**
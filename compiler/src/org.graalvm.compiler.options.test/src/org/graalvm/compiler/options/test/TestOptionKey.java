@@ -47,6 +47,8 @@ public class TestOptionKey {
     public static class Options {
         public static final OptionKey<String> MyOption = new OptionKey<>("original");
         public static final OptionKey<String> MyOtherOption = new OptionKey<>("original");
+        public static final OptionKey<String> MyEarlyOption = new OptionKey<>("original");
+        public static final OptionKey<String> MyLateOption = new OptionKey<>("original");
     }
 
     @Test
@@ -83,4 +85,27 @@ public class TestOptionKey {
 
     }
 
+    /**
+     * Tests that values are found regardless of whether the key had a descriptor when the
+     * {@link OptionValues} object was created.
+     */
+    @Test
+    public void testIndexed() {
+        OptionDescriptor.create("MyEarlyOption", String.class, "", Options.class, "MyEarlyOption", Options.MyEarlyOption);
+        OptionValues options = new OptionValues(asMap(Options.MyEarlyOption, "early", Options.MyLateOption, "late"));
+        OptionDescriptor.create("MyLateOption", String.class, "", Options.class, "MyLateOption", Options.MyLateOption);
+        Assert.assertEquals("early", Options.MyEarlyOption.getValue(options));
+        Assert.assertEquals("late", Options.MyLateOption.getValue(options));
+
+        OptionValues derived = new OptionValues(options, Options.MyEarlyOption, null);
+        Assert.assertNull(Options.MyEarlyOption.getValue(derived));
+        Assert.assertTrue(Options.MyEarlyOption.hasBeenSet(derived));
+        Assert.assertEquals("late", Options.MyLateOption.getValue(derived));
+        Assert.assertEquals("early", Options.MyEarlyOption.getValue(options));
+
+        OptionValues derivedAgain = new OptionValues(derived, Options.MyLateOption, "later");
+        Assert.assertNull(Options.MyEarlyOption.getValue(derivedAgain));
+        Assert.assertEquals("later", Options.MyLateOption.getValue(derivedAgain));
+        Assert.assertEquals("late", Options.MyLateOption.getValue(derived));
+    }
 }
@@ -35,6 +35,19 @@ public class OptionKey<T> {
 
     private OptionDescriptor descriptor;
 
+    /**
+     * Dense index of this option assigned when its descriptor is set or -1 if no descriptor has
+     * been set yet. The index is used by {@link OptionValues} to look up values in an array instead
+     * of a map.
+     */
+    private volatile int index = -1;
+
+    /**
+     * The number of indexes assigned so far. Guarded by {@code OptionKey.class} so that an index is
+     * published no later than the count covering it.
+     */
+    private static int indexCount;
+
     public OptionKey(T defaultValue) {
         this.defaultValue = defaultValue;
     }
@@ -45,6 +58,23 @@ public class OptionKey<T> {
     public final void setDescriptor(OptionDescriptor descriptor) {
         assert this.descriptor == null : "Overwriting existing descriptor";
         this.descriptor = descriptor;
+        synchronized (OptionKey.class) {
+            this.index = indexCount++;
+        }
+    }
+
+    /**
+     * Gets the dense index of this option or -1 if it does not have a descriptor yet.
+     */
+    final int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets an upper bound of the {@linkplain #getIndex() indexes} assigned so far.
+     */
+    static synchronized int getIndexCount() {
+        return indexCount;
     }
 
     /**
@@ -42,7 +42,18 @@ public class OptionValues {
 
     private final UnmodifiableEconomicMap<OptionKey<?>, Object> values;
 
+    /**
+     * The values in {@link #values} for keys whose {@linkplain OptionKey#getIndex() index} is less
+     * than the length of this array, stored at the key's index. A {@code null} element denotes an
+     * option that is not set. Values of all other keys are only in {@link #values}.
+     */
+    private final Object[] indexedValues;
+
     protected boolean containsKey(OptionKey<?> key) {
+        int index = key.getIndex();
+        if (index >= 0 && index < indexedValues.length) {
+            return indexedValues[index] != null;
+        }
         return values.containsKey(key);
     }
 
@@ -53,6 +64,20 @@ public class OptionValues {
         }
         initMap(map, extraPairs);
         this.values = map;
+        if (initialValues != null && initialValues.getMap() == initialValues.values && initialValues.indexedValues.length == OptionKey.getIndexCount()) {
+            // Copy-on-write layer: only the extra pairs need to be indexed. This is only valid
+            // if the values of initialValues are not maintained by a subclass.
+            this.indexedValues = initialValues.indexedValues.clone();
+            UnmodifiableMapCursor<OptionKey<?>, Object> cursor = extraPairs.getEntries();
+            while (cursor.advance()) {
+                int index = cursor.getKey().getIndex();
+                if (index >= 0 && index < indexedValues.length) {
+                    indexedValues[index] = encodeNull(cursor.getValue());
+                }
+            }
+        } else {
+            this.indexedValues = indexValues(map);
+        }
     }
 
     public OptionValues(OptionValues initialValues, OptionKey<?> key1, Object value1, Object... extraPairs) {
@@ -95,6 +120,24 @@ public class OptionValues {
         EconomicMap<OptionKey<?>, Object> map = newOptionMap();
         initMap(map, values);
         this.values = map;
+        this.indexedValues = indexValues(map);
+    }
+
+    /**
+     * Creates an array of the values in {@code values} indexed by {@link OptionKey#getIndex()}. The
+     * length of the array is read before the keys so that any key with an index less than the
+     * length is guaranteed to be in the array if it is in {@code values}.
+     */
+    private static Object[] indexValues(UnmodifiableEconomicMap<OptionKey<?>, Object> values) {
+        Object[] result = new Object[OptionKey.getIndexCount()];
+        UnmodifiableMapCursor<OptionKey<?>, Object> cursor = values.getEntries();
+        while (cursor.advance()) {
+            int index = cursor.getKey().getIndex();
+            if (index >= 0 && index < result.length) {
+                result[index] = cursor.getValue();
+            }
+        }
+        return result;
     }
 
     protected static void initMap(EconomicMap<OptionKey<?>, Object> map, UnmodifiableEconomicMap<OptionKey<?>, Object> values) {
@@ -104,7 +147,16 @@ public class OptionValues {
         }
     }
 
+    @SuppressWarnings("unchecked")
     protected <T> T get(OptionKey<T> key) {
+        int index = key.getIndex();
+        if (index >= 0 && index < indexedValues.length) {
+            Object value = indexedValues[index];
+            if (value == null) {
+                return key.getDefaultValue();
+            }
+            return (T) decodeNull(value);
+        }
         return get(values, key);
     }
 
@@ -112,6 +112,11 @@ public class ConditionalEliminationPhase extends BasePhase<PhaseContext> {
         this.moveGuards = moveGuards;
     }
 
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
+
     @Override
     @SuppressWarnings("try")
     protected void run(StructuredGraph graph, PhaseContext context) {
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.phases.common;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.graalvm.compiler.core.common.cfg.BlockMap;
+import org.graalvm.compiler.core.common.cfg.Loop;
+import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeBitMap;
+import org.graalvm.compiler.graph.Position;
+import org.graalvm.compiler.nodes.FieldLocationIdentity;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.StateSplit;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.calc.IntegerDivRemNode;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.cfg.LocationSet;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreFieldNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.nodes.memory.MemoryCheckpoint;
+import org.graalvm.compiler.nodes.memory.ReadNode;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.graalvm.util.EconomicMap;
+import org.graalvm.util.EconomicSet;
+import org.graalvm.util.Equivalence;
+import org.graalvm.util.MapCursor;
+import org.graalvm.word.LocationIdentity;
+
+/**
+ * Value numbering of fixed nodes along the dominator tree. Floating nodes are already value
+ * numbered by the graph, but fixed reads ({@link LoadFieldNode}, {@link LoadIndexedNode},
+ * {@link ArrayLengthNode}, {@link ReadNode}) and pure fixed computations such as
+ * {@link IntegerDivRemNode} are not. A fixed node is replaced by an equal node of a dominating
+ * block if no memory location read by the node can be killed on any path between the two.
+ *
+ * Kills are determined from {@link MemoryCheckpoint}s, from field and array stores and, for any
+ * other node with a side effect, conservatively as {@link LocationIdentity#any()}. When a block is
+ * reached over more than one predecessor, including loop headers over their back edges, the
+ * locations killed on all paths from its dominator are removed from the table.
+ */
+public class DominatorBasedGlobalValueNumberingPhase extends BasePhase<PhaseContext> {
+
+    private static final CounterKey REPLACED = DebugContext.counter("GlobalValueNumbering_Replaced");
+
+    private final CanonicalizerPhase canonicalizer;
+
+    public DominatorBasedGlobalValueNumberingPhase(CanonicalizerPhase canonicalizer) {
+        this.canonicalizer = canonicalizer;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, PhaseContext context) {
+        ControlFlowGraph cfg = ControlFlowGraph.compute(graph, true, true, true, false);
+        Instance instance = new Instance(graph, cfg);
+        cfg.visitDominatorTree(instance, false);
+        if (instance.replaced) {
+            canonicalizer.applyIncremental(graph, context, instance.changedNodes);
+        }
+    }
+
+    static boolean isCandidate(FixedNode node) {
+        if (node instanceof LoadFieldNode) {
+            return !((LoadFieldNode) node).isVolatile();
+        }
+        return node instanceof LoadIndexedNode || node instanceof ArrayLengthNode || node instanceof ReadNode || node instanceof IntegerDivRemNode;
+    }
+
+    /**
+     * Gets the memory location read by a {@linkplain #isCandidate candidate}, or {@code null} if
+     * the node does not read memory.
+     */
+    static LocationIdentity readLocation(FixedNode node) {
+        if (node instanceof LoadFieldNode) {
+            return new FieldLocationIdentity(((LoadFieldNode) node).field());
+        } else if (node instanceof LoadIndexedNode) {
+            return NamedLocationIdentity.getArrayLocation(((LoadIndexedNode) node).elementKind());
+        } else if (node instanceof ArrayLengthNode) {
+            return NamedLocationIdentity.ARRAY_LENGTH_LOCATION;
+        } else if (node instanceof ReadNode) {
+            return ((ReadNode) node).getLocationIdentity();
+        }
+        return null;
+    }
+
+    static void addKilledLocations(FixedNode node, LocationSet result) {
+        if (node instanceof MemoryCheckpoint.Single) {
+            result.add(((MemoryCheckpoint.Single) node).getLocationIdentity());
+        } else if (node instanceof MemoryCheckpoint.Multi) {
+            for (LocationIdentity identity : ((MemoryCheckpoint.Multi) node).getLocationIdentities()) {
+                result.add(identity);
+            }
+        } else if (node instanceof StoreFieldNode) {
+            StoreFieldNode store = (StoreFieldNode) node;
+            result.add(store.isVolatile() ? LocationIdentity.any() : new FieldLocationIdentity(store.field()));
+        } else if (node instanceof StoreIndexedNode) {
+            result.add(NamedLocationIdentity.getArrayLocation(((StoreIndexedNode) node).elementKind()));
+        } else if (node instanceof LoadFieldNode && ((LoadFieldNode) node).isVolatile()) {
+            // a volatile read orders all subsequent reads
+            result.add(LocationIdentity.any());
+        } else if (node instanceof StateSplit && ((StateSplit) node).hasSideEffect()) {
+            result.add(LocationIdentity.any());
+        }
+    }
+
+    private static final class Entry {
+
+        final FixedWithNextNode node;
+        final LocationIdentity location;
+
+        Entry(FixedWithNextNode node, LocationIdentity location) {
+            this.node = node;
+            this.location = location;
+        }
+
+        boolean isKilledBy(LocationSet killed) {
+            if (location == null || location.isImmutable()) {
+                return false;
+            } else if (location.isAny()) {
+                return true;
+            }
+            return killed.contains(location);
+        }
+    }
+
+    /**
+     * Identifies a fixed node by its class, its data fields and its value inputs. Guard, anchor,
+     * state and memory inputs are ignored: the execution of the dominating node implies that its
+     * guards hold, and its memory state is checked with the kill locations instead.
+     */
+    private static final class ValueKey {
+
+        private final Node node;
+        private final int hash;
+
+        ValueKey(Node node) {
+            this.node = node;
+            int h = node.getNodeClass().valueNumber(node);
+            for (Position position : node.inputPositions()) {
+                if (isValueInput(position)) {
+                    Node input = position.get(node);
+                    h = h * 31 + (input == null ? 0 : input.hashCode());
+                }
+            }
+            this.hash = h;
+        }
+
+        private static boolean isValueInput(Position position) {
+            switch (position.getInputType()) {
+                case State:
+                case Guard:
+                case Anchor:
+                case Memory:
+                    return false;
+                default:
+                    return true;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ValueKey)) {
+                return false;
+            }
+            ValueKey other = (ValueKey) obj;
+            if (hash != other.hash || node.getNodeClass() != other.node.getNodeClass() || !node.valueEquals(other.node)) {
+                return false;
+            }
+            Iterator<Position> positions = node.inputPositions().iterator();
+            Iterator<Position> otherPositions = other.node.inputPositions().iterator();
+            while (positions.hasNext()) {
+                Position position = positions.next();
+                Position otherPosition = otherPositions.next();
+                if (isValueInput(position) && position.get(node) != otherPosition.get(other.node)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Instance implements ControlFlowGraph.RecursiveVisitor<Integer> {
+
+        private final StructuredGraph graph;
+        private final ControlFlowGraph cfg;
+        private final EconomicMap<ValueKey, Entry> table = EconomicMap.create(Equivalence.DEFAULT);
+        /**
+         * Pairs of keys and their previous entries, used to restore the table when leaving a
+         * subtree of the dominator tree.
+         */
+        private final List<Object> undoLog = new ArrayList<>();
+        private final BlockMap<LocationSet> blockKills;
+        private final NodeBitMap changedNodes;
+        private boolean replaced;
+
+        Instance(StructuredGraph graph, ControlFlowGraph cfg) {
+            this.graph = graph;
+            this.cfg = cfg;
+            this.blockKills = new BlockMap<>(cfg);
+            this.changedNodes = graph.createNodeBitMap();
+        }
+
+        @Override
+        public Integer enter(Block block) {
+            int mark = undoLog.size();
+            if (block.getPredecessorCount() > 1 || block.isLoopHeader()) {
+                kill(killedFromDominator(block));
+            }
+            List<FixedNode> nodes = new ArrayList<>();
+            for (FixedNode node : block.getNodes()) {
+                nodes.add(node);
+            }
+            for (FixedNode node : nodes) {
+                if (isCandidate(node)) {
+                    FixedWithNextNode candidate = (FixedWithNextNode) node;
+                    ValueKey key = new ValueKey(candidate);
+                    Entry entry = table.get(key);
+                    if (entry != null && canReplace(entry.node, candidate, block)) {
+                        replace(candidate, entry.node);
+                        continue;
+                    }
+                    put(key, new Entry(candidate, readLocation(candidate)));
+                }
+                LocationSet killed = new LocationSet();
+                addKilledLocations(node, killed);
+                if (!killed.isEmpty()) {
+                    kill(killed);
+                }
+            }
+            return mark;
+        }
+
+        @Override
+        public void exit(Block block, Integer mark) {
+            for (int i = undoLog.size() - 2; i >= mark; i -= 2) {
+                ValueKey key = (ValueKey) undoLog.get(i);
+                Entry previous = (Entry) undoLog.get(i + 1);
+                if (previous == null) {
+                    table.removeKey(key);
+                } else {
+                    table.put(key, previous);
+                }
+            }
+            undoLog.subList(mark, undoLog.size()).clear();
+        }
+
+        private boolean canReplace(FixedWithNextNode dominating, FixedWithNextNode node, Block block) {
+            Stamp stamp = dominating.stamp();
+            if (!stamp.equals(node.stamp()) && !stamp.join(node.stamp()).equals(stamp)) {
+                // the dominated node has a more precise stamp
+                return false;
+            }
+            if (graph.hasValueProxies()) {
+                // values must not be used outside of their loop without a proxy
+                Loop<Block> loop = cfg.blockFor(dominating).getLoop();
+                if (loop != null && !isInLoop(block, loop)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isInLoop(Block block, Loop<Block> loop) {
+            for (Loop<Block> current = block.getLoop(); current != null; current = current.getParent()) {
+                if (current == loop) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void replace(FixedWithNextNode node, FixedWithNextNode dominating) {
+            DebugContext debug = graph.getDebug();
+            debug.log("Replacing %s with dominating %s", node, dominating);
+            for (Node usage : node.usages()) {
+                changedNodes.mark(usage);
+            }
+            node.replaceAtUsages(dominating);
+            graph.removeFixed(node);
+            replaced = true;
+            REPLACED.increment(debug);
+        }
+
+        private void put(ValueKey key, Entry entry) {
+            undoLog.add(key);
+            undoLog.add(table.put(key, entry));
+        }
+
+        private void kill(LocationSet killed) {
+            if (killed.isEmpty() || table.isEmpty()) {
+                return;
+            }
+            List<ValueKey> killedKeys = new ArrayList<>();
+            MapCursor<ValueKey, Entry> cursor = table.getEntries();
+            while (cursor.advance()) {
+                if (cursor.getValue().isKilledBy(killed)) {
+                    killedKeys.add(cursor.getKey());
+                }
+            }
+            for (ValueKey key : killedKeys) {
+                undoLog.add(key);
+                undoLog.add(table.removeKey(key));
+            }
+        }
+
+        private LocationSet getKillLocations(Block block) {
+            LocationSet result = blockKills.get(block);
+            if (result == null) {
+                result = new LocationSet();
+                for (FixedNode node : block.getNodes()) {
+                    addKilledLocations(node, result);
+                    if (result.isAny()) {
+                        break;
+                    }
+                }
+                blockKills.put(block, result);
+            }
+            return result;
+        }
+
+        /**
+         * Computes the locations killed on any path from the dominator of {@code block} to
+         * {@code block}, including the back edges if {@code block} is a loop header.
+         */
+        private LocationSet killedFromDominator(Block block) {
+            LocationSet result = new LocationSet();
+            Block dominator = block.getDominator();
+            EconomicSet<Block> visited = EconomicSet.create(Equivalence.IDENTITY);
+            ArrayDeque<Block> worklist = new ArrayDeque<>();
+            for (Block predecessor : block.getPredecessors()) {
+                if (predecessor != dominator && visited.add(predecessor)) {
+                    worklist.push(predecessor);
+                }
+            }
+            while (!worklist.isEmpty() && !result.isAny()) {
+                Block current = worklist.pop();
+                result.addAll(getKillLocations(current));
+                for (Block predecessor : current.getPredecessors()) {
+                    if (predecessor != dominator && visited.add(predecessor)) {
+                        worklist.push(predecessor);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
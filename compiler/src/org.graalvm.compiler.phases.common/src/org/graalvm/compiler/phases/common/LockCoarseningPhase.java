@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.phases.common;
+
+import static org.graalvm.compiler.core.common.GraalOptions.LockCoarseningMaxRegionSize;
+
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.nodes.AbstractMergeNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.SafepointNode;
+import org.graalvm.compiler.nodes.StateSplit;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.extended.OSRMonitorEnterNode;
+import org.graalvm.compiler.nodes.java.AccessMonitorNode;
+import org.graalvm.compiler.nodes.java.MonitorEnterNode;
+import org.graalvm.compiler.nodes.java.MonitorExitNode;
+import org.graalvm.compiler.nodes.java.MonitorIdNode;
+import org.graalvm.compiler.nodes.java.RawMonitorEnterNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.phases.Phase;
+import org.graalvm.util.EconomicMap;
+import org.graalvm.util.Equivalence;
+
+/**
+ * Merges monitor regions on the same object that {@link LockEliminationPhase} leaves alone because
+ * the monitor operations are not adjacent.
+ *
+ * A monitor enter whose frame state shows that the same object is already locked by an enclosing
+ * region is redundant. It is removed together with all its exits and its {@link MonitorIdNode} is
+ * marked as {@linkplain MonitorIdNode#isEliminated() eliminated}, so that deoptimization still
+ * re-locks the object the number of times the interpreter expects.
+ *
+ * A monitor exit that is followed by a monitor enter on the same object within a straight line of
+ * code is removed together with that enter, which pulls the code in between into the region. This
+ * is only done if the code in between has no frame states of its own: a deoptimization there
+ * resumes the interpreter before the removed exit, with the lock held, and re-executes the code in
+ * between. Invokes, safepoints and other monitor operations are never pulled into a region, and the
+ * total size of the code pulled into a region is bounded by {@link LockCoarseningMaxRegionSize}.
+ * Consecutive regions in a loop body are merged the same way; regions of different loop iterations
+ * are not, since the loop back edge is a safepoint whose state does not hold the lock.
+ */
+public class LockCoarseningPhase extends Phase {
+
+    private static final CounterKey NESTED_LOCKS_ELIMINATED = DebugContext.counter("LockCoarsening_NestedEliminated");
+    private static final CounterKey REGIONS_MERGED = DebugContext.counter("LockCoarsening_RegionsMerged");
+
+    @Override
+    protected void run(StructuredGraph graph) {
+        for (AccessMonitorNode monitorEnter : graph.getNodes().filter(AccessMonitorNode.class)) {
+            if (isMonitorEnter(monitorEnter) && isNested(monitorEnter)) {
+                eliminateNested(monitorEnter);
+                NESTED_LOCKS_ELIMINATED.increment(graph.getDebug());
+            }
+        }
+
+        int maxRegionSize = LockCoarseningMaxRegionSize.getValue(graph.getOptions());
+        EconomicMap<MonitorIdNode, Integer> coarsenedSizes = EconomicMap.create(Equivalence.IDENTITY);
+        for (MonitorExitNode monitorExit : graph.getNodes(MonitorExitNode.TYPE)) {
+            int size = 0;
+            FixedNode current = monitorExit.next();
+            while (current instanceof FixedWithNextNode && !isMonitorEnter(current) && canMoveIntoRegion(current)) {
+                size += current.estimatedNodeSize().value;
+                current = ((FixedWithNextNode) current).next();
+            }
+            if (!isMonitorEnter(current)) {
+                continue;
+            }
+            AccessMonitorNode monitorEnter = (AccessMonitorNode) current;
+            if (GraphUtil.unproxify(monitorEnter.object()) != GraphUtil.unproxify(monitorExit.object())) {
+                continue;
+            }
+            MonitorIdNode exitId = monitorExit.getMonitorId();
+            MonitorIdNode enterId = monitorEnter.getMonitorId();
+            int regionSize = size + getCoarsenedSize(coarsenedSizes, exitId);
+            if (enterId != exitId) {
+                regionSize += getCoarsenedSize(coarsenedSizes, enterId);
+            }
+            if (regionSize > maxRegionSize) {
+                continue;
+            }
+            if (enterId != exitId) {
+                coarsenedSizes.removeKey(enterId);
+                enterId.replaceAndDelete(exitId);
+            }
+            coarsenedSizes.put(exitId, regionSize);
+            GraphUtil.removeFixedWithUnusedInputs(monitorEnter);
+            GraphUtil.removeFixedWithUnusedInputs(monitorExit);
+            REGIONS_MERGED.increment(graph.getDebug());
+        }
+    }
+
+    private static boolean isMonitorEnter(FixedNode node) {
+        // osr monitor enters are always direct successors of the graph start, leave them alone
+        return (node instanceof MonitorEnterNode || node instanceof RawMonitorEnterNode) && !(node instanceof OSRMonitorEnterNode);
+    }
+
+    /**
+     * Determines if the frame state after a monitor enter shows that another, not eliminated
+     * monitor on the same object is already held.
+     */
+    private static boolean isNested(AccessMonitorNode monitorEnter) {
+        FrameState state = ((StateSplit) monitorEnter).stateAfter();
+        Object object = GraphUtil.unproxify(monitorEnter.object());
+        for (; state != null; state = state.outerFrameState()) {
+            for (int i = 0; i < state.locksSize(); i++) {
+                MonitorIdNode monitorId = state.monitorIdAt(i);
+                if (monitorId != monitorEnter.getMonitorId() && !monitorId.isEliminated() && GraphUtil.unproxify(state.lockAt(i)) == object) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void eliminateNested(AccessMonitorNode monitorEnter) {
+        MonitorIdNode monitorId = monitorEnter.getMonitorId();
+        for (MonitorExitNode monitorExit : monitorId.usages().filter(MonitorExitNode.class).snapshot()) {
+            GraphUtil.removeFixedWithUnusedInputs(monitorExit);
+        }
+        monitorId.setEliminated();
+        GraphUtil.removeFixedWithUnusedInputs(monitorEnter);
+    }
+
+    /**
+     * Determines if a node between a monitor exit and the next monitor enter can be moved into the
+     * monitor region.
+     */
+    private static boolean canMoveIntoRegion(FixedNode node) {
+        if (node instanceof AbstractMergeNode || node instanceof LoopExitNode) {
+            return false;
+        }
+        if (node instanceof Invoke || node instanceof SafepointNode || node instanceof AccessMonitorNode) {
+            return false;
+        }
+        return !(node instanceof StateSplit) || ((StateSplit) node).stateAfter() == null;
+    }
+
+    private static int getCoarsenedSize(EconomicMap<MonitorIdNode, Integer> coarsenedSizes, MonitorIdNode monitorId) {
+        Integer size = coarsenedSizes.get(monitorId);
+        return size == null ? 0 : size;
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.phases.common;
+
+import static org.graalvm.compiler.core.common.GraalOptions.TailDuplicationCodeSizeIncrease;
+import static org.graalvm.compiler.core.common.GraalOptions.TailDuplicationMaxRegionSize;
+import static org.graalvm.compiler.core.common.GraalOptions.TailDuplicationMaxSimulations;
+import static org.graalvm.compiler.core.common.GraalOptions.TailDuplicationProbability;
+import static org.graalvm.compiler.core.common.GraalOptions.TailDuplicationTrivialSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Graph.Mark;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeBitMap;
+import org.graalvm.compiler.graph.NodeStack;
+import org.graalvm.compiler.nodes.AbstractEndNode;
+import org.graalvm.compiler.nodes.AbstractMergeNode;
+import org.graalvm.compiler.nodes.BeginNode;
+import org.graalvm.compiler.nodes.CallTargetNode;
+import org.graalvm.compiler.nodes.EndNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.MergeNode;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.VirtualState;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.contract.NodeCostUtil;
+import org.graalvm.compiler.phases.graph.FixedNodeProbabilityCache;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.graalvm.util.EconomicMap;
+import org.graalvm.util.EconomicSet;
+import org.graalvm.util.Equivalence;
+import org.graalvm.util.UnmodifiableEconomicMap;
+
+/**
+ * Duplicates the code dominated by a {@link MergeNode} into each predecessor of the merge. Every
+ * copy sees the phi inputs of one predecessor instead of the phis, so that canonicalization can
+ * fold type checks and comparisons of values that are only known before the merge.
+ *
+ * Duplication is speculative: it is first applied to a copy of the graph, which is then
+ * canonicalized. The duplication is only performed on the real graph if it lowers the estimated
+ * cycles of the copy, weighted by the probabilities of its blocks. Only merges whose probability
+ * exceeds {@code TailDuplicationProbability} are considered, the most frequent ones first, and the
+ * total code growth is limited to a fraction of the graph size.
+ */
+public class PathDuplicationPhase extends BasePhase<PhaseContext> {
+
+    private static final CounterKey DUPLICATED_MERGES = DebugContext.counter("PathDuplication_DuplicatedMerges");
+    private static final CounterKey SIMULATIONS = DebugContext.counter("PathDuplication_Simulations");
+
+    /**
+     * Minimum reduction of the weighted cycles for which a duplication is considered beneficial.
+     * Protects against rounding differences of the cost summation.
+     */
+    private static final double MIN_BENEFIT = 0.01D;
+
+    private final CanonicalizerPhase canonicalizer;
+
+    public PathDuplicationPhase(CanonicalizerPhase canonicalizer) {
+        this.canonicalizer = canonicalizer;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, PhaseContext context) {
+        if (graph.getNodes(MergeNode.TYPE).isEmpty()) {
+            return;
+        }
+        OptionValues options = graph.getOptions();
+        int maxRegionSize = TailDuplicationMaxRegionSize.getValue(options);
+        int trivialSize = TailDuplicationTrivialSize.getValue(options);
+        // small graphs may always grow by one region
+        int budget = Math.max(maxRegionSize, (int) (NodeCostUtil.computeGraphSize(graph) * TailDuplicationCodeSizeIncrease.getValue(options)));
+        int simulations = TailDuplicationMaxSimulations.getValue(options);
+        EconomicSet<MergeNode> rejected = EconomicSet.create(Equivalence.IDENTITY);
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            ControlFlowGraph cfg = ControlFlowGraph.compute(graph, true, false, true, false);
+            for (MergeNode merge : candidates(graph, TailDuplicationProbability.getValue(options), rejected)) {
+                Region region = Region.create(cfg, merge, maxRegionSize);
+                if (region == null || region.sizeIncrease() > budget) {
+                    rejected.add(merge);
+                    continue;
+                }
+                if (region.size > trivialSize) {
+                    if (simulations == 0) {
+                        return;
+                    }
+                    simulations--;
+                    if (!isBeneficial(graph, context, region)) {
+                        rejected.add(merge);
+                        continue;
+                    }
+                }
+                budget -= region.sizeIncrease();
+                DUPLICATED_MERGES.increment(graph.getDebug());
+                Mark mark = graph.getMark();
+                duplicate(merge, region.nodes);
+                graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "After duplicating %s", merge);
+                canonicalizer.applyIncremental(graph, context, mark);
+                progress = true;
+                break;
+            }
+        }
+    }
+
+    private static List<MergeNode> candidates(StructuredGraph graph, double minProbability, EconomicSet<MergeNode> rejected) {
+        FixedNodeProbabilityCache probabilities = new FixedNodeProbabilityCache();
+        EconomicMap<MergeNode, Double> probability = EconomicMap.create(Equivalence.IDENTITY);
+        List<MergeNode> candidates = new ArrayList<>();
+        for (MergeNode merge : graph.getNodes(MergeNode.TYPE)) {
+            if (merge.forwardEndCount() < 2 || rejected.contains(merge)) {
+                continue;
+            }
+            double p = probabilities.applyAsDouble(merge);
+            if (p >= minProbability) {
+                probability.put(merge, p);
+                candidates.add(merge);
+            }
+        }
+        candidates.sort((a, b) -> Double.compare(probability.get(b), probability.get(a)));
+        return candidates;
+    }
+
+    private boolean isBeneficial(StructuredGraph graph, PhaseContext context, Region region) {
+        DebugContext debug = graph.getDebug();
+        SIMULATIONS.increment(debug);
+        EconomicMap<Node, Node> mapping = EconomicMap.create(Equivalence.IDENTITY);
+        StructuredGraph copy = (StructuredGraph) graph.copy(duplicates -> mapping.putAll(duplicates), debug);
+        double cyclesBefore = NodeCostUtil.computeGraphCycles(copy, true);
+
+        List<Node> copiedNodes = new ArrayList<>(region.nodes.size());
+        for (Node node : region.nodes) {
+            copiedNodes.add(mapping.get(node));
+        }
+        Mark mark = copy.getMark();
+        duplicate((MergeNode) mapping.get(region.merge), copiedNodes);
+        canonicalizer.applyIncremental(copy, context, mark);
+        double cyclesAfter = NodeCostUtil.computeGraphCycles(copy, true);
+        debug.log("Duplicating %s changes the weighted cycles from %f to %f", region.merge, cyclesBefore, cyclesAfter);
+        return cyclesBefore - cyclesAfter > MIN_BENEFIT;
+    }
+
+    /**
+     * Duplicates {@code nodes}, the code dominated by {@code merge}, for each forward end of the
+     * merge and removes the merge together with the original code.
+     */
+    private static void duplicate(MergeNode merge, List<Node> nodes) {
+        StructuredGraph graph = merge.graph();
+        NodeBitMap duplicated = graph.createNodeBitMap();
+        for (Node node : nodes) {
+            duplicated.mark(node);
+        }
+        List<EndNode> exits = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node instanceof EndNode && !duplicated.isMarked(((EndNode) node).merge())) {
+                exits.add((EndNode) node);
+            }
+        }
+
+        FixedNode tail = merge.next();
+        List<EndNode> ends = merge.forwardEnds().snapshot();
+        for (EndNode end : ends) {
+            BeginNode begin = graph.add(new BeginNode());
+            EconomicMap<Node, Node> replacements = EconomicMap.create(Equivalence.IDENTITY);
+            replacements.put(merge, begin);
+            for (PhiNode phi : merge.phis()) {
+                replacements.put(phi, phi.valueAt(end));
+            }
+            UnmodifiableEconomicMap<Node, Node> duplicates = graph.addDuplicates(nodes, graph, nodes.size(), replacements);
+            begin.setNext((FixedNode) duplicates.get(tail));
+            for (EndNode exit : exits) {
+                AbstractMergeNode exitMerge = exit.merge();
+                exitMerge.addForwardEnd((EndNode) duplicates.get(exit));
+                for (PhiNode phi : exitMerge.phis()) {
+                    ValueNode value = phi.valueAt(exit);
+                    Node replacement = duplicates.get(value);
+                    if (replacement == null) {
+                        replacement = replacements.get(value);
+                    }
+                    phi.addInput(replacement == null ? value : (ValueNode) replacement);
+                }
+            }
+            for (Node node : duplicates.getValues()) {
+                // the copy of the merge's state has no usages
+                if (node instanceof FrameState && node.isAlive() && node.hasNoUsages()) {
+                    GraphUtil.killWithUnusedFloatingInputs(node);
+                }
+            }
+            end.replaceAtPredecessor(begin);
+        }
+        for (EndNode end : ends) {
+            merge.removeEnd(end);
+            end.safeDelete();
+        }
+        GraphUtil.killCFG(merge);
+    }
+
+    /**
+     * The nodes that have to be duplicated for a merge: the fixed nodes dominated by the merge and
+     * all nodes that depend on them or on the merge's phis.
+     */
+    private static final class Region {
+
+        final MergeNode merge;
+        final List<Node> nodes;
+        final int size;
+
+        private Region(MergeNode merge, List<Node> nodes, int size) {
+            this.merge = merge;
+            this.nodes = nodes;
+            this.size = size;
+        }
+
+        int sizeIncrease() {
+            return size * (merge.forwardEndCount() - 1);
+        }
+
+        static Region create(ControlFlowGraph cfg, MergeNode merge, int maxSize) {
+            NodeBitMap inside = merge.graph().createNodeBitMap();
+            List<Node> nodes = new ArrayList<>();
+            NodeStack worklist = new NodeStack();
+            List<Block> blocks = new ArrayList<>();
+            blocks.add(cfg.blockFor(merge));
+            while (!blocks.isEmpty()) {
+                Block block = blocks.remove(blocks.size() - 1);
+                for (FixedNode node : block.getNodes()) {
+                    if (node instanceof LoopBeginNode || node instanceof LoopExitNode || (node instanceof AbstractEndNode && ((AbstractEndNode) node).merge() instanceof LoopBeginNode)) {
+                        return null;
+                    }
+                    if (node != merge) {
+                        add(node, inside, nodes, worklist);
+                        for (Node input : node.inputs()) {
+                            if (input instanceof CallTargetNode || input instanceof VirtualState) {
+                                add(input, inside, nodes, worklist);
+                                if (input instanceof FrameState) {
+                                    for (Node mapping : ((FrameState) input).virtualObjectMappings()) {
+                                        add(mapping, inside, nodes, worklist);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+                for (Block dominated = block.getFirstDominated(); dominated != null; dominated = dominated.getDominatedSibling()) {
+                    blocks.add(dominated);
+                }
+            }
+
+            worklist.push(merge);
+            for (PhiNode phi : merge.phis()) {
+                worklist.push(phi);
+            }
+            while (!worklist.isEmpty()) {
+                Node node = worklist.pop();
+                for (Node usage : node.usages()) {
+                    if (usage == merge || inside.isMarked(usage) || usage instanceof AbstractMergeNode && node instanceof EndNode) {
+                        // ends are also usages of exit merges, which get the ends of the copies
+                        continue;
+                    }
+                    if (usage instanceof PhiNode) {
+                        AbstractMergeNode phiMerge = ((PhiNode) usage).merge();
+                        if (phiMerge == merge || !inside.isMarked(phiMerge)) {
+                            // the phis of the merge are replaced, those of exit merges are extended
+                            continue;
+                        }
+                    }
+                    if (usage instanceof FixedNode) {
+                        return null;
+                    }
+                    add(usage, inside, nodes, worklist);
+                }
+            }
+
+            int size = 0;
+            for (Node node : nodes) {
+                size += node.estimatedNodeSize().value;
+                if (size > maxSize) {
+                    return null;
+                }
+            }
+            return new Region(merge, nodes, size);
+        }
+
+        private static void add(Node node, NodeBitMap inside, List<Node> nodes, NodeStack worklist) {
+            if (!inside.isMarked(node)) {
+                inside.mark(node);
+                nodes.add(node);
+                worklist.push(node);
+            }
+        }
+    }
+}
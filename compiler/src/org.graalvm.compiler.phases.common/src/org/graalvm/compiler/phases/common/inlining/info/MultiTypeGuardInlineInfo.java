@@ -25,26 +25,33 @@ package org.graalvm.compiler.phases.common.inlining.info;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.graalvm.compiler.core.common.calc.Condition;
+import org.graalvm.compiler.core.common.type.Stamp;
 import org.graalvm.compiler.core.common.type.StampFactory;
 import org.graalvm.compiler.graph.Node;
 import org.graalvm.compiler.nodes.AbstractBeginNode;
 import org.graalvm.compiler.nodes.AbstractMergeNode;
 import org.graalvm.compiler.nodes.BeginNode;
 import org.graalvm.compiler.nodes.CallTargetNode.InvokeKind;
+import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.DeoptimizeNode;
 import org.graalvm.compiler.nodes.EndNode;
 import org.graalvm.compiler.nodes.FixedNode;
 import org.graalvm.compiler.nodes.FixedWithNextNode;
 import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.IfNode;
 import org.graalvm.compiler.nodes.Invoke;
 import org.graalvm.compiler.nodes.InvokeWithExceptionNode;
+import org.graalvm.compiler.nodes.LogicNode;
 import org.graalvm.compiler.nodes.MergeNode;
 import org.graalvm.compiler.nodes.PhiNode;
 import org.graalvm.compiler.nodes.PiNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.CompareNode;
 import org.graalvm.compiler.nodes.extended.LoadHubNode;
+import org.graalvm.compiler.nodes.extended.LoadMethodNode;
 import org.graalvm.compiler.nodes.java.ExceptionObjectNode;
 import org.graalvm.compiler.nodes.java.MethodCallTargetNode;
 import org.graalvm.compiler.nodes.java.TypeSwitchNode;
@@ -56,6 +63,7 @@ import org.graalvm.compiler.phases.util.Providers;
 import org.graalvm.util.EconomicSet;
 import org.graalvm.util.Equivalence;
 
+import jdk.vm.ci.meta.Assumptions.AssumptionResult;
 import jdk.vm.ci.meta.ConstantReflectionProvider;
 import jdk.vm.ci.meta.DeoptimizationAction;
 import jdk.vm.ci.meta.DeoptimizationReason;
@@ -68,6 +76,12 @@ import jdk.vm.ci.meta.ResolvedJavaType;
  * Polymorphic inlining of m methods with n type checks (n &ge; m) in case that the profiling
  * information suggests a reasonable amount of different receiver types and different methods. If an
  * unknown type is encountered a deoptimization is triggered.
+ *
+ * For megamorphic profiles, an unknown type falls back to a virtual call instead. If a recorded
+ * type has subtypes and all inlined methods have an entry in the virtual method table of the
+ * receiver type, the dispatch compares the method loaded from that table instead of the receiver
+ * type, so that unrecorded subtypes that do not override an inlined method still use the inlined
+ * code.
  */
 public class MultiTypeGuardInlineInfo extends AbstractInlineInfo {
 
@@ -235,8 +249,13 @@ public class MultiTypeGuardInlineInfo extends AbstractInlineInfo {
 
         assert invoke.asNode().isAlive();
 
-        // replace the invoke with a switch on the type of the actual receiver
-        boolean methodDispatch = createDispatchOnTypeBeforeInvoke(graph, successors, false, providers.getStampProvider(), providers.getConstantReflection());
+        // replace the invoke with a switch on the type of the actual receiver or on the method
+        boolean methodDispatch = chooseMethodDispatch();
+        if (methodDispatch) {
+            createDispatchOnMethodBeforeInvoke(graph, successors, providers);
+        } else {
+            createDispatchOnTypeBeforeInvoke(graph, successors, false, providers.getStampProvider(), providers.getConstantReflection());
+        }
 
         assert invoke.next() == continuation;
         invoke.setNext(null);
@@ -335,7 +354,66 @@ public class MultiTypeGuardInlineInfo extends AbstractInlineInfo {
         return inline(invoke, methodAt(0), inlineableElementAt(0), false);
     }
 
-    private boolean createDispatchOnTypeBeforeInvoke(StructuredGraph graph, AbstractBeginNode[] successors, boolean invokeIsOnlySuccessor, StampProvider stampProvider,
+    /**
+     * Dispatching on the method only pays off if there is a virtual call for unknown types, since
+     * the type switch on a complete profile is exact and does not need to load the method. It also
+     * needs a recorded type with subtypes, as only those can share an inlined method without being
+     * recorded themselves. Otherwise the type switch is cheaper.
+     */
+    private boolean chooseMethodDispatch() {
+        if (!shouldFallbackToInvoke()) {
+            return false;
+        }
+        ResolvedJavaType receiverType = invoke.getReceiverType();
+        for (ResolvedJavaMethod concrete : concretes) {
+            if (!concrete.isInVirtualMethodTable(receiverType)) {
+                return false;
+            }
+        }
+        for (ProfiledType ptype : ptypes) {
+            AssumptionResult<ResolvedJavaType> leafConcreteSubtype = ptype.getType().findLeafConcreteSubtype();
+            if (leafConcreteSubtype == null || !leafConcreteSubtype.getResult().equals(ptype.getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void createDispatchOnMethodBeforeInvoke(StructuredGraph graph, AbstractBeginNode[] successors, Providers providers) {
+        assert successors.length == concretes.size() + 1;
+        ValueNode nonNullReceiver = InliningUtil.nonNullReceiver(invoke);
+        LoadHubNode hub = graph.unique(new LoadHubNode(providers.getStampProvider(), nonNullReceiver));
+
+        graph.getDebug().log("Method check cascade with %d methods", concretes.size());
+
+        Stamp methodStamp = providers.getStampProvider().createMethodStamp();
+        ResolvedJavaType receiverType = invoke.getReceiverType();
+        LoadMethodNode method = graph.add(new LoadMethodNode(methodStamp, concretes.get(0), receiverType, invoke.getContextType(), hub));
+
+        // the probability of each check, given that the checks before it failed
+        double[] probabilities = new double[concretes.size()];
+        double remainingProbability = notRecordedTypeProbability;
+        for (double methodProbability : methodProbabilities) {
+            remainingProbability += methodProbability;
+        }
+        for (int i = 0; i < concretes.size(); i++) {
+            probabilities[i] = remainingProbability <= 0 ? 0.5 : Math.min(1.0, methodProbabilities[i] / remainingProbability);
+            remainingProbability -= methodProbabilities[i];
+        }
+
+        FixedNode lastSuccessor = successors[successors.length - 1];
+        for (int i = concretes.size() - 1; i >= 0; i--) {
+            ConstantNode expected = ConstantNode.forConstant(methodStamp, concretes.get(i).getEncoding(), providers.getMetaAccess(), graph);
+            LogicNode compare = CompareNode.createCompareNode(graph, Condition.EQ, method, expected, providers.getConstantReflection());
+            lastSuccessor = graph.add(new IfNode(compare, successors[i], lastSuccessor, probabilities[i]));
+        }
+        method.setNext(lastSuccessor);
+
+        FixedWithNextNode pred = (FixedWithNextNode) invoke.asNode().predecessor();
+        pred.setNext(method);
+    }
+
+    private void createDispatchOnTypeBeforeInvoke(StructuredGraph graph, AbstractBeginNode[] successors, boolean invokeIsOnlySuccessor, StampProvider stampProvider,
                     ConstantReflectionProvider constantReflection) {
         assert ptypes.size() >= 1;
         ValueNode nonNullReceiver = InliningUtil.nonNullReceiver(invoke);
@@ -365,7 +443,6 @@ public class MultiTypeGuardInlineInfo extends AbstractInlineInfo {
         TypeSwitchNode typeSwitch = graph.add(new TypeSwitchNode(hub, successors, keys, keyProbabilities, keySuccessors, constantReflection));
         FixedWithNextNode pred = (FixedWithNextNode) invoke.asNode().predecessor();
         pred.setNext(typeSwitch);
-        return false;
     }
 
     private static AbstractBeginNode createInvocationBlock(StructuredGraph graph, Invoke invoke, AbstractMergeNode returnMerge, PhiNode returnValuePhi, AbstractMergeNode exceptionMerge,
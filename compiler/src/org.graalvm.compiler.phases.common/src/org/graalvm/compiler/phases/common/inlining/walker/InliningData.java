@@ -24,10 +24,12 @@ package org.graalvm.compiler.phases.common.inlining.walker;
 
 import static org.graalvm.compiler.core.common.GraalOptions.Intrinsify;
 import static org.graalvm.compiler.core.common.GraalOptions.MaximumRecursiveInlining;
+import static org.graalvm.compiler.core.common.GraalOptions.MegamorphicInliningMaxMethods;
 import static org.graalvm.compiler.core.common.GraalOptions.MegamorphicInliningMinMethodProbability;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Iterator;
@@ -339,9 +341,37 @@ public class InliningData {
                 concreteMethodsProbabilities = newConcreteMethodsProbabilities;
             }
 
-            if (concreteMethods.size() > maxMethodPerInlining) {
-                InliningUtil.logNotInlinedInvoke(invoke, inliningDepth(), targetMethod, "polymorphic call with more than %d target methods", maxMethodPerInlining);
-                return null;
+            int maxMethods = maxMethodPerInlining;
+            if (notRecordedTypeProbability > 0) {
+                maxMethods = Math.min(maxMethods, MegamorphicInliningMaxMethods.getValue(options));
+            }
+            if (concreteMethods.size() > maxMethods) {
+                if (!optimisticOpts.inlineMegamorphicCalls(options)) {
+                    InliningUtil.logNotInlinedInvoke(invoke, inliningDepth(), targetMethod, "polymorphic call with more than %d target methods", maxMethods);
+                    return null;
+                }
+                /*
+                 * Inline the most frequent methods only, the receiver types of the other methods
+                 * are dispatched by a virtual call.
+                 */
+                Integer[] byProbability = new Integer[concreteMethods.size()];
+                for (int i = 0; i < byProbability.length; i++) {
+                    byProbability[i] = i;
+                }
+                final ArrayList<Double> probabilities = concreteMethodsProbabilities;
+                Arrays.sort(byProbability, (a, b) -> Double.compare(probabilities.get(b), probabilities.get(a)));
+                ArrayList<ResolvedJavaMethod> newConcreteMethods = new ArrayList<>();
+                ArrayList<Double> newConcreteMethodsProbabilities = new ArrayList<>();
+                double coveredProbability = 0;
+                for (int i = 0; i < maxMethods; i++) {
+                    newConcreteMethods.add(concreteMethods.get(byProbability[i]));
+                    newConcreteMethodsProbabilities.add(concreteMethodsProbabilities.get(byProbability[i]));
+                    coveredProbability += concreteMethodsProbabilities.get(byProbability[i]);
+                }
+                InliningUtil.logInliningDecision(invoke.asNode().getDebug(), "%s: inlining %d of %d target methods of %s, covering %f %% of the type profile", invoke, maxMethods,
+                                concreteMethods.size(), targetMethod.format("%H.%n(%p)"), coveredProbability * 100);
+                concreteMethods = newConcreteMethods;
+                concreteMethodsProbabilities = newConcreteMethodsProbabilities;
             }
 
             // Clean out types whose methods are no longer available.
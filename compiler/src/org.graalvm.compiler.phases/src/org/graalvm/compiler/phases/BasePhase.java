@@ -24,6 +24,7 @@ package org.graalvm.compiler.phases;
 
 import java.util.regex.Pattern;
 
+import org.graalvm.compiler.core.common.util.CompilationAlarm;
 import org.graalvm.compiler.debug.CounterKey;
 import org.graalvm.compiler.debug.DebugCloseable;
 import org.graalvm.compiler.debug.DebugContext;
@@ -79,6 +80,12 @@ public abstract class BasePhase<C> implements PhaseSizeContract {
      */
     private final MemUseTrackerKey memUseTracker;
 
+    /**
+     * Counts calls to {@link #apply(StructuredGraph, Object, boolean)} that skipped this phase due
+     * to compilation budget pressure.
+     */
+    private final CounterKey budgetSkipCount;
+
     /** Lazy initialization to create pattern only when assertions are enabled. */
     static class NamePatternHolder {
         static final Pattern NAME_PATTERN = Pattern.compile("[A-Z][A-Za-z0-9]+");
@@ -106,11 +113,18 @@ public abstract class BasePhase<C> implements PhaseSizeContract {
          */
         private final MemUseTrackerKey memUseTracker;
 
+        /**
+         * Counts calls to {@link BasePhase#apply(StructuredGraph, Object, boolean)} that skipped
+         * the phase due to compilation budget pressure.
+         */
+        private final CounterKey budgetSkipCount;
+
         public BasePhaseStatistics(Class<?> clazz) {
             timer = DebugContext.timer("PhaseTime_%s", clazz).doc("Time spent in phase.");
             executionCount = DebugContext.counter("PhaseCount_%s", clazz).doc("Number of phase executions.");
             memUseTracker = DebugContext.memUseTracker("PhaseMemUse_%s", clazz).doc("Memory allocated in phase.");
             inputNodesCount = DebugContext.counter("PhaseNodes_%s", clazz).doc("Number of nodes input to phase.");
+            budgetSkipCount = DebugContext.counter("PhaseBudgetSkips_%s", clazz).doc("Number of phase executions skipped due to compilation budget pressure.");
         }
     }
 
@@ -131,6 +145,16 @@ public abstract class BasePhase<C> implements PhaseSizeContract {
         executionCount = statistics.executionCount;
         memUseTracker = statistics.memUseTracker;
         inputNodesCount = statistics.inputNodesCount;
+        budgetSkipCount = statistics.budgetSkipCount;
+    }
+
+    /**
+     * Determines if this phase only improves the quality of the generated code and can therefore be
+     * skipped when the {@linkplain CompilationAlarm#isUnderBudgetPressure(int) compilation budget
+     * is under pressure}.
+     */
+    protected boolean isOptional() {
+        return false;
     }
 
     public final void apply(final StructuredGraph graph, final C context) {
@@ -177,6 +201,14 @@ public abstract class BasePhase<C> implements PhaseSizeContract {
     protected final void apply(final StructuredGraph graph, final C context, final boolean dumpGraph) {
         graph.checkCancellation();
         DebugContext debug = graph.getDebug();
+        if (isOptional()) {
+            CompilationAlarm alarm = CompilationAlarm.current();
+            if (alarm.isUnderBudgetPressure(graph.getNodeCount())) {
+                alarm.recordDegradation(getName());
+                budgetSkipCount.increment(debug);
+                return;
+            }
+        }
         try (DebugCloseable a = timer.start(debug); DebugContext.Scope s = debug.scope(getClass(), this); DebugCloseable c = memUseTracker.start(debug)) {
             int sizeBefore = 0;
             Mark before = null;
@@ -31,6 +31,7 @@ import static org.graalvm.compiler.replacements.nodes.UnaryMathIntrinsicNode.Una
 import static org.graalvm.compiler.replacements.nodes.UnaryMathIntrinsicNode.UnaryOperation.TAN;
 import static org.graalvm.compiler.serviceprovider.JDK9Method.Java8OrEarlier;
 
+import java.lang.reflect.Array;
 import java.util.Arrays;
 
 import org.graalvm.compiler.bytecode.BytecodeProvider;
@@ -77,6 +78,7 @@ public class AMD64GraphBuilderPlugins {
                 registerStringPlugins(invocationPlugins, arch, replacementsBytecodeProvider);
                 registerMathPlugins(invocationPlugins, arch, arithmeticStubs, replacementsBytecodeProvider);
                 registerArraysEqualsPlugins(invocationPlugins, replacementsBytecodeProvider);
+                registerArraysFillAndHashCodePlugins(invocationPlugins, arch, replacementsBytecodeProvider);
             }
         });
     }
@@ -239,4 +241,20 @@ public class AMD64GraphBuilderPlugins {
         r.registerMethodSubstitution(ArraysSubstitutions.class, "equals", float[].class, float[].class);
         r.registerMethodSubstitution(ArraysSubstitutions.class, "equals", double[].class, double[].class);
     }
+
+    private static void registerArraysFillAndHashCodePlugins(InvocationPlugins plugins, AMD64 arch, BytecodeProvider bytecodeProvider) {
+        Registration r = new Registration(plugins, Arrays.class, bytecodeProvider);
+        for (JavaKind kind : new JavaKind[]{JavaKind.Boolean, JavaKind.Byte, JavaKind.Char, JavaKind.Short, JavaKind.Int, JavaKind.Long, JavaKind.Float, JavaKind.Double}) {
+            Class<?> type = kind.toJavaClass();
+            Class<?> arrayType = Array.newInstance(type, 0).getClass();
+            r.registerMethodSubstitution(ArraysSubstitutions.class, "fill", arrayType, type);
+            r.registerMethodSubstitution(ArraysSubstitutions.class, "fill", arrayType, int.class, int.class, type);
+        }
+        if (arch.getFeatures().contains(CPUFeature.SSE4_1)) {
+            r.registerMethodSubstitution(ArraysSubstitutions.class, "hashCode", byte[].class);
+            r.registerMethodSubstitution(ArraysSubstitutions.class, "hashCode", char[].class);
+            r.registerMethodSubstitution(ArraysSubstitutions.class, "hashCode", short[].class);
+            r.registerMethodSubstitution(ArraysSubstitutions.class, "hashCode", int[].class);
+        }
+    }
 }
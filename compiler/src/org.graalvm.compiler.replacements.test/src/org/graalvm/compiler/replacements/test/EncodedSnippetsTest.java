@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.api.replacements.Snippet;
+import org.graalvm.compiler.bytecode.Bytecode;
+import org.graalvm.compiler.bytecode.ResolvedJavaMethodBytecodeProvider;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.replacements.EncodedSnippets;
+import org.graalvm.compiler.replacements.ReplacementsImpl;
+import org.graalvm.util.EconomicMap;
+import org.graalvm.util.Equivalence;
+import org.graalvm.util.MapCursor;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests that replacement graphs survive being encoded into and decoded from
+ * {@link EncodedSnippets}.
+ */
+public class EncodedSnippetsTest extends GraalCompilerTest {
+
+    @Test
+    public void testSubstitutions() {
+        EconomicMap<ResolvedJavaMethod, StructuredGraph> graphs = EconomicMap.create(Equivalence.DEFAULT);
+        for (Class<?> c : new Class<?>[]{String.class, Math.class, Integer.class, Long.class}) {
+            for (Method method : c.getDeclaredMethods()) {
+                ResolvedJavaMethod original = getMetaAccess().lookupJavaMethod(method);
+                StructuredGraph graph = getReplacements().getSubstitution(original, -1);
+                if (graph != null && graph.isFrozen()) {
+                    graphs.put(graph.method(), graph);
+                }
+            }
+        }
+        Assume.assumeFalse("no method substitutions found", graphs.isEmpty());
+
+        EncodedSnippets encoded = EncodedSnippets.encode(getTarget().arch, graphs);
+        Assert.assertEquals(graphs.size(), encoded.size());
+
+        MapCursor<ResolvedJavaMethod, StructuredGraph> cursor = graphs.getEntries();
+        while (cursor.advance()) {
+            StructuredGraph expected = cursor.getValue();
+            StructuredGraph actual = encoded.decode(expected.getOptions(), getDebugContext(), cursor.getKey());
+            Assert.assertNotNull(actual);
+            Assert.assertTrue(actual.verify());
+            Assert.assertEquals(cursor.getKey().format("%H.%n(%p)"), expected.getNodeCount(), actual.getNodeCount());
+            Assert.assertEquals(expected.method(), actual.method());
+        }
+        Assert.assertNull(encoded.decode(getInitialOptions(), getDebugContext(), getResolvedJavaMethod("testSubstitutions")));
+    }
+
+    private static final class CountingBytecodeProvider extends ResolvedJavaMethodBytecodeProvider {
+
+        final List<ResolvedJavaMethod> parsed = new ArrayList<>();
+
+        @Override
+        public Bytecode getBytecode(ResolvedJavaMethod method) {
+            parsed.add(method);
+            return super.getBytecode(method);
+        }
+    }
+
+    @Snippet
+    public static int multiplySnippet(int a, int b) {
+        return a * b;
+    }
+
+    @Test
+    public void testEncodedLookup() {
+        ReplacementsImpl d = (ReplacementsImpl) getReplacements();
+        CountingBytecodeProvider bytecodeProvider = new CountingBytecodeProvider();
+        ReplacementsImpl replacements = new ReplacementsImpl(getInitialOptions(), null, d.providers, d.snippetReflection, bytecodeProvider, d.target);
+        replacements.setGraphBuilderPlugins(d.getGraphBuilderPlugins());
+        ResolvedJavaMethod snippet = getResolvedJavaMethod("multiplySnippet");
+        replacements.registerSnippet(snippet);
+
+        Assert.assertTrue(replacements.encodeSnippets() > 0);
+        Assert.assertTrue(bytecodeProvider.parsed.contains(snippet));
+        bytecodeProvider.parsed.clear();
+
+        // the snippet graph is decoded instead of parsing its bytecode again
+        StructuredGraph graph = replacements.getSnippet(snippet, null);
+        Assert.assertTrue(bytecodeProvider.parsed.isEmpty());
+        Assert.assertTrue(graph.isFrozen());
+        Assert.assertEquals(snippet, graph.method());
+        Assert.assertEquals(1, graph.getNodes().filter(MulNode.class).count());
+    }
+}
@@ -22,11 +22,21 @@
  */
 package org.graalvm.compiler.replacements;
 
+import static org.graalvm.compiler.nodes.extended.BranchProbabilityNode.SLOW_PATH_PROBABILITY;
+import static org.graalvm.compiler.nodes.extended.BranchProbabilityNode.probability;
+
 import java.util.Arrays;
 
 import org.graalvm.compiler.api.replacements.ClassSubstitution;
 import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
 import org.graalvm.compiler.replacements.nodes.ArrayEqualsNode;
+import org.graalvm.compiler.replacements.nodes.ArrayFillNode;
+import org.graalvm.compiler.replacements.nodes.ArrayHashCodeNode;
+
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
+import jdk.vm.ci.meta.JavaKind;
 
 // JaCoCo Exclude
 
@@ -123,4 +133,134 @@ public class ArraysSubstitutions {
         }
         return ArrayEqualsNode.equals(a, a2, a.length);
     }
+
+    @MethodSubstitution
+    public static void fill(boolean[] a, boolean val) {
+        ArrayFillNode.fill(a, 0, a.length, val ? 1 : 0, JavaKind.Boolean);
+    }
+
+    @MethodSubstitution
+    public static void fill(boolean[] a, int fromIndex, int toIndex, boolean val) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        ArrayFillNode.fill(a, fromIndex, toIndex - fromIndex, val ? 1 : 0, JavaKind.Boolean);
+    }
+
+    @MethodSubstitution
+    public static void fill(byte[] a, byte val) {
+        ArrayFillNode.fill(a, 0, a.length, val, JavaKind.Byte);
+    }
+
+    @MethodSubstitution
+    public static void fill(byte[] a, int fromIndex, int toIndex, byte val) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        ArrayFillNode.fill(a, fromIndex, toIndex - fromIndex, val, JavaKind.Byte);
+    }
+
+    @MethodSubstitution
+    public static void fill(char[] a, char val) {
+        ArrayFillNode.fill(a, 0, a.length, val, JavaKind.Char);
+    }
+
+    @MethodSubstitution
+    public static void fill(char[] a, int fromIndex, int toIndex, char val) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        ArrayFillNode.fill(a, fromIndex, toIndex - fromIndex, val, JavaKind.Char);
+    }
+
+    @MethodSubstitution
+    public static void fill(short[] a, short val) {
+        ArrayFillNode.fill(a, 0, a.length, val, JavaKind.Short);
+    }
+
+    @MethodSubstitution
+    public static void fill(short[] a, int fromIndex, int toIndex, short val) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        ArrayFillNode.fill(a, fromIndex, toIndex - fromIndex, val, JavaKind.Short);
+    }
+
+    @MethodSubstitution
+    public static void fill(int[] a, int val) {
+        ArrayFillNode.fill(a, 0, a.length, val, JavaKind.Int);
+    }
+
+    @MethodSubstitution
+    public static void fill(int[] a, int fromIndex, int toIndex, int val) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        ArrayFillNode.fill(a, fromIndex, toIndex - fromIndex, val, JavaKind.Int);
+    }
+
+    @MethodSubstitution
+    public static void fill(long[] a, long val) {
+        ArrayFillNode.fill(a, 0, a.length, val, JavaKind.Long);
+    }
+
+    @MethodSubstitution
+    public static void fill(long[] a, int fromIndex, int toIndex, long val) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        ArrayFillNode.fill(a, fromIndex, toIndex - fromIndex, val, JavaKind.Long);
+    }
+
+    @MethodSubstitution
+    public static void fill(float[] a, float val) {
+        ArrayFillNode.fill(a, 0, a.length, Float.floatToRawIntBits(val), JavaKind.Float);
+    }
+
+    @MethodSubstitution
+    public static void fill(float[] a, int fromIndex, int toIndex, float val) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        ArrayFillNode.fill(a, fromIndex, toIndex - fromIndex, Float.floatToRawIntBits(val), JavaKind.Float);
+    }
+
+    @MethodSubstitution
+    public static void fill(double[] a, double val) {
+        ArrayFillNode.fill(a, 0, a.length, Double.doubleToRawLongBits(val), JavaKind.Double);
+    }
+
+    @MethodSubstitution
+    public static void fill(double[] a, int fromIndex, int toIndex, double val) {
+        checkFillRange(a.length, fromIndex, toIndex);
+        ArrayFillNode.fill(a, fromIndex, toIndex - fromIndex, Double.doubleToRawLongBits(val), JavaKind.Double);
+    }
+
+    /**
+     * Deoptimizes if the range of a {@code fill} is invalid so that the interpreter throws the
+     * appropriate exception.
+     */
+    static void checkFillRange(int arrayLength, int fromIndex, int toIndex) {
+        if (probability(SLOW_PATH_PROBABILITY, fromIndex < 0 || fromIndex > toIndex || toIndex > arrayLength)) {
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+    }
+
+    @MethodSubstitution
+    public static int hashCode(byte[] a) {
+        if (a == null) {
+            return 0;
+        }
+        return ArrayHashCodeNode.hashCode(a, a.length, 1);
+    }
+
+    @MethodSubstitution
+    public static int hashCode(char[] a) {
+        if (a == null) {
+            return 0;
+        }
+        return ArrayHashCodeNode.hashCode(a, a.length, 1);
+    }
+
+    @MethodSubstitution
+    public static int hashCode(short[] a) {
+        if (a == null) {
+            return 0;
+        }
+        return ArrayHashCodeNode.hashCode(a, a.length, 1);
+    }
+
+    @MethodSubstitution
+    public static int hashCode(int[] a) {
+        if (a == null) {
+            return 0;
+        }
+        return ArrayHashCodeNode.hashCode(a, a.length, 1);
+    }
 }
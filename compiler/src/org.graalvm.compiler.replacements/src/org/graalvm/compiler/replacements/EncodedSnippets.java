@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements;
+
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.nodes.EncodedGraph;
+import org.graalvm.compiler.nodes.GraphDecoder;
+import org.graalvm.compiler.nodes.GraphEncoder;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.util.EconomicMap;
+import org.graalvm.util.Equivalence;
+import org.graalvm.util.UnmodifiableEconomicMap;
+import org.graalvm.util.UnmodifiableMapCursor;
+
+import jdk.vm.ci.code.Architecture;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Snippet and method substitution graphs encoded by a single {@link GraphEncoder} into one compact
+ * byte array. A graph is {@linkplain #decode decoded} on demand with a {@link GraphDecoder} which
+ * avoids parsing, inlining and canonicalizing its bytecode again.
+ */
+public final class EncodedSnippets {
+
+    private final Architecture architecture;
+
+    /**
+     * The encoded graphs keyed by the snippet or substitute method they were built from. All values
+     * share the same encoding, objects and node classes arrays.
+     */
+    private final UnmodifiableEconomicMap<ResolvedJavaMethod, EncodedGraph> graphs;
+
+    private EncodedSnippets(Architecture architecture, UnmodifiableEconomicMap<ResolvedJavaMethod, EncodedGraph> graphs) {
+        this.architecture = architecture;
+        this.graphs = graphs;
+    }
+
+    /**
+     * Encodes {@code graphs} into a single {@link EncodedSnippets} object.
+     *
+     * @param graphs map from snippet or substitute methods to their preprocessed graphs
+     */
+    public static EncodedSnippets encode(Architecture architecture, UnmodifiableEconomicMap<ResolvedJavaMethod, StructuredGraph> graphs) {
+        GraphEncoder encoder = new GraphEncoder(architecture);
+        UnmodifiableMapCursor<ResolvedJavaMethod, StructuredGraph> cursor = graphs.getEntries();
+        while (cursor.advance()) {
+            encoder.prepare(cursor.getValue());
+        }
+        encoder.finishPrepare();
+
+        EconomicMap<ResolvedJavaMethod, Integer> startOffsets = EconomicMap.create(Equivalence.DEFAULT);
+        cursor = graphs.getEntries();
+        while (cursor.advance()) {
+            startOffsets.put(cursor.getKey(), encoder.encode(cursor.getValue()));
+        }
+
+        byte[] encoding = encoder.getEncoding();
+        EconomicMap<ResolvedJavaMethod, EncodedGraph> encodedGraphs = EconomicMap.create(Equivalence.DEFAULT);
+        cursor = graphs.getEntries();
+        while (cursor.advance()) {
+            StructuredGraph graph = cursor.getValue();
+            EncodedGraph encodedGraph = new EncodedGraph(encoding, startOffsets.get(cursor.getKey()), encoder.getObjects(), encoder.getNodeClasses(), graph.getAssumptions(), graph.getMethods());
+            encodedGraphs.put(cursor.getKey(), encodedGraph);
+        }
+        return new EncodedSnippets(architecture, encodedGraphs);
+    }
+
+    /**
+     * Determines if this object contains a graph for {@code method}.
+     */
+    public boolean contains(ResolvedJavaMethod method) {
+        return graphs.containsKey(method);
+    }
+
+    /**
+     * Gets the number of graphs in this object.
+     */
+    public int size() {
+        return graphs.size();
+    }
+
+    /**
+     * Decodes the graph for {@code method}.
+     *
+     * @return the decoded graph or {@code null} if this object does not contain a graph for
+     *         {@code method}
+     */
+    public StructuredGraph decode(OptionValues options, DebugContext debug, ResolvedJavaMethod method) {
+        EncodedGraph encodedGraph = graphs.get(method);
+        if (encodedGraph == null) {
+            return null;
+        }
+        StructuredGraph graph = new StructuredGraph.Builder(options, debug).method(method).build();
+        // Replacements are not user code so they do not participate in unsafe access tracking
+        graph.disableUnsafeAccessTracking();
+        new GraphDecoder(architecture, graph).decode(encodedGraph);
+        if (encodedGraph.getInlinedMethods() != null) {
+            for (ResolvedJavaMethod inlinedMethod : encodedGraph.getInlinedMethods()) {
+                graph.recordMethod(inlinedMethod);
+            }
+        }
+        return graph;
+    }
+}
@@ -32,6 +32,7 @@ import static org.graalvm.compiler.phases.common.DeadCodeEliminationPhase.Option
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -68,6 +69,7 @@ import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
 import org.graalvm.compiler.nodes.graphbuilderconf.InlineInvokePlugin;
 import org.graalvm.compiler.nodes.graphbuilderconf.IntrinsicContext;
 import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins.Binding;
 import org.graalvm.compiler.nodes.graphbuilderconf.MethodSubstitutionPlugin;
 import org.graalvm.compiler.nodes.java.MethodCallTargetNode;
 import org.graalvm.compiler.nodes.spi.Replacements;
@@ -83,10 +85,13 @@ import org.graalvm.compiler.word.Word;
 import org.graalvm.compiler.word.WordOperationPlugin;
 import org.graalvm.util.EconomicMap;
 import org.graalvm.util.Equivalence;
+import org.graalvm.util.MapCursor;
 
+import jdk.vm.ci.code.BailoutException;
 import jdk.vm.ci.code.TargetDescription;
 import jdk.vm.ci.meta.ConstantReflectionProvider;
 import jdk.vm.ci.meta.MetaAccessProvider;
+import jdk.vm.ci.meta.MetaUtil;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import jdk.vm.ci.meta.ResolvedJavaType;
 
@@ -109,6 +114,17 @@ public class ReplacementsImpl implements Replacements, InlineInvokePlugin {
      */
     protected final ConcurrentMap<ResolvedJavaMethod, StructuredGraph> graphs;
 
+    /**
+     * The snippets registered with {@link #registerSnippet(ResolvedJavaMethod)}.
+     */
+    private final Set<ResolvedJavaMethod> registeredSnippets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The pre-encoded replacement graphs or {@code null} if {@link #encodeSnippets()} has not been
+     * called.
+     */
+    private volatile EncodedSnippets encodedSnippets;
+
     /**
      * The default {@link BytecodeProvider} to use for accessing the bytecode of a replacement if
      * the replacement doesn't provide another {@link BytecodeProvider}.
@@ -225,7 +241,13 @@ public class ReplacementsImpl implements Replacements, InlineInvokePlugin {
         if (graph == null) {
             try (DebugContext debug = openDebugContext("Snippet_", method);
                             DebugCloseable a = SnippetPreparationTime.start(debug)) {
-                StructuredGraph newGraph = makeGraph(debug, defaultBytecodeProvider, method, args, recursiveEntry);
+                StructuredGraph newGraph = null;
+                if (args == null && recursiveEntry == null) {
+                    newGraph = decodeGraph(debug, method);
+                }
+                if (newGraph == null) {
+                    newGraph = makeGraph(debug, defaultBytecodeProvider, method, args, recursiveEntry);
+                }
                 DebugContext.counter("SnippetNodeCount[%#s]", method).add(newGraph.getDebug(), newGraph.getNodeCount());
                 if (!UseSnippetGraphCache.getValue(options) || args != null) {
                     return newGraph;
@@ -240,7 +262,9 @@ public class ReplacementsImpl implements Replacements, InlineInvokePlugin {
 
     @Override
     public void registerSnippet(ResolvedJavaMethod method) {
-        // No initialization needed as snippet graphs are created on demand in getSnippet
+        // Snippet graphs are created on demand in getSnippet. The method is only
+        // recorded so that it can be included by encodeSnippets.
+        registeredSnippets.add(method);
     }
 
     @Override
@@ -277,7 +301,10 @@ public class ReplacementsImpl implements Replacements, InlineInvokePlugin {
                 StructuredGraph graph = graphs.get(substitute);
                 if (graph == null) {
                     try (DebugContext debug = openDebugContext("Substitution_", method)) {
-                        graph = makeGraph(debug, msPlugin.getBytecodeProvider(), substitute, null, method);
+                        graph = decodeGraph(debug, substitute);
+                        if (graph == null) {
+                            graph = makeGraph(debug, msPlugin.getBytecodeProvider(), substitute, null, method);
+                        }
                         graph.freeze();
                         graphs.putIfAbsent(substitute, graph);
                         graph = graphs.get(substitute);
@@ -300,6 +327,96 @@ public class ReplacementsImpl implements Replacements, InlineInvokePlugin {
         return result;
     }
 
+    /**
+     * Decodes the graph for a snippet or substitute method from the graphs created by
+     * {@link #encodeSnippets()}.
+     *
+     * @return the decoded graph or {@code null} if there is no encoded graph for {@code method}
+     */
+    private StructuredGraph decodeGraph(DebugContext debug, ResolvedJavaMethod method) {
+        EncodedSnippets encoded = encodedSnippets;
+        if (encoded == null) {
+            return null;
+        }
+        return encoded.decode(options, debug, method);
+    }
+
+    /**
+     * Builds the graphs for all {@linkplain #registerSnippet(ResolvedJavaMethod) registered}
+     * snippets and all {@link MethodSubstitutionPlugin method substitutions} and encodes them into
+     * a single compact {@link EncodedSnippets} object. Subsequent requests for these graphs decode
+     * them instead of parsing their bytecode. Graphs that cannot be built are left to be parsed on
+     * demand.
+     *
+     * @return the number of encoded graphs
+     */
+    @SuppressWarnings("try")
+    public int encodeSnippets() {
+        MetaAccessProvider metaAccess = providers.getMetaAccess();
+        EconomicMap<ResolvedJavaMethod, StructuredGraph> toEncode = EconomicMap.create(Equivalence.DEFAULT);
+        for (ResolvedJavaMethod method : registeredSnippets) {
+            try (DebugContext debug = openDebugContext("EncodeSnippet_", method)) {
+                try {
+                    toEncode.put(method, makeGraph(debug, defaultBytecodeProvider, method, null, null));
+                } catch (GraalError | BailoutException e) {
+                    // leave it to getSnippet
+                    debug.log("Cannot encode snippet %s: %s", method, e);
+                }
+            }
+        }
+        MapCursor<String, List<Binding>> cursor = graphBuilderPlugins.getInvocationPlugins().getBindings(true).getEntries();
+        while (cursor.advance()) {
+            for (Binding binding : cursor.getValue()) {
+                if (binding.plugin instanceof MethodSubstitutionPlugin) {
+                    MethodSubstitutionPlugin msPlugin = (MethodSubstitutionPlugin) binding.plugin;
+                    ResolvedJavaMethod original = resolveOriginal(metaAccess, cursor.getKey(), binding);
+                    if (original == null || original.isNative()) {
+                        continue;
+                    }
+                    try (DebugContext debug = openDebugContext("EncodeSubstitution_", original)) {
+                        try {
+                            ResolvedJavaMethod substitute = msPlugin.getSubstitute(metaAccess);
+                            if (!toEncode.containsKey(substitute)) {
+                                toEncode.put(substitute, makeGraph(debug, msPlugin.getBytecodeProvider(), substitute, null, original));
+                            }
+                        } catch (GraalError | BailoutException e) {
+                            // leave it to getSubstitution
+                            debug.log("Cannot encode substitution for %s: %s", original, e);
+                        }
+                    }
+                }
+            }
+        }
+        encodedSnippets = EncodedSnippets.encode(target.arch, toEncode);
+        return toEncode.size();
+    }
+
+    /**
+     * Resolves the method substituted by the plugin in {@code binding}.
+     *
+     * @param className the {@linkplain MetaUtil#toInternalName(String) internal} name of the
+     *            class declaring the method
+     * @return the substituted method or {@code null} if it cannot be resolved
+     */
+    private ResolvedJavaMethod resolveOriginal(MetaAccessProvider metaAccess, String className, Binding binding) {
+        Class<?> c;
+        try {
+            c = Class.forName(MetaUtil.internalNameToJava(className, true, true), false, ReplacementsImpl.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+        ResolvedJavaType type = metaAccess.lookupJavaType(c);
+        ResolvedJavaMethod[] candidates = binding.name.equals("<init>") ? type.getDeclaredConstructors() : type.getDeclaredMethods();
+        for (ResolvedJavaMethod candidate : candidates) {
+            if (candidate.getName().equals(binding.name) && candidate.isStatic() == binding.isStatic && candidate.getSignature().toMethodDescriptor().startsWith(binding.argumentsDescriptor)) {
+                if (graphBuilderPlugins.getInvocationPlugins().lookupInvocation(candidate) == binding.plugin) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Creates a preprocessed graph for a snippet or method substitution.
      *
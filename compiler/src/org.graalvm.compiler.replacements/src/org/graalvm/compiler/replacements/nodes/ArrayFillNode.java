@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.nodes;
+
+import static org.graalvm.compiler.nodeinfo.InputType.Memory;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_1024;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_64;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.AbstractMemoryCheckpoint;
+import org.graalvm.compiler.nodes.memory.MemoryCheckpoint;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+
+// JaCoCo Exclude
+
+/**
+ * Stores the same value into a range of elements of a primitive array. The range must already be
+ * known to be within the bounds of the array.
+ */
+@NodeInfo(allowedUsageTypes = Memory, cycles = CYCLES_1024, size = SIZE_64)
+public final class ArrayFillNode extends AbstractMemoryCheckpoint implements LIRLowerable, MemoryCheckpoint.Single {
+
+    public static final NodeClass<ArrayFillNode> TYPE = NodeClass.create(ArrayFillNode.class);
+    /** {@link JavaKind} of the array elements. */
+    protected final JavaKind kind;
+
+    @Input ValueNode array;
+
+    /** Index of the first element to store. */
+    @Input ValueNode fromIndex;
+
+    /** Number of elements to store. */
+    @Input ValueNode length;
+
+    /**
+     * The value to store. For {@code float} and {@code double} arrays this is the raw bit pattern
+     * of the value.
+     */
+    @Input ValueNode value;
+
+    public ArrayFillNode(ValueNode array, ValueNode fromIndex, ValueNode length, ValueNode value, @ConstantNodeParameter JavaKind kind) {
+        super(TYPE, StampFactory.forVoid());
+        assert kind.isPrimitive() && kind != JavaKind.Void;
+        this.kind = kind;
+        this.array = array;
+        this.fromIndex = fromIndex;
+        this.length = length;
+        this.value = value;
+    }
+
+    public ValueNode getArray() {
+        return array;
+    }
+
+    public ValueNode getFromIndex() {
+        return fromIndex;
+    }
+
+    public ValueNode getLength() {
+        return length;
+    }
+
+    public ValueNode getValue() {
+        return value;
+    }
+
+    @NodeIntrinsic
+    public static native void fill(Object array, int fromIndex, int length, long value, @ConstantNodeParameter JavaKind kind);
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        gen.getLIRGeneratorTool().emitArrayFill(kind, gen.operand(array), gen.operand(fromIndex), gen.operand(length), gen.operand(value));
+    }
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        // boolean array elements are accessed with byte loads and stores (baload and bastore)
+        return NamedLocationIdentity.getArrayLocation(kind == JavaKind.Boolean ? JavaKind.Byte : kind);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.nodes;
+
+import static org.graalvm.compiler.nodeinfo.InputType.Memory;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_1024;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_64;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValueNodeUtil;
+import org.graalvm.compiler.nodes.memory.MemoryAccess;
+import org.graalvm.compiler.nodes.memory.MemoryNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+// JaCoCo Exclude
+
+/**
+ * Computes the polynomial hash {@code h = 31 * h + a[i]} over the first {@code length} elements
+ * of an array of {@code byte}, {@code char}, {@code short} or {@code int}, starting from an
+ * initial hash value.
+ */
+@NodeInfo(cycles = CYCLES_1024, size = SIZE_64)
+public final class ArrayHashCodeNode extends FixedWithNextNode implements LIRLowerable, MemoryAccess {
+
+    public static final NodeClass<ArrayHashCodeNode> TYPE = NodeClass.create(ArrayHashCodeNode.class);
+    /** {@link JavaKind} of the array elements. */
+    protected final JavaKind kind;
+
+    @Input ValueNode array;
+
+    /** Number of elements to hash. */
+    @Input ValueNode length;
+
+    /** The hash value the elements are folded into. */
+    @Input ValueNode initialValue;
+
+    @OptionalInput(Memory) MemoryNode lastLocationAccess;
+
+    public ArrayHashCodeNode(ValueNode array, ValueNode length, ValueNode initialValue, @ConstantNodeParameter JavaKind kind) {
+        super(TYPE, StampFactory.forKind(JavaKind.Int));
+        assert kind == JavaKind.Byte || kind == JavaKind.Char || kind == JavaKind.Short || kind == JavaKind.Int;
+        this.kind = kind;
+        this.array = array;
+        this.length = length;
+        this.initialValue = initialValue;
+    }
+
+    public ValueNode getArray() {
+        return array;
+    }
+
+    public ValueNode getLength() {
+        return length;
+    }
+
+    @NodeIntrinsic
+    public static native int hashCode(Object array, int length, int initialValue, @ConstantNodeParameter JavaKind kind);
+
+    public static int hashCode(byte[] array, int length, int initialValue) {
+        return hashCode(array, length, initialValue, JavaKind.Byte);
+    }
+
+    public static int hashCode(char[] array, int length, int initialValue) {
+        return hashCode(array, length, initialValue, JavaKind.Char);
+    }
+
+    public static int hashCode(short[] array, int length, int initialValue) {
+        return hashCode(array, length, initialValue, JavaKind.Short);
+    }
+
+    public static int hashCode(int[] array, int length, int initialValue) {
+        return hashCode(array, length, initialValue, JavaKind.Int);
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        Value result = gen.getLIRGeneratorTool().emitArrayHashCode(kind, gen.operand(array), gen.operand(length), gen.operand(initialValue));
+        gen.setResult(this, result);
+    }
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        return NamedLocationIdentity.getArrayLocation(kind);
+    }
+
+    @Override
+    public MemoryNode getLastLocationAccess() {
+        return lastLocationAccess;
+    }
+
+    @Override
+    public void setLastLocationAccess(MemoryNode lla) {
+        updateUsages(ValueNodeUtil.asNode(lastLocationAccess), ValueNodeUtil.asNode(lla));
+        lastLocationAccess = lla;
+    }
+}
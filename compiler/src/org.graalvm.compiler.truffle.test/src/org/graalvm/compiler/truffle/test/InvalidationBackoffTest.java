@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleInvalidationBackoffThreshold;
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleInvalidationReprofileCount;
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleMaximumInvalidations;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.graalvm.compiler.truffle.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.TruffleCompilerOptions;
+import org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleOptionsOverrideScope;
+import org.graalvm.compiler.truffle.debug.AbstractDebugCompilationListener;
+import org.junit.Test;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+
+@SuppressWarnings("try")
+public class InvalidationBackoffTest extends TestWithSynchronousCompiling {
+
+    private static final GraalTruffleRuntime runtime = (GraalTruffleRuntime) Truffle.getRuntime();
+
+    private static final class UnstableRootNode extends RootNode {
+
+        @CompilationFinal Assumption stable = Truffle.getRuntime().createAssumption("unstable field");
+
+        UnstableRootNode() {
+            super(null);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return stable.isValid();
+        }
+
+        void invalidate() {
+            Assumption old = stable;
+            stable = Truffle.getRuntime().createAssumption("unstable field");
+            old.invalidate();
+        }
+    }
+
+    private static final class ConstantRootNode extends RootNode {
+
+        ConstantRootNode() {
+            super(null);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return 42;
+        }
+    }
+
+    private static final class BackoffListener extends AbstractDebugCompilationListener {
+
+        final List<Integer> reprofileCounts = new ArrayList<>();
+        final List<CharSequence> disabledReasons = new ArrayList<>();
+
+        @Override
+        public void notifyCompilationBackoff(OptimizedCallTarget target, int invalidations, int reprofileCount, CharSequence reason) {
+            reprofileCounts.add(reprofileCount);
+        }
+
+        @Override
+        public void notifyCompilationDisabled(OptimizedCallTarget target, CharSequence reason) {
+            disabledReasons.add(reason);
+        }
+    }
+
+    private static void callUntilCompiled(OptimizedCallTarget target, int maxCalls) {
+        for (int i = 0; i < maxCalls && !target.isValid(); i++) {
+            target.call();
+        }
+    }
+
+    private static void callDirectUntilCompiled(OptimizedCallTarget target, int maxCalls, Object... args) {
+        for (int i = 0; i < maxCalls && !target.isValid(); i++) {
+            target.callDirect(args);
+        }
+    }
+
+    @Test
+    public void testBackoffAndDisable() {
+        BackoffListener listener = new BackoffListener();
+        runtime.addCompilationListener(listener);
+        try (TruffleOptionsOverrideScope backoff = TruffleCompilerOptions.overrideOptions(TruffleInvalidationBackoffThreshold, 2);
+                        TruffleOptionsOverrideScope maximum = TruffleCompilerOptions.overrideOptions(TruffleMaximumInvalidations, 5);
+                        TruffleOptionsOverrideScope reprofile = TruffleCompilerOptions.overrideOptions(TruffleInvalidationReprofileCount, 3)) {
+            UnstableRootNode root = new UnstableRootNode();
+            OptimizedCallTarget target = (OptimizedCallTarget) runtime.createCallTarget(root);
+
+            for (int i = 0; i < 4; i++) {
+                callUntilCompiled(target, 1000);
+                assertCompiled(target);
+                root.invalidate();
+                assertFalse(target.isValid());
+            }
+            assertEquals(4, target.getCompilationProfile().getInvalidationCount());
+            // the third and fourth invalidation double the reprofile count
+            assertEquals(2, listener.reprofileCounts.size());
+            assertEquals(6, (int) listener.reprofileCounts.get(0));
+            assertEquals(12, (int) listener.reprofileCounts.get(1));
+            assertTrue(listener.disabledReasons.isEmpty());
+
+            callUntilCompiled(target, 1000);
+            assertCompiled(target);
+            root.invalidate();
+
+            assertTrue(target.getCompilationProfile().isCompilationDisabled());
+            assertEquals(1, listener.disabledReasons.size());
+            Map<String, Integer> reasons = target.getCompilationProfile().getInvalidationReasons();
+            assertEquals(Integer.valueOf(5), reasons.get("assumption unstable field"));
+
+            for (int i = 0; i < 1000; i++) {
+                target.call();
+            }
+            assertNotCompiled(target);
+        } finally {
+            runtime.removeCompilationListener(listener);
+        }
+    }
+
+    @Test
+    public void testArgumentTypeSpeculationBackoff() {
+        BackoffListener listener = new BackoffListener();
+        runtime.addCompilationListener(listener);
+        try (TruffleOptionsOverrideScope backoff = TruffleCompilerOptions.overrideOptions(TruffleInvalidationBackoffThreshold, 2);
+                        TruffleOptionsOverrideScope maximum = TruffleCompilerOptions.overrideOptions(TruffleMaximumInvalidations, 10);
+                        TruffleOptionsOverrideScope reprofile = TruffleCompilerOptions.overrideOptions(TruffleInvalidationReprofileCount, 3)) {
+            OptimizedCallTarget target = (OptimizedCallTarget) runtime.createCallTarget(new ConstantRootNode());
+            Object[] args = {1, 1, 1, 1};
+
+            // each call with a new argument type invalidates the profiled argument types
+            for (int i = 0; i < 3; i++) {
+                callDirectUntilCompiled(target, 1000, args);
+                assertCompiled(target);
+                args = args.clone();
+                args[i] = "string";
+                target.callDirect(args);
+                assertFalse(target.isValid());
+                // the invalidation that disables the speculation is reported only once
+                assertEquals(i + 1, target.getCompilationProfile().getInvalidationCount());
+            }
+            assertEquals(1, listener.reprofileCounts.size());
+            Map<String, Integer> reasons = target.getCompilationProfile().getInvalidationReasons();
+            assertEquals(Integer.valueOf(3), reasons.get("assumption Profiled Argument Types"));
+
+            // argument types are no longer speculated on
+            callDirectUntilCompiled(target, 1000, args);
+            assertCompiled(target);
+            args = args.clone();
+            args[3] = "string";
+            target.callDirect(args);
+            assertCompiled(target);
+            assertEquals(3, target.getCompilationProfile().getInvalidationCount());
+            assertTrue(listener.disabledReasons.isEmpty());
+        } finally {
+            runtime.removeCompilationListener(listener);
+        }
+    }
+}
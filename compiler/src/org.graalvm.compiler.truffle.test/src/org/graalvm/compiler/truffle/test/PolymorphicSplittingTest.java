@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleExperimentalSplitting;
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleSplittingMaxNumberOfSplitNodes;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.compiler.truffle.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.PolymorphicTruffleSplittingStrategy;
+import org.graalvm.compiler.truffle.TruffleCompilerOptions;
+import org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleOptionsOverrideScope;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+
+@SuppressWarnings("try")
+public class PolymorphicSplittingTest {
+
+    private static final GraalTruffleRuntime runtime = (GraalTruffleRuntime) Truffle.getRuntime();
+
+    @Before
+    public void resetSplitBudget() {
+        PolymorphicTruffleSplittingStrategy.resetSplitBudget();
+    }
+
+    private static final class TypeProfileNode extends Node {
+
+        private Class<?> seenType;
+        private boolean polymorphic;
+
+        Object execute(Object value) {
+            if (seenType == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                seenType = value.getClass();
+            } else if (!polymorphic && seenType != value.getClass()) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                polymorphic = true;
+                reportPolymorphicSpecialize();
+            }
+            return value;
+        }
+    }
+
+    private static final class CalleeRootNode extends RootNode {
+
+        @Child private TypeProfileNode profile = new TypeProfileNode();
+
+        CalleeRootNode() {
+            super(null);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return profile.execute(frame.getArguments()[0]);
+        }
+
+        @Override
+        public boolean isCloningAllowed() {
+            return true;
+        }
+
+        @Override
+        protected boolean isCloneUninitializedSupported() {
+            return true;
+        }
+
+        @Override
+        protected RootNode cloneUninitialized() {
+            return new CalleeRootNode();
+        }
+    }
+
+    private static final class CallerRootNode extends RootNode {
+
+        @Child private DirectCallNode call;
+        private final Object argument;
+
+        CallerRootNode(OptimizedCallTarget callee, Object argument) {
+            super(null);
+            this.call = runtime.createDirectCallNode(callee);
+            this.argument = argument;
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return call.call(new Object[]{argument != null ? argument : frame.getArguments()[0]});
+        }
+    }
+
+    @Test
+    public void testSplitCallersOfPolymorphicTarget() {
+        try (TruffleOptionsOverrideScope scope = TruffleCompilerOptions.overrideOptions(TruffleExperimentalSplitting, true)) {
+            OptimizedCallTarget callee = (OptimizedCallTarget) runtime.createCallTarget(new CalleeRootNode());
+            CallerRootNode intCaller = new CallerRootNode(callee, 42);
+            CallerRootNode stringCaller = new CallerRootNode(callee, "42");
+            OptimizedCallTarget intTarget = (OptimizedCallTarget) runtime.createCallTarget(intCaller);
+            OptimizedCallTarget stringTarget = (OptimizedCallTarget) runtime.createCallTarget(stringCaller);
+
+            intTarget.call();
+            intTarget.call();
+            assertFalse(intCaller.call.isCallTargetCloned());
+
+            // callee turns polymorphic because of the arguments of its two call sites
+            stringTarget.call();
+            intTarget.call();
+            stringTarget.call();
+
+            assertTrue(intCaller.call.isCallTargetCloned());
+            assertTrue(stringCaller.call.isCallTargetCloned());
+            assertNotSame(intCaller.call.getCurrentCallTarget(), stringCaller.call.getCurrentCallTarget());
+
+            // all call sites were split, so a new call site must not split because of the old mark
+            CallerRootNode newCaller = new CallerRootNode(callee, 42);
+            OptimizedCallTarget newTarget = (OptimizedCallTarget) runtime.createCallTarget(newCaller);
+            newTarget.call();
+            newTarget.call();
+            assertFalse(newCaller.call.isCallTargetCloned());
+        }
+    }
+
+    @Test
+    public void testNoSplitForPolymorphicSingleCallSite() {
+        try (TruffleOptionsOverrideScope scope = TruffleCompilerOptions.overrideOptions(TruffleExperimentalSplitting, true)) {
+            OptimizedCallTarget callee = (OptimizedCallTarget) runtime.createCallTarget(new CalleeRootNode());
+            CallerRootNode caller = new CallerRootNode(callee, null);
+            OptimizedCallTarget callerTarget = (OptimizedCallTarget) runtime.createCallTarget(caller);
+
+            for (int i = 0; i < 10; i++) {
+                callerTarget.call(i % 2 == 0 ? 42 : "42");
+            }
+            // the polymorphism is caused by the host calls of the caller, splitting would not help
+            assertFalse(caller.call.isCallTargetCloned());
+        }
+    }
+
+    @Test
+    public void testSplitNodeBudget() {
+        try (TruffleOptionsOverrideScope scope = TruffleCompilerOptions.overrideOptions(TruffleExperimentalSplitting, true);
+                        TruffleOptionsOverrideScope budget = TruffleCompilerOptions.overrideOptions(TruffleSplittingMaxNumberOfSplitNodes, 0)) {
+            OptimizedCallTarget callee = (OptimizedCallTarget) runtime.createCallTarget(new CalleeRootNode());
+            CallerRootNode intCaller = new CallerRootNode(callee, 42);
+            CallerRootNode stringCaller = new CallerRootNode(callee, "42");
+            OptimizedCallTarget intTarget = (OptimizedCallTarget) runtime.createCallTarget(intCaller);
+            OptimizedCallTarget stringTarget = (OptimizedCallTarget) runtime.createCallTarget(stringCaller);
+
+            for (int i = 0; i < 10; i++) {
+                intTarget.call();
+                stringTarget.call();
+            }
+            assertFalse(intCaller.call.isCallTargetCloned());
+            assertFalse(stringCaller.call.isCallTargetCloned());
+        }
+    }
+
+    @Test
+    public void testForcedSplitNodeBudget() {
+        try (TruffleOptionsOverrideScope scope = TruffleCompilerOptions.overrideOptions(TruffleExperimentalSplitting, true);
+                        TruffleOptionsOverrideScope budget = TruffleCompilerOptions.overrideOptions(TruffleSplittingMaxNumberOfSplitNodes, 0)) {
+            OptimizedCallTarget callee = (OptimizedCallTarget) runtime.createCallTarget(new CalleeRootNode());
+            CallerRootNode caller = new CallerRootNode(callee, 42);
+            runtime.createCallTarget(caller);
+
+            caller.call.cloneCallTarget();
+            assertFalse(caller.call.isCallTargetCloned());
+        }
+    }
+
+    @Test
+    public void testSplitBudgetReset() {
+        try (TruffleOptionsOverrideScope scope = TruffleCompilerOptions.overrideOptions(TruffleExperimentalSplitting, true)) {
+            OptimizedCallTarget callee = (OptimizedCallTarget) runtime.createCallTarget(new CalleeRootNode());
+            int limit = callee.getNonTrivialNodeCount();
+            try (TruffleOptionsOverrideScope budget = TruffleCompilerOptions.overrideOptions(TruffleSplittingMaxNumberOfSplitNodes, limit)) {
+                CallerRootNode first = new CallerRootNode(callee, 42);
+                runtime.createCallTarget(first);
+                first.call.cloneCallTarget();
+                assertTrue(first.call.isCallTargetCloned());
+
+                // the budget is used up by the first split
+                CallerRootNode second = new CallerRootNode(callee, 42);
+                runtime.createCallTarget(second);
+                second.call.cloneCallTarget();
+                assertFalse(second.call.isCallTargetCloned());
+
+                PolymorphicTruffleSplittingStrategy.resetSplitBudget();
+                second.call.cloneCallTarget();
+                assertTrue(second.call.isCallTargetCloned());
+            }
+        }
+    }
+}
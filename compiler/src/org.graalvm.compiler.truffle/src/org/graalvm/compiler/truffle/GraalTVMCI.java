@@ -22,6 +22,8 @@
  */
 package org.graalvm.compiler.truffle;
 
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleExperimentalSplitting;
+
 import org.graalvm.options.OptionDescriptors;
 import org.graalvm.options.OptionValues;
 
@@ -52,6 +54,13 @@ final class GraalTVMCI extends TVMCI {
         }
     }
 
+    @Override
+    protected void onReportPolymorphicSpecialize(Node source) {
+        if (TruffleCompilerOptions.getValue(TruffleExperimentalSplitting)) {
+            PolymorphicTruffleSplittingStrategy.polymorphicSpecialize(source);
+        }
+    }
+
     @Override
     protected boolean isGuestCallStackFrame(StackTraceElement e) {
         return e.getMethodName().equals(OptimizedCallTarget.CALL_BOUNDARY_METHOD_NAME) && e.getClassName().equals(OptimizedCallTarget.class.getName());
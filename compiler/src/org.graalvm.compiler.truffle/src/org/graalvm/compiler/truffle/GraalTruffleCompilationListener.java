@@ -37,7 +37,7 @@ import com.oracle.truffle.api.nodes.Node;
  *    . queue . started
  *    . (truffleTierFinished . graalTierFinished . success)
  *      | ([truffleTierFinished] . [graalTierFinished] . failed)
- *    . invalidate )*
+ *    . invalidate . [backoff | disabled] )*
  * </pre>
  * </code>
  * <p>
@@ -88,6 +88,24 @@ public interface GraalTruffleCompilationListener {
 
     void notifyCompilationDeoptimized(OptimizedCallTarget target, Frame frame);
 
+    /**
+     * Invoked if a call target was invalidated so often that its recompilation gets delayed
+     * exponentially.
+     *
+     * @param invalidations the number of invalidations in the current series of invalidations
+     * @param reprofileCount the number of calls the call target needs to be profiled for before it
+     *            is considered for compilation again
+     * @param reason the most frequent reason for the invalidations of the call target
+     */
+    void notifyCompilationBackoff(OptimizedCallTarget target, int invalidations, int reprofileCount, CharSequence reason);
+
+    /**
+     * Invoked if a call target was invalidated too often and is no longer compiled.
+     *
+     * @param reason a textual description of the reason why compilation was disabled
+     */
+    void notifyCompilationDisabled(OptimizedCallTarget target, CharSequence reason);
+
     /**
      * Invoked as the compiler gets shut down.
      */
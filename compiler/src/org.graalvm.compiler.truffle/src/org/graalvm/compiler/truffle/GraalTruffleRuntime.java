@@ -858,6 +858,20 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime {
             }
         }
 
+        @Override
+        public void notifyCompilationBackoff(OptimizedCallTarget target, int invalidations, int reprofileCount, CharSequence reason) {
+            for (GraalTruffleCompilationListener l : compilationListeners) {
+                l.notifyCompilationBackoff(target, invalidations, reprofileCount, reason);
+            }
+        }
+
+        @Override
+        public void notifyCompilationDisabled(OptimizedCallTarget target, CharSequence reason) {
+            for (GraalTruffleCompilationListener l : compilationListeners) {
+                l.notifyCompilationDisabled(target, reason);
+            }
+        }
+
         @Override
         public void notifyCompilationSuccess(OptimizedCallTarget target, TruffleInlining inliningDecision, StructuredGraph graph, CompilationResult result) {
             for (GraalTruffleCompilationListener l : compilationListeners) {
@@ -86,7 +86,7 @@ public final class OptimizedAssumption extends AbstractAssumption {
                 }
                 if (installedCode instanceof OptimizedCallTarget) {
                     OptimizedCallTarget target = (OptimizedCallTarget) installedCode;
-                    target.getCompilationProfile().reportInvalidated();
+                    target.getCompilationProfile().reportInvalidated(target, this, "assumption invalidated");
                 }
             }
             e = e.next;
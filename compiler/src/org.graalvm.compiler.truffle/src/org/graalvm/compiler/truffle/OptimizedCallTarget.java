@@ -103,6 +103,8 @@ public class OptimizedCallTarget extends InstalledCode implements RootCallTarget
     private volatile int cachedNonTrivialNodeCount = -1;
     private volatile SpeculationLog speculationLog;
     private volatile int callSitesKnown;
+    /** Set when call sites should split this target because it turned polymorphic. */
+    private volatile boolean needsSplit;
     private volatile CancellableCompileTask compilationTask;
     /**
      * When this call target is inlined, the inlining {@link InstalledCode} registers this
@@ -265,6 +267,9 @@ public class OptimizedCallTarget extends InstalledCode implements RootCallTarget
 
     private void notifyDeoptimized(VirtualFrame frame) {
         runtime().getCompilationNotify().notifyCompilationDeoptimized(this, frame);
+        if (!isValid()) {
+            compilationProfile.reportDeoptimizationInvalidated(this);
+        }
     }
 
     static GraalTruffleRuntime runtime() {
@@ -439,6 +444,18 @@ public class OptimizedCallTarget extends InstalledCode implements RootCallTarget
         callSitesKnown--;
     }
 
+    final boolean isNeedsSplit() {
+        return needsSplit;
+    }
+
+    final void setNeedsSplit() {
+        needsSplit = true;
+    }
+
+    final void resetNeedsSplit() {
+        needsSplit = false;
+    }
+
     public final OptimizedCallTarget getSourceCallTarget() {
         return sourceCallTarget;
     }
@@ -511,7 +528,7 @@ public class OptimizedCallTarget extends InstalledCode implements RootCallTarget
         if (profile != null) {
             profile.reportNodeReplaced();
             if (cancelInstalledTask(newNode, reason)) {
-                profile.reportInvalidated();
+                profile.reportInvalidated(this, newNode, reason);
             }
         }
         return false;
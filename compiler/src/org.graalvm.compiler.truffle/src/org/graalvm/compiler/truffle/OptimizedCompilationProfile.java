@@ -24,13 +24,18 @@ package org.graalvm.compiler.truffle;
 
 import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleArgumentTypeSpeculation;
 import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleCompileImmediately;
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleInvalidationBackoffMaxReprofileCount;
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleInvalidationBackoffResetTime;
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleInvalidationBackoffThreshold;
 import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleInvalidationReprofileCount;
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleMaximumInvalidations;
 import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleMinInvokeThreshold;
 import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleReplaceReprofileCount;
 import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleReturnTypeSpeculation;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.graalvm.options.OptionValues;
 
@@ -41,13 +46,40 @@ import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerOptions;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.Node;
 
 public class OptimizedCompilationProfile {
 
+    private static final String ARGUMENT_TYPES_ASSUMPTION_NAME = "Profiled Argument Types";
+    private static final String RETURN_TYPE_ASSUMPTION_NAME = "Profiled Return Type";
+
+    /*
+     * The invalidation state below is updated by the interpreter and by compiler threads without a
+     * lock, since invalidating an assumption can report invalidations of other call targets. The
+     * fields are volatile. Concurrent invalidations of the same tree may lose an increment, which
+     * only delays the backoff by one invalidation.
+     */
+
     /**
      * Number of times an installed code for this tree was seen invalidated.
      */
-    private int invalidationCount;
+    private volatile int invalidationCount;
+    /**
+     * Number of invalidations since the last installed code that stayed valid for a while. Drives
+     * the exponential backoff of recompilation.
+     */
+    private volatile int invalidationSeriesCount;
+    /**
+     * Number of invalidations per reason, used to identify the speculation that causes repeated
+     * invalidations of this tree.
+     */
+    private final Map<String, Integer> invalidationReasons = new LinkedHashMap<>();
+    /**
+     * Set when compiled code for this tree was installed and cleared as soon as its invalidation
+     * was recorded, so that an invalidation is only counted once.
+     */
+    private volatile boolean installedCodeValid;
+    private volatile long installedTimestamp;
     private int deferredCount;
 
     private int interpreterCallCount;
@@ -64,6 +96,14 @@ public class OptimizedCompilationProfile {
     @CompilationFinal private Class<?> exceptionType;
 
     private volatile boolean compilationFailed;
+    private volatile boolean compilationDisabled;
+    private volatile boolean argumentTypeSpeculationDisabled;
+    private volatile boolean returnTypeSpeculationDisabled;
+    /**
+     * The thread that is invalidating a profile assumption in {@link #disableSpeculation}. The
+     * code depending on it was already reported as invalidated, so the nested report is ignored.
+     */
+    private volatile Thread disablingSpeculationThread;
 
     public OptimizedCompilationProfile(OptionValues options) {
         int callThreshold = TruffleCompilerOptions.getValue(TruffleMinInvokeThreshold);
@@ -89,7 +129,7 @@ public class OptimizedCompilationProfile {
              * creating an invalid assumption but leaving the type field null.
              */
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            profiledArgumentTypesAssumption = createAssumption("Profiled Argument Types");
+            profiledArgumentTypesAssumption = createAssumption(ARGUMENT_TYPES_ASSUMPTION_NAME);
             profiledArgumentTypesAssumption.invalidate();
         }
 
@@ -108,7 +148,7 @@ public class OptimizedCompilationProfile {
              * creating an invalid assumption but leaving the type field null.
              */
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            profiledReturnTypeAssumption = createAssumption("Profiled Return Type");
+            profiledReturnTypeAssumption = createAssumption(RETURN_TYPE_ASSUMPTION_NAME);
             profiledReturnTypeAssumption.invalidate();
         }
 
@@ -167,9 +207,9 @@ public class OptimizedCompilationProfile {
         if (CompilerDirectives.inInterpreter() && returnTypeAssumption == null) {
             // we only profile return values in the interpreter as we don't want to deoptimize
             // for immediate compiles.
-            if (TruffleCompilerOptions.getValue(TruffleReturnTypeSpeculation)) {
+            if (TruffleCompilerOptions.getValue(TruffleReturnTypeSpeculation) && !returnTypeSpeculationDisabled) {
                 profiledReturnType = classOf(result);
-                profiledReturnTypeAssumption = createAssumption("Profiled Return Type");
+                profiledReturnTypeAssumption = createAssumption(RETURN_TYPE_ASSUMPTION_NAME);
             }
         } else if (profiledReturnType != null) {
             if (result == null || profiledReturnType != result.getClass()) {
@@ -237,12 +277,124 @@ public class OptimizedCompilationProfile {
         interpreterCallAndLoopCount += count;
     }
 
-    final void reportInvalidated() {
+    final void reportCompilationInstalled() {
+        installedTimestamp = System.nanoTime();
+        installedCodeValid = true;
+    }
+
+    /**
+     * Records an invalidation of the installed code or of a compilation in progress. Recompilation
+     * is delayed by {@link TruffleCompilerOptions#TruffleInvalidationReprofileCount} calls. Once a
+     * series of invalidations exceeds {@link TruffleCompilerOptions#TruffleInvalidationBackoffThreshold},
+     * the delay doubles with every further invalidation and the runtime speculation that was
+     * invalidated most often is disabled. A series ends when installed code stayed valid for
+     * {@link TruffleCompilerOptions#TruffleInvalidationBackoffResetTime}. After
+     * {@link TruffleCompilerOptions#TruffleMaximumInvalidations} the tree is no longer compiled.
+     *
+     * @param source the source object that caused the invalidation. May be <code>null</code>.
+     * @param reason a textual description of the reason for the invalidation. May be
+     *            <code>null</code>.
+     */
+    final void reportInvalidated(OptimizedCallTarget target, Object source, CharSequence reason) {
+        CompilerAsserts.neverPartOfCompilation();
+        if (disablingSpeculationThread == Thread.currentThread()) {
+            return;
+        }
+        boolean wasInstalled = installedCodeValid;
+        installedCodeValid = false;
         invalidationCount++;
+        long resetNanos = TimeUnit.MILLISECONDS.toNanos(TruffleCompilerOptions.getValue(TruffleInvalidationBackoffResetTime));
+        if (wasInstalled && System.nanoTime() - installedTimestamp > resetNanos) {
+            invalidationSeriesCount = 0;
+        }
+        int series = ++invalidationSeriesCount;
+        String mostFrequentReason = recordInvalidationReason(source, reason);
+
         int reprofile = TruffleCompilerOptions.getValue(TruffleInvalidationReprofileCount);
+        int maximumInvalidations = TruffleCompilerOptions.getValue(TruffleMaximumInvalidations);
+        int backoffThreshold = TruffleCompilerOptions.getValue(TruffleInvalidationBackoffThreshold);
+        if (maximumInvalidations > 0 && series >= maximumInvalidations) {
+            if (!compilationDisabled) {
+                compilationDisabled = true;
+                target.cancelInstalledTask(null, "compilation disabled");
+                runtime().getCompilationNotify().notifyCompilationDisabled(target,
+                                String.format("invalidated %d times, most frequently: %s", series, mostFrequentReason));
+            }
+        } else if (series > backoffThreshold) {
+            int maxReprofile = TruffleCompilerOptions.getValue(TruffleInvalidationBackoffMaxReprofileCount);
+            int shift = Math.min(series - backoffThreshold, 30);
+            reprofile = (int) Math.min((long) Math.max(reprofile, 1) << shift, Math.max(maxReprofile, reprofile));
+            disableSpeculation(source, mostFrequentReason);
+            runtime().getCompilationNotify().notifyCompilationBackoff(target, series, reprofile, mostFrequentReason);
+        }
         ensureProfiling(reprofile, reprofile);
     }
 
+    /**
+     * Records the invalidation of installed code that was detected on deoptimization, i.e. when
+     * the code was invalidated by the VM rather than by the Truffle runtime. For example
+     * {@link CompilerDirectives#transferToInterpreterAndInvalidate()} invalidates the code without
+     * the runtime being notified.
+     */
+    final void reportDeoptimizationInvalidated(OptimizedCallTarget target) {
+        if (installedCodeValid) {
+            reportInvalidated(target, null, "deoptimized and invalidated");
+        }
+    }
+
+    private String recordInvalidationReason(Object source, CharSequence reason) {
+        String key;
+        if (source instanceof Assumption) {
+            key = "assumption " + ((Assumption) source).getName();
+        } else if (source instanceof Node) {
+            key = (reason != null ? reason.toString() : "node replaced") + " (" + source.getClass().getSimpleName() + ")";
+        } else {
+            key = reason != null ? reason.toString() : "unknown";
+        }
+        synchronized (invalidationReasons) {
+            Integer count = invalidationReasons.get(key);
+            invalidationReasons.put(key, count == null ? 1 : count + 1);
+            String mostFrequent = key;
+            int mostFrequentCount = 0;
+            for (Map.Entry<String, Integer> entry : invalidationReasons.entrySet()) {
+                if (entry.getValue() > mostFrequentCount) {
+                    mostFrequent = entry.getKey();
+                    mostFrequentCount = entry.getValue();
+                }
+            }
+            return mostFrequent;
+        }
+    }
+
+    /*
+     * Speculations made by the compiler are recorded in the speculation log of the call target
+     * and are not repeated after they failed. The argument and return type profiles are runtime
+     * speculations; those are switched off for this tree if they are the main invalidation cause.
+     * The profile types are ignored once their assumption is invalid.
+     */
+    private void disableSpeculation(Object source, String mostFrequentReason) {
+        if (mostFrequentReason.equals("assumption " + ARGUMENT_TYPES_ASSUMPTION_NAME) && !argumentTypeSpeculationDisabled) {
+            argumentTypeSpeculationDisabled = true;
+            invalidateProfileAssumption(source, profiledArgumentTypesAssumption);
+        } else if (mostFrequentReason.equals("assumption " + RETURN_TYPE_ASSUMPTION_NAME) && !returnTypeSpeculationDisabled) {
+            returnTypeSpeculationDisabled = true;
+            invalidateProfileAssumption(source, profiledReturnTypeAssumption);
+        }
+    }
+
+    private void invalidateProfileAssumption(Object source, Assumption assumption) {
+        if (assumption == null || assumption == source) {
+            // the assumption that caused this report is being invalidated already
+            return;
+        }
+        disablingSpeculationThread = Thread.currentThread();
+        try {
+            assumption.invalidate();
+        } finally {
+            disablingSpeculationThread = null;
+        }
+    }
+
     final void reportNodeReplaced() {
         // delay compilation until tree is deemed stable enough
         int replaceBackoff = TruffleCompilerOptions.getValue(TruffleReplaceReprofileCount);
@@ -252,7 +404,7 @@ public class OptimizedCompilationProfile {
     final void interpreterCall(OptimizedCallTarget callTarget) {
         int intCallCount = ++interpreterCallCount;
         int intAndLoopCallCount = ++interpreterCallAndLoopCount;
-        if (!callTarget.isCompiling() && !compilationFailed) {
+        if (!callTarget.isCompiling() && !compilationFailed && !compilationDisabled) {
             // check if call target is hot enough to get compiled, but took not too long to get hot
             if ((intAndLoopCallCount >= compilationCallAndLoopThreshold && intCallCount >= compilationCallThreshold && !isDeferredCompile(callTarget)) ||
                             TruffleCompilerOptions.getValue(TruffleCompileImmediately)) {
@@ -295,8 +447,8 @@ public class OptimizedCompilationProfile {
 
     private void initializeProfiledArgumentTypes(Object[] args) {
         CompilerAsserts.neverPartOfCompilation();
-        profiledArgumentTypesAssumption = createAssumption("Profiled Argument Types");
-        if (TruffleCompilerOptions.getValue(TruffleArgumentTypeSpeculation)) {
+        profiledArgumentTypesAssumption = createAssumption(ARGUMENT_TYPES_ASSUMPTION_NAME);
+        if (TruffleCompilerOptions.getValue(TruffleArgumentTypeSpeculation) && !argumentTypeSpeculationDisabled) {
             Class<?>[] result = new Class<?>[args.length];
             for (int i = 0; i < args.length; i++) {
                 result[i] = classOf(args[i]);
@@ -308,10 +460,15 @@ public class OptimizedCompilationProfile {
     private void updateProfiledArgumentTypes(Object[] args, Class<?>[] types) {
         CompilerAsserts.neverPartOfCompilation();
         profiledArgumentTypesAssumption.invalidate();
+        if (argumentTypeSpeculationDisabled) {
+            // the invalidation above backed off and disabled argument type speculation
+            profiledArgumentTypes = null;
+            return;
+        }
         for (int j = 0; j < types.length; j++) {
             types[j] = joinTypes(types[j], classOf(args[j]));
         }
-        profiledArgumentTypesAssumption = createAssumption("Profiled Argument Types");
+        profiledArgumentTypesAssumption = createAssumption(ARGUMENT_TYPES_ASSUMPTION_NAME);
     }
 
     private static Class<?> classOf(Object arg) {
@@ -346,6 +503,9 @@ public class OptimizedCompilationProfile {
         properties.put("Calls/Thres", callsThreshold);
         properties.put("CallsAndLoop/Thres", loopsThreshold);
         properties.put("Inval#", invalidations);
+        if (compilationDisabled) {
+            properties.put("Disabled", true);
+        }
         return properties;
     }
 
@@ -353,6 +513,19 @@ public class OptimizedCompilationProfile {
         return invalidationCount;
     }
 
+    /**
+     * Returns the number of invalidations per reason recorded for this tree.
+     */
+    public Map<String, Integer> getInvalidationReasons() {
+        synchronized (invalidationReasons) {
+            return new LinkedHashMap<>(invalidationReasons);
+        }
+    }
+
+    public boolean isCompilationDisabled() {
+        return compilationDisabled;
+    }
+
     public int getInterpreterCallAndLoopCount() {
         return interpreterCallAndLoopCount;
     }
@@ -381,6 +554,10 @@ public class OptimizedCompilationProfile {
         return new OptimizedCompilationProfile(options);
     }
 
+    private static GraalTruffleRuntime runtime() {
+        return (GraalTruffleRuntime) Truffle.getRuntime();
+    }
+
     private static OptimizedAssumption createAssumption(String name) {
         return (OptimizedAssumption) Truffle.getRuntime().createAssumption(name);
     }
@@ -22,6 +22,8 @@
  */
 package org.graalvm.compiler.truffle;
 
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleExperimentalSplitting;
+
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -48,7 +50,11 @@ public final class OptimizedDirectCallNode extends DirectCallNode {
         super(target);
         assert target.getSourceCallTarget() == null;
         this.runtime = runtime;
-        this.splittingStrategy = new DefaultTruffleSplittingStrategy(this);
+        if (TruffleCompilerOptions.getValue(TruffleExperimentalSplitting)) {
+            this.splittingStrategy = new PolymorphicTruffleSplittingStrategy(this);
+        } else {
+            this.splittingStrategy = new DefaultTruffleSplittingStrategy(this);
+        }
     }
 
     @Override
@@ -121,6 +121,7 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
             }
         } else {
             while (repeatableNode.executeRepeating(frame)) {
+                LoopNode.pollInterrupt(this);
                 if (CompilerDirectives.inInterpreter()) {
                     // compiled method got invalidated. We might need OSR again.
                     executeLoop(frame);
@@ -135,6 +136,7 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
         int threshold = getThreshold();
         try {
             while (repeatableNode.executeRepeating(frame)) {
+                LoopNode.pollInterrupt(this);
                 // the baseLoopCount might be updated from a child loop during an iteration.
                 if (++iterations + baseLoopCount > threshold) {
                     compileLoop(frame);
@@ -190,7 +192,7 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
                 }
 
                 iterations++;
-
+                LoopNode.pollInterrupt(this);
             } while (repeatableNode.executeRepeating(frame));
             return true;
         } finally {
@@ -422,6 +424,7 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
         protected Object executeImpl(VirtualFrame frame) {
             VirtualFrame parentFrame = clazz.cast(frame.getArguments()[0]);
             while (loopNode.getRepeatingNode().executeRepeating(parentFrame)) {
+                LoopNode.pollInterrupt(loopNode);
                 if (CompilerDirectives.inInterpreter()) {
                     return Boolean.FALSE;
                 }
@@ -497,6 +500,7 @@ public abstract class OptimizedOSRLoopNode extends LoopNode implements ReplaceOb
             executeTransfer(parentFrame, loopFrame, readFrameSlots, readFrameSlotsTags);
             try {
                 while (loopNode.getRepeatingNode().executeRepeating(loopFrame)) {
+                    LoopNode.pollInterrupt(loopNode);
                     if (CompilerDirectives.inInterpreter()) {
                         return Boolean.FALSE;
                     }
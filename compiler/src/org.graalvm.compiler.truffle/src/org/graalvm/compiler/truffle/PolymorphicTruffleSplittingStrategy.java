@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle;
+
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleSplitting;
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleSplittingMaxCalleeSize;
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleSplittingMaxNumberOfSplitNodes;
+import static org.graalvm.compiler.truffle.TruffleCompilerOptions.TruffleSplittingMaxPropagationDepth;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameInstance;
+import com.oracle.truffle.api.frame.FrameInstanceVisitor;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+
+/**
+ * Splits call sites only if the called target reported a polymorphic specialization that was
+ * caused by its callers. A call target with several call sites is marked as needing a split when
+ * one of its nodes turns polymorphic, and each call site then splits on its next call. If the
+ * target has only a single call site, the polymorphism comes from the arguments of the caller, so
+ * the caller's target is considered instead. The mark is cleared once no known call site uses the
+ * target anymore. The split call targets that are alive, including forced ones, may only duplicate
+ * {@link TruffleCompilerOptions#TruffleSplittingMaxNumberOfSplitNodes} nodes together.
+ */
+public final class PolymorphicTruffleSplittingStrategy implements TruffleSplittingStrategy {
+
+    private static volatile SplitBudget budget = new SplitBudget();
+
+    private final OptimizedDirectCallNode call;
+
+    public PolymorphicTruffleSplittingStrategy(OptimizedDirectCallNode call) {
+        this.call = call;
+    }
+
+    @Override
+    public void beforeCall(Object[] arguments) {
+        if (call.getCallTarget().isNeedsSplit() && canSplit() && shouldSplit()) {
+            split();
+        }
+    }
+
+    @Override
+    public void forceSplitting() {
+        if (canSplit()) {
+            split();
+        }
+    }
+
+    private void split() {
+        OptimizedCallTarget target = call.getCallTarget();
+        int nodeCount = target.getNonTrivialNodeCount();
+        SplitBudget currentBudget = budget;
+        if (!currentBudget.reserve(nodeCount)) {
+            return;
+        }
+        call.split();
+        currentBudget.register(call.getClonedCallTarget(), nodeCount);
+        if (target.getKnownCallSiteCount() == 0) {
+            // all known call sites were split, new call sites need a new report
+            target.resetNeedsSplit();
+        }
+    }
+
+    private boolean canSplit() {
+        if (call.isCallTargetCloned()) {
+            return false;
+        }
+        if (!TruffleCompilerOptions.getValue(TruffleSplitting)) {
+            return false;
+        }
+        if (!call.isCallTargetCloningAllowed()) {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean shouldSplit() {
+        OptimizedCallTarget callTarget = call.getCallTarget();
+        if (callTarget.getNonTrivialNodeCount() > TruffleCompilerOptions.getValue(TruffleSplittingMaxCalleeSize)) {
+            return false;
+        }
+
+        // disable recursive splitting for now
+        OptimizedCallTarget root = (OptimizedCallTarget) call.getRootNode().getCallTarget();
+        return root != callTarget && root.getSourceCallTarget() != callTarget;
+    }
+
+    /**
+     * Forgets the nodes duplicated by previous splits, e.g., to isolate tests from each other.
+     */
+    public static void resetSplitBudget() {
+        budget = new SplitBudget();
+    }
+
+    /**
+     * Counts the nodes duplicated by the split call targets that are still alive. The nodes of a
+     * split call target are given back to the budget once the target was garbage collected.
+     */
+    private static final class SplitBudget {
+
+        private final AtomicInteger nodeCount = new AtomicInteger();
+        private final ReferenceQueue<OptimizedCallTarget> released = new ReferenceQueue<>();
+        // keeps the references reachable until they are enqueued
+        private final Set<SplitReference> splits = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        boolean reserve(int count) {
+            expungeReleased();
+            int limit = TruffleCompilerOptions.getValue(TruffleSplittingMaxNumberOfSplitNodes);
+            while (true) {
+                int current = nodeCount.get();
+                if (current + count > limit) {
+                    return false;
+                }
+                if (nodeCount.compareAndSet(current, current + count)) {
+                    return true;
+                }
+            }
+        }
+
+        void register(OptimizedCallTarget splitTarget, int count) {
+            splits.add(new SplitReference(splitTarget, count, released));
+        }
+
+        private void expungeReleased() {
+            SplitReference reference;
+            while ((reference = (SplitReference) released.poll()) != null) {
+                if (splits.remove(reference)) {
+                    nodeCount.addAndGet(-reference.nodeCount);
+                }
+            }
+        }
+    }
+
+    private static final class SplitReference extends WeakReference<OptimizedCallTarget> {
+
+        final int nodeCount;
+
+        SplitReference(OptimizedCallTarget splitTarget, int nodeCount, ReferenceQueue<OptimizedCallTarget> queue) {
+            super(splitTarget, queue);
+            this.nodeCount = nodeCount;
+        }
+    }
+
+    /**
+     * Invoked in the interpreter when a node of a call target specialized to a polymorphic state.
+     * Marks the call target, or the nearest caller target on the stack whose call sites passed the
+     * arguments that caused the polymorphism, as needing a split.
+     */
+    static void polymorphicSpecialize(Node source) {
+        RootNode rootNode = source.getRootNode();
+        CallTarget target = rootNode != null ? rootNode.getCallTarget() : null;
+        if (!(target instanceof OptimizedCallTarget)) {
+            return;
+        }
+        final int maxDepth = TruffleCompilerOptions.getValue(TruffleSplittingMaxPropagationDepth);
+        final List<Node> callNodes = new ArrayList<>();
+        Truffle.getRuntime().iterateFrames(new FrameInstanceVisitor<Object>() {
+            private boolean found;
+
+            @Override
+            public Object visitFrame(FrameInstance frameInstance) {
+                if (!found) {
+                    found = frameInstance.getCallTarget() == target;
+                    return null;
+                }
+                callNodes.add(frameInstance.getCallNode());
+                return callNodes.size() > maxDepth ? frameInstance : null;
+            }
+        });
+        markNeedsSplit((OptimizedCallTarget) target, callNodes, 0);
+    }
+
+    private static boolean markNeedsSplit(OptimizedCallTarget target, List<Node> callNodes, int depth) {
+        if (target.isNeedsSplit()) {
+            return true;
+        }
+        if (!target.getRootNode().isCloningAllowed()) {
+            return false;
+        }
+        int callSites = target.getKnownCallSiteCount();
+        if (callSites == 0 || target.getCompilationProfile().getInterpreterCallCount() <= 1) {
+            // polymorphism was not caused by different callers
+            return false;
+        }
+        if (callSites == 1) {
+            Node callNode = depth < callNodes.size() ? callNodes.get(depth) : null;
+            if (callNode instanceof OptimizedDirectCallNode && ((OptimizedDirectCallNode) callNode).getCurrentCallTarget() == target) {
+                // the single call site passed the arguments that caused the polymorphism
+                if (depth >= TruffleCompilerOptions.getValue(TruffleSplittingMaxPropagationDepth)) {
+                    return false;
+                }
+                RootNode callerRoot = callNode.getRootNode();
+                CallTarget caller = callerRoot != null ? callerRoot.getCallTarget() : null;
+                if (!(caller instanceof OptimizedCallTarget) || !markNeedsSplit((OptimizedCallTarget) caller, callNodes, depth + 1)) {
+                    return false;
+                }
+            }
+        }
+        target.setNeedsSplit();
+        return true;
+    }
+
+}
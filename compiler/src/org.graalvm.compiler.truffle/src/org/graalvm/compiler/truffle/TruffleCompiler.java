@@ -179,6 +179,7 @@ public abstract class TruffleCompiler {
 
             compilationNotify.notifyCompilationTruffleTierFinished(compilable, inliningDecision, graph);
             CompilationResult compilationResult = compileMethodHelper(graph, compilable.toString(), graphBuilderSuite, compilable, asCompilationRequest(compilationId));
+            compilable.getCompilationProfile().reportCompilationInstalled();
             compilationNotify.notifyCompilationSuccess(compilable, inliningDecision, graph, compilationResult);
 
             // Partial evaluation and installation are included in
@@ -22,6 +22,8 @@
  */
 package org.graalvm.compiler.truffle;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.graalvm.compiler.options.Option;
 import org.graalvm.compiler.options.OptionKey;
 import org.graalvm.compiler.options.OptionType;
@@ -37,6 +39,12 @@ public class TruffleCompilerOptions {
 
     static class Lazy {
         static final ThreadLocal<TruffleOptionsOverrideScope> overrideScope = new ThreadLocal<>();
+
+        /**
+         * Number of override scopes open in any thread. Reading the thread local is only necessary
+         * if this is non-zero.
+         */
+        static final AtomicInteger openScopes = new AtomicInteger();
     }
 
     private static OptionValues getInitialOptions() {
@@ -48,6 +56,9 @@ public class TruffleCompilerOptions {
      * {@linkplain #overrideOptions(OptionKey, Object, Object...) overrides}.
      */
     public static OptionValues getOptions() {
+        if (Lazy.openScopes.get() == 0) {
+            return getInitialOptions();
+        }
         TruffleOptionsOverrideScope scope = Lazy.overrideScope.get();
         return scope != null ? scope.options : getInitialOptions();
     }
@@ -69,12 +80,14 @@ public class TruffleCompilerOptions {
         TruffleOptionsOverrideScope(UnmodifiableEconomicMap<OptionKey<?>, Object> overrides) {
             outer = Lazy.overrideScope.get();
             options = new OptionValues(outer == null ? getInitialOptions() : outer.options, overrides);
+            Lazy.openScopes.incrementAndGet();
             Lazy.overrideScope.set(this);
         }
 
         @Override
         public void close() {
             Lazy.overrideScope.set(outer);
+            Lazy.openScopes.decrementAndGet();
         }
     }
 
@@ -152,6 +165,18 @@ public class TruffleCompilerOptions {
     @Option(help = "Delay compilation after an invalidation to allow for reprofiling", type = OptionType.Expert)
     public static final OptionKey<Integer> TruffleInvalidationReprofileCount = new OptionKey<>(3);
 
+    @Option(help = "Number of invalidations of a call target after which the delay before recompilation grows exponentially", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleInvalidationBackoffThreshold = new OptionKey<>(8);
+
+    @Option(help = "Upper bound of the exponentially growing delay before recompiling a frequently invalidated call target", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleInvalidationBackoffMaxReprofileCount = new OptionKey<>(1 << 20);
+
+    @Option(help = "Time in milliseconds the compiled code of a call target has to stay valid to end a series of invalidations", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleInvalidationBackoffResetTime = new OptionKey<>(60000);
+
+    @Option(help = "Number of invalidations after which a call target is no longer compiled (0 to always recompile)", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleMaximumInvalidations = new OptionKey<>(64);
+
     @Option(help = "Delay compilation after a node replacement", type = OptionType.Expert)
     public static final OptionKey<Integer> TruffleReplaceReprofileCount = new OptionKey<>(3);
 
@@ -176,6 +201,15 @@ public class TruffleCompilerOptions {
     @Option(help = "Disable call target splitting if tree size exceeds this limit", type = OptionType.Debug)
     public static final OptionKey<Integer> TruffleSplittingMaxCalleeSize = new OptionKey<>(100);
 
+    @Option(help = "Split only call sites whose arguments caused a callee to report polymorphic specialization", type = OptionType.Expert)
+    public static final OptionKey<Boolean> TruffleExperimentalSplitting = new OptionKey<>(false);
+
+    @Option(help = "Maximum number of AST nodes all splits may duplicate in total when experimental splitting is enabled", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleSplittingMaxNumberOfSplitNodes = new OptionKey<>(100_000);
+
+    @Option(help = "Maximum number of single caller call targets a polymorphic specialization is propagated through", type = OptionType.Debug)
+    public static final OptionKey<Integer> TruffleSplittingMaxPropagationDepth = new OptionKey<>(5);
+
     @Option(help = "Enable asynchronous truffle compilation in background thread", type = OptionType.Expert)
     public static final OptionKey<Boolean> TruffleBackgroundCompilation = new OptionKey<>(true);
 
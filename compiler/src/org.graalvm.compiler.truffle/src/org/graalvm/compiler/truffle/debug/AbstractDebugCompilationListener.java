@@ -76,6 +76,14 @@ public abstract class AbstractDebugCompilationListener implements GraalTruffleCo
     public void notifyCompilationInvalidated(OptimizedCallTarget target, Object source, CharSequence reason) {
     }
 
+    @Override
+    public void notifyCompilationBackoff(OptimizedCallTarget target, int invalidations, int reprofileCount, CharSequence reason) {
+    }
+
+    @Override
+    public void notifyCompilationDisabled(OptimizedCallTarget target, CharSequence reason) {
+    }
+
     @Override
     public void notifyShutdown(GraalTruffleRuntime runtime) {
     }
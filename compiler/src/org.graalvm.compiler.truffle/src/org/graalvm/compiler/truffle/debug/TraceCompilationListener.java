@@ -160,6 +160,22 @@ public final class TraceCompilationListener extends AbstractDebugCompilationList
         log(0, "opt invalidated", target.toString(), properties);
     }
 
+    @Override
+    public void notifyCompilationBackoff(OptimizedCallTarget target, int invalidations, int reprofileCount, CharSequence reason) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("Invalidations", invalidations);
+        properties.put("Reprofile", reprofileCount);
+        properties.put("Reason", reason);
+        log(0, "opt backoff", target.toString(), properties);
+    }
+
+    @Override
+    public void notifyCompilationDisabled(OptimizedCallTarget target, CharSequence reason) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("Reason", reason);
+        log(0, "opt disabled", target.toString(), properties);
+    }
+
     private static void addSourceInfo(Map<String, Object> properties, Object source) {
         if (source != null) {
             properties.put("SourceClass", source.getClass().getSimpleName());
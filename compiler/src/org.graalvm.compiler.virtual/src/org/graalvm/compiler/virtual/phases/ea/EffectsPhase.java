@@ -119,6 +119,11 @@ public abstract class EffectsPhase<PhaseContextT extends PhaseContext> extends B
                     } else {
                         break;
                     }
+                    if (iteration + 1 < maxIterations && compilationAlarm.isUnderBudgetPressure(graph.getNodeCount())) {
+                        // further iterations are optional
+                        compilationAlarm.recordDegradation(getName());
+                        break;
+                    }
                 } catch (Throwable t) {
                     throw debug.handle(t);
                 }
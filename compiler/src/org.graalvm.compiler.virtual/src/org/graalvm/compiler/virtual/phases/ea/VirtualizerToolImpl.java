@@ -23,6 +23,7 @@
 package org.graalvm.compiler.virtual.phases.ea;
 
 import static org.graalvm.compiler.core.common.GraalOptions.MaximumEscapeAnalysisArrayLength;
+import static org.graalvm.compiler.core.common.GraalOptions.MaximumEscapeAnalysisLargeArrayLength;
 
 import java.util.List;
 
@@ -214,6 +215,11 @@ class VirtualizerToolImpl implements VirtualizerTool, CanonicalizerTool {
         return MaximumEscapeAnalysisArrayLength.getValue(current.getOptions());
     }
 
+    @Override
+    public int getMaximumLargeArrayEntryCount() {
+        return MaximumEscapeAnalysisLargeArrayLength.getValue(current.getOptions());
+    }
+
     @Override
     public void replaceWith(ValueNode node) {
         if (node instanceof VirtualObjectNode) {
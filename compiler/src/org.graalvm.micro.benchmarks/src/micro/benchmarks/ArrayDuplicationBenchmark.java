@@ -42,6 +42,10 @@ public class ArrayDuplicationBenchmark extends BenchmarkBase {
 
     private Object[] dummy;
 
+    private byte[] byteArray = new byte[TESTSIZE * 20];
+
+    private int[] intArray = new int[TESTSIZE * 20];
+
     @Setup
     public void setup() {
         testObjectArray = new Object[TESTSIZE][];
@@ -105,4 +109,21 @@ public class ArrayDuplicationBenchmark extends BenchmarkBase {
         return (Object[]) cache.clone();
     }
 
+    @Benchmark
+    @OperationsPerInvocation(TESTSIZE)
+    public byte[] fillByteArray() {
+        for (int i = 0; i < TESTSIZE; i++) {
+            Arrays.fill(byteArray, i, byteArray.length - i, (byte) i);
+        }
+        return byteArray;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TESTSIZE)
+    public int[] fillIntArray() {
+        for (int i = 0; i < TESTSIZE; i++) {
+            Arrays.fill(intArray, i);
+        }
+        return intArray;
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017, 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks counted loops over arrays whose bounds checks are not implied by the loop condition.
+ */
+@State(Scope.Thread)
+public class ArrayLoopBenchmark extends BenchmarkBase {
+
+    private static final int SIZE = 1024;
+
+    private int[] source;
+    private int[] target;
+    private int length;
+
+    @Setup
+    public void setup() {
+        source = new int[SIZE];
+        target = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            source[i] = i;
+        }
+        length = SIZE;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int sum() {
+        int[] a = source;
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int sumReverse() {
+        int[] a = source;
+        int sum = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE / 2)
+    public int sumOffsetStride() {
+        int[] a = source;
+        int sum = 0;
+        for (int i = 0; i < length - 1; i += 2) {
+            sum += a[i + 1];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] copy() {
+        for (int i = 0; i < length; i++) {
+            target[i] = source[i];
+        }
+        return target;
+    }
+}
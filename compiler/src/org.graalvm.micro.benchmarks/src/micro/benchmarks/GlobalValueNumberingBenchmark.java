@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017, 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks code with repeated array and field reads in dominated blocks.
+ */
+public class GlobalValueNumberingBenchmark extends BenchmarkBase {
+
+    static class Vec {
+        int length;
+        int[] values;
+
+        Vec(int length) {
+            this.length = length;
+            this.values = new int[length];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ThreadState {
+        int[][] matrix = new int[64][64];
+        int[] vector = new int[64];
+        Vec vec = new Vec(1000);
+
+        public ThreadState() {
+            for (int i = 0; i < matrix.length; i++) {
+                vector[i] = i % 7 - 3;
+                for (int j = 0; j < matrix[i].length; j++) {
+                    matrix[i][j] = (i * 31 + j) % 11 - 5;
+                }
+            }
+            for (int i = 0; i < vec.length; i++) {
+                vec.values[i] = i;
+            }
+        }
+    }
+
+    @Benchmark
+    public int matrixRows(ThreadState state) {
+        int[][] m = state.matrix;
+        int[] v = state.vector;
+        int result = 0;
+        for (int row = 0; row < m.length; row++) {
+            for (int i = 0; i < m[row].length; i++) {
+                if (m[row][i] > 0) {
+                    result += m[row][i] * v[i];
+                } else if (m[row][i] < 0) {
+                    result -= m[row][i] * v[i];
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int fieldsInLoop(ThreadState state) {
+        Vec vec = state.vec;
+        int result = 0;
+        for (int i = 0; i < vec.length; i++) {
+            if (vec.values[i] % 3 == 0) {
+                result += vec.values[i] / vec.length;
+            } else {
+                result ^= vec.values[i];
+            }
+        }
+        return result;
+    }
+}
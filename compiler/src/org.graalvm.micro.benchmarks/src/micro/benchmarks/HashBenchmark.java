@@ -22,19 +22,30 @@
  */
 package micro.benchmarks;
 
+import java.util.Arrays;
+
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
 /**
- * Benchmarks cost of hashing a character array.
+ * Benchmarks cost of hashing primitive arrays.
  */
 public class HashBenchmark extends BenchmarkBase {
 
     @State(Scope.Benchmark)
     public static class ThreadState {
         char[] characters = ("Hello world from the HashBenchmark!").toCharArray();
+        byte[] bytes = new byte[1000];
+        int[] ints = new int[1000];
+
+        public ThreadState() {
+            for (int i = 0; i < ints.length; i++) {
+                bytes[i] = (byte) i;
+                ints[i] = i * 0x9E3779B9;
+            }
+        }
     }
 
     @Benchmark
@@ -47,4 +58,22 @@ public class HashBenchmark extends BenchmarkBase {
         }
         return value;
     }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int arraysHashCodeChars(ThreadState state) {
+        return Arrays.hashCode(state.characters);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int arraysHashCodeBytes(ThreadState state) {
+        return Arrays.hashCode(state.bytes);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int arraysHashCodeInts(ThreadState state) {
+        return Arrays.hashCode(state.ints);
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2017, 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.Vector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks cost of sequences of non-contended synchronized operations on the same object.
+ */
+public class LockCoarseningBenchmark extends BenchmarkBase {
+
+    public static class Person {
+        public int age;
+        public int height;
+
+        public Person(int age, int height) {
+            this.age = age;
+            this.height = height;
+        }
+
+        public synchronized int getAge() {
+            return age;
+        }
+
+        public synchronized int getHeight() {
+            return height;
+        }
+
+        public synchronized void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ThreadState {
+        Person person = new Person(22, 180);
+        Person other = new Person(45, 170);
+        StringBuffer buffer = new StringBuffer();
+        Vector<Integer> vector = new Vector<>();
+        int[] values = new int[100];
+
+        public ThreadState() {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i;
+                vector.add(i);
+            }
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int sequentialGetters(ThreadState state) {
+        Person person = state.person;
+        return person.getAge() + person.getHeight();
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int sequentialGettersWithRead(ThreadState state) {
+        Person person = state.person;
+        int age = person.getAge();
+        int otherAge = state.other.age;
+        return age + otherAge + person.getHeight();
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int nested(ThreadState state) {
+        Person person = state.person;
+        synchronized (person) {
+            return person.getAge() + person.getHeight();
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int stringBufferAppend(ThreadState state) {
+        StringBuffer buffer = state.buffer;
+        buffer.setLength(0);
+        buffer.append(state.person.age).append(',').append(state.other.age);
+        return buffer.length();
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int vectorSumLoop(ThreadState state) {
+        Vector<Integer> vector = state.vector;
+        int sum = 0;
+        for (int i = 0; i + 1 < vector.size(); i += 2) {
+            sum += vector.get(i) + vector.get(i + 1);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int loopBody(ThreadState state) {
+        Person person = state.person;
+        int[] values = state.values;
+        int sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            int value = values[i];
+            sum += person.getAge() + value + person.getHeight();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2017, 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks calls at megamorphic call sites where a few receiver types dominate the profile.
+ */
+public class MegamorphicCallBenchmark extends BenchmarkBase {
+
+    public abstract static class Shape {
+        public abstract int area();
+
+        public int scaledArea(int factor) {
+            return area() * factor;
+        }
+    }
+
+    public static class Square extends Shape {
+        final int side;
+
+        Square(int side) {
+            this.side = side;
+        }
+
+        @Override
+        public int area() {
+            return side * side;
+        }
+    }
+
+    public static class Rectangle extends Shape {
+        final int width;
+        final int height;
+
+        Rectangle(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public int area() {
+            return width * height;
+        }
+    }
+
+    public static class Triangle extends Shape {
+        final int base;
+        final int height;
+
+        Triangle(int base, int height) {
+            this.base = base;
+            this.height = height;
+        }
+
+        @Override
+        public int area() {
+            return base * height / 2;
+        }
+    }
+
+    public static class Circle extends Shape {
+        final int radius;
+
+        Circle(int radius) {
+            this.radius = radius;
+        }
+
+        @Override
+        public int area() {
+            return 3 * radius * radius;
+        }
+
+        @Override
+        public int scaledArea(int factor) {
+            return area() * factor + 1;
+        }
+    }
+
+    public static class Hexagon extends Shape {
+        final int side;
+
+        Hexagon(int side) {
+            this.side = side;
+        }
+
+        @Override
+        public int area() {
+            return 5 * side * side / 2;
+        }
+
+        @Override
+        public int scaledArea(int factor) {
+            return area() * factor + 2;
+        }
+    }
+
+    public static class Octagon extends Shape {
+        final int side;
+
+        Octagon(int side) {
+            this.side = side;
+        }
+
+        @Override
+        public int area() {
+            return 4 * side * side + 1;
+        }
+
+        @Override
+        public int scaledArea(int factor) {
+            return area() * factor + 3;
+        }
+    }
+
+    /**
+     * Subclasses of {@link Square} that do not override {@link Shape#area()}, so that the long tail
+     * of the profile mostly calls a method that is also called by a dominant type.
+     */
+    public static class BigSquare extends Square {
+        BigSquare(int side) {
+            super(side * 10);
+        }
+    }
+
+    public static class SmallSquare extends Square {
+        SmallSquare(int side) {
+            super(side / 10 + 1);
+        }
+    }
+
+    public static class TinySquare extends Square {
+        TinySquare() {
+            super(1);
+        }
+    }
+
+    private static final int SHAPES = 1000;
+
+    @State(Scope.Benchmark)
+    public static class ThreadState {
+        Shape[] skewed = new Shape[SHAPES];
+        Shape[] uniform = new Shape[SHAPES];
+
+        @Setup
+        public void setup() {
+            for (int i = 0; i < SHAPES; i++) {
+                int side = i % 17 + 1;
+                // 50% squares, 25% rectangles, 10% triangles and a long tail of other types
+                int bucket = i % 20;
+                if (bucket < 10) {
+                    skewed[i] = new Square(side);
+                } else if (bucket < 15) {
+                    skewed[i] = new Rectangle(side, side + 1);
+                } else if (bucket < 17) {
+                    skewed[i] = new Triangle(side, side + 2);
+                } else {
+                    skewed[i] = createTail(i, side);
+                }
+                uniform[i] = i % 2 == 0 ? createHead(i, side) : createTail(i, side);
+            }
+        }
+
+        private static Shape createHead(int i, int side) {
+            switch (i % 3) {
+                case 0:
+                    return new Square(side);
+                case 1:
+                    return new Rectangle(side, side + 1);
+                default:
+                    return new Triangle(side, side + 2);
+            }
+        }
+
+        private static Shape createTail(int i, int side) {
+            switch (i % 6) {
+                case 0:
+                    return new Circle(side);
+                case 1:
+                    return new Hexagon(side);
+                case 2:
+                    return new Octagon(side);
+                case 3:
+                    return new BigSquare(side);
+                case 4:
+                    return new SmallSquare(side);
+                default:
+                    return new TinySquare();
+            }
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 10)
+    public int skewedArea(ThreadState state) {
+        int sum = 0;
+        for (Shape shape : state.skewed) {
+            sum += shape.area();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 10)
+    public int skewedScaledArea(ThreadState state) {
+        int sum = 0;
+        for (Shape shape : state.skewed) {
+            sum += shape.scaledArea(3);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 10)
+    public int uniformArea(ThreadState state) {
+        int sum = 0;
+        for (Shape shape : state.uniform) {
+            sum += shape.area();
+        }
+        return sum;
+    }
+}
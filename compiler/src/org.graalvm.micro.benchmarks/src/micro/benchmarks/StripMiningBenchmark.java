@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2017, 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks long running counted loops together with the time it takes to bring them to a
+ * safepoint. In the {@code loopAndGC} group one thread sums a large array while another thread
+ * requests garbage collections, whose duration includes the time to safepoint of the loop. Strip
+ * mining is off by default, compare runs with and without {@code -Dgraal.LoopStripMining=true}.
+ */
+@State(Scope.Group)
+public class StripMiningBenchmark extends BenchmarkBase {
+
+    private static final int SIZE = 4 * 1024 * 1024;
+
+    private int[] array;
+
+    @Setup
+    public void setup() {
+        array = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            array[i] = i;
+        }
+    }
+
+    private static long sum(int[] a) {
+        long sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long loop() {
+        return sum(array);
+    }
+
+    @Benchmark
+    @Group("loopAndGC")
+    @GroupThreads(1)
+    @OperationsPerInvocation(SIZE)
+    public long loopWithGC() {
+        return sum(array);
+    }
+
+    @Benchmark
+    @Group("loopAndGC")
+    @GroupThreads(1)
+    public void gc() {
+        System.gc();
+    }
+}
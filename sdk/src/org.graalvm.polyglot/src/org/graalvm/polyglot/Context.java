@@ -30,6 +30,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.graalvm.polyglot.impl.AbstractPolyglotImpl.AbstractContextImpl;
@@ -106,7 +110,12 @@ import org.graalvm.polyglot.proxy.Proxy;
  * <p>
  * A context may be {@linkplain #close() closed} from any thread, but only if the context is not
  * currently executing code. If a context is currently executing code, a different thread can kill
- * the execution and close the context using {@link #close(boolean)} .
+ * the execution and close the context using {@link #close(boolean)} . To stop the current
+ * execution but keep using the context afterwards, {@link #interrupt() interrupt} it instead.
+ * <p>
+ * Code can be evaluated {@linkplain #evalAsync(Source) asynchronously} without blocking the calling
+ * thread. Asynchronous executions of one context are run one after the other on the
+ * {@linkplain Builder#executor(Executor) configured executor}.
  *
  * @since 1.0
  */
@@ -114,6 +123,8 @@ import org.graalvm.polyglot.proxy.Proxy;
 public final class Context implements AutoCloseable {
 
     final AbstractContextImpl impl;
+    Executor executor = ForkJoinPool.commonPool();
+    private CompletableFuture<Void> asyncTail = CompletableFuture.completedFuture(null);
 
     Context(AbstractContextImpl impl) {
         this.impl = impl;
@@ -158,6 +169,77 @@ public final class Context implements AutoCloseable {
         return eval(Source.create(languageId, source));
     }
 
+    /**
+     * Evaluates guest language code asynchronously on the {@linkplain Builder#executor(Executor)
+     * executor} of this context. The returned future completes with the result of the evaluation
+     * or exceptionally with the {@link PolyglotException} raised by it. Cancelling the future with
+     * <code>mayInterruptIfRunning</code> set to <code>true</code> {@link #interrupt() interrupts}
+     * the evaluation if it is already running.
+     *
+     * @param source a source object to evaluate
+     * @return a future for the result of the evaluation
+     * @see #eval(Source)
+     * @since 1.0
+     */
+    public CompletableFuture<Value> evalAsync(Source source) {
+        Objects.requireNonNull(source);
+        return submit((context) -> context.eval(source));
+    }
+
+    /**
+     * Evaluates a guest language code literal asynchronously, using a specified Graal
+     * {@linkplain Language language}.
+     *
+     * @param languageId the id of the language evaluate the code in, eg <code>"js"</code>.
+     * @param source textual source code
+     * @return a future for the result of the evaluation
+     * @see #evalAsync(Source)
+     * @since 1.0
+     */
+    public CompletableFuture<Value> evalAsync(String languageId, CharSequence source) {
+        return evalAsync(Source.create(languageId, source));
+    }
+
+    /**
+     * Runs a task using this context asynchronously on the {@linkplain Builder#executor(Executor)
+     * executor} of this context. Tasks submitted to the same context, including
+     * {@linkplain #evalAsync(Source) asynchronous evaluations}, are executed one after the other in
+     * submission order, so a task may freely {@link Value#execute(Object...) execute} values of
+     * this context. Cancelling the returned future before the task started prevents it from
+     * running; cancelling it with <code>mayInterruptIfRunning</code> set to <code>true</code>
+     * while it runs {@link #interrupt() interrupts} the current guest execution.
+     *
+     * @param task the task to run, receives this context as argument
+     * @return a future for the result of the task
+     * @since 1.0
+     */
+    public <T> CompletableFuture<T> submit(Function<Context, T> task) {
+        Objects.requireNonNull(task);
+        AsyncExecution<T> execution = new AsyncExecution<>(task);
+        CompletableFuture<Void> previous;
+        synchronized (this) {
+            previous = asyncTail;
+            asyncTail = execution.finished;
+        }
+        previous.thenRunAsync(execution, executor);
+        return execution;
+    }
+
+    /**
+     * Interrupts the guest language execution that is currently running in this context on another
+     * thread. The execution is stopped the next time it polls for interrupts, which guest language
+     * loops do once per iteration, and throws a {@link PolyglotException} that is
+     * {@link PolyglotException#isCancelled() cancelled}. Unlike {@link #close(boolean)} the context
+     * remains usable after the interrupted execution returned. Returns immediately without waiting
+     * for the execution to stop. If the context is not executing, or only on the calling thread,
+     * this method has no effect.
+     *
+     * @since 1.0
+     */
+    public void interrupt() {
+        impl.interrupt();
+    }
+
     /**
      * Looks a symbol up in the top-most scope of a specified language. The result is accessible
      * using the language agnostic {@link Value value} API.
@@ -288,6 +370,44 @@ public final class Context implements AutoCloseable {
 
     private static final Context EMPTY = new Context(null);
 
+    private final class AsyncExecution<T> extends CompletableFuture<T> implements Runnable {
+
+        private final Function<Context, T> task;
+        final CompletableFuture<Void> finished = new CompletableFuture<>();
+        private volatile boolean running;
+
+        AsyncExecution(Function<Context, T> task) {
+            this.task = task;
+        }
+
+        public void run() {
+            try {
+                if (!isDone()) {
+                    running = true;
+                    try {
+                        complete(task.apply(Context.this));
+                    } catch (Throwable t) {
+                        completeExceptionally(t);
+                    } finally {
+                        running = false;
+                    }
+                }
+            } finally {
+                finished.complete(null);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && mayInterruptIfRunning && running) {
+                interrupt();
+            }
+            return cancelled;
+        }
+
+    }
+
     /**
      * Builder class to construct {@link Context} instances.
      *
@@ -307,6 +427,7 @@ public final class Context implements AutoCloseable {
         private Map<String, String[]> arguments;
         private Predicate<String> hostClassFilter;
         private boolean allowHostAccess;
+        private Executor executor;
 
         Builder(String... onlyLanguages) {
             Objects.requireNonNull(onlyLanguages);
@@ -474,12 +595,33 @@ public final class Context implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Sets the executor used to run {@linkplain Context#evalAsync(Source) asynchronous
+         * evaluations} and {@linkplain Context#submit(Function) tasks} of this context. If not set
+         * then the {@link ForkJoinPool#commonPool() common pool} is used.
+         *
+         * @since 1.0
+         */
+        public Builder executor(Executor executor) {
+            Objects.requireNonNull(executor);
+            this.executor = executor;
+            return this;
+        }
+
         /**
          *
          *
          * @since 1.0
          */
         public Context build() {
+            Context context = buildImpl();
+            if (executor != null) {
+                context.executor = executor;
+            }
+            return context;
+        }
+
+        private Context buildImpl() {
             Engine engine = this.sharedEngine;
             if (engine == null) {
                 org.graalvm.polyglot.Engine.Builder engineBuilder = Engine.newBuilder().options(options == null ? Collections.emptyMap() : options);
@@ -24,6 +24,9 @@
  */
 package org.graalvm.polyglot;
 
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.Set;
 
 import org.graalvm.polyglot.impl.AbstractPolyglotImpl.AbstractValueImpl;
@@ -94,6 +97,156 @@ public final class Value {
         return impl.getArraySize(receiver);
     }
 
+    /**
+     * Reads <code>length</code> array elements starting at <code>index</code> into the
+     * <code>target</code> array at <code>offset</code>. Every element must {@link #fitsInLong()
+     * fit} into a <code>long</code>. Languages that store arrays unboxed can serve this request
+     * in a single step; otherwise the elements are read one by one.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of
+     *             <code>target</code>
+     * @since 1.0
+     */
+    public void readArrayElements(long index, long[] target, int offset, int length) {
+        checkRange(target.length, offset, length);
+        impl.readArrayElements(receiver, index, target, offset, length);
+    }
+
+    /**
+     * Reads <code>length</code> array elements starting at <code>index</code> into the
+     * <code>target</code> array at <code>offset</code>. Every element must {@link #fitsInDouble()
+     * fit} into a <code>double</code>.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of
+     *             <code>target</code>
+     * @see #readArrayElements(long, long[], int, int)
+     * @since 1.0
+     */
+    public void readArrayElements(long index, double[] target, int offset, int length) {
+        checkRange(target.length, offset, length);
+        impl.readArrayElements(receiver, index, target, offset, length);
+    }
+
+    /**
+     * Reads <code>length</code> array elements starting at <code>index</code> into the
+     * <code>target</code> array at <code>offset</code>. Every element must {@link #fitsInByte()
+     * fit} into a <code>byte</code>.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of
+     *             <code>target</code>
+     * @see #readArrayElements(long, long[], int, int)
+     * @since 1.0
+     */
+    public void readArrayElements(long index, byte[] target, int offset, int length) {
+        checkRange(target.length, offset, length);
+        impl.readArrayElements(receiver, index, target, offset, length);
+    }
+
+    /**
+     * Reads <code>length</code> array elements starting at <code>index</code> into the
+     * <code>target</code> buffer at its current position and advances the position. Every element
+     * must {@link #fitsInByte() fit} into a <code>byte</code>.
+     *
+     * @throws BufferOverflowException if there are fewer than <code>length</code> bytes remaining
+     *             in <code>target</code>
+     * @see #readArrayElements(long, long[], int, int)
+     * @since 1.0
+     */
+    public void readArrayElements(long index, ByteBuffer target, int length) {
+        if (length < 0 || length > target.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (target.hasArray()) {
+            int position = target.position();
+            impl.readArrayElements(receiver, index, target.array(), target.arrayOffset() + position, length);
+            target.position(position + length);
+        } else {
+            byte[] chunk = new byte[Math.min(length, BUFFER_CHUNK)];
+            for (int done = 0; done < length; done += chunk.length) {
+                int count = Math.min(chunk.length, length - done);
+                impl.readArrayElements(receiver, index + done, chunk, 0, count);
+                target.put(chunk, 0, count);
+            }
+        }
+    }
+
+    /**
+     * Writes <code>length</code> array elements starting at <code>index</code> from the
+     * <code>source</code> array at <code>offset</code>. Languages that store arrays unboxed can
+     * serve this request in a single step; otherwise the elements are written one by one.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of
+     *             <code>source</code>
+     * @since 1.0
+     */
+    public void writeArrayElements(long index, long[] source, int offset, int length) {
+        checkRange(source.length, offset, length);
+        impl.writeArrayElements(receiver, index, source, offset, length);
+    }
+
+    /**
+     * Writes <code>length</code> array elements starting at <code>index</code> from the
+     * <code>source</code> array at <code>offset</code>.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of
+     *             <code>source</code>
+     * @see #writeArrayElements(long, long[], int, int)
+     * @since 1.0
+     */
+    public void writeArrayElements(long index, double[] source, int offset, int length) {
+        checkRange(source.length, offset, length);
+        impl.writeArrayElements(receiver, index, source, offset, length);
+    }
+
+    /**
+     * Writes <code>length</code> array elements starting at <code>index</code> from the
+     * <code>source</code> array at <code>offset</code>.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within the bounds of
+     *             <code>source</code>
+     * @see #writeArrayElements(long, long[], int, int)
+     * @since 1.0
+     */
+    public void writeArrayElements(long index, byte[] source, int offset, int length) {
+        checkRange(source.length, offset, length);
+        impl.writeArrayElements(receiver, index, source, offset, length);
+    }
+
+    /**
+     * Writes <code>length</code> array elements starting at <code>index</code> from the
+     * <code>source</code> buffer at its current position and advances the position.
+     *
+     * @throws BufferUnderflowException if there are fewer than <code>length</code> bytes
+     *             remaining in <code>source</code>
+     * @see #writeArrayElements(long, long[], int, int)
+     * @since 1.0
+     */
+    public void writeArrayElements(long index, ByteBuffer source, int length) {
+        if (length < 0 || length > source.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (source.hasArray()) {
+            int position = source.position();
+            impl.writeArrayElements(receiver, index, source.array(), source.arrayOffset() + position, length);
+            source.position(position + length);
+        } else {
+            byte[] chunk = new byte[Math.min(length, BUFFER_CHUNK)];
+            for (int done = 0; done < length; done += chunk.length) {
+                int count = Math.min(chunk.length, length - done);
+                source.get(chunk, 0, count);
+                impl.writeArrayElements(receiver, index + done, chunk, 0, count);
+            }
+        }
+    }
+
+    private static final int BUFFER_CHUNK = 8192;
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException(String.format("Invalid range %s with length %s for array of length %s.", offset, length, arrayLength));
+        }
+    }
+
     // dynamic object
 
     /**
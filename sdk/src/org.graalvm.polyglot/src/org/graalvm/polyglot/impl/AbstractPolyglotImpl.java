@@ -222,6 +222,8 @@ public abstract class AbstractPolyglotImpl {
 
         public abstract void close(boolean interuptExecution);
 
+        public abstract void interrupt();
+
     }
 
     public abstract static class AbstractEngineImpl {
@@ -387,6 +389,33 @@ public abstract class AbstractPolyglotImpl {
             throw unsupported(receiver, "getArraySize()", "hasArrayElements()");
         }
 
+        public void readArrayElements(Object receiver, long index, Object target, int offset, int length) {
+            for (int i = 0; i < length; i++) {
+                Value element = getArrayElement(receiver, index + i);
+                if (target instanceof long[]) {
+                    ((long[]) target)[offset + i] = element.asLong();
+                } else if (target instanceof double[]) {
+                    ((double[]) target)[offset + i] = element.asDouble();
+                } else {
+                    ((byte[]) target)[offset + i] = element.asByte();
+                }
+            }
+        }
+
+        public void writeArrayElements(Object receiver, long index, Object source, int offset, int length) {
+            for (int i = 0; i < length; i++) {
+                Object element;
+                if (source instanceof long[]) {
+                    element = ((long[]) source)[offset + i];
+                } else if (source instanceof double[]) {
+                    element = ((double[]) source)[offset + i];
+                } else {
+                    element = ((byte[]) source)[offset + i];
+                }
+                setArrayElement(receiver, index + i, element);
+            }
+        }
+
         public boolean hasMembers(Object receiver) {
             return false;
         }
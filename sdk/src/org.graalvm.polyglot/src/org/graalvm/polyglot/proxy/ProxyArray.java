@@ -56,6 +56,70 @@ public interface ProxyArray extends Proxy {
      */
     long getSize();
 
+    /**
+     * Reads <code>length</code> elements starting at <code>index</code> into <code>target</code>
+     * at <code>offset</code> in one step. Returns <code>false</code> if the proxy cannot serve
+     * the request in bulk, in which case the elements are read one by one using
+     * {@link #get(long)}. The default implementation returns <code>false</code>.
+     *
+     * @since 1.0
+     */
+    default boolean get(long index, long[] target, int offset, int length) {
+        return false;
+    }
+
+    /**
+     * Bulk variant of {@link #get(long)} for <code>double</code> elements.
+     *
+     * @see #get(long, long[], int, int)
+     * @since 1.0
+     */
+    default boolean get(long index, double[] target, int offset, int length) {
+        return false;
+    }
+
+    /**
+     * Bulk variant of {@link #get(long)} for <code>byte</code> elements.
+     *
+     * @see #get(long, long[], int, int)
+     * @since 1.0
+     */
+    default boolean get(long index, byte[] target, int offset, int length) {
+        return false;
+    }
+
+    /**
+     * Writes <code>length</code> elements starting at <code>index</code> from <code>source</code>
+     * at <code>offset</code> in one step. Returns <code>false</code> if the proxy cannot serve the
+     * request in bulk, in which case the elements are written one by one using
+     * {@link #set(long, Value)}. The default implementation returns <code>false</code>.
+     *
+     * @since 1.0
+     */
+    default boolean set(long index, long[] source, int offset, int length) {
+        return false;
+    }
+
+    /**
+     * Bulk variant of {@link #set(long, Value)} for <code>double</code> elements.
+     *
+     * @see #set(long, long[], int, int)
+     * @since 1.0
+     */
+    default boolean set(long index, double[] source, int offset, int length) {
+        return false;
+    }
+
+    /**
+     * Bulk variant of {@link #set(long, Value)} for <code>byte</code> elements.
+     *
+     * @see #set(long, long[], int, int)
+     * @since 1.0
+     */
+    default boolean set(long index, byte[] source, int offset, int length) {
+        return false;
+    }
+
     /**
      *
      *
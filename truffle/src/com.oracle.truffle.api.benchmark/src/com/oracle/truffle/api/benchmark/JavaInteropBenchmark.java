@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.benchmark;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.KeyInfo;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.MessageResolution;
+import com.oracle.truffle.api.interop.Resolve;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.java.JavaInterop;
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * Measures host access to guest objects through the {@link JavaInterop} map and list views and
+ * through the uncached interop messages.
+ */
+public class JavaInteropBenchmark extends TruffleBenchmark {
+
+    private static final int SIZE = 100;
+
+    @State(Scope.Thread)
+    public static class GuestState {
+        final GuestArray array = new GuestArray(SIZE);
+        final GuestMap map = new GuestMap(SIZE);
+        final List<?> list = JavaInterop.asJavaObject(List.class, array);
+        final Map<?, ?> mapView = JavaInterop.asJavaObject(Map.class, map);
+    }
+
+    @Benchmark
+    public int iterateList(GuestState state) {
+        int sum = 0;
+        for (Object element : state.list) {
+            sum += (int) element;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int indexList(GuestState state) {
+        List<?> list = state.list;
+        int sum = 0;
+        for (int i = 0; i < list.size(); i++) {
+            sum += (int) list.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int iterateMapEntries(GuestState state) {
+        int sum = 0;
+        for (Map.Entry<?, ?> entry : state.mapView.entrySet()) {
+            sum += (int) entry.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int iterateMapKeys(GuestState state) {
+        Map<?, ?> map = state.mapView;
+        int sum = 0;
+        for (Object key : map.keySet()) {
+            sum += (int) map.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int readUncached(GuestState state) throws Exception {
+        Node read = Message.READ.getUncached();
+        int sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += (int) ForeignAccess.sendRead(read, state.array, i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int readCreateNode(GuestState state) throws Exception {
+        int sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += (int) ForeignAccess.sendRead(Message.READ.createNode(), state.array, i);
+        }
+        return sum;
+    }
+
+    public static final class GuestArray implements TruffleObject {
+
+        final Object[] values;
+
+        GuestArray(int size) {
+            values = new Object[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = i;
+            }
+        }
+
+        public ForeignAccess getForeignAccess() {
+            return GuestArrayMRForeign.ACCESS;
+        }
+
+        public static boolean isInstance(TruffleObject obj) {
+            return obj instanceof GuestArray;
+        }
+
+    }
+
+    @MessageResolution(receiverType = GuestArray.class)
+    @SuppressWarnings("unused")
+    static class GuestArrayMR {
+
+        @Resolve(message = "HAS_SIZE")
+        abstract static class HasSizeNode extends Node {
+
+            public boolean access(GuestArray obj) {
+                return true;
+            }
+        }
+
+        @Resolve(message = "GET_SIZE")
+        abstract static class GetSizeNode extends Node {
+
+            public int access(GuestArray obj) {
+                return obj.values.length;
+            }
+        }
+
+        @Resolve(message = "READ")
+        abstract static class ReadNode extends Node {
+
+            public Object access(GuestArray obj, Number index) {
+                return obj.values[index.intValue()];
+            }
+        }
+
+    }
+
+    public static final class GuestMap implements TruffleObject {
+
+        final String[] keys;
+        final Object[] values;
+
+        GuestMap(int size) {
+            keys = new String[size];
+            values = new Object[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = "key" + i;
+                values[i] = i;
+            }
+        }
+
+        int indexOf(String key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        public ForeignAccess getForeignAccess() {
+            return GuestMapMRForeign.ACCESS;
+        }
+
+        public static boolean isInstance(TruffleObject obj) {
+            return obj instanceof GuestMap;
+        }
+
+    }
+
+    @MessageResolution(receiverType = GuestMap.class)
+    @SuppressWarnings("unused")
+    static class GuestMapMR {
+
+        @Resolve(message = "KEYS")
+        abstract static class KeysNode extends Node {
+
+            public Object access(GuestMap obj) {
+                return JavaInterop.asTruffleObject(obj.keys);
+            }
+        }
+
+        @Resolve(message = "KEY_INFO")
+        abstract static class KeyInfoNode extends Node {
+
+            public int access(GuestMap obj, String key) {
+                return obj.indexOf(key) >= 0 ? KeyInfo.newBuilder().setReadable(true).build() : 0;
+            }
+        }
+
+        @Resolve(message = "READ")
+        abstract static class ReadNode extends Node {
+
+            public Object access(GuestMap obj, String key) {
+                int index = obj.indexOf(key);
+                if (index < 0) {
+                    throw UnknownIdentifierException.raise(key);
+                }
+                return obj.values[index];
+            }
+        }
+
+    }
+
+}
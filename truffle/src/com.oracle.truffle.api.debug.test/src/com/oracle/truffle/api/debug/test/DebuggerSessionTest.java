@@ -24,6 +24,7 @@
  */
 package com.oracle.truffle.api.debug.test;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -67,6 +68,16 @@ public class DebuggerSessionTest extends AbstractDebugTest {
         }
     }
 
+    private static boolean isStatementSteppingInstalled(DebuggerSession session) {
+        try {
+            Field field = session.getClass().getDeclaredField("statementBinding");
+            ReflectionUtils.setAccessible(field, true);
+            return field.get(session) != null;
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     @Test
     public void testSuspendNextExecution1() {
         Source testSource = testSource("ROOT(\n" +
@@ -479,4 +490,40 @@ public class DebuggerSessionTest extends AbstractDebugTest {
         session.getDebugger();
     }
 
+    @Test
+    public void testStatementSteppingOnlyWhileStepping() {
+        Source testSource = testSource("ROOT(\n" +
+                        "STATEMENT,\n" +
+                        "STATEMENT,\n" +
+                        "STATEMENT)");
+
+        try (DebuggerSession session = startSession()) {
+            // an idle session does not instrument statements
+            Assert.assertFalse(isStatementSteppingInstalled(session));
+            session.install(Breakpoint.newBuilder(testSource).lineIs(2).build());
+            Assert.assertFalse(isStatementSteppingInstalled(session));
+
+            startEval(testSource);
+            expectSuspended((SuspendedEvent event) -> {
+                Assert.assertFalse(isStatementSteppingInstalled(session));
+                checkState(event, 2, true, "STATEMENT").prepareStepOver(1);
+            });
+            expectSuspended((SuspendedEvent event) -> {
+                Assert.assertTrue(isStatementSteppingInstalled(session));
+                checkState(event, 3, true, "STATEMENT").prepareContinue();
+            });
+            expectDone();
+            Assert.assertFalse(isStatementSteppingInstalled(session));
+
+            session.suspendNextExecution();
+            Assert.assertTrue(isStatementSteppingInstalled(session));
+            startEval(testSource);
+            expectSuspended((SuspendedEvent event) -> {
+                checkState(event, 2, true, "STATEMENT").prepareContinue();
+            });
+            expectDone();
+            Assert.assertFalse(isStatementSteppingInstalled(session));
+        }
+    }
+
 }
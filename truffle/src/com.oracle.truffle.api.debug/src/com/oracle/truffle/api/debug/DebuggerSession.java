@@ -159,7 +159,7 @@ public final class DebuggerSession implements Closeable {
     private final List<Breakpoint> breakpoints = Collections.synchronizedList(new ArrayList<>());
 
     private EventBinding<? extends ExecutionEventNodeFactory> callBinding;
-    private EventBinding<? extends ExecutionEventNodeFactory> statementBinding;
+    private volatile EventBinding<? extends ExecutionEventNodeFactory> statementBinding;
 
     private final ConcurrentHashMap<Thread, SuspendedEvent> currentSuspendedEventMap = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<Thread, SteppingStrategy> strategyMap = new ConcurrentHashMap<>();
@@ -356,36 +356,57 @@ public final class DebuggerSession implements Closeable {
         }
 
         stepping.set(needsStepping);
+        updateStatementBinding(needsStepping);
     }
 
     private void addBindings() {
-        if (statementBinding == null) {
+        if (callBinding == null) {
             Builder builder = SourceSectionFilter.newBuilder().tagIs(CallTag.class);
             this.callBinding = debugger.getInstrumenter().attachFactory(builder.build(), new ExecutionEventNodeFactory() {
                 public ExecutionEventNode create(EventContext context) {
                     return new CallSteppingNode(context);
                 }
             });
-            builder = SourceSectionFilter.newBuilder().tagIs(StatementTag.class);
+        }
+    }
+
+    /*
+     * Statement stepping nodes are only inserted while a thread is stepping. An idle session then
+     * leaves no wrappers at statements, and breakpoints only instrument the locations they match.
+     * Call stepping nodes stay installed for the whole session, as step out and step over need to
+     * observe returns from calls that were already on the stack when stepping started.
+     */
+    private void updateStatementBinding(boolean needsStepping) {
+        assert Thread.holdsLock(this);
+        if (needsStepping && statementBinding == null && !closed) {
+            Builder builder = SourceSectionFilter.newBuilder().tagIs(StatementTag.class);
             this.statementBinding = debugger.getInstrumenter().attachFactory(builder.build(), new ExecutionEventNodeFactory() {
                 public ExecutionEventNode create(EventContext context) {
                     return new StatementSteppingNode(context);
                 }
             });
+            if (Debugger.TRACE) {
+                trace("enabled statement stepping");
+            }
+        } else if (!needsStepping && statementBinding != null) {
+            statementBinding.dispose();
+            statementBinding = null;
+            if (Debugger.TRACE) {
+                trace("disabled statement stepping");
+            }
         }
     }
 
     private void removeBindings() {
         assert Thread.holdsLock(this);
-        if (statementBinding != null) {
+        if (callBinding != null) {
             callBinding.dispose();
-            statementBinding.dispose();
             callBinding = null;
-            statementBinding = null;
             if (Debugger.TRACE) {
                 trace("disabled stepping");
             }
         }
+        updateStatementBinding(false);
     }
 
     /**
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.dsl.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateUncached;
+import com.oracle.truffle.api.dsl.ImplicitCast;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.TypeSystem;
+import com.oracle.truffle.api.dsl.TypeSystemReference;
+import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+import com.oracle.truffle.api.dsl.test.GenerateUncachedTestFactory.Uncached1NodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateUncachedTestFactory.Uncached2NodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateUncachedTestFactory.Uncached3NodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateUncachedTestFactory.Uncached4NodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateUncachedTestFactory.Uncached5NodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateUncachedTestFactory.Uncached6NodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateUncachedTestFactory.Uncached7NodeGen;
+import com.oracle.truffle.api.dsl.test.TypeSystemTest.ValueNode;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeCost;
+import com.oracle.truffle.api.nodes.UnexpectedResultException;
+
+@SuppressWarnings("unused")
+public class GenerateUncachedTest {
+
+    @GenerateUncached
+    abstract static class Uncached1Node extends Node {
+
+        abstract Object execute(Object arg);
+
+        @Specialization(guards = "value > 0")
+        static String doPositive(int value) {
+            return "positive";
+        }
+
+        @Specialization
+        static String doString(String value) {
+            return "string";
+        }
+
+        @Fallback
+        static String doFallback(Object value) {
+            return "fallback";
+        }
+    }
+
+    @Test
+    public void testGuardsAndFallback() {
+        Uncached1Node node = Uncached1NodeGen.getUncached();
+        assertSame(node, Uncached1NodeGen.getUncached());
+        assertNull(node.getParent());
+        assertEquals(NodeCost.MEGAMORPHIC, node.getCost());
+        assertEquals("positive", node.execute(42));
+        assertEquals("string", node.execute(""));
+        assertEquals("fallback", node.execute(-1));
+        assertEquals("fallback", node.execute(42d));
+
+        // the cached version is generated as usual
+        assertEquals("positive", Uncached1NodeGen.create().execute(42));
+    }
+
+    @GenerateUncached
+    abstract static class Uncached2Node extends Node {
+
+        abstract Object execute(Object arg);
+
+        @Specialization(guards = "value == cachedValue", limit = "3")
+        static String doCached(int value, @Cached("value") int cachedValue) {
+            return "cached";
+        }
+
+        @Specialization(replaces = "doCached")
+        static String doGeneric(int value) {
+            return "generic";
+        }
+    }
+
+    @Test
+    public void testReplacedSpecializations() {
+        Uncached2Node node = Uncached2NodeGen.getUncached();
+        assertEquals("generic", node.execute(42));
+        assertEquals("cached", Uncached2NodeGen.create().execute(42));
+        try {
+            node.execute("");
+            fail();
+        } catch (UnsupportedSpecializationException e) {
+            assertSame(node, e.getNode());
+            assertEquals("", e.getSuppliedValues()[0]);
+        }
+    }
+
+    @GenerateUncached
+    abstract static class Uncached3Node extends Node {
+
+        abstract Object execute(Object left, Object right);
+
+        @Specialization(rewriteOn = ArithmeticException.class)
+        static int doInt(int left, int right) {
+            return Math.addExact(left, right);
+        }
+
+        @Specialization
+        static long doLong(int left, int right) {
+            return (long) left + right;
+        }
+    }
+
+    @Test
+    public void testRewriteOn() {
+        Uncached3Node node = Uncached3NodeGen.getUncached();
+        assertEquals(3, node.execute(1, 2));
+        assertEquals((long) Integer.MAX_VALUE + 1, node.execute(Integer.MAX_VALUE, 1));
+        assertEquals(5, node.execute(2, 3));
+    }
+
+    static Assumption assumption = Truffle.getRuntime().createAssumption();
+
+    @GenerateUncached
+    abstract static class Uncached4Node extends Node {
+
+        abstract Object execute(Object arg);
+
+        @Specialization(assumptions = "getAssumption()")
+        static String doValid(Object value) {
+            return "valid";
+        }
+
+        @Specialization
+        static String doInvalid(Object value) {
+            return "invalid";
+        }
+
+        static Assumption getAssumption() {
+            return assumption;
+        }
+    }
+
+    @Test
+    public void testAssumptions() {
+        Uncached4Node node = Uncached4NodeGen.getUncached();
+        assertEquals("valid", node.execute(""));
+        assumption.invalidate();
+        assertEquals("invalid", node.execute(""));
+        assumption = Truffle.getRuntime().createAssumption();
+        assertEquals("valid", node.execute(""));
+    }
+
+    @TypeSystem
+    static class UncachedTypeSystem {
+
+        @ImplicitCast
+        static long intToLong(int value) {
+            return value;
+        }
+
+    }
+
+    @GenerateUncached
+    @TypeSystemReference(UncachedTypeSystem.class)
+    abstract static class Uncached5Node extends Node {
+
+        abstract long executeLong(Object arg) throws UnexpectedResultException;
+
+        abstract Object execute(Object arg);
+
+        @Specialization
+        static long doLong(long value) {
+            return value + 1;
+        }
+
+        @Specialization
+        static String doString(String value) {
+            return value;
+        }
+    }
+
+    @Test
+    public void testImplicitCastsAndExpect() throws UnexpectedResultException {
+        Uncached5Node node = Uncached5NodeGen.getUncached();
+        assertEquals(43L, node.execute(42));
+        assertEquals(43L, node.execute(42L));
+        assertEquals(43L, node.executeLong(42));
+        try {
+            node.executeLong("foo");
+            fail();
+        } catch (UnexpectedResultException e) {
+            assertEquals("foo", e.getResult());
+        }
+    }
+
+    @GenerateUncached
+    abstract static class Uncached6Node extends Node {
+
+        abstract int execute(Object arg);
+
+        @Specialization(guards = "length > 0")
+        static int doArray(int[] array, @Cached("array.length") int length) {
+            return length;
+        }
+
+        @Specialization
+        static int doGeneric(Object value) {
+            return -1;
+        }
+    }
+
+    @Test
+    public void testCachedExpressions() {
+        Uncached6Node node = Uncached6NodeGen.getUncached();
+        assertEquals(2, node.execute(new int[2]));
+        assertEquals(3, node.execute(new int[3]));
+        assertEquals(-1, node.execute(new int[0]));
+        assertEquals(-1, node.execute(""));
+    }
+
+    @GenerateUncached
+    abstract static class Uncached7Node extends Node {
+
+        abstract void execute(Object arg);
+
+        @Specialization
+        void doVoid(Object value) {
+            invocations++;
+        }
+
+        static int invocations;
+    }
+
+    @Test
+    public void testVoid() {
+        Uncached7NodeGen.getUncached().execute("");
+        assertEquals(1, Uncached7Node.invocations);
+    }
+
+    @ExpectError("@GenerateUncached is not supported for nodes with @NodeChild declarations. Pass all operands as execute method parameters instead.")
+    @GenerateUncached
+    @NodeChild("a")
+    abstract static class ErrorChildNode extends ValueNode {
+
+        @Specialization
+        static int doInt(int a) {
+            return a;
+        }
+    }
+
+    @GenerateUncached
+    abstract static class ErrorCachedNode extends Node {
+
+        abstract Object execute(Object arg);
+
+        @Specialization
+        static Object doCached(Object value, @ExpectError("Cached nodes are not supported with @GenerateUncached. The uncached version cannot adopt nodes.") //
+        @Cached("createNode()") Uncached1Node cachedNode) {
+            return cachedNode.execute(value);
+        }
+
+        static Uncached1Node createNode() {
+            return Uncached1NodeGen.create();
+        }
+    }
+
+    @ExpectError("@GenerateUncached requires an accessible constructor without parameters.")
+    @GenerateUncached
+    abstract static class ErrorConstructorNode extends Node {
+
+        ErrorConstructorNode(int value) {
+        }
+
+        abstract Object execute(Object arg);
+
+        @Specialization
+        static Object doObject(Object value) {
+            return value;
+        }
+    }
+
+}
@@ -24,6 +24,9 @@ package com.oracle.truffle.api.dsl.test;
 
 import static com.oracle.truffle.api.dsl.test.TestHelper.array;
 import static com.oracle.truffle.api.dsl.test.TestHelper.assertRuns;
+import static com.oracle.truffle.api.dsl.test.TestHelper.executeWith;
+
+import java.lang.reflect.Field;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -41,6 +44,7 @@ import com.oracle.truffle.api.dsl.test.SpecializationFallthroughTestFactory.Fall
 import com.oracle.truffle.api.dsl.test.TestHelper.ExecutionListener;
 import com.oracle.truffle.api.dsl.test.TypeSystemTest.TestRootNode;
 import com.oracle.truffle.api.dsl.test.TypeSystemTest.ValueNode;
+import com.oracle.truffle.api.nodes.NodeCost;
 
 public class SpecializationFallthroughTest {
 
@@ -85,6 +89,23 @@ public class SpecializationFallthroughTest {
         }
     }
 
+    /*
+     * Tests that the excluded bit of a rewriteOn specialization is stored in the state field.
+     */
+    @Test
+    public void testExcludeInState() {
+        TestRootNode<FallthroughTest0> root = TestHelper.createRoot(FallthroughTest0Factory.getInstance());
+        for (Field field : root.getNode().getClass().getDeclaredFields()) {
+            Assert.assertNotEquals("exclude_", field.getName());
+        }
+        Assert.assertEquals(1, executeWith(root, 1));
+        Assert.assertEquals(NodeCost.MONOMORPHIC, root.getNode().getCost());
+        Assert.assertEquals(0, executeWith(root, 0));
+        Assert.assertEquals(NodeCost.MONOMORPHIC, root.getNode().getCost());
+        Assert.assertEquals(2, executeWith(root, 2));
+        Assert.assertEquals(1, FallthroughTest0.fallthroughCount);
+    }
+
     /*
      * Tests that the fall through is never triggered twice for monomorphic cases.
      */
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.dsl;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates an uncached version of a node in addition to the regular cached version. The uncached
+ * version is a stateless singleton, accessible using the static <code>getUncached()</code> method
+ * of the generated node class. It evaluates the guards and {@link Cached} initializer expressions
+ * of all specializations on every execution instead of caching their results. Specializations that
+ * are {@link Specialization#replaces() replaced} by another specialization are not used. Exceptions
+ * listed in {@link Specialization#rewriteOn() rewriteOn} continue with the next specialization.
+ * <p>
+ * The uncached version can be executed without allocating and adopting a node, for example from
+ * slow paths of the language runtime or from host code that has no AST at hand. It does not
+ * specialize and is not intended for performance critical paths that can use a cached node
+ * instead.
+ * <p>
+ * Uncached nodes can only be generated for operations that receive all their operands as execute
+ * method parameters, so nodes with {@link NodeChild} or {@link NodeField} declarations are not
+ * supported. {@link Cached} parameters must not be of a node type and the node must have a
+ * default constructor.
+ *
+ * <pre>
+ * &#064;GenerateUncached
+ * abstract class ToStringNode extends Node {
+ *
+ *     abstract String execute(Object value);
+ *
+ *     &#064;Specialization
+ *     String doInt(int value) {
+ *         return Integer.toString(value);
+ *     }
+ *
+ *     &#064;Specialization
+ *     String doObject(Object value) {
+ *         return String.valueOf(value);
+ *     }
+ * }
+ *
+ * ToStringNodeGen.getUncached().execute(42);
+ * </pre>
+ *
+ * @since 0.27
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE})
+public @interface GenerateUncached {
+
+}
@@ -120,9 +120,47 @@ public class SourceSectionListenerTest extends AbstractInstrumentationTest {
         assertEvents(impl.onlyExpressions, sourceSections1[1], sourceSections1[2], sourceSections2[1], sourceSections3[1], sourceSections3[2], sourceSections3[3]);
     }
 
+    @Test
+    public void testLoadSourceSectionByLocation() throws IOException {
+        PolyglotRuntime.Instrument instrument = engine.getRuntime().getInstruments().get("testLoadSourceSection1");
+        instrument.setEnabled(true);
+        TestLoadSourceSection1 impl = instrument.lookup(TestLoadSourceSection1.class);
+
+        Source source1 = lines("ROOT(",
+                        "DEFINE(a,ROOT(STATEMENT(EXPRESSION))),",
+                        "DEFINE(b,ROOT(STATEMENT(EXPRESSION, EXPRESSION))),",
+                        "DEFINE(c,ROOT(EXPRESSION)),",
+                        "CALL(a),CALL(b),CALL(c)",
+                        ")");
+        Source source2 = lines("ROOT(",
+                        "DEFINE(d,ROOT(STATEMENT(EXPRESSION, EXPRESSION))),",
+                        "CALL(d)",
+                        ")");
+        run(source1);
+        run(source2);
+
+        SourceSection[] expressions1 = sections(source1, "EXPRESSION");
+        int line3Start = source1.getLineStartOffset(3);
+        int line3End = line3Start + source1.getLineLength(3);
+
+        assertSections(impl.query(SourceSectionFilter.newBuilder().tagIs(InstrumentationTestLanguage.EXPRESSION).sourceIs(source1).lineIs(3).build()),
+                        expressions1[1], expressions1[2]);
+        assertSections(impl.query(SourceSectionFilter.newBuilder().tagIs(InstrumentationTestLanguage.EXPRESSION).sourceIs(source1).indexIn(line3Start, line3End - line3Start).build()),
+                        expressions1[1], expressions1[2]);
+        assertSections(impl.query(SourceSectionFilter.newBuilder().tagIs(InstrumentationTestLanguage.EXPRESSION).sourceIs(source1).lineIn(2, 3).build()),
+                        expressions1);
+        assertSections(impl.query(SourceSectionFilter.newBuilder().tagIs(InstrumentationTestLanguage.EXPRESSION).sourceIs(source1).lineIs(42).build()));
+        assertSections(impl.query(SourceSectionFilter.newBuilder().tagIs(InstrumentationTestLanguage.EXPRESSION).sourceIs(source2).lineIs(3).build()));
+        assertSections(impl.query(SourceSectionFilter.newBuilder().tagIs(InstrumentationTestLanguage.EXPRESSION).sourceIs(source2).lineIs(2).build()),
+                        sections(source2, "EXPRESSION"));
+    }
+
     private static SourceSection[] sections(String code, String... match) {
-        Source source = Source.newBuilder(code).name("sourceSectionTest").mimeType(InstrumentationTestLanguage.MIME_TYPE).build();
+        return sections(Source.newBuilder(code).name("sourceSectionTest").mimeType(InstrumentationTestLanguage.MIME_TYPE).build(), match);
+    }
 
+    private static SourceSection[] sections(Source source, String... match) {
+        String code = source.getCode();
         List<SourceSection> sections = new ArrayList<>();
         for (String matchExpression : match) {
             int index = -1;
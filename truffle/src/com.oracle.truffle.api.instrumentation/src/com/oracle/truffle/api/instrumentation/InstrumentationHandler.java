@@ -89,6 +89,13 @@ final class InstrumentationHandler {
     private final Collection<RootNode> executedRoots = new WeakAsyncList<>(64);
     private final Collection<AllocationReporter> allocationReporters = new WeakAsyncList<>(16);
 
+    /*
+     * Indexes of loadedRoots and executedRoots by root source section. Lazily initialized when the
+     * first binding with a source bound filter is added, null before.
+     */
+    private volatile SourceSectionIndex loadedRootsIndex;
+    private volatile SourceSectionIndex executedRootsIndex;
+
     private final Collection<EventBinding<?>> executionBindings = new EventBindingList(8);
     private final Collection<EventBinding<?>> sourceSectionBindings = new EventBindingList(8);
     private final Collection<EventBinding<?>> sourceBindings = new EventBindingList(8);
@@ -146,6 +153,10 @@ final class InstrumentationHandler {
             }
             loadedRoots.add(root);
         }
+        SourceSectionIndex index = loadedRootsIndex;
+        if (index != null) {
+            index.add(root);
+        }
         // we don't want to invoke foreign code while we are holding a lock to avoid
         // deadlocks.
         if (source != null) {
@@ -165,6 +176,10 @@ final class InstrumentationHandler {
         }
         assert root.getLanguageInfo() != null;
         executedRoots.add(root);
+        SourceSectionIndex index = executedRootsIndex;
+        if (index != null) {
+            index.add(root);
+        }
 
         // fast path no bindings attached
         if (executionBindings.isEmpty()) {
@@ -252,7 +267,7 @@ final class InstrumentationHandler {
         this.executionBindings.add(binding);
 
         if (!executedRoots.isEmpty()) {
-            visitRoots(executedRoots, new InsertWrappersWithBindingVisitor(binding));
+            visitRoots(findExecutedRoots(binding.getFilter()), new InsertWrappersWithBindingVisitor(binding));
         }
 
         if (TRACE) {
@@ -270,7 +285,7 @@ final class InstrumentationHandler {
         this.sourceSectionBindings.add(binding);
         if (notifyLoaded) {
             if (!loadedRoots.isEmpty()) {
-                visitRoots(loadedRoots, new NotifyLoadedWithBindingVisitor(binding));
+                visitRoots(findLoadedRoots(binding.getFilter()), new NotifyLoadedWithBindingVisitor(binding));
             }
         }
 
@@ -365,6 +380,50 @@ final class InstrumentationHandler {
         }
     }
 
+    /**
+     * Returns the loaded roots that may contain source sections matched by the filter.
+     */
+    private Collection<RootNode> findLoadedRoots(SourceSectionFilter filter) {
+        if (!filter.isSourceBound()) {
+            return loadedRoots;
+        }
+        SourceSectionIndex index = loadedRootsIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = loadedRootsIndex;
+                if (index == null) {
+                    index = new SourceSectionIndex();
+                    // publish first, roots loaded concurrently are added by onLoad
+                    loadedRootsIndex = index;
+                    index.addAll(loadedRoots);
+                }
+            }
+        }
+        return index.findRoots(filter);
+    }
+
+    /**
+     * Returns the executed roots that may contain source sections matched by the filter.
+     */
+    private Collection<RootNode> findExecutedRoots(SourceSectionFilter filter) {
+        if (!filter.isSourceBound()) {
+            return executedRoots;
+        }
+        SourceSectionIndex index = executedRootsIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = executedRootsIndex;
+                if (index == null) {
+                    index = new SourceSectionIndex();
+                    // publish first, roots executed concurrently are added by onFirstExecution
+                    executedRootsIndex = index;
+                    index.addAll(executedRoots);
+                }
+            }
+        }
+        return index.findRoots(filter);
+    }
+
     private void visitRoots(Collection<RootNode> roots, AbstractNodeVisitor addBindingsVisitor) {
         for (RootNode root : roots) {
             visitRoot(root, root, addBindingsVisitor, false);
@@ -441,12 +500,24 @@ final class InstrumentationHandler {
     }
 
     public void onNodeInserted(RootNode rootNode, Node tree) {
+        int bits = RootNodeBits.get(rootNode);
         if (!sourceSectionBindings.isEmpty()) {
             visitRoot(rootNode, tree, new NotifyLoadedListenerVisitor(sourceSectionBindings), true);
         }
         if (!executionBindings.isEmpty()) {
             visitRoot(rootNode, tree, new InsertWrappersVisitor(executionBindings), true);
         }
+        if (bits != RootNodeBits.get(rootNode)) {
+            // the inserted tree may have moved the root out of its indexed interval
+            SourceSectionIndex index = loadedRootsIndex;
+            if (index != null) {
+                index.update(rootNode);
+            }
+            index = executedRootsIndex;
+            if (index != null) {
+                index.update(rootNode);
+            }
+        }
     }
 
     private static void notifySourceBindingsLoaded(Collection<EventBinding<?>> bindings, Source source) {
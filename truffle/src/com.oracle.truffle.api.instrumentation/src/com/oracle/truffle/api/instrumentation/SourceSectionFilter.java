@@ -157,6 +157,69 @@ public final class SourceSectionFilter {
         return true;
     }
 
+    /*
+     * Returns true if only source sections of sources selected by a source expression can match.
+     */
+    boolean isSourceBound() {
+        for (EventFilterExpression exp : expressions) {
+            if (exp instanceof EventFilterExpression.SourceIs || exp instanceof EventFilterExpression.SourceFilterIs) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Like isInstrumentedSource(Source) but ignores all expressions that are not source only.
+     */
+    boolean includesSource(Source source) {
+        for (EventFilterExpression exp : expressions) {
+            if (exp.isSourceOnly() && !exp.isSourceIncluded(source)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Returns character ranges of the source that matched source sections must overlap, or null if
+     * the filter does not restrict the index or line of source sections. Line ranges are converted
+     * using the line map of the source. The resulting ranges may be more inclusive than the filter.
+     */
+    IndexRange[] getCharRanges(Source source) {
+        for (EventFilterExpression exp : expressions) {
+            if (exp instanceof EventFilterExpression.IndexIn) {
+                return ((EventFilterExpression.IndexIn) exp).ranges;
+            }
+            IndexRange[] lineRanges = null;
+            if (exp instanceof EventFilterExpression.LineIn) {
+                lineRanges = ((EventFilterExpression.LineIn) exp).ranges;
+            } else if (exp instanceof EventFilterExpression.LineStartsIn) {
+                lineRanges = ((EventFilterExpression.LineStartsIn) exp).ranges;
+            } else if (exp instanceof EventFilterExpression.LineEndsIn) {
+                lineRanges = ((EventFilterExpression.LineEndsIn) exp).ranges;
+            }
+            if (lineRanges != null) {
+                return toCharRanges(source, lineRanges);
+            }
+        }
+        return null;
+    }
+
+    private static IndexRange[] toCharRanges(Source source, IndexRange[] lineRanges) {
+        int lineCount = source.getLineCount();
+        List<IndexRange> charRanges = new ArrayList<>(lineRanges.length);
+        for (IndexRange lineRange : lineRanges) {
+            if (lineRange.startIndex > lineCount) {
+                continue;
+            }
+            int start = lineRange.startIndex < 1 ? 0 : source.getLineStartOffset(lineRange.startIndex);
+            int end = lineRange.endIndex > lineCount ? Integer.MAX_VALUE : source.getLineStartOffset(Math.max(lineRange.endIndex, 1));
+            charRanges.add(new IndexRange(start, Math.max(start, end)));
+        }
+        return charRanges.toArray(new IndexRange[charRanges.size()]);
+    }
+
     /**
      * Configure your own {@link SourceSectionFilter} before creating its instance. Specify various
      * parameters by calling individual {@link Builder} methods. When done, call {@link #build()}.
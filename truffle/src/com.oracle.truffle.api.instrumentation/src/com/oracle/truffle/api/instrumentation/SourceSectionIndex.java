@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.instrumentation;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter.IndexRange;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Index of root nodes by the character interval of their root source section, kept per source.
+ * Allows to find the roots that may contain source sections matched by a source bound filter in
+ * <code>O(log n + k)</code> instead of visiting every loaded root. Roots are only indexed by their
+ * interval if their {@link RootNodeBits bits} guarantee that all source sections are from the same
+ * source and contained within the root source section. All other roots are always reported as
+ * candidates. The returned candidates are a superset of the roots that are instrumented by the
+ * filter, in the order in which the roots were added.
+ */
+final class SourceSectionIndex {
+
+    private static final Comparator<Entry> BY_START = new Comparator<Entry>() {
+        public int compare(Entry o1, Entry o2) {
+            return Integer.compare(o1.start, o2.start);
+        }
+    };
+
+    private static final Comparator<Entry> BY_ORDER = new Comparator<Entry>() {
+        public int compare(Entry o1, Entry o2) {
+            return Integer.compare(o1.order, o2.order);
+        }
+    };
+
+    private final Map<RootNode, Integer> roots = new WeakHashMap<>();
+    private final Map<Source, SourceIntervals> intervals = new WeakHashMap<>();
+    /* Roots with uninitialized root bits. They are classified lazily on lookup. */
+    private final List<Entry> pending = new ArrayList<>();
+    /* Roots with source sections that are not contained in the root source section. */
+    private final List<Entry> unstructured = new ArrayList<>();
+    private int nextOrder;
+
+    synchronized void add(RootNode root) {
+        if (!roots.containsKey(root)) {
+            int order = nextOrder++;
+            roots.put(root, order);
+            pending.add(new Entry(root, order));
+        }
+    }
+
+    /**
+     * Classifies an already added root again. Must be called if the root bits of the root changed.
+     */
+    synchronized void update(RootNode root) {
+        Integer order = roots.get(root);
+        if (order != null) {
+            pending.add(new Entry(root, order));
+        }
+    }
+
+    synchronized void addAll(Iterable<RootNode> roots) {
+        for (RootNode root : roots) {
+            add(root);
+        }
+    }
+
+    /**
+     * Finds all roots that may contain source sections matched by a source bound filter.
+     */
+    synchronized Collection<RootNode> findRoots(SourceSectionFilter filter) {
+        assert filter.isSourceBound();
+        classifyPending();
+
+        List<Entry> found = new ArrayList<>();
+        for (SourceIntervals sourceIntervals : intervals.values()) {
+            Source source = sourceIntervals.findIncludedSource(filter);
+            if (source == null) {
+                continue;
+            }
+            IndexRange[] ranges = filter.getCharRanges(source);
+            if (ranges == null) {
+                sourceIntervals.findAll(found);
+            } else {
+                for (IndexRange range : ranges) {
+                    sourceIntervals.find(range.startIndex, range.endIndex, found);
+                }
+            }
+        }
+        found.addAll(pending);
+        found.addAll(unstructured);
+        if (found.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Collections.sort(found, BY_ORDER);
+        Map<RootNode, Boolean> visited = new IdentityHashMap<>();
+        List<RootNode> result = new ArrayList<>(found.size());
+        for (Entry entry : found) {
+            RootNode root = entry.root.get();
+            if (root != null && visited.put(root, Boolean.TRUE) == null) {
+                result.add(root);
+            }
+        }
+        return result;
+    }
+
+    private void classifyPending() {
+        for (Iterator<Entry> iterator = pending.iterator(); iterator.hasNext();) {
+            Entry entry = iterator.next();
+            RootNode root = entry.root.get();
+            if (root == null) {
+                iterator.remove();
+                continue;
+            }
+            int bits = RootNodeBits.get(root);
+            if (RootNodeBits.isUninitialized(bits)) {
+                continue;
+            }
+            iterator.remove();
+            if (RootNodeBits.isNoSourceSection(bits)) {
+                // cannot match any source bound filter
+                continue;
+            }
+            SourceSection rootSection = root.getSourceSection();
+            if (rootSection != null && rootSection.isAvailable() && RootNodeBits.isSameSource(bits) && RootNodeBits.isSourceSectionsHierachical(bits)) {
+                entry.start = rootSection.getCharIndex();
+                entry.end = rootSection.getCharEndIndex();
+                Source source = rootSection.getSource();
+                SourceIntervals sourceIntervals = intervals.get(source);
+                if (sourceIntervals == null) {
+                    sourceIntervals = new SourceIntervals();
+                    intervals.put(source, sourceIntervals);
+                }
+                sourceIntervals.add(source, entry);
+            } else {
+                unstructured.add(entry);
+            }
+        }
+        if (!unstructured.isEmpty()) {
+            for (Iterator<Entry> iterator = unstructured.iterator(); iterator.hasNext();) {
+                if (iterator.next().root.get() == null) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        final WeakReference<RootNode> root;
+        final int order;
+        int start;
+        int end;
+
+        Entry(RootNode root, int order) {
+            this.root = new WeakReference<>(root);
+            this.order = order;
+        }
+    }
+
+    /**
+     * Intervals of one source stored as a balanced binary tree implicitly laid out over an array
+     * sorted by start index. Each tree node at index <code>mid</code> of a range
+     * <code>[lo, hi[</code> stores the maximum end index of all entries in that range, which
+     * allows to prune subtrees that end before the queried range.
+     */
+    private static final class SourceIntervals {
+
+        /*
+         * Sources are compared by content in the map, but filters compare sources by identity, so
+         * we need to remember all equal source instances.
+         */
+        private final List<WeakReference<Source>> sources = new ArrayList<>(1);
+        private final List<Entry> added = new ArrayList<>();
+        private Entry[] sorted = new Entry[0];
+        private int[] maxEnd = new int[0];
+
+        void add(Source source, Entry entry) {
+            boolean found = false;
+            for (Iterator<WeakReference<Source>> iterator = sources.iterator(); iterator.hasNext();) {
+                Source other = iterator.next().get();
+                if (other == null) {
+                    iterator.remove();
+                } else if (other == source) {
+                    found = true;
+                }
+            }
+            if (!found) {
+                sources.add(new WeakReference<>(source));
+            }
+            added.add(entry);
+        }
+
+        Source findIncludedSource(SourceSectionFilter filter) {
+            for (WeakReference<Source> ref : sources) {
+                Source source = ref.get();
+                if (source != null && filter.includesSource(source)) {
+                    return source;
+                }
+            }
+            return null;
+        }
+
+        void findAll(List<Entry> result) {
+            update();
+            result.addAll(Arrays.asList(sorted));
+        }
+
+        /*
+         * Finds all entries that overlap with the range using the same semantics as
+         * IndexRange.contains(int, int).
+         */
+        void find(int rangeStart, int rangeEnd, List<Entry> result) {
+            update();
+            int count = firstStartingAt(rangeEnd);
+            find(0, sorted.length, count, rangeStart, result);
+        }
+
+        private void find(int lo, int hi, int count, int rangeStart, List<Entry> result) {
+            if (lo >= hi || lo >= count) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (maxEnd[mid] < rangeStart) {
+                return;
+            }
+            find(lo, mid, count, rangeStart, result);
+            if (mid < count && sorted[mid].end >= rangeStart) {
+                result.add(sorted[mid]);
+            }
+            find(mid + 1, hi, count, rangeStart, result);
+        }
+
+        private int firstStartingAt(int index) {
+            int lo = 0;
+            int hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid].start < index) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private void update() {
+            if (added.isEmpty()) {
+                return;
+            }
+            List<Entry> entries = new ArrayList<>(sorted.length + added.size());
+            for (Entry entry : sorted) {
+                if (entry.root.get() != null) {
+                    entries.add(entry);
+                }
+            }
+            entries.addAll(added);
+            added.clear();
+            Collections.sort(entries, BY_START);
+            sorted = entries.toArray(new Entry[entries.size()]);
+            maxEnd = new int[sorted.length];
+            computeMaxEnd(0, sorted.length);
+        }
+
+        private int computeMaxEnd(int lo, int hi) {
+            if (lo >= hi) {
+                return Integer.MIN_VALUE;
+            }
+            int mid = (lo + hi) >>> 1;
+            int max = Math.max(sorted[mid].end, Math.max(computeMaxEnd(lo, mid), computeMaxEnd(mid + 1, hi)));
+            maxEnd[mid] = max;
+            return max;
+        }
+    }
+
+}
@@ -498,7 +498,7 @@ public final class JavaInterop {
      */
     public static int getKeyInfo(TruffleObject foreignObject, Object propertyName) {
         CompilerAsserts.neverPartOfCompilation();
-        int infoBits = ForeignAccess.sendKeyInfo(Message.KEY_INFO.createNode(), foreignObject, propertyName);
+        int infoBits = ForeignAccess.sendKeyInfo(Message.KEY_INFO.getUncached(), foreignObject, propertyName);
         return infoBits;
     }
 
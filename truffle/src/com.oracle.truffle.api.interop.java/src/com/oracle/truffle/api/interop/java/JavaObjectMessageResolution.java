@@ -32,6 +32,7 @@ import java.util.Objects;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleOptions;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.ArityException;
 import com.oracle.truffle.api.interop.ForeignAccess;
 import com.oracle.truffle.api.interop.Message;
@@ -242,6 +243,47 @@ class JavaObjectMessageResolution {
 
     }
 
+    @Resolve(message = "READ_ELEMENTS")
+    abstract static class ReadElementsNode extends Node {
+
+        @TruffleBoundary
+        public Object access(@SuppressWarnings("unused") VirtualFrame frame, JavaObject receiver, Number index, TruffleObject buffer, int offset, int length) {
+            copyElements(receiver, index, buffer, offset, length, true);
+            return length;
+        }
+    }
+
+    @Resolve(message = "WRITE_ELEMENTS")
+    abstract static class WriteElementsNode extends Node {
+
+        @TruffleBoundary
+        public Object access(@SuppressWarnings("unused") VirtualFrame frame, JavaObject receiver, Number index, TruffleObject buffer, int offset, int length) {
+            copyElements(receiver, index, buffer, offset, length, false);
+            return length;
+        }
+    }
+
+    /**
+     * Copies a range between a host array and a buffer of the same primitive component type.
+     * Other combinations are left to the element by element access of the sender.
+     */
+    static void copyElements(JavaObject receiver, Number index, TruffleObject buffer, int offset, int length, boolean read) {
+        Object array = receiver.obj;
+        Object bufferArray = buffer instanceof JavaObject ? ((JavaObject) buffer).obj : null;
+        if (array == null || bufferArray == null || array.getClass() != bufferArray.getClass() || !array.getClass().getComponentType().isPrimitive()) {
+            throw UnsupportedMessageException.raise(read ? Message.READ_ELEMENTS : Message.WRITE_ELEMENTS);
+        }
+        long start = index.longValue();
+        if (start < 0 || start > Array.getLength(array) - length) {
+            throw UnknownIdentifierException.raise(String.valueOf(index));
+        }
+        if (read) {
+            System.arraycopy(array, (int) start, bufferArray, offset, length);
+        } else {
+            System.arraycopy(bufferArray, offset, array, (int) start, length);
+        }
+    }
+
     @Resolve(message = "KEYS")
     abstract static class PropertiesNode extends Node {
         @TruffleBoundary
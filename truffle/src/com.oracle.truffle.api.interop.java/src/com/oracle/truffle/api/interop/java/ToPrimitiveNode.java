@@ -33,25 +33,31 @@ import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.nodes.Node;
 
 final class ToPrimitiveNode extends Node {
+    private static final ToPrimitiveNode TEMPORARY = new ToPrimitiveNode(Message.IS_NULL.getUncached(), Message.IS_BOXED.getUncached(), Message.HAS_SIZE.getUncached(),
+                    Message.UNBOX.getUncached());
+
     @Child Node isNullNode;
     @Child Node isBoxedNode;
     @Child Node hasSizeNode;
     @Child Node unboxNode;
 
-    private ToPrimitiveNode() {
-        this.isNullNode = Message.IS_NULL.createNode();
-        this.isBoxedNode = Message.IS_BOXED.createNode();
-        this.hasSizeNode = Message.HAS_SIZE.createNode();
-        this.unboxNode = Message.UNBOX.createNode();
+    private ToPrimitiveNode(Node isNullNode, Node isBoxedNode, Node hasSizeNode, Node unboxNode) {
+        this.isNullNode = isNullNode;
+        this.isBoxedNode = isBoxedNode;
+        this.hasSizeNode = hasSizeNode;
+        this.unboxNode = unboxNode;
     }
 
     static ToPrimitiveNode create() {
-        return new ToPrimitiveNode();
+        return new ToPrimitiveNode(Message.IS_NULL.createNode(), Message.IS_BOXED.createNode(), Message.HAS_SIZE.createNode(), Message.UNBOX.createNode());
     }
 
+    /*
+     * Shared instance for slow paths. It is never adopted and uses the uncached message nodes.
+     */
     static ToPrimitiveNode temporary() {
         CompilerAsserts.neverPartOfCompilation();
-        return new ToPrimitiveNode();
+        return TEMPORARY;
     }
 
     Object toPrimitive(Object value, Class<?> requestedType) {
@@ -45,6 +45,10 @@ final class Execute extends KnownMessage {
         return arity;
     }
 
+    public int getType() {
+        return type;
+    }
+
     @Override
     public boolean equals(Object message) {
         if (!(message instanceof Execute)) {
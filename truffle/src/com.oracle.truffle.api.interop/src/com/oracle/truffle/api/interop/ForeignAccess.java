@@ -25,6 +25,7 @@
 package com.oracle.truffle.api.interop;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -47,6 +48,8 @@ import com.oracle.truffle.api.nodes.RootNode;
 public final class ForeignAccess {
     private final Factory factory;
     private final RootNode languageCheck;
+    private final ConcurrentHashMap<Message, CallTarget> sharedTargets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, CallTarget> sharedExecuteTargets = new ConcurrentHashMap<>();
 
     // still here for GraalVM intrinsics.
     @SuppressWarnings("unused") private final Thread initThread;
@@ -527,6 +530,72 @@ public final class ForeignAccess {
         }
     }
 
+    /**
+     * Sends a {@link Message#READ_ELEMENTS READ_ELEMENTS message} to the foreign receiver object
+     * by executing the <code> readElementsNode </code>.
+     *
+     * @param readElementsNode the createNode created by {@link Message#createNode()}
+     * @param receiver foreign object to receive the message passed to {@link Message#createNode()}
+     *            method
+     * @param index the index of the first element to read
+     * @param buffer the host array to copy the elements into, wrapped as {@link TruffleObject}
+     * @param offset the offset into the buffer
+     * @param length the number of elements to read
+     * @return the number of transferred elements
+     * @throws ClassCastException if the createNode has not been created by
+     *             {@link Message#createNode()} method.
+     * @throws UnsupportedMessageException if the <code>receiver</code> cannot serve the request
+     *             in bulk
+     * @throws UnknownIdentifierException if the range is not within the bounds of the receiver
+     * @throws UnsupportedTypeException if an element cannot be represented in the buffer
+     * @since 0.27
+     */
+    public static int sendReadElements(Node readElementsNode, TruffleObject receiver, long index, TruffleObject buffer, int offset, int length)
+                    throws UnsupportedMessageException, UnknownIdentifierException, UnsupportedTypeException {
+        try {
+            return ((Number) ((InteropAccessNode) readElementsNode).execute(receiver, new Object[]{index, buffer, offset, length})).intValue();
+        } catch (UnsupportedMessageException | UnknownIdentifierException | UnsupportedTypeException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw e;
+        } catch (InteropException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw new AssertionError("Unexpected exception caught.", e);
+        }
+    }
+
+    /**
+     * Sends a {@link Message#WRITE_ELEMENTS WRITE_ELEMENTS message} to the foreign receiver object
+     * by executing the <code> writeElementsNode </code>.
+     *
+     * @param writeElementsNode the createNode created by {@link Message#createNode()}
+     * @param receiver foreign object to receive the message passed to {@link Message#createNode()}
+     *            method
+     * @param index the index of the first element to write
+     * @param buffer the host array to copy the elements from, wrapped as {@link TruffleObject}
+     * @param offset the offset into the buffer
+     * @param length the number of elements to write
+     * @return the number of transferred elements
+     * @throws ClassCastException if the createNode has not been created by
+     *             {@link Message#createNode()} method.
+     * @throws UnsupportedMessageException if the <code>receiver</code> cannot serve the request
+     *             in bulk
+     * @throws UnknownIdentifierException if the range is not within the bounds of the receiver
+     * @throws UnsupportedTypeException if a buffer value cannot be stored into the receiver
+     * @since 0.27
+     */
+    public static int sendWriteElements(Node writeElementsNode, TruffleObject receiver, long index, TruffleObject buffer, int offset, int length)
+                    throws UnsupportedMessageException, UnknownIdentifierException, UnsupportedTypeException {
+        try {
+            return ((Number) ((InteropAccessNode) writeElementsNode).execute(receiver, new Object[]{index, buffer, offset, length})).intValue();
+        } catch (UnsupportedMessageException | UnknownIdentifierException | UnsupportedTypeException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw e;
+        } catch (InteropException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw new AssertionError("Unexpected exception caught.", e);
+        }
+    }
+
     /**
      * Sends an EXECUTE {@link Message} to the foreign receiver object by executing the
      * <code> executeNode </code>.
@@ -753,10 +822,10 @@ public final class ForeignAccess {
         } catch (UnsupportedMessageException ex) {
             CompilerDirectives.transferToInterpreter();
             try {
-                TruffleObject keys = sendKeys(Message.KEYS.createNode(), receiver, true);
-                Number sizeNumber = (Number) sendGetSize(Message.GET_SIZE.createNode(), keys);
+                TruffleObject keys = sendKeys(Message.KEYS.getUncached(), receiver, true);
+                Number sizeNumber = (Number) sendGetSize(Message.GET_SIZE.getUncached(), keys);
                 int size = sizeNumber.intValue();
-                Node readNode = Message.READ.createNode();
+                Node readNode = Message.READ.getUncached();
                 for (int i = 0; i < size; i++) {
                     Object key = sendRead(readNode, keys, i);
                     // identifier must not be null
@@ -767,14 +836,14 @@ public final class ForeignAccess {
             } catch (UnsupportedMessageException | UnknownIdentifierException uex) {
             }
             try {
-                boolean hasSize = sendHasSize(Message.HAS_SIZE.createNode(), receiver);
+                boolean hasSize = sendHasSize(Message.HAS_SIZE.getUncached(), receiver);
                 if (hasSize && identifier instanceof Number) {
                     int id = ((Number) identifier).intValue();
                     if (id < 0 || id != ((Number) identifier).doubleValue()) {
                         // identifier is some wild double number
                         return 0;
                     }
-                    Number sizeNumber = (Number) sendGetSize(Message.GET_SIZE.createNode(), receiver);
+                    Number sizeNumber = (Number) sendGetSize(Message.GET_SIZE.getUncached(), receiver);
                     int size = sizeNumber.intValue();
                     if (id < size) {
                         return 0b111;
@@ -889,6 +958,36 @@ public final class ForeignAccess {
         return factory.accessMessage(message);
     }
 
+    /*
+     * Returns a call target for the message that is shared by all megamorphic and uncached senders
+     * of this foreign access. Unlike access(Message) the target is created only once per message and
+     * is never inlined, so it is safe to call it from multiple threads.
+     */
+    CallTarget accessShared(Message message) {
+        CompilerAsserts.neverPartOfCompilation();
+        if (message instanceof Execute) {
+            // execute messages are equal regardless of their arity
+            Execute execute = (Execute) message;
+            Integer key = (execute.getArity() << 2) | (execute.getType() - Execute.NEW);
+            return accessShared(sharedExecuteTargets, key, message);
+        }
+        return accessShared(sharedTargets, message, message);
+    }
+
+    private <K> CallTarget accessShared(ConcurrentHashMap<K, CallTarget> targets, K key, Message message) {
+        CallTarget target = targets.get(key);
+        if (target == null) {
+            target = access(message);
+            if (target != null) {
+                CallTarget otherTarget = targets.putIfAbsent(key, target);
+                if (otherTarget != null) {
+                    target = otherTarget;
+                }
+            }
+        }
+        return target;
+    }
+
     CallTarget checkLanguage() {
         if (languageCheck != null) {
             return Truffle.getRuntime().createCallTarget((RootNode) languageCheck.deepCopy());
@@ -1104,6 +1203,28 @@ public final class ForeignAccess {
             return null;
         }
 
+        /**
+         * Handles {@link Message#READ_ELEMENTS} message.
+         *
+         * @return call target to handle the message or <code>null</code> if this message is not
+         *         supported
+         * @since 0.27
+         */
+        default CallTarget accessReadElements() {
+            return null;
+        }
+
+        /**
+         * Handles {@link Message#WRITE_ELEMENTS} message.
+         *
+         * @return call target to handle the message or <code>null</code> if this message is not
+         *         supported
+         * @since 0.27
+         */
+        default CallTarget accessWriteElements() {
+            return null;
+        }
+
         /**
          * Handles request for access to a message not known in version 0.18.
          *
@@ -1540,6 +1661,10 @@ public final class ForeignAccess {
                         return factory.accessAsPointer();
                     case ToNative.HASH:
                         return factory.accessToNative();
+                    case ReadElements.HASH:
+                        return factory.accessReadElements();
+                    case WriteElements.HASH:
+                        return factory.accessWriteElements();
                 }
             }
             return factory.accessMessage(msg);
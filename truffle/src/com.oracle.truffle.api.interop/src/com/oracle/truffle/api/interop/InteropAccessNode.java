@@ -41,7 +41,7 @@ abstract class InteropAccessNode extends Node {
 
     protected static final int CACHE_SIZE = 8;
     protected final Message message;
-    @CompilationFinal private int previousLength = -2;
+    @CompilationFinal int previousLength = -2;
     private final BranchProfile profileDefaultUnsupported = BranchProfile.create();
 
     protected InteropAccessNode(Message message) {
@@ -205,7 +205,7 @@ abstract class InteropAccessNode extends Node {
         return callNode;
     }
 
-    @Specialization
+    @Specialization(replaces = "doCached")
     protected Object doGeneric(TruffleObject receiver, Object[] arguments, @Cached("create()") IndirectCallNode indirectCall) {
         return indirectCall.call(createGenericMessageTarget(receiver), arguments);
     }
@@ -217,7 +217,15 @@ abstract class InteropAccessNode extends Node {
 
     @TruffleBoundary
     protected CallTarget createGenericMessageTarget(TruffleObject receiver) {
-        return createMessageTarget(receiver.getForeignAccess());
+        ForeignAccess fa = receiver.getForeignAccess();
+        CallTarget ct = null;
+        if (fa != null) {
+            ct = fa.accessShared(message);
+        }
+        if (ct == null) {
+            throw UnsupportedMessageException.raise(message);
+        }
+        return ct;
     }
 
     protected CallTarget createMessageTarget(ForeignAccess fa) {
@@ -235,4 +243,8 @@ abstract class InteropAccessNode extends Node {
         return InteropAccessNodeGen.create(message);
     }
 
+    static InteropAccessNode createUncached(Message message) {
+        return new UncachedInteropAccessNode(message);
+    }
+
 }
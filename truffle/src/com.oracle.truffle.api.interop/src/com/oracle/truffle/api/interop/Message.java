@@ -42,6 +42,8 @@ import com.oracle.truffle.api.nodes.Node;
  * @since 0.8 or earlier
  */
 public abstract class Message {
+    private volatile Node uncached;
+
     /**
      * One can define their own extended message by subclassing. The expectation is that the
      * subclass will have public constructor and its {@link #equals(java.lang.Object)} and
@@ -546,6 +548,59 @@ public abstract class Message {
      */
     public static final Message TO_NATIVE = ToNative.INSTANCE;
 
+    /**
+     * Reads a range of array elements into a host buffer in one step. Languages that store arrays
+     * in unboxed form can respond to this message to copy the requested range without a
+     * {@link #READ} per element. The {@link Factory#accessMessage(com.oracle.truffle.api.interop.Message)
+     * target} created for this message accepts (in addition to a
+     * {@link ForeignAccess#getReceiver(com.oracle.truffle.api.frame.Frame) receiver}) four
+     * {@link ForeignAccess#getArguments(com.oracle.truffle.api.frame.Frame) arguments}: the
+     * {@link Number index} of the first element to read, the buffer to copy the elements into,
+     * the {@link Integer offset} into the buffer and the {@link Integer number} of elements to
+     * transfer. The buffer is a host <code>long[]</code>, <code>double[]</code> or
+     * <code>byte[]</code> array wrapped as a {@link TruffleObject} - use
+     * <code>JavaInterop.asJavaObject</code> to unwrap it. The target returns the number of
+     * transferred elements as {@link Integer}.
+     * <p>
+     * If the receiver cannot serve the request in bulk (for example because the element type of
+     * the buffer does not match its storage) an {@link UnsupportedMessageException} has to be
+     * thrown and the sender falls back to reading the elements one by one. If the range is not
+     * within the bounds of the array an {@link UnknownIdentifierException} has to be thrown.
+     * <p>
+     * The code that wants to send this message should use:
+     *
+     * <pre>
+     * {@link ForeignAccess}.{@link ForeignAccess#sendReadElements(com.oracle.truffle.api.nodes.Node, com.oracle.truffle.api.interop.TruffleObject, long, com.oracle.truffle.api.interop.TruffleObject, int, int) sendReadElements}(
+     *   {@link Message#READ_ELEMENTS}.{@link Message#createNode()},  receiver, index, buffer, offset, length
+     * );
+     * </pre>
+     *
+     * To achieve good performance it is essential to cache/keep reference to the
+     * {@link Message#createNode() created node}.
+     *
+     * @since 0.27
+     */
+    public static final Message READ_ELEMENTS = ReadElements.INSTANCE;
+
+    /**
+     * Writes a range of array elements from a host buffer in one step. The counterpart of
+     * {@link #READ_ELEMENTS}; the {@link Factory#accessMessage(com.oracle.truffle.api.interop.Message)
+     * target} accepts the same arguments, but copies the elements from the buffer into the
+     * receiver. If a buffer value cannot be stored into the receiver an
+     * {@link UnsupportedTypeException} has to be thrown.
+     * <p>
+     * The code that wants to send this message should use:
+     *
+     * <pre>
+     * {@link ForeignAccess}.{@link ForeignAccess#sendWriteElements(com.oracle.truffle.api.nodes.Node, com.oracle.truffle.api.interop.TruffleObject, long, com.oracle.truffle.api.interop.TruffleObject, int, int) sendWriteElements}(
+     *   {@link Message#WRITE_ELEMENTS}.{@link Message#createNode()},  receiver, index, buffer, offset, length
+     * );
+     * </pre>
+     *
+     * @since 0.27
+     */
+    public static final Message WRITE_ELEMENTS = WriteElements.INSTANCE;
+
     /**
      * Compares types of two messages. Messages are encouraged to implement this method. All
      * standard ones ({@link #IS_NULL}, {@link #READ}, etc.) do so. Messages obtained via the same
@@ -583,6 +638,26 @@ public abstract class Message {
         return InteropAccessNode.create(this);
     }
 
+    /**
+     * Returns a shared node for this message that does not need to be inserted into an AST. The
+     * node can be passed to the {@link ForeignAccess} <code>send</code> methods from any thread and
+     * dispatches through call targets shared per {@link ForeignAccess}. Use it on slow paths that
+     * would otherwise {@link #createNode() create a node} for every message sent; nodes created by
+     * {@link #createNode()} and inserted into an AST remain the faster option for compiled code.
+     *
+     * @return a shared uncached node for this message
+     * @since 0.27
+     */
+    public final Node getUncached() {
+        Node node = uncached;
+        if (node == null) {
+            CompilerDirectives.transferToInterpreter();
+            node = InteropAccessNode.createUncached(this);
+            uncached = node;
+        }
+        return node;
+    }
+
     /**
      * Converts the message into canonical string representation. The converted string can be
      * stored, persisted, transfered and later passed to {@link #valueOf(java.lang.String)} to
@@ -632,6 +707,12 @@ public abstract class Message {
         if (Message.TO_NATIVE == message) {
             return "TO_NATIVE"; // NOI18N
         }
+        if (Message.READ_ELEMENTS == message) {
+            return "READ_ELEMENTS"; // NOI18N
+        }
+        if (Message.WRITE_ELEMENTS == message) {
+            return "WRITE_ELEMENTS"; // NOI18N
+        }
         if (message instanceof Execute) {
             return ((Execute) message).name();
         }
@@ -676,6 +757,10 @@ public abstract class Message {
                 return Message.AS_POINTER;
             case "TO_NATIVE":
                 return Message.TO_NATIVE;
+            case "READ_ELEMENTS":
+                return Message.READ_ELEMENTS;
+            case "WRITE_ELEMENTS":
+                return Message.WRITE_ELEMENTS;
             case "EXECUTE":
                 return Message.createExecute(0);
             case "NEW":
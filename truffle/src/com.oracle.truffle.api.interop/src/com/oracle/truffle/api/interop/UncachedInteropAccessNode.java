@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.interop;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.NodeCost;
+
+/*
+ * Dispatches through the call targets shared per foreign access. Keeps no state that depends on
+ * the receiver, so a single instance can be used from any thread without being adopted.
+ */
+final class UncachedInteropAccessNode extends InteropAccessNode {
+
+    UncachedInteropAccessNode(Message message) {
+        super(message);
+        this.previousLength = -1;
+    }
+
+    @Override
+    protected Object executeImpl(TruffleObject receiver, Object[] arguments) {
+        return sendUncached(receiver, arguments);
+    }
+
+    @TruffleBoundary
+    private Object sendUncached(TruffleObject receiver, Object[] arguments) {
+        return createGenericMessageTarget(receiver).call(arguments);
+    }
+
+    @Override
+    public NodeCost getCost() {
+        return NodeCost.MEGAMORPHIC;
+    }
+
+}
@@ -29,7 +29,6 @@ import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.Objects;
 
 abstract class Content {
 
@@ -44,6 +43,14 @@ abstract class Content {
 
     abstract String getCode();
 
+    /*
+     * Returns the characters of the content. Content that is not held as a String can avoid
+     * materializing it.
+     */
+    CharSequence getCharacters() {
+        return getCode();
+    }
+
     abstract String getName();
 
     abstract Object getHashKey();
@@ -65,7 +72,27 @@ abstract class Content {
             return false;
         }
         Content other = (Content) obj;
-        return Objects.equals(getCode(), other.getCode());
+        return contentEquals(getCharacters(), other.getCharacters());
+    }
+
+    private static boolean contentEquals(CharSequence a, CharSequence b) {
+        if (a == b) {
+            return true;
+        } else if (a == null || b == null) {
+            return false;
+        } else if (a instanceof String) {
+            return ((String) a).contentEquals(b);
+        }
+        int length = a.length();
+        if (length != b.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -42,9 +42,15 @@ final class FileSourceImpl extends Content implements Content.CreateURI {
     private final File file;
     private final String name; // Name used originally to describe the source
     private final String path; // Normalized path description of an actual file
+    private final CharSequence mapped; // Characters of a mapped file, null if read eagerly
 
     FileSourceImpl(String content, File file, String name, String path) {
+        this(content, null, file, name, path);
+    }
+
+    FileSourceImpl(String content, CharSequence mapped, File file, String name, String path) {
         this.code = content;
+        this.mapped = mapped;
         this.file = file.getAbsoluteFile();
         this.name = name;
         this.path = path;
@@ -62,9 +68,21 @@ final class FileSourceImpl extends Content implements Content.CreateURI {
 
     @Override
     String getCode() {
+        if (code == null && mapped != null) {
+            code = mapped.toString();
+        }
         return code;
     }
 
+    @Override
+    CharSequence getCharacters() {
+        String c = code;
+        if (c == null && mapped != null) {
+            return mapped;
+        }
+        return c;
+    }
+
     @Override
     public String getPath() {
         return path;
@@ -87,7 +105,11 @@ final class FileSourceImpl extends Content implements Content.CreateURI {
 
     @Override
     public Reader getReader() {
-        return new StringReader(code);
+        CharSequence characters = getCharacters();
+        if (characters instanceof String) {
+            return new StringReader((String) characters);
+        }
+        return new CharSequenceReader(characters);
     }
 
     @Override
@@ -116,4 +138,30 @@ final class FileSourceImpl extends Content implements Content.CreateURI {
         String found = Files.probeContentType(filePath);
         return found == null ? "content/unknown" : found;
     }
+
+    private static final class CharSequenceReader extends Reader {
+
+        private final CharSequence characters;
+        private int index;
+
+        CharSequenceReader(CharSequence characters) {
+            this.characters = characters;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int count = Math.min(length, characters.length() - index);
+            if (count <= 0) {
+                return length == 0 ? 0 : -1;
+            }
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = characters.charAt(index++);
+            }
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
@@ -107,7 +107,7 @@ public final class LineLocation implements Comparable<LineLocation> {
         final String otherPath = o.getSource().getPath();
 
         if (thisPath == null || otherPath == null) {
-            sourceResult = thisSource.getCode().compareTo(o.getSource().getCode());
+            sourceResult = compareCharacters(thisSource.getCharacters(), o.getSource().getCharacters());
         } else {
             final String thatPath = otherPath;
             sourceResult = thisPath.compareTo(thatPath);
@@ -117,4 +117,20 @@ public final class LineLocation implements Comparable<LineLocation> {
         }
         return Integer.compare(this.getLineNumber(), o.getLineNumber());
     }
+
+    /**
+     * Compares two character sequences lexicographically like {@link String#compareTo(String)}
+     * without converting them to strings.
+     */
+    private static int compareCharacters(CharSequence a, CharSequence b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            char c1 = a.charAt(i);
+            char c2 = b.charAt(i);
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return a.length() - b.length();
+    }
 }
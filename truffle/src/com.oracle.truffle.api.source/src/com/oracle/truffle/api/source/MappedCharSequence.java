@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2013, 2016, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.source;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Characters of a file mapped read-only into memory. The file is assumed to be UTF-8 encoded. The
+ * content is not decoded until the characters are first accessed: if the file contains only ASCII
+ * characters, bytes are directly used as characters and no decoding or copying happens at all.
+ * Otherwise the whole file is decoded once into a character buffer.
+ */
+final class MappedCharSequence implements CharSequence {
+
+    private final ByteBuffer bytes;
+    private volatile CharSequence characters;
+
+    private MappedCharSequence(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    static MappedCharSequence map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to be mapped: " + file);
+            }
+            return new MappedCharSequence(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    private CharSequence characters() {
+        CharSequence result = characters;
+        if (result == null) {
+            synchronized (this) {
+                result = characters;
+                if (result == null) {
+                    if (isAscii(bytes)) {
+                        result = new AsciiCharSequence(bytes, 0, bytes.limit());
+                    } else {
+                        result = StandardCharsets.UTF_8.decode(bytes.duplicate());
+                    }
+                    characters = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isAscii(ByteBuffer buffer) {
+        int length = buffer.limit();
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            if ((buffer.getLong(i) & 0x8080808080808080L) != 0) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    TextMap createTextMap() {
+        CharSequence chars = characters();
+        if (!(chars instanceof AsciiCharSequence)) {
+            return TextMap.fromCharSequence(chars);
+        }
+        // characters are bytes, scan the mapped buffer in bulk
+        TextMap.LineStarts lineStarts = new TextMap.LineStarts();
+        ByteBuffer view = bytes.duplicate();
+        byte[] chunk = new byte[8192];
+        int offset = 0;
+        while (view.hasRemaining()) {
+            int length = Math.min(chunk.length, view.remaining());
+            view.get(chunk, 0, length);
+            for (int i = 0; i < length; i++) {
+                if (chunk[i] == '\n') {
+                    lineStarts.add(offset + i + 1);
+                }
+            }
+            offset += length;
+        }
+        return lineStarts.toTextMap(offset);
+    }
+
+    @Override
+    public int length() {
+        return characters().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return characters().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return characters().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return characters().toString();
+    }
+
+    private static final class AsciiCharSequence implements CharSequence {
+
+        private final ByteBuffer bytes;
+        private final int offset;
+        private final int length;
+
+        AsciiCharSequence(ByteBuffer bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return (char) bytes.get(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+            }
+            return new AsciiCharSequence(bytes, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            byte[] array = new byte[length];
+            ByteBuffer view = bytes.duplicate();
+            view.position(offset);
+            view.get(array);
+            return new String(array, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -34,6 +34,8 @@ import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -368,7 +370,8 @@ public abstract class Source {
      * @since 0.8 or earlier
      */
     public final InputStream getInputStream() {
-        return new ByteArrayInputStream(getCode().getBytes());
+        ByteBuffer bytes = Charset.defaultCharset().encode(CharBuffer.wrap(getCharacters()));
+        return new ByteArrayInputStream(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
     }
 
     /**
@@ -391,6 +394,18 @@ public abstract class Source {
         return content().getCode();
     }
 
+    /**
+     * Returns the complete text of the code as a character sequence. Unlike {@link #getCode()}
+     * this method does not require the text to be materialized as a {@link String}, which makes
+     * it the preferred way for parsers to access the text of {@link Builder#mapped() mapped}
+     * sources. Causes the contents of this source to be loaded if they are loaded lazily.
+     *
+     * @since 0.27
+     */
+    public CharSequence getCharacters() {
+        return content().getCharacters();
+    }
+
     /**
      * Returns a subsection of the code test. Causes the contents of this source to be loaded if
      * they are loaded lazily.
@@ -398,7 +413,7 @@ public abstract class Source {
      * @since 0.8 or earlier
      */
     public String getCode(int charIndex, int charLength) {
-        return getCode().substring(charIndex, charIndex + charLength);
+        return getCharacters().subSequence(charIndex, charIndex + charLength).toString();
     }
 
     /**
@@ -410,7 +425,7 @@ public abstract class Source {
     public final String getCode(int lineNumber) {
         final int offset = getTextMap().lineStartOffset(lineNumber);
         final int length = getTextMap().lineLength(lineNumber);
-        return getCode().substring(offset, offset + length);
+        return getCharacters().subSequence(offset, offset + length).toString();
     }
 
     /**
@@ -553,7 +568,7 @@ public abstract class Source {
             throw new IllegalArgumentException("column out of range");
         }
         final int charIndex = lineStartOffset + startColumn - 1;
-        if (charIndex + length > getCode().length()) {
+        if (charIndex + length > getCharacters().length()) {
             throw new IllegalArgumentException("charIndex out of range");
         }
         SourceSection section = new SourceSection(this, charIndex, length);
@@ -609,11 +624,16 @@ public abstract class Source {
     }
 
     TextMap createTextMap() {
-        final String code = getCode();
+        final CharSequence code = getCharacters();
         if (code == null) {
             throw new RuntimeException("can't read file " + getName());
         }
-        return TextMap.fromString(code);
+        if (code instanceof String) {
+            return TextMap.fromString((String) code);
+        } else if (code instanceof MappedCharSequence) {
+            return ((MappedCharSequence) code).createTextMap();
+        }
+        return TextMap.fromCharSequence(code);
     }
 
     /**
@@ -698,6 +718,7 @@ public abstract class Source {
         private String content;
         private boolean internal;
         private boolean interactive;
+        private boolean mapped;
 
         private Builder(Object origin) {
             this.origin = origin;
@@ -773,6 +794,24 @@ public abstract class Source {
             return this;
         }
 
+        /**
+         * Requests the file of the {@link #build() to-be-built} {@link Source} to be mapped into
+         * memory instead of being read into a {@link String}. The file is assumed to be UTF-8
+         * encoded and is decoded lazily when its characters are first accessed; files that only
+         * contain ASCII characters are never decoded or copied. The content of a mapped source
+         * should be accessed using {@link Source#getCharacters()}, {@link Source#getCode()}
+         * materializes it as a {@link String}. The file must not be modified while the source is
+         * in use. Has no effect on sources not created from a {@link Source#newBuilder(File) file}
+         * or when the {@link #content(String) content} is specified explicitly.
+         *
+         * @return the instance of this builder
+         * @since 0.27
+         */
+        public Builder<E1, E2, E3> mapped() {
+            this.mapped = true;
+            return this;
+        }
+
         /**
          * Assigns new {@link URI} to the {@link #build() to-be-created} {@link Source}. Each source
          * provides {@link Source#getURI()} as a persistent identification of its location. A
@@ -866,7 +905,8 @@ public abstract class Source {
             final File file = (File) origin;
             File absoluteFile = file.getCanonicalFile();
             FileSourceImpl fileSource = new FileSourceImpl(
-                            read ? Source.read(file) : null,
+                            read && !mapped ? Source.read(file) : null,
+                            read && mapped ? MappedCharSequence.map(file) : null,
                             absoluteFile,
                             name == null ? file.getName() : name,
                             path == null ? absoluteFile.getPath() : path);
@@ -71,7 +71,7 @@ public final class SourceSection {
      * yet loaded.
      */
     boolean isValid() {
-        return isAvailable() ? (charIndex + charLength <= getSource().getCode().length()) : false;
+        return isAvailable() ? (charIndex + charLength <= getSource().getCharacters().length()) : false;
     }
 
     /**
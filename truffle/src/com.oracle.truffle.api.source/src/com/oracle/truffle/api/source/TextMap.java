@@ -25,6 +25,7 @@
 package com.oracle.truffle.api.source;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * A utility for converting between coordinate systems in a string of text interspersed with newline
@@ -96,6 +97,44 @@ final class TextMap {
         return new TextMap(nlOffsets, textLength, finalNL);
     }
 
+    /**
+     * Constructs map permitting translation between 0-based character offsets and 1-based
+     * lines/columns without requiring the text to be a {@link String}.
+     */
+    public static TextMap fromCharSequence(CharSequence text) {
+        final int textLength = text.length();
+        LineStarts lineStarts = new LineStarts();
+        for (int offset = 0; offset < textLength; offset++) {
+            if (text.charAt(offset) == '\n') {
+                lineStarts.add(offset + 1);
+            }
+        }
+        return lineStarts.toTextMap(textLength);
+    }
+
+    /**
+     * Collects the offsets following newline characters of a text in increasing order.
+     */
+    static final class LineStarts {
+
+        private int[] offsets = new int[16];
+        private int count = 1;
+
+        void add(int offset) {
+            if (count + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[count++] = offset;
+        }
+
+        TextMap toTextMap(int textLength) {
+            final int[] nlOffsets = Arrays.copyOf(offsets, count + 1);
+            nlOffsets[count] = Integer.MAX_VALUE;
+            final boolean finalNL = textLength > 0 && (textLength == nlOffsets[nlOffsets.length - 2]);
+            return new TextMap(nlOffsets, textLength, finalNL);
+        }
+    }
+
     /**
      * Converts 0-based character offset to 1-based number of the line containing the character.
      *
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2017, 2015, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.test.interop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeCost;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class UncachedMessageTest {
+
+    @Test
+    public void testUncachedNodeIsShared() {
+        Node read = Message.READ.getUncached();
+        assertSame(read, Message.READ.getUncached());
+        assertNotSame(read, Message.WRITE.getUncached());
+        assertNull(read.getParent());
+        assertEquals(NodeCost.MEGAMORPHIC, read.getCost());
+    }
+
+    @Test
+    public void testUncachedCreatesTargetOnce() throws InteropException {
+        CountingObject obj = new CountingObject();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("READ", ForeignAccess.sendRead(Message.READ.getUncached(), obj, "key"));
+        }
+        assertEquals(1, obj.accessCount);
+    }
+
+    @Test
+    public void testUncachedFromMultipleThreads() throws InterruptedException {
+        CountingObject obj = new CountingObject();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 100; j++) {
+                        assertEquals(Boolean.TRUE, ForeignAccess.sendIsExecutable(Message.IS_EXECUTABLE.getUncached(), obj));
+                    }
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(800, obj.executeCount);
+    }
+
+    @Test
+    public void testUncachedExecuteArity() throws InteropException {
+        CountingObject obj = new CountingObject();
+        assertEquals(1, ForeignAccess.sendExecute(Message.createExecute(1).getUncached(), obj, 1));
+        assertEquals(2, ForeignAccess.sendExecute(Message.createExecute(2).getUncached(), obj, 1, 2));
+        assertEquals(1, ForeignAccess.sendExecute(Message.createExecute(1).getUncached(), obj, 1));
+        assertEquals(2, obj.accessCount);
+    }
+
+    @Test(expected = UnsupportedMessageException.class)
+    public void testUncachedUnsupported() throws InteropException {
+        ForeignAccess.sendUnbox(Message.UNBOX.getUncached(), new CountingObject());
+    }
+
+    @Test
+    public void testMegamorphicSendSharesTargets() throws InteropException {
+        Node read = Message.READ.createNode();
+        RootNode root = new RootNode(null) {
+            @Child Node child = read;
+
+            @Override
+            public Object execute(VirtualFrame frame) {
+                return null;
+            }
+        };
+        root.adoptChildren();
+        List<CountingObject> objects = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            objects.add(new CountingObject());
+        }
+        for (int i = 0; i < 3; i++) {
+            for (CountingObject obj : objects) {
+                assertEquals("READ", ForeignAccess.sendRead(read, obj, "key"));
+            }
+        }
+        for (CountingObject obj : objects) {
+            // at most one inlined target and one shared target per foreign access
+            assertEquals(true, obj.accessCount <= 2);
+        }
+        // the generic case replaced the inline cache and keeps using the shared targets
+        assertNotEquals(NodeCost.POLYMORPHIC, read.getCost());
+        int accessCount = countAccesses(objects);
+        for (CountingObject obj : objects) {
+            assertEquals("READ", ForeignAccess.sendRead(read, obj, "key"));
+        }
+        assertEquals(accessCount, countAccesses(objects));
+    }
+
+    private static int countAccesses(List<CountingObject> objects) {
+        int count = 0;
+        for (CountingObject obj : objects) {
+            count += obj.accessCount;
+        }
+        return count;
+    }
+
+    static final class CountingObject implements TruffleObject, ForeignAccess.Factory {
+
+        final ForeignAccess access = ForeignAccess.create(this);
+        int accessCount;
+        volatile int executeCount;
+
+        @Override
+        public boolean canHandle(TruffleObject obj) {
+            return obj == this;
+        }
+
+        @Override
+        public synchronized CallTarget accessMessage(Message message) {
+            accessCount++;
+            if (message == Message.READ) {
+                return createTarget("READ");
+            } else if (message == Message.IS_EXECUTABLE) {
+                return Truffle.getRuntime().createCallTarget(new RootNode(null) {
+                    @Override
+                    public Object execute(VirtualFrame frame) {
+                        synchronized (CountingObject.this) {
+                            executeCount++;
+                        }
+                        return true;
+                    }
+                });
+            } else if (message.equals(Message.createExecute(0))) {
+                return Truffle.getRuntime().createCallTarget(new RootNode(null) {
+                    @Override
+                    public Object execute(VirtualFrame frame) {
+                        return frame.getArguments().length - 1;
+                    }
+                });
+            }
+            return null;
+        }
+
+        private static CallTarget createTarget(Object result) {
+            return Truffle.getRuntime().createCallTarget(RootNode.createConstantNode(result));
+        }
+
+        @Override
+        public ForeignAccess getForeignAccess() {
+            return access;
+        }
+    }
+}
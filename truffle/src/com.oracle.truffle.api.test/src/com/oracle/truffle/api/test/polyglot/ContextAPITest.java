@@ -22,6 +22,7 @@
  */
 package com.oracle.truffle.api.test.polyglot;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
@@ -29,9 +30,21 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
 import org.junit.Test;
 
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RepeatingNode;
 import com.oracle.truffle.api.test.polyglot.ContextAPITestLanguage.LanguageContext;
 
 public class ContextAPITest {
@@ -96,4 +109,187 @@ public class ContextAPITest {
         context.close();
     }
 
+    @Test
+    public void testBulkArrayElements() {
+        Context context = Context.create();
+        long[] longs = {1, 2, 3, 4, 5};
+        context.exportSymbol("longs", longs);
+        Value longsValue = context.importSymbol("longs");
+
+        long[] longTarget = new long[4];
+        longsValue.readArrayElements(1, longTarget, 1, 3);
+        assertArrayEquals(new long[]{0, 2, 3, 4}, longTarget);
+        longsValue.writeArrayElements(3, new long[]{7, 40, 50}, 1, 2);
+        assertArrayEquals(new long[]{1, 2, 3, 40, 50}, longs);
+
+        // element type mismatch falls back to single element access
+        double[] doubleTarget = new double[2];
+        longsValue.readArrayElements(0, doubleTarget, 0, 2);
+        assertArrayEquals(new double[]{1, 2}, doubleTarget, 0);
+
+        try {
+            longsValue.readArrayElements(0, longTarget, 2, 3);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+        }
+
+        byte[] bytes = {1, 2, 3, 4};
+        context.exportSymbol("bytes", bytes);
+        Value bytesValue = context.importSymbol("bytes");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4);
+        bytesValue.readArrayElements(1, buffer, 3);
+        assertEquals(3, buffer.position());
+        assertEquals(4, buffer.get(2));
+        buffer.flip();
+        bytesValue.writeArrayElements(0, buffer, 3);
+        assertArrayEquals(new byte[]{2, 3, 4, 4}, bytes);
+
+        BulkProxyArray proxy = new BulkProxyArray(new long[]{5, 6, 7});
+        context.exportSymbol("proxy", proxy);
+        Value proxyValue = context.importSymbol("proxy");
+        proxyValue.readArrayElements(0, longTarget, 0, 3);
+        assertArrayEquals(new long[]{5, 6, 7, 4}, longTarget);
+        proxyValue.writeArrayElements(1, new long[]{8, 9}, 0, 2);
+        assertArrayEquals(new long[]{5, 8, 9}, proxy.values);
+        assertEquals(2, proxy.bulkAccesses);
+        assertEquals(0, proxy.singleAccesses);
+
+        proxyValue.readArrayElements(0, doubleTarget, 0, 2);
+        assertArrayEquals(new double[]{5, 8}, doubleTarget, 0);
+        assertEquals(2, proxy.singleAccesses);
+        context.close();
+    }
+
+    private static final class BulkProxyArray implements ProxyArray {
+
+        final long[] values;
+        int bulkAccesses;
+        int singleAccesses;
+
+        BulkProxyArray(long[] values) {
+            this.values = values;
+        }
+
+        public Object get(long index) {
+            singleAccesses++;
+            return values[(int) index];
+        }
+
+        public void set(long index, Value value) {
+            singleAccesses++;
+            values[(int) index] = value.asLong();
+        }
+
+        public long getSize() {
+            return values.length;
+        }
+
+        @Override
+        public boolean get(long index, long[] target, int offset, int length) {
+            bulkAccesses++;
+            System.arraycopy(values, (int) index, target, offset, length);
+            return true;
+        }
+
+        @Override
+        public boolean set(long index, long[] source, int offset, int length) {
+            bulkAccesses++;
+            System.arraycopy(source, offset, values, (int) index, length);
+            return true;
+        }
+    }
+
+    @Test
+    public void testEvalAsync() throws Exception {
+        Context context = Context.create(ContextAPITestLanguage.ID);
+        CompletableFuture<Value> first = context.evalAsync(ContextAPITestLanguage.ID, "first");
+        CompletableFuture<String> second = context.submit((c) -> c.eval(ContextAPITestLanguage.ID, "second").asString());
+        assertEquals("null result", first.get().asString());
+        assertEquals("null result", second.get());
+        context.close();
+    }
+
+    @Test
+    public void testInterrupt() throws Exception {
+        Context context = Context.create(ContextAPITestLanguage.ID);
+        // interrupting an idle context has no effect
+        context.interrupt();
+
+        CountDownLatch looping = new CountDownLatch(1);
+        ContextAPITestLanguage.runinside = (env) -> {
+            Truffle.getRuntime().createLoopNode(new EndlessRepeatingNode(looping)).executeLoop(null);
+            return null;
+        };
+        CompletableFuture<Value> future = context.evalAsync(ContextAPITestLanguage.ID, "interrupted");
+        looping.await();
+        context.interrupt();
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(((PolyglotException) e.getCause()).isCancelled());
+        }
+        // the context remains usable after an interrupt
+        assertEquals("null result", context.eval(ContextAPITestLanguage.ID, "after interrupt").asString());
+
+        CountDownLatch loopingAgain = new CountDownLatch(1);
+        ContextAPITestLanguage.runinside = (env) -> {
+            Truffle.getRuntime().createLoopNode(new EndlessRepeatingNode(loopingAgain)).executeLoop(null);
+            return null;
+        };
+        future = context.evalAsync(ContextAPITestLanguage.ID, "cancelled");
+        loopingAgain.await();
+        assertTrue(future.cancel(true));
+        assertEquals("null result", context.evalAsync(ContextAPITestLanguage.ID, "after cancel").get().asString());
+        context.close();
+    }
+
+    @Test
+    public void testInterruptEndingExecution() throws Exception {
+        Context context = Context.create(ContextAPITestLanguage.ID);
+        ContextAPITestLanguage.runinside = (env) -> {
+            Truffle.getRuntime().createLoopNode(new CountingRepeatingNode(1000)).executeLoop(null);
+            return null;
+        };
+        for (int i = 0; i < 100; i++) {
+            CompletableFuture<Value> future = context.evalAsync(ContextAPITestLanguage.ID, "racing");
+            context.interrupt();
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                assertTrue(((PolyglotException) e.getCause()).isCancelled());
+            }
+            // a request racing with the end of the previous execution must not cancel this one
+            assertEquals("null result", context.evalAsync(ContextAPITestLanguage.ID, "next").get().asString());
+        }
+        context.close();
+    }
+
+    private static final class CountingRepeatingNode extends Node implements RepeatingNode {
+
+        private int remaining;
+
+        CountingRepeatingNode(int iterations) {
+            this.remaining = iterations;
+        }
+
+        public boolean executeRepeating(VirtualFrame frame) {
+            return remaining-- > 0;
+        }
+    }
+
+    private static final class EndlessRepeatingNode extends Node implements RepeatingNode {
+
+        private final CountDownLatch looping;
+
+        EndlessRepeatingNode(CountDownLatch looping) {
+            this.looping = looping;
+        }
+
+        public boolean executeRepeating(VirtualFrame frame) {
+            looping.countDown();
+            return true;
+        }
+    }
+
 }
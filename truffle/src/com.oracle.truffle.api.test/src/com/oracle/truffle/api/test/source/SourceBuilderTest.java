@@ -107,6 +107,58 @@ public class SourceBuilderTest {
         assertEquals("Sources with different MIME type has the same URI", s1.getURI(), s2.getURI());
     }
 
+    @Test
+    public void mappedFile() throws IOException {
+        File file = File.createTempFile("Hello", ".java").getCanonicalFile();
+        file.deleteOnExit();
+
+        String text = "// Hello\nclass Hello {\n}\n";
+        try (FileWriter w = new FileWriter(file)) {
+            w.write(text);
+        }
+
+        Source mapped = Source.newBuilder(file).mapped().build();
+        Source read = Source.newBuilder(file).build();
+        assertEquals("Recognized as Java", "text/x-java", mapped.getMimeType());
+        assertFalse("Characters are not materialized", mapped.getCharacters() instanceof String);
+        assertEquals(text.length(), mapped.getLength());
+        assertEquals(3, mapped.getLineCount());
+        assertEquals("class Hello {", mapped.getCode(2));
+        assertEquals("Hello", mapped.createSection(2, 7, 5).getCode());
+        assertEquals("Equal to the eagerly read source", read, mapped);
+        assertEquals(read.hashCode(), mapped.hashCode());
+        assertEquals(text, read(mapped.getReader()));
+        assertEquals(text, mapped.getCode());
+    }
+
+    @Test
+    public void mappedFileNonAscii() throws IOException {
+        File file = File.createTempFile("Hello", ".txt").getCanonicalFile();
+        file.deleteOnExit();
+
+        String text = "a\u00e9b\nc\u20acd\n\u4e2d";
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(text.getBytes("UTF-8"));
+        }
+
+        Source mapped = Source.newBuilder(file).mimeType("text/plain").mapped().build();
+        assertEquals(text.length(), mapped.getLength());
+        assertEquals(3, mapped.getLineCount());
+        assertEquals("c\u20acd", mapped.getCode(2));
+        assertEquals(text, mapped.getCharacters().toString());
+        assertEquals(Source.newBuilder(file).mimeType("text/plain").build(), mapped);
+    }
+
+    private static String read(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[3];
+        int n;
+        while ((n = reader.read(buffer)) != -1) {
+            sb.append(buffer, 0, n);
+        }
+        return sb.toString();
+    }
+
     @Test
     public void mimeTypeIsDetectedRandomBytes() throws IOException {
         File file = File.createTempFile("Hello", ".bin").getCanonicalFile();
@@ -45,6 +45,7 @@ import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.graalvm.polyglot.Engine;
@@ -59,6 +60,7 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.vm.PolyglotImpl.VMObject;
 
 final class PolyglotContextImpl extends AbstractContextImpl implements VMObject {
@@ -75,6 +77,13 @@ final class PolyglotContextImpl extends AbstractContextImpl implements VMObject
 
     volatile boolean closed;
     volatile CountDownLatch closingLatch;
+    /*
+     * Incremented when the outermost execution on the bound thread starts and when it ends, so an
+     * odd value means the context is executing. Interrupt requests only apply to the epoch they
+     * were made in.
+     */
+    volatile int executionEpoch;
+    volatile Function<Node, ThreadDeath> pendingInterrupt;
     int enteredCount = 0;
     final PolyglotEngineImpl engine;
     @CompilationFinal(dimensions = 1) final PolyglotLanguageContext[] contexts;
@@ -239,7 +248,9 @@ final class PolyglotContextImpl extends AbstractContextImpl implements VMObject
                 throw new IllegalStateException("Language context is already closed.");
             }
         }
-        enteredCount++;
+        if (enteredCount++ == 0) {
+            executionEpoch++;
+        }
         if (constantStoreAssumption.isValid()) {
             if (contextConstant.get() == this) {
                 return null;
@@ -267,6 +278,13 @@ final class PolyglotContextImpl extends AbstractContextImpl implements VMObject
     void leave(Object prev) {
         assert boundThread.get() == Thread.currentThread() : "invalid thread when leaving";
         int result = --enteredCount;
+        if (result == 0) {
+            executionEpoch++;
+            Function<Node, ThreadDeath> interrupt = pendingInterrupt;
+            if (interrupt != null) {
+                clearInterrupt(Thread.currentThread(), interrupt);
+            }
+        }
         if (!notClosingAssumption.isValid()) {
             if (result <= 0) {
                 if (closingLatch != null) {
@@ -577,6 +595,36 @@ final class PolyglotContextImpl extends AbstractContextImpl implements VMObject
         return engine.api;
     }
 
+    @Override
+    public synchronized void interrupt() {
+        Thread thread = boundThread.get();
+        int epoch = executionEpoch;
+        if (thread == null || thread == Thread.currentThread() || (epoch & 1) == 0) {
+            // nothing is executing or the interrupt would target the caller itself
+            return;
+        }
+        Function<Node, ThreadDeath> interrupt = (location) -> {
+            if (executionEpoch == epoch && boundThread.get() == Thread.currentThread()) {
+                return new PolyglotEngineImpl.CancelExecution(location);
+            }
+            return null;
+        };
+        VMAccessor.SPI.requestInterrupt(thread, interrupt);
+        pendingInterrupt = interrupt;
+        if (executionEpoch != epoch) {
+            // the execution ended concurrently and leave() might not have seen the request
+            clearInterrupt(thread, interrupt);
+        }
+    }
+
+    @TruffleBoundary
+    private void clearInterrupt(Thread thread, Function<Node, ThreadDeath> interrupt) {
+        if (pendingInterrupt == interrupt) {
+            pendingInterrupt = null;
+        }
+        VMAccessor.SPI.clearInterrupt(thread, interrupt);
+    }
+
     @Override
     public void close(boolean cancelIfExecuting) {
         closeImpl(cancelIfExecuting);
@@ -638,12 +638,16 @@ class PolyglotEngineImpl extends org.graalvm.polyglot.impl.AbstractPolyglotImpl.
     }
 
     @SuppressWarnings("serial")
-    private static final class CancelExecution extends ThreadDeath implements TruffleException {
+    static final class CancelExecution extends ThreadDeath implements TruffleException {
 
         private final Node node;
 
         CancelExecution(EventContext context) {
-            this.node = context.getInstrumentedNode();
+            this(context.getInstrumentedNode());
+        }
+
+        CancelExecution(Node node) {
+            this.node = node;
         }
 
         public Node getLocation() {
@@ -47,6 +47,7 @@ import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.interop.java.JavaInterop;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.RootNode;
 
@@ -373,6 +374,84 @@ final class PolyglotProxy {
 
     }
 
+    private static final class ProxyReadElementsNode extends ProxyRootNode {
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            Object result = super.execute(frame);
+            if (result == null) {
+                // let the sender fall back to single element access
+                throw UnsupportedMessageException.raise(Message.READ_ELEMENTS);
+            }
+            return result;
+        }
+
+        @Override
+        @TruffleBoundary
+        Object executeProxy(PolyglotLanguageContext context, Proxy proxy, Object[] arguments) {
+            if (proxy instanceof ProxyArray) {
+                ProxyArray array = (ProxyArray) proxy;
+                long index = ((Number) arguments[1]).longValue();
+                Object buffer = JavaInterop.asJavaObject((TruffleObject) arguments[2]);
+                int offset = (int) arguments[3];
+                int length = (int) arguments[4];
+                boolean done;
+                if (buffer instanceof long[]) {
+                    done = array.get(index, (long[]) buffer, offset, length);
+                } else if (buffer instanceof double[]) {
+                    done = array.get(index, (double[]) buffer, offset, length);
+                } else if (buffer instanceof byte[]) {
+                    done = array.get(index, (byte[]) buffer, offset, length);
+                } else {
+                    done = false;
+                }
+                if (done) {
+                    return length;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class ProxyWriteElementsNode extends ProxyRootNode {
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            Object result = super.execute(frame);
+            if (result == null) {
+                // let the sender fall back to single element access
+                throw UnsupportedMessageException.raise(Message.WRITE_ELEMENTS);
+            }
+            return result;
+        }
+
+        @Override
+        @TruffleBoundary
+        Object executeProxy(PolyglotLanguageContext context, Proxy proxy, Object[] arguments) {
+            if (proxy instanceof ProxyArray) {
+                ProxyArray array = (ProxyArray) proxy;
+                long index = ((Number) arguments[1]).longValue();
+                Object buffer = JavaInterop.asJavaObject((TruffleObject) arguments[2]);
+                int offset = (int) arguments[3];
+                int length = (int) arguments[4];
+                boolean done;
+                if (buffer instanceof long[]) {
+                    done = array.set(index, (long[]) buffer, offset, length);
+                } else if (buffer instanceof double[]) {
+                    done = array.set(index, (double[]) buffer, offset, length);
+                } else if (buffer instanceof byte[]) {
+                    done = array.set(index, (byte[]) buffer, offset, length);
+                } else {
+                    done = false;
+                }
+                if (done) {
+                    return length;
+                }
+            }
+            return null;
+        }
+    }
+
     private static final class EngineProxyFactory implements Factory26 {
 
         private static final ForeignAccess INSTANCE = ForeignAccess.create(EngineProxy.class, new EngineProxyFactory());
@@ -437,6 +516,14 @@ final class PolyglotProxy {
             return Truffle.getRuntime().createCallTarget(new ProxyAsPointerNode());
         }
 
+        public CallTarget accessReadElements() {
+            return Truffle.getRuntime().createCallTarget(new ProxyReadElementsNode());
+        }
+
+        public CallTarget accessWriteElements() {
+            return Truffle.getRuntime().createCallTarget(new ProxyWriteElementsNode());
+        }
+
         public CallTarget accessMessage(Message unknown) {
             return null;
         }
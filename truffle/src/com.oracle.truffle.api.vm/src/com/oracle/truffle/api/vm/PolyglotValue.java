@@ -711,6 +711,8 @@ abstract class PolyglotValue extends AbstractValueImpl {
         final CallTarget getArrayElement;
         final CallTarget setArrayElement;
         final CallTarget getArraySize;
+        final CallTarget readArrayElements;
+        final CallTarget writeArrayElements;
         final CallTarget hasMember;
         final CallTarget getMember;
         final CallTarget putMember;
@@ -732,6 +734,8 @@ abstract class PolyglotValue extends AbstractValueImpl {
             this.getArrayElement = Truffle.getRuntime().createCallTarget(new GetArrayElementNode(this));
             this.setArrayElement = Truffle.getRuntime().createCallTarget(new SetArrayElementNode(this));
             this.getArraySize = Truffle.getRuntime().createCallTarget(new GetArraySizeNode(this));
+            this.readArrayElements = Truffle.getRuntime().createCallTarget(new ReadArrayElementsNode(this));
+            this.writeArrayElements = Truffle.getRuntime().createCallTarget(new WriteArrayElementsNode(this));
             this.hasMember = Truffle.getRuntime().createCallTarget(new HasMemberNode(this));
             this.getMember = Truffle.getRuntime().createCallTarget(new GetMemberNode(this));
             this.putMember = Truffle.getRuntime().createCallTarget(new PutMemberNode(this));
@@ -768,6 +772,20 @@ abstract class PolyglotValue extends AbstractValueImpl {
             return (long) getArraySize.call(receiver);
         }
 
+        @Override
+        public void readArrayElements(Object receiver, long index, Object target, int offset, int length) {
+            if (!(boolean) readArrayElements.call(receiver, index, target, offset, length)) {
+                super.readArrayElements(receiver, index, target, offset, length);
+            }
+        }
+
+        @Override
+        public void writeArrayElements(Object receiver, long index, Object source, int offset, int length) {
+            if (!(boolean) writeArrayElements.call(receiver, index, source, offset, length)) {
+                super.writeArrayElements(receiver, index, source, offset, length);
+            }
+        }
+
         @Override
         public boolean hasMembers(Object receiver) {
             // TODO we need a dedicated interop message for that!
@@ -1168,6 +1186,80 @@ abstract class PolyglotValue extends AbstractValueImpl {
 
         }
 
+        private static class ReadArrayElementsNode extends InteropNode {
+
+            @Child private Node readElementsNode = Message.READ_ELEMENTS.createNode();
+
+            protected ReadArrayElementsNode(Interop interop) {
+                super(interop);
+            }
+
+            @Override
+            protected String getOperationName() {
+                return "readArrayElements";
+            }
+
+            @Override
+            protected Object executeImpl(Object receiver, Object[] args) {
+                long index = (long) args[1];
+                TruffleObject buffer = JavaInterop.asTruffleObject(args[2]);
+                int offset = (int) args[3];
+                int length = (int) args[4];
+                try {
+                    ForeignAccess.sendReadElements(readElementsNode, (TruffleObject) receiver, index, buffer, offset, length);
+                    return true;
+                } catch (UnsupportedMessageException e) {
+                    // the caller falls back to reading element by element
+                    return false;
+                } catch (UnknownIdentifierException e) {
+                    CompilerDirectives.transferToInterpreter();
+                    throw error(String.format("Invalid provided index range %s with length %s for object %s.", index, length, toString()), e);
+                } catch (UnsupportedTypeException e) {
+                    CompilerDirectives.transferToInterpreter();
+                    throw error(String.format("Elements of %s at index range %s with length %s cannot be read into %s.", toString(), index, length,
+                                    args[2].getClass().getSimpleName()), e);
+                }
+            }
+
+        }
+
+        private static class WriteArrayElementsNode extends InteropNode {
+
+            @Child private Node writeElementsNode = Message.WRITE_ELEMENTS.createNode();
+
+            protected WriteArrayElementsNode(Interop interop) {
+                super(interop);
+            }
+
+            @Override
+            protected String getOperationName() {
+                return "writeArrayElements";
+            }
+
+            @Override
+            protected Object executeImpl(Object receiver, Object[] args) {
+                long index = (long) args[1];
+                TruffleObject buffer = JavaInterop.asTruffleObject(args[2]);
+                int offset = (int) args[3];
+                int length = (int) args[4];
+                try {
+                    ForeignAccess.sendWriteElements(writeElementsNode, (TruffleObject) receiver, index, buffer, offset, length);
+                    return true;
+                } catch (UnsupportedMessageException e) {
+                    // the caller falls back to writing element by element
+                    return false;
+                } catch (UnknownIdentifierException e) {
+                    CompilerDirectives.transferToInterpreter();
+                    throw error(String.format("Invalid provided index range %s with length %s for object %s.", index, length, toString()), e);
+                } catch (UnsupportedTypeException e) {
+                    CompilerDirectives.transferToInterpreter();
+                    throw error(String.format("Invalid array values provided from %s when writing to %s at index range %s with length %s.", args[2].getClass().getSimpleName(),
+                                    toString(), index, length), e);
+                }
+            }
+
+        }
+
         private static class GetMemberNode extends InteropNode {
 
             @Child private Node readMemberNode = Message.READ.createNode();
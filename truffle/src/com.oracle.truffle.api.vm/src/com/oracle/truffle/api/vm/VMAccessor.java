@@ -26,11 +26,13 @@ package com.oracle.truffle.api.vm;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.function.Function;
 
 import org.graalvm.options.OptionDescriptors;
 
 import com.oracle.truffle.api.TruffleOptions;
 import com.oracle.truffle.api.impl.Accessor;
+import com.oracle.truffle.api.nodes.Node;
 
 class VMAccessor extends Accessor {
 
@@ -74,6 +76,16 @@ class VMAccessor extends Accessor {
         LANGUAGE = SPI.languageSupport();
     }
 
+    @Override
+    protected void requestInterrupt(Thread thread, Function<Node, ThreadDeath> request) {
+        super.requestInterrupt(thread, request);
+    }
+
+    @Override
+    protected void clearInterrupt(Thread thread, Function<Node, ThreadDeath> request) {
+        super.clearInterrupt(thread, request);
+    }
+
     @Override
     protected boolean isGuestCallStackElement(StackTraceElement element) {
         return super.isGuestCallStackElement(element);
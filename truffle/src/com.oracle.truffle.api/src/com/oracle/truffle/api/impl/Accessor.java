@@ -29,6 +29,7 @@ import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.graalvm.options.OptionDescriptors;
 import org.graalvm.options.OptionValues;
@@ -545,6 +546,24 @@ public abstract class Accessor {
         }
     }
 
+    protected void pollInterrupt(Node source) {
+        InterruptSupport.poll(source);
+    }
+
+    protected void requestInterrupt(Thread thread, Function<Node, ThreadDeath> request) {
+        InterruptSupport.request(thread, request);
+    }
+
+    protected void clearInterrupt(Thread thread, Function<Node, ThreadDeath> request) {
+        InterruptSupport.clear(thread, request);
+    }
+
+    protected void onReportPolymorphicSpecialize(Node source) {
+        if (SUPPORT != null) {
+            SUPPORT.onReportPolymorphicSpecialize(source);
+        }
+    }
+
     /*
      * Do not remove: This is accessed reflectively in AccessorTest
      */
@@ -44,7 +44,7 @@ public final class DefaultLoopNode extends LoopNode {
     @Override
     public void executeLoop(VirtualFrame frame) {
         while (repeatNode.executeRepeating(frame)) {
-            // Empty
+            LoopNode.pollInterrupt(this);
         }
     }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * Keeps track of interrupt requests for threads executing guest code. Requests are delivered at
+ * loop polls. As long as no request is pending for any thread the poll is a single volatile read.
+ * Otherwise threads look up their own request on a slow path; only the interrupted thread leaves
+ * compiled code, other threads keep running their compiled loops. A request may decide at poll
+ * time not to interrupt by returning <code>null</code>.
+ */
+final class InterruptSupport {
+
+    private static final Map<Thread, Function<Node, ThreadDeath>> PENDING = new ConcurrentHashMap<>();
+    private static volatile int pendingCount;
+
+    private InterruptSupport() {
+    }
+
+    static void poll(Node location) {
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, pendingCount != 0)) {
+            pollSlowPath(location);
+        }
+    }
+
+    @TruffleBoundary
+    private static void pollSlowPath(Node location) {
+        Thread thread = Thread.currentThread();
+        Function<Node, ThreadDeath> request = PENDING.get(thread);
+        if (request != null) {
+            clear(thread, request);
+            ThreadDeath exception = request.apply(location);
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    static void request(Thread thread, Function<Node, ThreadDeath> request) {
+        synchronized (PENDING) {
+            PENDING.put(thread, request);
+            pendingCount = PENDING.size();
+        }
+    }
+
+    static void clear(Thread thread, Function<Node, ThreadDeath> request) {
+        synchronized (PENDING) {
+            if (PENDING.remove(thread, request)) {
+                pendingCount = PENDING.size();
+            }
+        }
+    }
+
+}
@@ -94,6 +94,16 @@ public abstract class TVMCI {
      */
     protected abstract void onLoopCount(Node source, int iterations);
 
+    /**
+     * Reports that a node specialized to a polymorphic state.
+     *
+     * @param source the node which became polymorphic
+     * @since 0.27
+     */
+    protected void onReportPolymorphicSpecialize(Node source) {
+        // empty default
+    }
+
     /**
      * Reports when a new root node is loaded into the system.
      *
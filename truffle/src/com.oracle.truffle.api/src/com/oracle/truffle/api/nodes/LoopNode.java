@@ -171,4 +171,19 @@ public abstract class LoopNode extends Node {
         }
     }
 
+    /**
+     * Checks whether an interrupt was requested for the current thread, for example by
+     * {@link org.graalvm.polyglot.Context#interrupt()}, and if so throws the exception the
+     * requester associated with it. Loop nodes created by the runtime poll automatically once per
+     * iteration; custom loops that do not use a {@link LoopNode} should call this method in their
+     * loop body to remain interruptible. If no interrupt is pending, the poll is reduced to a
+     * single volatile read. Requests for other threads do not deoptimize the calling thread.
+     *
+     * @param source the Node which executes the loop.
+     * @since 0.27
+     */
+    public static void pollInterrupt(Node source) {
+        Node.ACCESSOR.pollInterrupt(source);
+    }
+
 }
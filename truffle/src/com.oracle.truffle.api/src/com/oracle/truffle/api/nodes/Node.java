@@ -381,6 +381,19 @@ public abstract class Node implements NodeInterface, Cloneable {
         // empty default
     }
 
+    /**
+     * Notifies the runtime that this node specialized to a polymorphic state. Specializing nodes
+     * should call this method when they transition from a monomorphic to a polymorphic state. The
+     * runtime may use this information to split the call sites whose arguments caused the
+     * polymorphism. Nodes generated by the Truffle DSL report this automatically.
+     *
+     * @since 0.27
+     */
+    protected final void reportPolymorphicSpecialize() {
+        CompilerAsserts.neverPartOfCompilation();
+        ACCESSOR.onReportPolymorphicSpecialize(this);
+    }
+
     /**
      * Invokes the {@link NodeVisitor#visit(Node)} method for this node and recursively also for all
      * child nodes.
@@ -621,6 +634,16 @@ public abstract class Node implements NodeInterface, Cloneable {
             super.onLoopCount(source, iterations);
         }
 
+        @Override
+        protected void pollInterrupt(Node source) {
+            super.pollInterrupt(source);
+        }
+
+        @Override
+        protected void onReportPolymorphicSpecialize(Node source) {
+            super.onReportPolymorphicSpecialize(source);
+        }
+
         @Override
         protected EngineSupport engineSupport() {
             return super.engineSupport();
@@ -106,6 +106,8 @@ final class ForeignAccessFactoryGenerator {
         appendFactoryAccessIsPointer(w);
         appendFactoryAccessAsPointer(w);
         appendFactoryAccessToNative(w);
+        appendFactoryAccessReadElements(w);
+        appendFactoryAccessWriteElements(w);
         appendFactoryAccessMessage(w);
 
         for (MessageGenerator generator : messageGenerators.values()) {
@@ -273,6 +275,20 @@ final class ForeignAccessFactoryGenerator {
         w.append("    }").append("\n");
     }
 
+    private void appendFactoryAccessReadElements(Writer w) throws IOException {
+        w.append("    @Override").append("\n");
+        w.append("    public CallTarget accessReadElements() {").append("\n");
+        appendOptionalHandlerBody(w, Message.READ_ELEMENTS);
+        w.append("    }").append("\n");
+    }
+
+    private void appendFactoryAccessWriteElements(Writer w) throws IOException {
+        w.append("    @Override").append("\n");
+        w.append("    public CallTarget accessWriteElements() {").append("\n");
+        appendOptionalHandlerBody(w, Message.WRITE_ELEMENTS);
+        w.append("    }").append("\n");
+    }
+
     private void appendFactoryAccessUnbox(Writer w) throws IOException {
         w.append("    @Override").append("\n");
         w.append("    public CallTarget accessUnbox() {").append("\n");
@@ -41,11 +41,24 @@ final class GenericGenerator extends MessageGenerator {
     GenericGenerator(ProcessingEnvironment processingEnv, Resolve resolveAnnotation, MessageResolution messageResolutionAnnotation, TypeElement element,
                     ForeignAccessFactoryGenerator containingForeignAccessFactory) {
         super(processingEnv, resolveAnnotation, messageResolutionAnnotation, element, containingForeignAccessFactory);
-        String mName = messageName.substring(messageName.lastIndexOf('.') + 1);
+        String mName = toCamelCase(messageName.substring(messageName.lastIndexOf('.') + 1));
         this.targetableExecuteNode = (new StringBuilder(mName)).replace(0, 1, mName.substring(0, 1).toUpperCase()).append("Node").insert(0, "Targetable").toString();
         this.executeRootNode = (new StringBuilder(mName)).replace(0, 1, mName.substring(0, 1).toUpperCase()).append("RootNode").toString();
     }
 
+    private static String toCamelCase(String name) {
+        if (name.indexOf('_') < 0) {
+            return name;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String part : name.split("_")) {
+            if (!part.isEmpty()) {
+                sb.append(part.charAt(0)).append(part.substring(1).toLowerCase());
+            }
+        }
+        return sb.toString();
+    }
+
     @Override
     int getParameterCount() {
         List<? extends VariableElement> parameters = getAccessMethods().get(0).getParameters();
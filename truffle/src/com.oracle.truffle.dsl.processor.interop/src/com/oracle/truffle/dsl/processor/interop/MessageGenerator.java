@@ -165,6 +165,8 @@ abstract class MessageGenerator extends InteropNodeGenerator {
             } else if (Message.createExecute(0).toString().equalsIgnoreCase(messageName) || Message.createInvoke(0).toString().equalsIgnoreCase(messageName) ||
                             Message.createNew(0).toString().equalsIgnoreCase(messageName)) {
                 return new ExecuteGenerator(processingEnv, resolveAnnotation, messageResolutionAnnotation, element, containingForeignAccessFactory);
+            } else if (Message.READ_ELEMENTS.toString().equalsIgnoreCase(messageName) || Message.WRITE_ELEMENTS.toString().equalsIgnoreCase(messageName)) {
+                return new GenericGenerator(processingEnv, resolveAnnotation, messageResolutionAnnotation, element, containingForeignAccessFactory);
             } else {
                 assert !InteropDSLProcessor.KNOWN_MESSAGES.contains(currentMessage);
                 return new GenericGenerator(processingEnv, resolveAnnotation, messageResolutionAnnotation, element, containingForeignAccessFactory);
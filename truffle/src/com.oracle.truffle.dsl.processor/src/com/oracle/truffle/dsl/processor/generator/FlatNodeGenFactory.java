@@ -137,6 +137,7 @@ public class FlatNodeGenFactory {
 
     private final BitSet state;
     private final BitSet exclude;
+    private final boolean excludeInState;
 
     private final ExecutableTypeData executeAndSpecializeType;
     private boolean fallbackNeedsState = false;
@@ -168,7 +169,18 @@ public class FlatNodeGenFactory {
         }
         objects.addAll(implicitCasts);
         this.state = new StateBitSet(objects);
-        this.exclude = new ExcludeBitSet(reachableSpecializations);
+        BitSet excludeBits = new ExcludeBitSet(reachableSpecializations, "exclude", 0);
+        /*
+         * Exclude bits are stored in the state field if both fit into an int. This saves a field
+         * in every instance of nodes with rewriteOn or replaces declarations.
+         */
+        this.excludeInState = requiresExclude() && state.getBitCount() + excludeBits.getBitCount() <= 32;
+        if (excludeInState) {
+            excludeBits = new ExcludeBitSet(reachableSpecializations, STATE_VALUE, state.getBitCount());
+            state.setShared(true);
+            excludeBits.setShared(true);
+        }
+        this.exclude = excludeBits;
         this.executeAndSpecializeType = createExecuteAndSpecializeType();
     }
 
@@ -477,7 +489,7 @@ public class FlatNodeGenFactory {
         CodeVariableElement var = state.declareFields(clazz);
         var.createInitBuilder().string("1");
 
-        if (requiresExclude()) {
+        if (requiresExclude() && !excludeInState) {
             exclude.declareFields(clazz);
         }
         for (SpecializationData specialization : reachableSpecializations) {
@@ -964,6 +976,9 @@ public class FlatNodeGenFactory {
 
         final CodeTreeBuilder builder = method.createBuilder();
 
+        if (reportsPolymorphism()) {
+            builder.declaration(context.getType(NodeCost.class), "oldCost", "getCost()");
+        }
         builder.declaration(context.getType(Lock.class), "lock", "getLock()");
         builder.declaration(context.getType(boolean.class), "hasLock", "true");
         builder.statement("lock.lock()");
@@ -993,6 +1008,31 @@ public class FlatNodeGenFactory {
         return method;
     }
 
+    /*
+     * Polymorphism is only reported for nodes that use the generated getCost() method and can
+     * actually become polymorphic.
+     */
+    private boolean reportsPolymorphism() {
+        NodeInfo nodeInfo = node.getTemplateType().getAnnotation(NodeInfo.class);
+        if (nodeInfo != null && nodeInfo.cost() != NodeCost.MONOMORPHIC) {
+            return false;
+        }
+        if (reachableSpecializations.size() == 1 && !reachableSpecializations.iterator().next().hasMultipleInstances()) {
+            return false;
+        }
+        return node.needsRewrites(context);
+    }
+
+    private CodeTree createCheckForPolymorphicSpecialize() {
+        CodeTreeBuilder builder = CodeTreeBuilder.createBuilder();
+        TypeMirror nodeCost = context.getType(NodeCost.class);
+        builder.startIf().string("(oldCost == ").staticReference(nodeCost, "UNINITIALIZED").string(" || oldCost == ").staticReference(nodeCost, "MONOMORPHIC");
+        builder.string(") && getCost() == ").staticReference(nodeCost, "POLYMORPHIC").end().startBlock();
+        builder.statement("reportPolymorphicSpecialize()");
+        builder.end();
+        return builder.build();
+    }
+
     private CodeTree createThrowUnsupported(final CodeTreeBuilder parent, final FrameState frameState) {
         CodeTreeBuilder builder = parent.create();
         builder.startThrow().startNew(context.getType(UnsupportedSpecializationException.class));
@@ -1900,6 +1940,9 @@ public class FlatNodeGenFactory {
         if (mode.isSlowPath()) {
             builder.statement("lock.unlock()");
             builder.statement("hasLock = false");
+            if (reportsPolymorphism()) {
+                builder.tree(createCheckForPolymorphicSpecialize());
+            }
         }
 
         if (specialization.getMethod() == null) {
@@ -3194,10 +3237,14 @@ public class FlatNodeGenFactory {
         private final ProcessorContext context = ProcessorContext.getInstance();
 
         private final TypeMirror bitSetType;
+        private final int bitOffset;
+        private int bitCount;
+        private boolean shared;
 
-        BitSet(String name, List<? extends Object> specializations) {
+        BitSet(String name, List<? extends Object> specializations, int bitOffset) {
             this.name = name;
             this.allElements = specializations;
+            this.bitOffset = bitOffset;
             this.capacity = computeStateLength();
 
             if (capacity <= 32) {
@@ -3214,15 +3261,32 @@ public class FlatNodeGenFactory {
                 return 0;
             }
 
-            int bitIndex = 0;
+            int bitIndex = bitOffset;
             for (Object specialization : allElements) {
                 int specializationSize = calculateRequiredBits(specialization);
                 offsets.put(specialization, bitIndex);
                 bitIndex += specializationSize;
             }
+            bitCount = bitIndex - bitOffset;
             return bitIndex - 1;
         }
 
+        /**
+         * Returns the number of bits used by the elements of this bit set.
+         */
+        public int getBitCount() {
+            return bitCount;
+        }
+
+        /**
+         * Marks the field of this bit set as shared with another bit set. Comparisons of the whole
+         * field then need to mask the bits of this bit set and persisted updates need to update
+         * the local variable as well.
+         */
+        public void setShared(boolean shared) {
+            this.shared = shared;
+        }
+
         public CodeVariableElement declareFields(CodeTypeElement clazz) {
             return clazz.add(createNodeField(PRIVATE, bitSetType, name + "_", CompilationFinal.class));
 
@@ -3264,7 +3328,12 @@ public class FlatNodeGenFactory {
 
         public CodeTree createIs(FrameState frameState, Object[] elements) {
             CodeTreeBuilder builder = CodeTreeBuilder.createBuilder();
-            builder.tree(createReference(frameState)).string(" == ").string(formatMask(createMask(elements)));
+            if (shared) {
+                builder.startParantheses().tree(createReference(frameState)).string(" & ").string(formatMask(createMask(allElements.toArray()))).end();
+            } else {
+                builder.tree(createReference(frameState));
+            }
+            builder.string(" == ").string(formatMask(createMask(elements)));
             return builder.build();
         }
 
@@ -3384,6 +3453,10 @@ public class FlatNodeGenFactory {
             builder.startStatement();
             if (persist) {
                 builder.string("this.", name, "_ = ");
+                if (shared && frameState != null && frameState.get(name) != null) {
+                    // keep the shared local in sync with the field
+                    builder.tree(createReference(frameState)).string(" = ");
+                }
             } else {
                 builder.tree(createReference(frameState)).string(" = ");
             }
@@ -3458,7 +3531,7 @@ public class FlatNodeGenFactory {
     private class StateBitSet extends BitSet {
 
         StateBitSet(List<Object> objects) {
-            super(STATE_VALUE, objects);
+            super(STATE_VALUE, objects, 0);
         }
 
         @Override
@@ -3488,8 +3561,8 @@ public class FlatNodeGenFactory {
 
     private static class ExcludeBitSet extends BitSet {
 
-        ExcludeBitSet(List<SpecializationData> specializations) {
-            super("exclude", specializations);
+        ExcludeBitSet(List<SpecializationData> specializations, String name, int bitOffset) {
+            super(name, specializations, bitOffset);
         }
 
         @Override
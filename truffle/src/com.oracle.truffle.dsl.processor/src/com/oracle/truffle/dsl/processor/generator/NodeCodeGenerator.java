@@ -173,6 +173,9 @@ public class NodeCodeGenerator extends CodeTypeElementFactory<NodeData> {
         switch (node.getTypeSystem().getOptions().defaultGenerator()) {
             case FLAT:
                 type = new FlatNodeGenFactory(context, node).create(type);
+                if (node.isGenerateUncached()) {
+                    type = new UncachedNodeFactory(context, node).create(type);
+                }
                 break;
             case DEFAULT:
                 type = new DefaultNodeGenFactory(context, node).create(type);
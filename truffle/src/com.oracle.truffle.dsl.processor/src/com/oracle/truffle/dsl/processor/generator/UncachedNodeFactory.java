@@ -0,0 +1,460 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.dsl.processor.generator;
+
+import static com.oracle.truffle.dsl.processor.java.ElementUtils.isObject;
+import static com.oracle.truffle.dsl.processor.java.ElementUtils.isVoid;
+import static com.oracle.truffle.dsl.processor.java.ElementUtils.modifiers;
+import static com.oracle.truffle.dsl.processor.java.ElementUtils.needsCastTo;
+import static javax.lang.model.element.Modifier.ABSTRACT;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.NodeCost;
+import com.oracle.truffle.api.nodes.UnexpectedResultException;
+import com.oracle.truffle.dsl.processor.ProcessorContext;
+import com.oracle.truffle.dsl.processor.expression.DSLExpression;
+import com.oracle.truffle.dsl.processor.expression.DSLExpression.Variable;
+import com.oracle.truffle.dsl.processor.java.ElementUtils;
+import com.oracle.truffle.dsl.processor.java.model.CodeAnnotationMirror;
+import com.oracle.truffle.dsl.processor.java.model.CodeExecutableElement;
+import com.oracle.truffle.dsl.processor.java.model.CodeTree;
+import com.oracle.truffle.dsl.processor.java.model.CodeTreeBuilder;
+import com.oracle.truffle.dsl.processor.java.model.CodeTypeElement;
+import com.oracle.truffle.dsl.processor.java.model.CodeTypeMirror.ArrayCodeTypeMirror;
+import com.oracle.truffle.dsl.processor.java.model.CodeVariableElement;
+import com.oracle.truffle.dsl.processor.model.AssumptionExpression;
+import com.oracle.truffle.dsl.processor.model.CacheExpression;
+import com.oracle.truffle.dsl.processor.model.ExecutableTypeData;
+import com.oracle.truffle.dsl.processor.model.GuardExpression;
+import com.oracle.truffle.dsl.processor.model.NodeData;
+import com.oracle.truffle.dsl.processor.model.NodeExecutionData;
+import com.oracle.truffle.dsl.processor.model.Parameter;
+import com.oracle.truffle.dsl.processor.model.SpecializationData;
+import com.oracle.truffle.dsl.processor.model.SpecializationThrowsData;
+import com.oracle.truffle.dsl.processor.model.TypeSystemData;
+
+/**
+ * Generates the stateless uncached version of a node annotated with
+ * {@link com.oracle.truffle.api.dsl.GenerateUncached}. The uncached version is a singleton that
+ * evaluates guards, assumptions and cached expressions of each specialization on every execution
+ * and invokes the first specialization that matches.
+ */
+public class UncachedNodeFactory {
+
+    private static final String UNCACHED_CLASS_NAME = "Uncached";
+    private static final String UNCACHED_FIELD_NAME = "UNCACHED";
+    private static final String EXECUTE_UNCACHED_NAME = "executeUncached";
+    private static final String FRAME_VALUE = "frameValue";
+
+    private final ProcessorContext context;
+    private final NodeData node;
+    private final TypeSystemData typeSystem;
+    private final TypeMirror genericType;
+    private final TypeMirror frameType;
+    private final Map<String, TypeMirror> isValidSignatures = new LinkedHashMap<>();
+
+    public UncachedNodeFactory(ProcessorContext context, NodeData node) {
+        this.context = context;
+        this.node = node;
+        this.typeSystem = node.getTypeSystem();
+        this.genericType = context.getType(Object.class);
+        this.frameType = node.getFrameType() == null || isVoid(node.getFrameType()) ? null : node.getFrameType();
+    }
+
+    public CodeTypeElement create(CodeTypeElement clazz) {
+        CodeTypeElement uncached = GeneratorUtils.createClass(node, null, modifiers(PRIVATE, STATIC, FINAL), UNCACHED_CLASS_NAME, node.getTemplateType().asType());
+
+        CodeExecutableElement executeUncached = createExecuteUncached();
+        for (ExecutableTypeData executableType : node.getExecutableTypes()) {
+            if (executableType.isAbstract() && executableType.getMethod() != null) {
+                uncached.add(createExecuteMethod(executableType, executeUncached));
+            }
+        }
+        uncached.add(executeUncached);
+        uncached.add(createGetCostMethod());
+        for (TypeMirror assumptionType : isValidSignatures.values()) {
+            uncached.add(createIsValid(assumptionType));
+        }
+        clazz.add(uncached);
+
+        CodeVariableElement instance = new CodeVariableElement(modifiers(PRIVATE, STATIC, FINAL), uncached.asType(), UNCACHED_FIELD_NAME);
+        instance.createInitBuilder().startNew(uncached.asType()).end();
+        clazz.add(instance);
+
+        CodeExecutableElement getUncached = new CodeExecutableElement(modifiers(STATIC), node.getTemplateType().asType(), "getUncached");
+        ElementUtils.setVisibility(getUncached.getModifiers(), ElementUtils.getVisibility(node.getTemplateType().getModifiers()));
+        getUncached.createBuilder().startReturn().string(UNCACHED_FIELD_NAME).end();
+        clazz.add(getUncached);
+        return clazz;
+    }
+
+    private CodeExecutableElement createExecuteMethod(ExecutableTypeData executableType, CodeExecutableElement executeUncached) {
+        ExecutableElement method = executableType.getMethod();
+        CodeExecutableElement executable = CodeExecutableElement.clone(context.getEnvironment(), method);
+        executable.getModifiers().remove(ABSTRACT);
+        executable.getAnnotationMirrors().clear();
+        executable.addAnnotationMirror(new CodeAnnotationMirror(context.getDeclaredType(Override.class)));
+
+        List<? extends VariableElement> parameters = method.getParameters();
+        int signatureOffset = executableType.getFrameParameter() != null ? 1 : 0;
+
+        CodeTreeBuilder call = CodeTreeBuilder.createBuilder();
+        call.startCall(EXECUTE_UNCACHED_NAME);
+        if (frameType != null) {
+            if (signatureOffset > 0) {
+                call.string(parameters.get(0).getSimpleName().toString());
+            } else {
+                call.nullLiteral();
+            }
+        }
+        for (int i = signatureOffset; i < parameters.size(); i++) {
+            call.string(parameters.get(i).getSimpleName().toString());
+        }
+        call.end();
+
+        TypeMirror returnType = executableType.getReturnType();
+        TypeMirror sourceType = executeUncached.getReturnType();
+        CodeTreeBuilder builder = executable.createBuilder();
+        if (isVoid(returnType)) {
+            builder.statement(call.build());
+        } else if (isVoid(sourceType)) {
+            builder.statement(call.build());
+            builder.startReturn().defaultValue(returnType).end();
+        } else if (!needsCastTo(sourceType, returnType)) {
+            builder.startReturn().tree(call.build()).end();
+        } else if (executableType.hasUnexpectedValue(context)) {
+            builder.declaration(sourceType, "result", call.build());
+            builder.startIf().tree(TypeSystemCodeGenerator.check(typeSystem, returnType, "result")).end().startBlock();
+            builder.startReturn().tree(TypeSystemCodeGenerator.cast(typeSystem, returnType, "result")).end();
+            builder.end();
+            builder.startThrow().startNew(context.getType(UnexpectedResultException.class)).string("result").end().end();
+        } else {
+            builder.startReturn().tree(TypeSystemCodeGenerator.cast(typeSystem, returnType, call.build())).end();
+        }
+        return executable;
+    }
+
+    private CodeExecutableElement createExecuteUncached() {
+        TypeMirror returnType = node.getPolymorphicSpecialization().getReturnType().getType();
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), returnType, EXECUTE_UNCACHED_NAME);
+        if (frameType != null) {
+            method.addParameter(new CodeVariableElement(frameType, FRAME_VALUE));
+        } else {
+            // without a frame the uncached version can be called behind a boundary
+            method.addAnnotationMirror(new CodeAnnotationMirror(context.getDeclaredType(TruffleBoundary.class)));
+        }
+        for (NodeExecutionData execution : node.getChildExecutions()) {
+            method.addParameter(new CodeVariableElement(genericType, valueName(execution)));
+        }
+
+        Set<SpecializationData> replaced = new HashSet<>();
+        for (SpecializationData specialization : node.getSpecializations()) {
+            replaced.addAll(specialization.getReplaces());
+        }
+
+        CodeTreeBuilder builder = method.createBuilder();
+        SpecializationData fallback = null;
+        for (SpecializationData specialization : node.getSpecializations()) {
+            if (!specialization.isReachable() || specialization.getMethod() == null) {
+                continue;
+            }
+            if (specialization.isFallback()) {
+                fallback = specialization;
+            } else if (specialization.isSpecialized() && !replaced.contains(specialization)) {
+                builder.tree(createSpecialization(builder, specialization, returnType));
+                if (isUnconditional(specialization)) {
+                    // all following specializations are unreachable
+                    return method;
+                }
+            }
+        }
+
+        if (fallback != null) {
+            builder.tree(createReturn(builder, createCallSpecialization(fallback, uncheckedValues(fallback), new HashMap<>()), returnType));
+        } else {
+            builder.startThrow().startNew(context.getType(UnsupportedSpecializationException.class));
+            builder.string("this");
+            builder.startNewArray(new ArrayCodeTypeMirror(context.getType(Node.class)), null);
+            for (int i = 0; i < node.getChildExecutions().size(); i++) {
+                builder.nullLiteral();
+            }
+            builder.end();
+            for (NodeExecutionData execution : node.getChildExecutions()) {
+                builder.string(valueName(execution));
+            }
+            builder.end().end();
+        }
+        return method;
+    }
+
+    private CodeTree createSpecialization(CodeTreeBuilder parent, SpecializationData specialization, TypeMirror returnType) {
+        CodeTreeBuilder builder = parent.create();
+        builder.lineComment(specialization.createReferenceName());
+        int blocks = 0;
+
+        Map<Parameter, CodeTree> values = new HashMap<>();
+        for (Parameter parameter : specialization.getSignatureParameters()) {
+            NodeExecutionData execution = parameter.getSpecification().getExecution();
+            TypeMirror type = parameter.getType();
+            String value = valueName(execution);
+            if (isObject(type)) {
+                values.put(parameter, CodeTreeBuilder.singleString(value));
+                continue;
+            }
+            String castValue = value + "_";
+            CodeTree valueTree = CodeTreeBuilder.singleString(value);
+            if (typeSystem.hasImplicitSourceTypes(type)) {
+                CodeTree allTypes = CodeTreeBuilder.singleString(implicitTypesMask(type));
+                builder.startIf().tree(TypeSystemCodeGenerator.implicitCheckFlat(typeSystem, type, valueTree, allTypes)).end().startBlock();
+                builder.declaration(type, castValue, TypeSystemCodeGenerator.implicitCastFlat(typeSystem, type, valueTree, allTypes));
+            } else {
+                builder.startIf().tree(TypeSystemCodeGenerator.check(typeSystem, type, valueTree)).end().startBlock();
+                builder.declaration(type, castValue, TypeSystemCodeGenerator.cast(typeSystem, type, valueTree));
+            }
+            blocks++;
+            values.put(parameter, CodeTreeBuilder.singleString(castValue));
+        }
+
+        Map<Parameter, CodeTree> caches = new HashMap<>();
+        for (CacheExpression cache : specialization.getCaches()) {
+            if (specialization.isCacheBoundByGuard(cache)) {
+                builder.tree(createCacheInitializer(builder, specialization, cache, values, caches));
+            }
+        }
+
+        List<CodeTree> conditions = new ArrayList<>();
+        for (GuardExpression guard : specialization.getGuards()) {
+            conditions.add(write(specialization, guard.getExpression(), values, caches));
+        }
+        for (AssumptionExpression assumption : specialization.getAssumptionExpressions()) {
+            TypeMirror assumptionType = assumption.getExpression().getResolvedType();
+            isValidSignatures.put(ElementUtils.getQualifiedName(assumptionType), assumptionType);
+            conditions.add(CodeTreeBuilder.createBuilder().startCall("isValid_").tree(write(specialization, assumption.getExpression(), values, caches)).end().build());
+        }
+        if (!conditions.isEmpty()) {
+            builder.startIf();
+            String sep = "";
+            for (CodeTree condition : conditions) {
+                builder.string(sep).tree(condition);
+                sep = " && ";
+            }
+            builder.end().startBlock();
+            blocks++;
+        }
+
+        for (CacheExpression cache : specialization.getCaches()) {
+            if (!specialization.isCacheBoundByGuard(cache)) {
+                builder.tree(createCacheInitializer(builder, specialization, cache, values, caches));
+            }
+        }
+
+        CodeTree call = createReturn(builder, createCallSpecialization(specialization, values, caches), returnType);
+        List<SpecializationThrowsData> exceptions = specialization.getExceptions();
+        if (exceptions.isEmpty()) {
+            builder.tree(call);
+        } else {
+            TypeMirror[] exceptionTypes = new TypeMirror[exceptions.size()];
+            for (int i = 0; i < exceptionTypes.length; i++) {
+                exceptionTypes[i] = exceptions.get(i).getJavaClass();
+            }
+            builder.startTryBlock();
+            builder.tree(call);
+            builder.end().startCatchBlock(exceptionTypes, "ex");
+            builder.lineComment("fall through to the next specialization");
+            builder.end();
+        }
+
+        for (int i = 0; i < blocks; i++) {
+            builder.end();
+        }
+        return builder.build();
+    }
+
+    private static boolean isUnconditional(SpecializationData specialization) {
+        if (!specialization.getGuards().isEmpty() || !specialization.getAssumptionExpressions().isEmpty() || !specialization.getExceptions().isEmpty()) {
+            return false;
+        }
+        for (Parameter parameter : specialization.getSignatureParameters()) {
+            if (!isObject(parameter.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<Parameter, CodeTree> uncheckedValues(SpecializationData fallback) {
+        Map<Parameter, CodeTree> values = new HashMap<>();
+        for (Parameter parameter : fallback.getSignatureParameters()) {
+            CodeTree value = CodeTreeBuilder.singleString(valueName(parameter.getSpecification().getExecution()));
+            if (needsCastTo(genericType, parameter.getType())) {
+                value = TypeSystemCodeGenerator.cast(typeSystem, parameter.getType(), value);
+            }
+            values.put(parameter, value);
+        }
+        return values;
+    }
+
+    private CodeTree createCacheInitializer(CodeTreeBuilder parent, SpecializationData specialization, CacheExpression cache, Map<Parameter, CodeTree> values, Map<Parameter, CodeTree> caches) {
+        Parameter parameter = cache.getParameter();
+        String localName = parameter.getLocalName();
+        CodeTree initializer = write(specialization, cache.getExpression(), values, caches);
+        TypeMirror expressionType = cache.getExpression().getResolvedType();
+        if (expressionType != null && needsCastTo(expressionType, parameter.getType())) {
+            initializer = CodeTreeBuilder.createBuilder().cast(parameter.getType(), initializer).build();
+        }
+        caches.put(parameter, CodeTreeBuilder.singleString(localName));
+        return parent.create().declaration(parameter.getType(), localName, initializer).build();
+    }
+
+    private CodeTree write(SpecializationData specialization, DSLExpression expression, Map<Parameter, CodeTree> values, Map<Parameter, CodeTree> caches) {
+        Map<Variable, CodeTree> bindings = new HashMap<>();
+        for (Variable variable : expression.findBoundVariables()) {
+            Parameter parameter = specialization.findByVariable(variable.getResolvedVariable());
+            if (parameter == null) {
+                continue;
+            }
+            CodeTree reference;
+            TypeMirror sourceType = parameter.getType();
+            if (parameter.getSpecification().isCached()) {
+                reference = caches.get(parameter);
+            } else if (parameter.getSpecification().isSignature()) {
+                reference = values.get(parameter);
+                if (isObject(sourceType)) {
+                    sourceType = genericType;
+                }
+            } else if (frameType != null && parameter.equals(specialization.getFrame())) {
+                reference = CodeTreeBuilder.singleString(FRAME_VALUE);
+                sourceType = frameType;
+            } else {
+                reference = null;
+            }
+            if (reference == null) {
+                continue;
+            }
+            TypeMirror targetType = variable.getResolvedTargetType();
+            if (targetType == null) {
+                targetType = variable.getResolvedType();
+            }
+            if (!ElementUtils.isAssignable(sourceType, targetType)) {
+                reference = CodeTreeBuilder.createBuilder().startParantheses().cast(targetType, reference).end().build();
+            }
+            bindings.put(variable, reference);
+        }
+        return DSLExpressionGenerator.write(expression, null, bindings);
+    }
+
+    private CodeTree createCallSpecialization(SpecializationData specialization, Map<Parameter, CodeTree> values, Map<Parameter, CodeTree> caches) {
+        ExecutableElement method = specialization.getMethod();
+        CodeTreeBuilder builder = CodeTreeBuilder.createBuilder();
+        if (method.getModifiers().contains(STATIC)) {
+            builder.startStaticCall(method.getEnclosingElement().asType(), method.getSimpleName().toString());
+        } else {
+            builder.startCall(method.getSimpleName().toString());
+        }
+        for (Parameter parameter : specialization.getParameters()) {
+            if (parameter.getSpecification().isCached()) {
+                builder.tree(caches.get(parameter));
+            } else if (parameter.getSpecification().isSignature()) {
+                builder.tree(values.get(parameter));
+            } else if (parameter.equals(specialization.getFrame())) {
+                builder.string(FRAME_VALUE);
+            } else {
+                builder.defaultValue(parameter.getType());
+            }
+        }
+        builder.end();
+        return builder.build();
+    }
+
+    private static CodeTree createReturn(CodeTreeBuilder parent, CodeTree call, TypeMirror returnType) {
+        CodeTreeBuilder builder = parent.create();
+        if (isVoid(returnType)) {
+            builder.statement(call);
+            builder.returnStatement();
+        } else {
+            builder.startReturn().tree(call).end();
+        }
+        return builder.build();
+    }
+
+    private String implicitTypesMask(TypeMirror type) {
+        int count = typeSystem.lookupSourceTypes(type).size();
+        return "0b" + Integer.toBinaryString((1 << count) - 1);
+    }
+
+    private Element createGetCostMethod() {
+        TypeMirror returnType = context.getType(NodeCost.class);
+        CodeExecutableElement executable = new CodeExecutableElement(modifiers(PUBLIC), returnType, "getCost");
+        executable.addAnnotationMirror(new CodeAnnotationMirror(context.getDeclaredType(Override.class)));
+        executable.createBuilder().startReturn().staticReference(returnType, "MEGAMORPHIC").end();
+        return executable;
+    }
+
+    private Element createIsValid(TypeMirror assumptionType) {
+        CodeExecutableElement isValid = new CodeExecutableElement(modifiers(PRIVATE, STATIC), context.getType(boolean.class), "isValid_");
+        CodeTreeBuilder builder = isValid.createBuilder();
+        if (assumptionType.getKind() == TypeKind.ARRAY) {
+            isValid.addParameter(new CodeVariableElement(context.getType(Assumption[].class), "assumptions"));
+            builder.startIf().string("assumptions == null").end().startBlock().returnFalse().end();
+            builder.startFor().startGroup().type(((ArrayType) assumptionType).getComponentType()).string(" assumption : assumptions").end().end();
+            builder.startBlock();
+            builder.startIf().string("assumption == null || !assumption.isValid()").end();
+            builder.startBlock();
+            builder.returnFalse();
+            builder.end();
+            builder.end();
+            builder.returnTrue();
+        } else {
+            isValid.addParameter(new CodeVariableElement(context.getType(Assumption.class), "assumption"));
+            builder.startReturn().string("assumption != null && assumption.isValid()").end();
+        }
+        return isValid;
+    }
+
+    private static String valueName(NodeExecutionData execution) {
+        return execution.getName() + "Value";
+    }
+
+}
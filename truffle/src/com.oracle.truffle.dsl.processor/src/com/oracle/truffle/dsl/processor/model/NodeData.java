@@ -61,6 +61,7 @@ public class NodeData extends Template implements Comparable<NodeData> {
 
     private TypeMirror frameType;
     private boolean reflectable;
+    private boolean generateUncached;
 
     public NodeData(ProcessorContext context, TypeElement type, String shortName, TypeSystemData typeSystem, boolean generateFactory) {
         super(context, type, null);
@@ -95,6 +96,14 @@ public class NodeData extends Template implements Comparable<NodeData> {
         this.reflectable = reflectable;
     }
 
+    public boolean isGenerateUncached() {
+        return generateUncached;
+    }
+
+    public void setGenerateUncached(boolean generateUncached) {
+        this.generateUncached = generateUncached;
+    }
+
     public boolean isFallbackReachable() {
         SpecializationData generic = getGenericSpecialization();
         if (generic != null) {
@@ -57,6 +57,7 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.CreateCast;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.GeneratedBy;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Introspectable;
@@ -210,6 +211,14 @@ public class NodeParser extends AbstractParser<NodeData> {
             }
         }
 
+        AnnotationMirror generateUncached = findFirstAnnotation(lookupTypes, GenerateUncached.class);
+        if (generateUncached != null) {
+            node.setGenerateUncached(true);
+            if (node.getTypeSystem().getOptions().defaultGenerator() != com.oracle.truffle.api.dsl.internal.DSLOptions.DSLGenerator.FLAT) {
+                node.addError(generateUncached, null, "Uncached nodes are not supported by the used DSL layout. Only the flat DSL layout supports uncached nodes.");
+            }
+        }
+
         node.getFields().addAll(parseFields(lookupTypes, members));
         node.getChildren().addAll(parseChildren(lookupTypes, members));
         node.getChildExecutions().addAll(parseExecutions(node.getFields(), node.getChildren(), members));
@@ -242,6 +251,7 @@ public class NodeParser extends AbstractParser<NodeData> {
         verifyConstructors(node);
         verifyNamingConvention(node.getShortCircuits(), "needs");
         verifySpecializationThrows(node);
+        verifyUncached(node);
         return node;
     }
 
@@ -1770,6 +1780,40 @@ public class NodeParser extends AbstractParser<NodeData> {
         }
     }
 
+    private void verifyUncached(NodeData node) {
+        if (!node.isGenerateUncached()) {
+            return;
+        }
+        String annotationName = GenerateUncached.class.getSimpleName();
+        if (!node.getChildren().isEmpty()) {
+            node.addError("@%s is not supported for nodes with @%s declarations. Pass all operands as execute method parameters instead.", annotationName, NodeChild.class.getSimpleName());
+        }
+        for (NodeFieldData field : node.getFields()) {
+            if (field.isGenerated()) {
+                node.addError("@%s is not supported for nodes with @%s declarations.", annotationName, NodeField.class.getSimpleName());
+                break;
+            }
+        }
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(node.getTemplateType().getEnclosedElements());
+        boolean defaultConstructor = constructors.isEmpty();
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getParameters().isEmpty() && ElementUtils.getVisibility(constructor.getModifiers()) != Modifier.PRIVATE) {
+                defaultConstructor = true;
+                break;
+            }
+        }
+        if (!defaultConstructor) {
+            node.addError("@%s requires an accessible constructor without parameters.", annotationName);
+        }
+        for (SpecializationData specialization : node.getSpecializations()) {
+            for (CacheExpression cache : specialization.getCaches()) {
+                if (ElementUtils.isAssignable(cache.getParameter().getType(), context.getTruffleTypes().getNode())) {
+                    cache.addError("Cached nodes are not supported with @%s. The uncached version cannot adopt nodes.", annotationName);
+                }
+            }
+        }
+    }
+
     private static void verifyConstructors(NodeData nodeData) {
         List<ExecutableElement> constructors = ElementFilter.constructorsIn(nodeData.getTemplateType().getEnclosedElements());
         if (constructors.isEmpty()) {
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.tools.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.instrumentation.test.AbstractInstrumentationTest;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.tools.CallTreeProfiler;
+import com.oracle.truffle.tools.CallTreeProfiler.CallNode;
+import com.oracle.truffle.tools.Profiler.Counter.TimeKind;
+
+public class CallTreeProfilerTest extends AbstractInstrumentationTest {
+
+    private CallTreeProfiler profiler;
+
+    // Checkstyle: stop
+    private final Source source = lines("ROOT(", // 0-126
+                    "DEFINE(foo,ROOT(EXPRESSION)),", // 17-17+16
+                    "DEFINE(bar,ROOT(LOOP(10  , CALL(foo)))),", // 47-47+25
+                    "DEFINE(baz,ROOT(LOOP(10  , CALL(bar)))),", // 86-86+25
+                    "CALL(baz),CALL(baz)", //
+                    ")");
+    // Checkstyle: resume
+
+    @Before
+    public void setupProfiler() {
+        profiler = CallTreeProfiler.find(engine);
+        Assert.assertNotNull(profiler);
+    }
+
+    @Test
+    public void testCallTree() throws IOException {
+        profiler.setCollecting(true);
+        Assert.assertTrue(profiler.isCollecting());
+        Assert.assertFalse(profiler.hasData());
+
+        assertEvalOut(source, "");
+
+        Assert.assertTrue(profiler.hasData());
+        Assert.assertFalse(profiler.hasStackOverflowed());
+
+        List<CallNode> roots = profiler.getRoots();
+        Assert.assertEquals(1, roots.size());
+        CallNode root = roots.get(0);
+        Assert.assertEquals("", root.getName());
+        Assert.assertNull(root.getParent());
+        Assert.assertEquals(1L, root.getInvocations(TimeKind.INTERPRETED_AND_COMPILED));
+
+        CallNode baz = single(root);
+        Assert.assertEquals("baz", baz.getName());
+        Assert.assertEquals(2L, baz.getInvocations(TimeKind.INTERPRETED_AND_COMPILED));
+
+        CallNode bar = single(baz);
+        Assert.assertEquals("bar", bar.getName());
+        Assert.assertEquals(20L, bar.getInvocations(TimeKind.INTERPRETED_AND_COMPILED));
+
+        CallNode foo = single(bar);
+        Assert.assertEquals("foo", foo.getName());
+        Assert.assertSame(bar, foo.getParent());
+        Assert.assertEquals(200L, foo.getInvocations(TimeKind.INTERPRETED_AND_COMPILED));
+        Assert.assertTrue(foo.getChildren().isEmpty());
+
+        for (CallNode node : new CallNode[]{root, baz, bar, foo}) {
+            long total = node.getTotalTime(TimeKind.INTERPRETED_AND_COMPILED);
+            long self = node.getSelfTime(TimeKind.INTERPRETED_AND_COMPILED);
+            Assert.assertTrue(self >= 0);
+            Assert.assertTrue(total >= self);
+            Assert.assertEquals(total, node.getTotalTime(TimeKind.INTERPRETED) + node.getTotalTime(TimeKind.COMPILED));
+        }
+        Assert.assertEquals(root.getSelfTime(TimeKind.INTERPRETED_AND_COMPILED) + baz.getTotalTime(TimeKind.INTERPRETED_AND_COMPILED),
+                        root.getTotalTime(TimeKind.INTERPRETED_AND_COMPILED));
+
+        profiler.clearData();
+        Assert.assertFalse(profiler.hasData());
+        Assert.assertTrue(profiler.getRoots().isEmpty());
+
+        profiler.setCollecting(false);
+        assertEvalOut(source, "");
+        Assert.assertFalse(profiler.hasData());
+    }
+
+    @Test
+    public void testStackLimit() throws IOException {
+        profiler.setStackLimit(2);
+        Assert.assertEquals(2, profiler.getStackLimit());
+        profiler.setCollecting(true);
+
+        assertEvalOut(source, "");
+
+        Assert.assertTrue(profiler.hasStackOverflowed());
+        CallNode root = profiler.getRoots().get(0);
+        CallNode baz = single(root);
+        Assert.assertEquals(2L, baz.getInvocations(TimeKind.INTERPRETED_AND_COMPILED));
+        Assert.assertTrue(baz.getChildren().isEmpty());
+    }
+
+    @Test
+    public void testFoldedStacks() throws IOException {
+        profiler.setCollecting(true);
+
+        assertEvalOut(source, "");
+
+        ByteArrayOutputStream folded = new ByteArrayOutputStream();
+        profiler.exportFoldedStacks(new PrintStream(folded), TimeKind.INTERPRETED_AND_COMPILED);
+        for (String line : folded.toString().split("\n")) {
+            int space = line.lastIndexOf(' ');
+            Assert.assertTrue(line, space > 0);
+            Assert.assertTrue(line, Long.parseLong(line.substring(space + 1)) > 0);
+            if (line.contains("foo@")) {
+                Assert.assertTrue(line, line.contains("baz@") && line.contains("bar@"));
+                Assert.assertTrue(line, line.indexOf("baz@") < line.indexOf("bar@") && line.indexOf("bar@") < line.indexOf("foo@"));
+            }
+        }
+
+        profiler.printCallTree(new PrintStream(out));
+        String o = getOut();
+        Assert.assertTrue(o != null && o.trim().length() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStackLimit() {
+        profiler.setStackLimit(0);
+    }
+
+    private static CallNode single(CallNode node) {
+        List<CallNode> children = node.getChildren();
+        Assert.assertEquals(1, children.size());
+        return children.get(0);
+    }
+}
@@ -0,0 +1,741 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.tools;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventBinding;
+import com.oracle.truffle.api.instrumentation.EventContext;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNode;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNodeFactory;
+import com.oracle.truffle.api.instrumentation.Instrumenter;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter.SourcePredicate;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.nodes.NodeCost;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.api.vm.PolyglotEngine;
+import com.oracle.truffle.api.vm.PolyglotRuntime;
+import com.oracle.truffle.tools.Profiler.Counter.TimeKind;
+
+/**
+ * Call-tree profiling of Truffle guest language programs.
+ * <p>
+ * Where {@link Profiler} aggregates flat counts per {@linkplain StandardTags.RootTag root}, the
+ * call-tree profiler records every distinct caller &rarr; callee path as a {@link CallNode}, with
+ * invocation counts and self/total time split into interpreted and compiled execution.
+ * <p>
+ * Each thread keeps its own shadow stack in preallocated arrays, so entering and leaving a
+ * function does not allocate once the corresponding call tree node exists. Stacks deeper than the
+ * {@linkplain #setStackLimit(int) stack limit} are truncated and reported by
+ * {@link #hasStackOverflowed()}.
+ * <p>
+ * The execution mode of a frame is observed on entry, on exit and, if the language tags calls with
+ * {@link StandardTags.CallTag}, at every call site. Time between two observations is accounted as
+ * compiled if either observation was made in compiled code. This keeps the split correct for
+ * callees inlined into compiled callers and for loops that transfer to compiled code via on-stack
+ * replacement while their enclosing function is interpreted.
+ * <p>
+ * Results are available as a {@linkplain #getRoots() tree}, as a
+ * {@linkplain #printCallTree(PrintStream) textual display} and in the
+ * {@linkplain #exportFoldedStacks(PrintStream, TimeKind) folded stack} format consumed by common
+ * flame graph tools.
+ *
+ * @since 0.27
+ */
+public final class CallTreeProfiler {
+
+    static final int DEFAULT_STACK_LIMIT = 1 << 10;
+
+    /**
+     * Finds call-tree profiler associated with given engine. There is at most one call-tree
+     * profiler associated with any {@link PolyglotEngine}.
+     *
+     * @param engine the engine to find profiler for
+     * @return an instance of associated profiler, never <code>null</code>
+     * @since 0.27
+     */
+    public static CallTreeProfiler find(PolyglotEngine engine) {
+        PolyglotRuntime.Instrument instrument = engine.getRuntime().getInstruments().get(ProfilerInstrument.ID);
+        if (instrument == null) {
+            throw new IllegalStateException();
+        }
+        return instrument.lookup(CallTreeProfiler.class);
+    }
+
+    private final Instrumenter instrumenter;
+
+    private boolean isCollecting;
+
+    private int stackLimit = DEFAULT_STACK_LIMIT;
+
+    @SuppressWarnings("rawtypes") private EventBinding rootBinding;
+
+    @SuppressWarnings("rawtypes") private EventBinding callBinding;
+
+    private final List<ShadowStack> stacks = new ArrayList<>();
+
+    private final ThreadLocal<ShadowStack> threadStack = new ThreadLocal<>();
+
+    private volatile ShadowStack cachedStack;
+
+    private final SourcePredicate notInternal = new SourcePredicate() {
+
+        public boolean test(Source source) {
+            return !source.isInternal();
+        }
+
+    };
+
+    private boolean disposed;
+
+    CallTreeProfiler(Instrumenter instrumenter) {
+        this.instrumenter = instrumenter;
+    }
+
+    void dispose() {
+        if (!disposed) {
+            disposeBindings();
+            synchronized (stacks) {
+                stacks.clear();
+            }
+            cachedStack = null;
+            disposed = true;
+        }
+    }
+
+    /**
+     * Controls whether profile data is being collected, {@code false} by default.
+     * <p>
+     * Any collected data remains available while collecting is turned off. Unless explicitly
+     * {@linkplain #clearData() cleared}, previously collected data will be included when collection
+     * resumes.
+     *
+     * @throws IllegalStateException if disposed
+     * @since 0.27
+     */
+    public void setCollecting(boolean isCollecting) {
+        checkNotDisposed();
+        if (this.isCollecting != isCollecting) {
+            this.isCollecting = isCollecting;
+            reset();
+        }
+    }
+
+    /**
+     * Is data currently being collected (default {@code false})?
+     *
+     * @throws IllegalStateException if disposed
+     * @since 0.27
+     */
+    public boolean isCollecting() {
+        checkNotDisposed();
+        return isCollecting;
+    }
+
+    /**
+     * Sets the maximal depth of the per-thread shadow stacks. The stack arrays are allocated with
+     * this capacity when a thread first enters a profiled function; the new limit therefore only
+     * applies to threads that have not been profiled yet or after the data has been
+     * {@linkplain #clearData() cleared}.
+     *
+     * @param limit the maximal number of frames recorded per thread, must be positive
+     * @throws IllegalStateException if disposed
+     * @since 0.27
+     */
+    public void setStackLimit(int limit) {
+        checkNotDisposed();
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Stack limit must be positive but was " + limit);
+        }
+        this.stackLimit = limit;
+    }
+
+    /**
+     * Gets the maximal depth of the per-thread shadow stacks.
+     *
+     * @throws IllegalStateException if disposed
+     * @since 0.27
+     */
+    public int getStackLimit() {
+        checkNotDisposed();
+        return stackLimit;
+    }
+
+    /**
+     * Did any thread exceed the {@linkplain #getStackLimit() stack limit} since the data was last
+     * {@linkplain #clearData() cleared}? Frames beyond the limit are not part of the call tree.
+     *
+     * @throws IllegalStateException if disposed
+     * @since 0.27
+     */
+    public boolean hasStackOverflowed() {
+        checkNotDisposed();
+        for (ShadowStack stack : copyStacks()) {
+            if (stack.overflowed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Is any data currently collected?
+     *
+     * @throws IllegalStateException if disposed
+     * @since 0.27
+     */
+    public boolean hasData() {
+        checkNotDisposed();
+        for (ShadowStack stack : copyStacks()) {
+            if (stack.root.childCount > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Discards all collected data. Threads that are currently executing profiled code continue to
+     * record into fresh shadow stacks.
+     *
+     * @throws IllegalStateException if disposed
+     * @since 0.27
+     */
+    public void clearData() {
+        checkNotDisposed();
+        synchronized (stacks) {
+            for (ShadowStack stack : stacks) {
+                stack.invalidated = true;
+            }
+            stacks.clear();
+        }
+        cachedStack = null;
+    }
+
+    /**
+     * Gets the roots of the call tree merged over all threads. The returned tree is a snapshot;
+     * it is not updated as more data is collected.
+     *
+     * @throws IllegalStateException if disposed
+     * @since 0.27
+     */
+    public List<CallNode> getRoots() {
+        checkNotDisposed();
+        CallNode merged = new CallNode(null, null, null);
+        for (ShadowStack stack : copyStacks()) {
+            merged.merge(stack.root);
+        }
+        return merged.getChildren();
+    }
+
+    /**
+     * Prints a simple, default textual rendering of the call tree, format subject to change. Use
+     * {@linkplain #getRoots() the tree} explicitly for reliable access.
+     *
+     * @throws IllegalStateException if disposed
+     * @since 0.27
+     */
+    public void printCallTree(PrintStream out) {
+        checkNotDisposed();
+        out.println("Truffle call tree profile");
+        out.println(String.format("%12s | %12s | %10s | %10s | %10s | %10s | %s", //
+                        "Invoc", "Compiled", "Total", "Self", "Interp", "Comp", "Name"));
+        for (CallNode root : sortByTotalTime(getRoots())) {
+            printCallTree(out, root, 0);
+        }
+        out.println();
+    }
+
+    private static void printCallTree(PrintStream out, CallNode node, int depth) {
+        StringBuilder indent = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            indent.append("  ");
+        }
+        out.println(String.format("%12d | %12d |%8.3fms |%8.3fms |%8.3fms |%8.3fms | %s%s (%s)", //
+                        node.getInvocations(TimeKind.INTERPRETED_AND_COMPILED), node.getInvocations(TimeKind.COMPILED), //
+                        node.getTotalTime(TimeKind.INTERPRETED_AND_COMPILED) / 1000000.0d, //
+                        node.getSelfTime(TimeKind.INTERPRETED_AND_COMPILED) / 1000000.0d, //
+                        node.getSelfTime(TimeKind.INTERPRETED) / 1000000.0d, //
+                        node.getSelfTime(TimeKind.COMPILED) / 1000000.0d, //
+                        indent, node.getName(), getShortDescription(node.getSourceSection())));
+        for (CallNode child : sortByTotalTime(node.getChildren())) {
+            printCallTree(out, child, depth + 1);
+        }
+    }
+
+    /**
+     * Exports the collected data in the <em>folded stacks</em> format: one line per call path, the
+     * frames separated by {@code ';'} from the outermost to the innermost, followed by a space and
+     * the self time in nanoseconds spent in the innermost frame. Paths with no self time for the
+     * given kind are omitted.
+     *
+     * @param out the stream to write to
+     * @param kind selects which self time is exported
+     * @throws IllegalStateException if disposed
+     * @since 0.27
+     */
+    public void exportFoldedStacks(PrintStream out, TimeKind kind) {
+        checkNotDisposed();
+        for (CallNode root : getRoots()) {
+            exportFoldedStacks(out, root, new StringBuilder(), kind);
+        }
+        out.flush();
+    }
+
+    private static void exportFoldedStacks(PrintStream out, CallNode node, StringBuilder path, TimeKind kind) {
+        int length = path.length();
+        if (length > 0) {
+            path.append(';');
+        }
+        path.append(node.getName().replace(';', '_').replace(' ', '_'));
+        path.append('@').append(getShortDescription(node.getSourceSection()).replace(' ', '_'));
+        long selfTime = node.getSelfTime(kind);
+        if (selfTime > 0) {
+            out.append(path).append(' ').append(Long.toString(selfTime)).append('\n');
+        }
+        for (CallNode child : node.getChildren()) {
+            exportFoldedStacks(out, child, path, kind);
+        }
+        path.setLength(length);
+    }
+
+    private static List<CallNode> sortByTotalTime(List<CallNode> nodes) {
+        List<CallNode> sorted = new ArrayList<>(nodes);
+        Collections.sort(sorted, new Comparator<CallNode>() {
+            @Override
+            public int compare(CallNode o1, CallNode o2) {
+                return Long.compare(o2.getTotalTime(TimeKind.INTERPRETED_AND_COMPILED), o1.getTotalTime(TimeKind.INTERPRETED_AND_COMPILED));
+            }
+        });
+        return sorted;
+    }
+
+    // custom version of SourceSection#getShortDescription
+    private static String getShortDescription(SourceSection sourceSection) {
+        if (sourceSection == null) {
+            return "<unknown>";
+        }
+        StringBuilder b = new StringBuilder();
+        b.append(sourceSection.getSource().getName());
+        b.append(":");
+        if (sourceSection.getStartLine() == sourceSection.getEndLine()) {
+            b.append(sourceSection.getStartLine());
+        } else {
+            b.append(sourceSection.getStartLine()).append("-").append(sourceSection.getEndLine());
+        }
+        return b.toString();
+    }
+
+    private void checkNotDisposed() {
+        if (disposed) {
+            throw new IllegalStateException("disposed profiler");
+        }
+    }
+
+    private List<ShadowStack> copyStacks() {
+        synchronized (stacks) {
+            return new ArrayList<>(stacks);
+        }
+    }
+
+    private void disposeBindings() {
+        if (rootBinding != null) {
+            rootBinding.dispose();
+            rootBinding = null;
+        }
+        if (callBinding != null) {
+            callBinding.dispose();
+            callBinding = null;
+        }
+    }
+
+    // Reconfigure what's being collected; does not affect collected data
+    private void reset() {
+        disposeBindings();
+        if (isCollecting) {
+            SourceSectionFilter rootFilter = SourceSectionFilter.newBuilder().tagIs(StandardTags.RootTag.class).sourceIs(notInternal).build();
+            rootBinding = instrumenter.attachFactory(rootFilter, new ExecutionEventNodeFactory() {
+                public ExecutionEventNode create(EventContext context) {
+                    final RootNode rootNode = context.getInstrumentedNode().getRootNode();
+                    return new RootEventNode(CallTreeProfiler.this, context.getInstrumentedSourceSection(), rootNode == null ? "<unknown>" : rootNode.getName());
+                }
+            });
+            SourceSectionFilter callFilter = SourceSectionFilter.newBuilder().tagIs(StandardTags.CallTag.class).sourceIs(notInternal).build();
+            callBinding = instrumenter.attachFactory(callFilter, new ExecutionEventNodeFactory() {
+                public ExecutionEventNode create(EventContext context) {
+                    return new CallSiteEventNode(CallTreeProfiler.this);
+                }
+            });
+        }
+    }
+
+    ShadowStack currentStack() {
+        ShadowStack stack = cachedStack;
+        if (stack != null && stack.thread == Thread.currentThread() && !stack.invalidated) {
+            return stack;
+        }
+        return lookupStack();
+    }
+
+    private ShadowStack lookupStack() {
+        ShadowStack stack = threadStack.get();
+        if (stack == null || stack.invalidated) {
+            stack = new ShadowStack(Thread.currentThread(), stackLimit);
+            threadStack.set(stack);
+            synchronized (stacks) {
+                stacks.add(stack);
+            }
+        }
+        cachedStack = stack;
+        return stack;
+    }
+
+    @TruffleBoundary
+    void enter(SourceSection section, String name, boolean compiled) {
+        currentStack().push(section, name, compiled, System.nanoTime());
+    }
+
+    @TruffleBoundary
+    void observe(boolean compiled) {
+        currentStack().observe(compiled, System.nanoTime());
+    }
+
+    @TruffleBoundary
+    void exit(SourceSection section, boolean compiled) {
+        currentStack().pop(section, compiled, System.nanoTime());
+    }
+
+    /**
+     * Per-thread shadow stack. All arrays are allocated up front with the stack limit as capacity;
+     * a call tree node is only allocated the first time a caller &rarr; callee path is seen.
+     */
+    static final class ShadowStack {
+
+        final Thread thread;
+        final CallNode root = new CallNode(null, null, null);
+        private final CallNode[] nodes;
+        /* Time of the last mode observation in the frame, excluding callee time. */
+        private final long[] segmentStart;
+        /* Whether the last mode observation in the frame was made in compiled code. */
+        private final boolean[] segmentCompiled;
+        private int depth;
+        /* Number of frames currently entered beyond the capacity of the stack. */
+        private int overflowDepth;
+        volatile boolean overflowed;
+        volatile boolean invalidated;
+
+        ShadowStack(Thread thread, int capacity) {
+            this.thread = thread;
+            this.nodes = new CallNode[capacity];
+            this.segmentStart = new long[capacity];
+            this.segmentCompiled = new boolean[capacity];
+        }
+
+        void push(SourceSection section, String name, boolean compiled, long time) {
+            if (depth == nodes.length || overflowDepth > 0) {
+                overflowDepth++;
+                overflowed = true;
+                return;
+            }
+            CallNode parent;
+            if (depth > 0) {
+                int top = depth - 1;
+                // the mode of the callee says nothing about the caller unless observed at the call
+                closeSegment(top, false, time);
+                parent = nodes[top];
+            } else {
+                parent = root;
+            }
+            CallNode node = parent.findOrCreateChild(section, name);
+            if (compiled) {
+                node.compiledInvocations++;
+            } else {
+                node.interpretedInvocations++;
+            }
+            nodes[depth] = node;
+            segmentStart[depth] = time;
+            segmentCompiled[depth] = compiled;
+            depth++;
+        }
+
+        void observe(boolean compiled, long time) {
+            if (depth == 0 || overflowDepth > 0) {
+                return;
+            }
+            int top = depth - 1;
+            if (compiled != segmentCompiled[top]) {
+                closeSegment(top, compiled, time);
+                segmentStart[top] = time;
+                segmentCompiled[top] = compiled;
+            }
+        }
+
+        void pop(SourceSection section, boolean compiled, long time) {
+            if (overflowDepth > 0) {
+                overflowDepth--;
+                return;
+            }
+            if (depth == 0) {
+                // entered before collecting was enabled or the data was cleared
+                return;
+            }
+            int top = depth - 1;
+            if (nodes[top].section != section) {
+                // unbalanced events, e.g. enter notifications missed while (re)attaching
+                return;
+            }
+            closeSegment(top, compiled, time);
+            nodes[top] = null;
+            depth--;
+            if (depth > 0) {
+                // resume the caller
+                segmentStart[depth - 1] = time;
+            }
+        }
+
+        private void closeSegment(int index, boolean compiledAtEnd, long time) {
+            long elapsed = time - segmentStart[index];
+            CallNode node = nodes[index];
+            if (compiledAtEnd || segmentCompiled[index]) {
+                node.compiledSelfTime += elapsed;
+            } else {
+                node.interpretedSelfTime += elapsed;
+            }
+        }
+    }
+
+    private static final class RootEventNode extends ExecutionEventNode {
+
+        private final CallTreeProfiler profiler;
+        private final SourceSection section;
+        private final String name;
+
+        RootEventNode(CallTreeProfiler profiler, SourceSection section, String name) {
+            this.profiler = profiler;
+            this.section = section;
+            this.name = name;
+        }
+
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            profiler.enter(section, name, CompilerDirectives.inCompiledCode());
+        }
+
+        @Override
+        protected void onReturnValue(VirtualFrame frame, Object result) {
+            profiler.exit(section, CompilerDirectives.inCompiledCode());
+        }
+
+        @Override
+        protected void onReturnExceptional(VirtualFrame frame, Throwable exception) {
+            profiler.exit(section, CompilerDirectives.inCompiledCode());
+        }
+
+        @Override
+        public NodeCost getCost() {
+            return NodeCost.NONE;
+        }
+    }
+
+    private static final class CallSiteEventNode extends ExecutionEventNode {
+
+        private final CallTreeProfiler profiler;
+
+        CallSiteEventNode(CallTreeProfiler profiler) {
+            this.profiler = profiler;
+        }
+
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            profiler.observe(CompilerDirectives.inCompiledCode());
+        }
+
+        @Override
+        public NodeCost getCost() {
+            return NodeCost.NONE;
+        }
+    }
+
+    /**
+     * A node of the call tree: one distinct path of calls from a root of the tree to a profiled
+     * program element.
+     *
+     * @since 0.27
+     */
+    public static final class CallNode {
+
+        private static final CallNode[] EMPTY = new CallNode[0];
+
+        private final CallNode parent;
+        private final SourceSection section;
+        private final String name;
+        private CallNode[] children = EMPTY;
+        private int childCount;
+        private long interpretedInvocations;
+        private long compiledInvocations;
+        private long interpretedSelfTime;
+        private long compiledSelfTime;
+
+        CallNode(CallNode parent, SourceSection section, String name) {
+            this.parent = parent;
+            this.section = section;
+            this.name = name;
+        }
+
+        CallNode findOrCreateChild(SourceSection childSection, String childName) {
+            for (int i = 0; i < childCount; i++) {
+                CallNode child = children[i];
+                if (child.section == childSection) {
+                    return child;
+                }
+            }
+            CallNode child = new CallNode(this, childSection, childName);
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(4, childCount * 2));
+            }
+            children[childCount++] = child;
+            return child;
+        }
+
+        void merge(CallNode other) {
+            interpretedInvocations += other.interpretedInvocations;
+            compiledInvocations += other.compiledInvocations;
+            interpretedSelfTime += other.interpretedSelfTime;
+            compiledSelfTime += other.compiledSelfTime;
+            CallNode[] otherChildren = other.children;
+            int otherCount = Math.min(other.childCount, otherChildren.length);
+            for (int i = 0; i < otherCount; i++) {
+                CallNode otherChild = otherChildren[i];
+                findOrCreateChild(otherChild.section, otherChild.name).merge(otherChild);
+            }
+        }
+
+        /**
+         * The program element being profiled.
+         *
+         * @since 0.27
+         */
+        public SourceSection getSourceSection() {
+            return section;
+        }
+
+        /**
+         * The name of the method/procedure being profiled.
+         *
+         * @since 0.27
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The caller of this node, or {@code null} for a root of the call tree.
+         *
+         * @since 0.27
+         */
+        public CallNode getParent() {
+            return parent != null && parent.section != null ? parent : null;
+        }
+
+        /**
+         * The callees of this node in the order they were first called.
+         *
+         * @since 0.27
+         */
+        public List<CallNode> getChildren() {
+            return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(children, childCount)));
+        }
+
+        /**
+         * Number of times the program element has been executed on this call path.
+         *
+         * @param kind specifies execution mode for results: slow-path, fast-path, or combined.
+         * @since 0.27
+         */
+        public long getInvocations(TimeKind kind) {
+            switch (kind) {
+                case INTERPRETED_AND_COMPILED:
+                    return interpretedInvocations + compiledInvocations;
+                case COMPILED:
+                    return compiledInvocations;
+                case INTERPRETED:
+                    return interpretedInvocations;
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        /**
+         * Time in nanoseconds spent in the program element itself on this call path, excluding
+         * time spent in callees.
+         *
+         * @param kind specifies execution mode for results: slow-path, fast-path, or combined.
+         * @since 0.27
+         */
+        public long getSelfTime(TimeKind kind) {
+            switch (kind) {
+                case INTERPRETED_AND_COMPILED:
+                    return interpretedSelfTime + compiledSelfTime;
+                case COMPILED:
+                    return compiledSelfTime;
+                case INTERPRETED:
+                    return interpretedSelfTime;
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        /**
+         * Time in nanoseconds spent in the program element on this call path, including all
+         * callees. The time of each callee is accounted to the execution mode of the callee.
+         *
+         * @param kind specifies execution mode for results: slow-path, fast-path, or combined.
+         * @since 0.27
+         */
+        public long getTotalTime(TimeKind kind) {
+            long total = getSelfTime(kind);
+            for (int i = 0; i < childCount; i++) {
+                total += children[i].getTotalTime(kind);
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            return "CallNode[" + name + ", " + getShortDescription(section) + "]";
+        }
+    }
+}
@@ -27,16 +27,19 @@ package com.oracle.truffle.tools;
 import com.oracle.truffle.api.instrumentation.TruffleInstrument;
 import com.oracle.truffle.api.instrumentation.TruffleInstrument.Registration;
 
-@Registration(id = ProfilerInstrument.ID, services = Profiler.class)
+@Registration(id = ProfilerInstrument.ID, services = {Profiler.class, CallTreeProfiler.class})
 public class ProfilerInstrument extends TruffleInstrument {
     static final String ID = "profiler";
 
     private Profiler profiler;
+    private CallTreeProfiler callTreeProfiler;
 
     @Override
     protected void onCreate(Env env) {
         this.profiler = new Profiler(env.getInstrumenter());
         env.registerService(this.profiler);
+        this.callTreeProfiler = new CallTreeProfiler(env.getInstrumenter());
+        env.registerService(this.callTreeProfiler);
     }
 
     @Override
@@ -44,6 +47,9 @@ public class ProfilerInstrument extends TruffleInstrument {
         if (profiler != null) {
             profiler.dispose();
         }
+        if (callTreeProfiler != null) {
+            callTreeProfiler.dispose();
+        }
     }
 
 }